@@ -71,8 +71,13 @@ def preprocess_image(image):
     return binary
 
 
-def extract_text_with_ocr(images):
-    reader = easyocr.Reader(['pt', 'en'], gpu=True)
+def create_ocr_reader():
+    return easyocr.Reader(['pt', 'en'], gpu=True)
+
+
+def extract_text_with_ocr(images, reader=None):
+    if reader is None:
+        reader = create_ocr_reader()
     results = []
 
     def process_image(img):
@@ -104,23 +109,32 @@ def clean_text(text):
     return normalize_text(text.strip())
 
 
-def processar_documento(pdf_content):
+def montar_documento(pdf_content):
     tipo = identificar_tipo_documento(pdf_content)
     documento = {"tipo": tipo, "conteudo": pdf_content}
+    return json.dumps(documento, ensure_ascii=False, indent=4)
 
+
+def processar_documento(pdf_content):
     # Converter para JSON e garantir codificação UTF-8
-    json_data = json.dumps(documento, ensure_ascii=False, indent=4)
+    json_data = montar_documento(pdf_content)
     print(json_data.encode('utf-8').decode('utf-8'))
 
 
-def main(pdf_path):
+def extrair_texto(pdf_path, reader=None):
     texto = extract_text_from_pdf(pdf_path)
 
     if not texto:
         print("Texto vazio. Tentando OCR...")
         images = convert_pdf_to_images(pdf_path)
         if images:
-            texto = extract_text_with_ocr(images)
+            texto = extract_text_with_ocr(images, reader)
+
+    return texto
+
+
+def main(pdf_path):
+    texto = extrair_texto(pdf_path)
 
     if texto:
         processar_documento(texto)
@@ -0,0 +1,72 @@
+"""
+Worker persistente de extração de texto.
+
+Carrega os módulos pesados (cv2, easyocr, fitz, pdf2image) e o modelo do EasyOCR uma única vez e
+atende requisições em JSON, uma por linha, pela entrada padrão. Cada resposta é escrita em uma única
+linha na saída padrão; qualquer outra mensagem (logs, prints das funções de extração) vai para stderr.
+
+Requisições:
+    {"id": "1", "op": "ping"}
+    {"id": "2", "op": "extract", "path": "/caminho/arquivo.pdf"}
+
+Respostas:
+    {"id": "1", "ok": true, "output": "pong"}
+    {"id": "2", "ok": true, "output": "<json do documento>"}
+    {"id": "2", "ok": false, "error": "mensagem"}
+"""
+import contextlib
+import json
+import os
+import sys
+
+from extract_text import create_ocr_reader, extrair_texto, montar_documento
+
+
+def responder(canal, resposta):
+    canal.write(json.dumps(resposta, ensure_ascii=False) + "\n")
+    canal.flush()
+
+
+def atender(requisicao, reader):
+    op = requisicao.get("op")
+    if op == "ping":
+        return {"ok": True, "output": "pong"}
+    if op != "extract":
+        return {"ok": False, "error": f"Operação desconhecida: {op}"}
+
+    pdf_path = requisicao.get("path")
+    if not pdf_path or not os.path.exists(pdf_path):
+        return {"ok": False, "error": f"O arquivo '{pdf_path}' não foi encontrado."}
+
+    texto = extrair_texto(pdf_path, reader)
+    if not texto:
+        return {"ok": False, "error": "Não foi possível extrair texto do PDF."}
+    return {"ok": True, "output": montar_documento(texto)}
+
+
+def main():
+    # Reserva o stdout real para o protocolo; prints das funções de extração vão para stderr
+    canal = sys.stdout
+    sys.stdout = sys.stderr
+
+    reader = create_ocr_reader()
+    responder(canal, {"id": None, "ok": True, "output": "ready"})
+
+    for linha in sys.stdin:
+        linha = linha.strip()
+        if not linha:
+            continue
+        requisicao_id = None
+        try:
+            requisicao = json.loads(linha)
+            requisicao_id = requisicao.get("id")
+            with contextlib.redirect_stdout(sys.stderr):
+                resposta = atender(requisicao, reader)
+        except Exception as e:
+            resposta = {"ok": False, "error": str(e)}
+        resposta["id"] = requisicao_id
+        responder(canal, resposta)
+
+
+if __name__ == "__main__":
+    main()
@@ -0,0 +1,32 @@
+package br.com.groupsoftware.grouppay.extratoremail.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Classe de configuração do cache de extração de texto.
+ *
+ * <p>
+ * O cache guarda o texto normalizado extraído de cada PDF, indexado pelo SHA-256 do arquivo e pela
+ * versão do extrator. As entradas ficam em disco local, limitadas a {@code maxSizeMb} com remoção das
+ * menos usadas (LRU), e podem opcionalmente ser replicadas no bucket S3 de upload.
+ * </p>
+ *
+ * @author Marco Willy
+ * @version 1.0
+ * @since 2025
+ */
+@Configuration
+@ConfigurationProperties(prefix = "extraction-cache")
+@Getter
+@Setter
+public class ExtractionCacheConfig {
+
+    private boolean enabled = true;
+    private String dir = "PDF/cache";
+    private long maxSizeMb = 512;
+    private boolean s3Enabled = false;
+    private String s3Prefix = "extraction-cache/";
+}
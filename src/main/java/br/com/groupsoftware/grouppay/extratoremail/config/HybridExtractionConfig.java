@@ -0,0 +1,30 @@
+package br.com.groupsoftware.grouppay.extratoremail.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Classe de configuração da extração híbrida dos clientes com plano de IA.
+ *
+ * <p>
+ * Com {@code enabled} ativo, os extratores determinísticos são executados antes do modelo de IA. Se todos os
+ * campos obrigatórios forem preenchidos com valor confiável, o modelo não é consultado; se a fração preenchida
+ * for ao menos {@code minScore}, o modelo recebe um prompt reduzido pedindo apenas os campos faltantes. Abaixo
+ * desse limite a extração inteira é feita pelo modelo.
+ * </p>
+ *
+ * @author Marco Willy
+ * @version 1.0
+ * @since 2025
+ */
+@Configuration
+@ConfigurationProperties(prefix = "hybrid-extraction")
+@Getter
+@Setter
+public class HybridExtractionConfig {
+
+    private boolean enabled = true;
+    private double minScore = 0.5;
+}
@@ -0,0 +1,31 @@
+package br.com.groupsoftware.grouppay.extratoremail.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Classe de configuração dos templates de layout por emitente.
+ *
+ * <p>
+ * Um template só é usado na extração depois de {@code minConfirmations} documentos do mesmo emitente e layout
+ * indicarem as mesmas regiões. Somente as primeiras {@code maxPages} páginas são consideradas no aprendizado e
+ * na extração, e um template precisa localizar ao menos {@code minFields} campos da despesa.
+ * </p>
+ *
+ * @author Marco Willy
+ * @version 1.0
+ * @since 2025
+ */
+@Configuration
+@ConfigurationProperties(prefix = "layout-template")
+@Getter
+@Setter
+public class LayoutTemplateConfig {
+
+    private boolean enabled = true;
+    private int minConfirmations = 2;
+    private int maxPages = 3;
+    private int minFields = 3;
+}
@@ -0,0 +1,35 @@
+package br.com.groupsoftware.grouppay.extratoremail.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Classe de configuração do cliente HTTP usado nas chamadas às APIs de IA (OpenAI e Gemini).
+ *
+ * <p>
+ * Cada provedor tem seu próprio pool com até {@code maxConnectionsPerProvider} conexões mantidas abertas
+ * (keep-alive) por até {@code connectionTtlSeconds}; conexões ociosas há mais de {@code idleEvictSeconds} são
+ * fechadas. {@code connectTimeoutMillis} limita o estabelecimento da conexão, {@code poolTimeoutMillis} a espera
+ * por uma conexão livre no pool e {@code responseTimeoutMillis} a espera pela resposta, que nas APIs de IA
+ * pode levar dezenas de segundos.
+ * </p>
+ *
+ * @author Marco Willy
+ * @version 1.0
+ * @since 2025
+ */
+@Configuration
+@ConfigurationProperties(prefix = "llm-http")
+@Getter
+@Setter
+public class LlmHttpConfig {
+
+    private int maxConnectionsPerProvider = 20;
+    private long connectTimeoutMillis = 5_000;
+    private long poolTimeoutMillis = 10_000;
+    private long responseTimeoutMillis = 120_000;
+    private long connectionTtlSeconds = 300;
+    private long idleEvictSeconds = 60;
+}
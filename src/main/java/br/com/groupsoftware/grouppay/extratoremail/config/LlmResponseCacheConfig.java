@@ -0,0 +1,31 @@
+package br.com.groupsoftware.grouppay.extratoremail.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Classe de configuração do cache de respostas dos modelos de IA.
+ *
+ * <p>
+ * As respostas ficam na tabela {@code tb_llm_response_cache} por {@code ttlDays} dias. A cada
+ * {@code evictionIntervalMs} as entradas vencidas são removidas e, se ainda houver mais de {@code maxEntries},
+ * as menos usadas também.
+ * </p>
+ *
+ * @author Marco Willy
+ * @version 1.0
+ * @since 2025
+ */
+@Configuration
+@ConfigurationProperties(prefix = "llm-response-cache")
+@Getter
+@Setter
+public class LlmResponseCacheConfig {
+
+    private boolean enabled = true;
+    private long ttlDays = 30;
+    private int maxEntries = 50_000;
+    private long evictionIntervalMs = 3_600_000;
+}
@@ -0,0 +1,65 @@
+package br.com.groupsoftware.grouppay.extratoremail.config;
+
+import br.com.groupsoftware.grouppay.extratoremail.domain.enums.ExpenseType;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Classe de configuração do processamento de OCR.
+ *
+ * <p>
+ * Centraliza os parâmetros do OCR por página, como a quantidade máxima de páginas processadas
+ * para cada tipo de documento. Tipos sem valor configurado usam {@code defaultMaxPages}.
+ * </p>
+ * <p>
+ * As resoluções em {@code dpiLevels} são tentadas em ordem crescente: a página sobe para o próximo nível
+ * somente quando a confiança média das palavras fica abaixo de {@code minConfidence} ou quando nenhum
+ * dado-chave (data, valor, CNPJ/CPF) é reconhecido.
+ * </p>
+ * <p>
+ * O escalonador usa {@code workers} threads (quantidade de processadores quando zero) e mantém no máximo
+ * {@code queueCapacity} tarefas em fila; novas submissões aguardam até {@code submitTimeoutSeconds} por espaço.
+ * Cada {@code agingStepMillis} de espera soma um ponto à prioridade da tarefa (zero desativa), para que tarefas
+ * de planos menores não fiquem indefinidamente atrás das de planos maiores.
+ * </p>
+ * <p>
+ * Os processos externos (pdftoppm/Tesseract) são encerrados após {@code processTimeoutSeconds}.
+ * </p>
+ *
+ * @author Marco Willy
+ * @version 1.0
+ * @since 2025
+ */
+@Configuration
+@ConfigurationProperties(prefix = "ocr")
+@Getter
+@Setter
+public class OcrConfig {
+
+    private int defaultMaxPages = 20;
+    private Map<ExpenseType, Integer> maxPages = new EnumMap<>(ExpenseType.class);
+    private List<Integer> dpiLevels = List.of(150, 300);
+    private double minConfidence = 70;
+    private int workers = 0;
+    private int queueCapacity = 200;
+    private long submitTimeoutSeconds = 30;
+    private long agingStepMillis = 1000;
+    private long processTimeoutSeconds = 300;
+
+    public int getMaxPages(ExpenseType type) {
+        if (type == null) {
+            return defaultMaxPages;
+        }
+        return maxPages.getOrDefault(type, defaultMaxPages);
+    }
+
+    public int getLowestDpi() {
+        return dpiLevels.stream().min(Integer::compare).orElse(300);
+    }
+}
@@ -0,0 +1,57 @@
+package br.com.groupsoftware.grouppay.extratoremail.config;
+
+import br.com.groupsoftware.grouppay.extratoremail.util.extractor.PatternRegistry;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Classe de configuração do {@link PatternRegistry}.
+ *
+ * <p>
+ * Define o número máximo de padrões compilados mantidos em memória ({@code maxSize}) e publica as métricas
+ * {@code regex.pattern.cache.hits}, {@code regex.pattern.cache.misses}, {@code regex.pattern.cache.evictions}
+ * e {@code regex.pattern.cache.size}.
+ * </p>
+ *
+ * @author Marco Willy
+ * @version 1.0
+ * @since 2025
+ */
+@Configuration
+@ConfigurationProperties(prefix = "pattern-registry")
+@Getter
+@Setter
+public class PatternRegistryConfig {
+
+    private int maxSize = 512;
+
+    @PostConstruct
+    void applyMaxSize() {
+        PatternRegistry.setMaxSize(maxSize);
+    }
+
+    @Bean
+    public MeterBinder patternRegistryMetrics() {
+        return registry -> {
+            FunctionCounter.builder("regex.pattern.cache.hits", PatternRegistry.class, type -> PatternRegistry.hitCount())
+                    .description("Padrões encontrados já compilados")
+                    .register(registry);
+            FunctionCounter.builder("regex.pattern.cache.misses", PatternRegistry.class, type -> PatternRegistry.missCount())
+                    .description("Padrões compilados por não estarem no registro")
+                    .register(registry);
+            FunctionCounter.builder("regex.pattern.cache.evictions", PatternRegistry.class, type -> PatternRegistry.evictionCount())
+                    .description("Padrões removidos pelo limite de tamanho")
+                    .register(registry);
+            Gauge.builder("regex.pattern.cache.size", PatternRegistry::size)
+                    .description("Padrões compilados mantidos no registro")
+                    .register(registry);
+        };
+    }
+}
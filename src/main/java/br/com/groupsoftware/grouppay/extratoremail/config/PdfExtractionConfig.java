@@ -0,0 +1,42 @@
+package br.com.groupsoftware.grouppay.extratoremail.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Classe de configuração do uso de memória na leitura de PDFs pelo PDFBox.
+ *
+ * <p>
+ * Os documentos são abertos em modo misto: até {@code mainMemoryMb} em memória e o restante em arquivo
+ * temporário em {@code tempDir} (diretório temporário do sistema quando vazio). Somente as primeiras
+ * {@code headPages} páginas e a última página são extraídas, já que os dados de cobrança ficam no início
+ * ou no fim do documento.
+ * </p>
+ * <p>
+ * {@code inFlightBudgetMb} limita a soma do tamanho dos arquivos abertos simultaneamente; novos documentos
+ * aguardam até que haja orçamento livre. Um documento maior que o orçamento inteiro é processado sozinho.
+ * </p>
+ * <p>
+ * Com {@code symbolDecoding} ativo, as páginas sem camada de texto são renderizadas em {@code symbolDpi} para
+ * leitura do código de barras antes do OCR.
+ * </p>
+ *
+ * @author Marco Willy
+ * @version 1.0
+ * @since 2025
+ */
+@Configuration
+@ConfigurationProperties(prefix = "pdf-extraction")
+@Getter
+@Setter
+public class PdfExtractionConfig {
+
+    private long mainMemoryMb = 16;
+    private String tempDir;
+    private int headPages = 30;
+    private long inFlightBudgetMb = 256;
+    private boolean symbolDecoding = true;
+    private float symbolDpi = 200;
+}
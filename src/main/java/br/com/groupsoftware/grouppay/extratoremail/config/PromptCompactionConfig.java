@@ -0,0 +1,42 @@
+package br.com.groupsoftware.grouppay.extratoremail.config;
+
+import br.com.groupsoftware.grouppay.extratoremail.domain.enums.AiPlanType;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Classe de configuração da compactação do texto enviado aos modelos de IA.
+ *
+ * <p>
+ * {@code tokenBudget} define, por plano de IA, a quantidade máxima estimada de tokens do texto do documento no
+ * prompt; planos sem orçamento configurado usam {@code defaultTokenBudget}. {@code contextLines} é a quantidade
+ * de linhas mantidas antes e depois de cada linha com dados ou termos do tipo de documento.
+ * </p>
+ *
+ * @author Marco Willy
+ * @version 1.0
+ * @since 2025
+ */
+@Configuration
+@ConfigurationProperties(prefix = "prompt-compaction")
+@Getter
+@Setter
+public class PromptCompactionConfig {
+
+    private boolean enabled = true;
+    private int contextLines = 2;
+    private int defaultTokenBudget = 4_000;
+    private Map<AiPlanType, Integer> tokenBudget = new EnumMap<>(Map.of(
+            AiPlanType.BASIC, 4_000,
+            AiPlanType.COMPLETE, 12_000
+    ));
+
+    public int tokenBudgetFor(AiPlanType planType) {
+        return tokenBudget.getOrDefault(planType != null ? planType : AiPlanType.BASIC, defaultTokenBudget);
+    }
+}
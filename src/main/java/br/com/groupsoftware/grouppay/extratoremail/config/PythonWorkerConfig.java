@@ -0,0 +1,35 @@
+package br.com.groupsoftware.grouppay.extratoremail.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Classe de configuração do pool de workers Python de extração de texto.
+ *
+ * <p>
+ * Cada worker é um processo Python de longa duração que carrega os modelos uma única vez e atende
+ * requisições em JSON por linha (stdin/stdout). {@code poolSize} limita a quantidade de extrações
+ * simultâneas; {@code requestTimeoutSeconds} é o tempo máximo de cada requisição, após o qual o
+ * worker é encerrado e substituído.
+ * </p>
+ *
+ * @author Marco Willy
+ * @version 1.0
+ * @since 2025
+ */
+@Configuration
+@ConfigurationProperties(prefix = "python.worker")
+@Getter
+@Setter
+public class PythonWorkerConfig {
+
+    private boolean enabled = true;
+    private String script = "python-scripts/extract_text_worker.py";
+    private int poolSize = 2;
+    private long startupTimeoutSeconds = 120;
+    private long requestTimeoutSeconds = 120;
+    private long acquireTimeoutSeconds = 60;
+    private long healthCheckIntervalMs = 60000;
+}
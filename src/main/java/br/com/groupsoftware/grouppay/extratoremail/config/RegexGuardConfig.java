@@ -0,0 +1,72 @@
+package br.com.groupsoftware.grouppay.extratoremail.config;
+
+import br.com.groupsoftware.grouppay.extratoremail.util.extractor.SafeRegex;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.config.MeterFilter;
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Classe de configuração do {@link SafeRegex}.
+ *
+ * <p>
+ * Define o limite de passos por caractere do texto ({@code stepsPerChar}, com piso {@code minSteps}) e o
+ * tempo máximo de cada busca ({@code timeoutMillis}). Publica as métricas {@code regex.match} (duração das
+ * buscas) e {@code regex.match.exceeded} (buscas interrompidas), com o nome da busca na tag {@code pattern}:
+ * o texto da expressão não vai para as tags, pois os padrões da tabela {@code tb_regex} são editáveis por cliente
+ * e todos aparecem como {@link SafeRegex#REGEX_TABLE}. A quantidade de nomes distintos nas tags das duas métricas
+ * é limitada ainda por {@code maxPatternTags}.
+ * </p>
+ *
+ * @author Marco Willy
+ * @version 1.0
+ * @since 2025
+ */
+@Configuration
+@ConfigurationProperties(prefix = "regex-guard")
+@Getter
+@Setter
+public class RegexGuardConfig {
+
+    private long stepsPerChar = 1_000;
+    private long minSteps = 1_000_000;
+    private long timeoutMillis = 2_000;
+    private int maxPatternTags = 200;
+
+    @PostConstruct
+    void applyLimits() {
+        SafeRegex.configure(stepsPerChar, minSteps, timeoutMillis);
+    }
+
+    @Bean
+    public MeterBinder regexGuardMetrics() {
+        return registry -> SafeRegex.setRecorder((name, pattern, nanos, exceeded) -> {
+            Timer.builder("regex.match")
+                    .description("Duração das buscas por expressão regular")
+                    .tag("pattern", name)
+                    .register(registry)
+                    .record(nanos, TimeUnit.NANOSECONDS);
+            if (exceeded) {
+                Counter.builder("regex.match.exceeded")
+                        .description("Buscas interrompidas pelo limite de passos ou de tempo")
+                        .tag("pattern", name)
+                        .register(registry)
+                        .increment();
+            }
+        });
+    }
+
+    // O prefixo cobre regex.match e regex.match.exceeded
+    @Bean
+    public MeterFilter regexGuardTagLimit() {
+        return MeterFilter.maximumAllowableTags("regex.match", "pattern", maxPatternTags, MeterFilter.deny());
+    }
+}
@@ -0,0 +1,42 @@
+package br.com.groupsoftware.grouppay.extratoremail.controller;
+
+import br.com.groupsoftware.grouppay.extratoremail.domain.model.dto.RegexSnapshotDTO;
+import br.com.groupsoftware.grouppay.extratoremail.service.ServiceFacade;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controlador administrativo do snapshot em memória da tabela de regex.
+ * <p>
+ * Permite consultar a versão carregada e forçar a recarga logo após uma alteração na tabela,
+ * sem aguardar a próxima verificação periódica.
+ * </p>
+ *
+ * @author Marco Willy
+ * @version 1.0
+ * @since 2025
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/regex")
+@RequiredArgsConstructor
+public class RegexController {
+
+    private final ServiceFacade facade;
+
+    @GetMapping("/snapshot")
+    public ResponseEntity<RegexSnapshotDTO> snapshot() {
+        return ResponseEntity.ok(facade.regexSnapshot.current());
+    }
+
+    @PostMapping("/snapshot/reload")
+    public ResponseEntity<RegexSnapshotDTO> reload() {
+        log.info("Recarga do snapshot de regex solicitada.");
+        return ResponseEntity.ok(facade.regexSnapshot.reload());
+    }
+}
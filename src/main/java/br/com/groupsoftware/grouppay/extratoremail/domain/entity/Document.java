@@ -4,6 +4,8 @@ import br.com.groupsoftware.grouppay.extratoremail.domain.enums.DocumentExtracto
 import br.com.groupsoftware.grouppay.extratoremail.domain.enums.DocumentStage;
 import br.com.groupsoftware.grouppay.extratoremail.domain.enums.ExpenseType;
 import br.com.groupsoftware.grouppay.extratoremail.domain.enums.Status;
+import br.com.groupsoftware.grouppay.extratoremail.util.document.TextFingerprintUtil;
+import br.com.groupsoftware.grouppay.extratoremail.util.extractor.TokenIndex;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
@@ -78,6 +80,11 @@ public class Document implements Serializable {
     @Column(name = "TEXT_EXTRACTED", columnDefinition = "LONGTEXT")
     private String textExtracted;
 
+    // SHA-256 do texto extraído, mantido junto com textExtracted para a detecção de duplicados
+    @Column(name = "TEXT_FINGERPRINT", length = 64)
+    @Setter(AccessLevel.NONE)
+    private String textFingerprint;
+
     @Enumerated(EnumType.STRING)
     @Column(name = "EXPENSE_TYPE")
     private ExpenseType expenseType;
@@ -104,6 +111,13 @@ public class Document implements Serializable {
     @Column(name = "DOCUMENT_STATUS")
     private Status status;
 
+    // Índice de datas, valores e CNPJs de textExtracted, montado uma vez e compartilhado pelos extratores
+    @Transient
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private transient TokenIndex tokenIndex;
+
     @PrePersist
     @PreUpdate
     public void addStageHistoryEntry() {
@@ -121,6 +135,25 @@ public class Document implements Serializable {
         stagesHistory.add(historyEntry);
     }
 
+    public void setTextExtracted(String textExtracted) {
+        this.textExtracted = textExtracted;
+        this.textFingerprint = TextFingerprintUtil.fingerprint(textExtracted);
+        this.tokenIndex = null;
+    }
+
+    /**
+     * Retorna o índice do texto extraído, montado na primeira consulta e refeito se o texto for substituído.
+     */
+    @JsonIgnore
+    public TokenIndex getTokenIndex() {
+        TokenIndex index = tokenIndex;
+        if (index == null || !index.isIndexOf(textExtracted)) {
+            index = TokenIndex.of(textExtracted);
+            tokenIndex = index;
+        }
+        return index;
+    }
+
     /**
      * Retorna o caminho local do arquivo.
      * Se a Company já foi identificada, usa o diretório da ClientGroup.
@@ -0,0 +1,65 @@
+package br.com.groupsoftware.grouppay.extratoremail.domain.entity;
+
+import br.com.groupsoftware.grouppay.extratoremail.domain.enums.ExpenseType;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Entidade que armazena o template de layout de um emitente.
+ * <p>
+ * Guarda, para cada combinação de CNPJ emitente, impressão digital do layout e tipo de despesa, a posição
+ * (página e retângulo) de cada campo da despesa, aprendida a partir de documentos extraídos com sucesso.
+ * O template só é utilizado após {@code confirmations} documentos consecutivos indicarem as mesmas regiões.
+ * </p>
+ *
+ * @author Marco Willy
+ * @version 1.0
+ * @since 2025
+ */
+@Entity
+@Table(name = "tb_issuer_layout_template",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"ISSUER_CNPJ", "LAYOUT_FINGERPRINT", "EXPENSE_TYPE"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IssuerLayoutTemplate implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "ID")
+    private Long id;
+
+    @Column(name = "ISSUER_CNPJ", nullable = false)
+    private String issuerCnpj;
+
+    @Column(name = "LAYOUT_FINGERPRINT", nullable = false)
+    private String layoutFingerprint;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "EXPENSE_TYPE", nullable = false)
+    private ExpenseType expenseType;
+
+    // Lista de regiões por campo, em JSON
+    @Column(name = "FIELD_REGIONS", columnDefinition = "LONGTEXT", nullable = false)
+    private String fieldRegions;
+
+    @Column(name = "CONFIRMATIONS", nullable = false)
+    private int confirmations;
+
+    @Column(name = "HITS", nullable = false)
+    private long hits;
+
+    @UpdateTimestamp
+    @Column(name = "UPDATED_AT", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,48 @@
+package br.com.groupsoftware.grouppay.extratoremail.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Entidade que armazena o perfil de OCR de um emitente.
+ * <p>
+ * Guarda a resolução (DPI) que foi necessária para obter um OCR confiável nos documentos de um
+ * determinado CNPJ emitente, para que os próximos documentos do mesmo emitente já comecem nesse nível.
+ * </p>
+ *
+ * @author Marco Willy
+ * @version 1.0
+ * @since 2025
+ */
+@Entity
+@Table(name = "tb_issuer_ocr_profile")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IssuerOcrProfile implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "ID")
+    private Long id;
+
+    @Column(name = "ISSUER_CNPJ", unique = true, nullable = false)
+    private String issuerCnpj;
+
+    @Column(name = "OCR_DPI", nullable = false)
+    private int ocrDpi;
+
+    @UpdateTimestamp
+    @Column(name = "UPDATED_AT", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,75 @@
+package br.com.groupsoftware.grouppay.extratoremail.domain.entity;
+
+import br.com.groupsoftware.grouppay.extratoremail.domain.enums.ExpenseType;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Entidade que armazena a resposta de um modelo de IA para um texto de documento.
+ * <p>
+ * A chave é o SHA-256 do texto normalizado, do tipo de despesa, da versão do prompt (modelo de mensagem e suas
+ * regras) e do nome do modelo de IA, de forma que reprocessamentos e textos idênticos recebidos por outros
+ * clientes reutilizem a resposta já paga. {@code totalTokens} guarda o consumo da chamada original, contabilizado
+ * como economia a cada reutilização.
+ * </p>
+ *
+ * @author Marco Willy
+ * @version 1.0
+ * @since 2025
+ */
+@Entity
+@Table(name = "tb_llm_response_cache")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LlmResponseCacheEntry implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "ID")
+    private Long id;
+
+    @Column(name = "CACHE_KEY", nullable = false, unique = true)
+    private String cacheKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "EXPENSE_TYPE", nullable = false)
+    private ExpenseType expenseType;
+
+    @Column(name = "MODEL_NAME", nullable = false)
+    private String modelName;
+
+    @Column(name = "PROMPT_VERSION", nullable = false)
+    private String promptVersion;
+
+    // Corpo da resposta da API, sem alterações
+    @Column(name = "RESPONSE_BODY", columnDefinition = "LONGTEXT", nullable = false)
+    private String responseBody;
+
+    @Column(name = "TOTAL_TOKENS", nullable = false)
+    private long totalTokens;
+
+    @Column(name = "HITS", nullable = false)
+    private long hits;
+
+    @CreationTimestamp
+    @Column(name = "CREATED_AT", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    // Último uso; na criação recebe a data de gravação, para a ordem de remoção das menos usadas
+    @Column(name = "LAST_HIT_AT")
+    private LocalDateTime lastHitAt;
+
+    @Column(name = "EXPIRES_AT", nullable = false)
+    private LocalDateTime expiresAt;
+}
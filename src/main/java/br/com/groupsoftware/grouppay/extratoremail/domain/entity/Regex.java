@@ -19,6 +19,7 @@ import java.io.Serializable;
  * @since 2024
  */
 @Entity
+@EntityListeners(RegexChangeListener.class)
 @Table(name = "tb_regex", uniqueConstraints = {
         @UniqueConstraint(columnNames = {"TYPE", "IBGE_CODE"})
 })
@@ -0,0 +1,26 @@
+package br.com.groupsoftware.grouppay.extratoremail.domain.entity;
+
+import br.com.groupsoftware.grouppay.extratoremail.util.extractor.PatternRegistry;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Listener JPA que descarta os padrões compilados quando um {@link Regex} é incluído, alterado ou removido.
+ *
+ * @author Marco Willy
+ * @version 1.0
+ * @since 2025
+ */
+@Slf4j
+public class RegexChangeListener {
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    void onChange(Regex regex) {
+        log.info("Regex {} ({}/{}) alterado; descartando padrões compilados.", regex.getId(), regex.getExpenseType(), regex.getIbgeCode());
+        PatternRegistry.invalidateAll();
+    }
+}
@@ -4,7 +4,8 @@ package br.com.groupsoftware.grouppay.extratoremail.domain.enums;
  * Enumeração que representa as possíveis origens de integração no sistema.
  * <p>
  * Define os diferentes tipos de extratores de documentos utilizados no sistema,
- * como PDFBox, OCR, OpenAI e Python.
+ * como PDFBox, OCR, OpenAI e Python, além dos templates de layout por emitente e da leitura de códigos
+ * de barras e QR Codes.
  * </p>
  *
  * @author Marco Willy
@@ -12,5 +13,5 @@ package br.com.groupsoftware.grouppay.extratoremail.domain.enums;
  * @since 2024
  */
 public enum DocumentExtractorType {
-    PDFBOX, OCR, OPENAI, PYTHON, TIKA
+    PDFBOX, OCR, OPENAI, PYTHON, TIKA, TEMPLATE, SYMBOL
 }
@@ -0,0 +1,59 @@
+package br.com.groupsoftware.grouppay.extratoremail.domain.model;
+
+import br.com.groupsoftware.grouppay.extratoremail.domain.entity.Regex;
+import br.com.groupsoftware.grouppay.extratoremail.domain.enums.ExpenseType;
+
+import java.util.function.BiConsumer;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Cópia imutável de um registro de {@link Regex} com as expressões já compiladas, usada pelos extratores.
+ * <p>
+ * Os padrões são compilados uma vez, na carga do snapshot, com {@link Pattern#CASE_INSENSITIVE}; a cópia não
+ * depende da entidade JPA nem de um cache com remoção. Expressões vazias ou inválidas ficam nulas, e o campo
+ * correspondente simplesmente não é extraído.
+ * </p>
+ *
+ * @author Marco Willy
+ * @version 1.0
+ * @since 2025
+ */
+public record CompiledRegex(Long id,
+                            ExpenseType expenseType,
+                            String ibgeCode,
+                            Pattern issuerCNPJ,
+                            Pattern totalValue,
+                            Pattern dueDate,
+                            Pattern issueDate,
+                            Pattern number,
+                            Pattern issuerName,
+                            Pattern serie) {
+
+    /**
+     * Compila as expressões do registro, informando cada expressão inválida ao {@code onInvalid} (expressão e
+     * erro de sintaxe).
+     */
+    public static CompiledRegex of(Regex regex, BiConsumer<String, PatternSyntaxException> onInvalid) {
+        return new CompiledRegex(regex.getId(), regex.getExpenseType(), regex.getIbgeCode(),
+                compile(regex.getIssuerCNPJ(), onInvalid),
+                compile(regex.getTotalValue(), onInvalid),
+                compile(regex.getDueDate(), onInvalid),
+                compile(regex.getIssueDate(), onInvalid),
+                compile(regex.getNumber(), onInvalid),
+                compile(regex.getIssuerName(), onInvalid),
+                compile(regex.getSerie(), onInvalid));
+    }
+
+    private static Pattern compile(String expression, BiConsumer<String, PatternSyntaxException> onInvalid) {
+        if (expression == null || expression.isEmpty()) {
+            return null;
+        }
+        try {
+            return Pattern.compile(expression, Pattern.CASE_INSENSITIVE);
+        } catch (PatternSyntaxException e) {
+            onInvalid.accept(expression, e);
+            return null;
+        }
+    }
+}
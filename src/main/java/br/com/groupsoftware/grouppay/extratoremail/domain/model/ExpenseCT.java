@@ -21,6 +21,7 @@ import java.math.BigDecimal;
 @Data
 @ToString(callSuper = true)
 public class ExpenseCT extends Expense {
+    private String chaveAcesso;
     private String remetente;
     private String veiculo;
     private BigDecimal pesoCarga;
@@ -1,5 +1,7 @@
 package br.com.groupsoftware.grouppay.extratoremail.domain.model.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.*;
 
 import java.io.Serializable;
@@ -9,6 +11,7 @@ import java.util.List;
  * Classe de request que representa uma requisição para a API da OpenAI.
  * <p>
  * Contém os campos necessários para enviar uma solicitação à API, incluindo o modelo e a lista de mensagens.
+ * {@code prompt_cache_key} agrupa as requisições com o mesmo prefixo de prompt no cache de prefixo da OpenAI.
  * </p>
  *
  * @author Marco Willy
@@ -23,5 +26,9 @@ import java.util.List;
 public class OpenAIDTO implements Serializable {
     public String model;
     public List<OpenAIMessageDTO> messages;
+
+    @JsonProperty("prompt_cache_key")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public String promptCacheKey;
 }
 
@@ -0,0 +1,27 @@
+package br.com.groupsoftware.grouppay.extratoremail.domain.model.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO com a situação do snapshot em memória da tabela de regex.
+ * <p>
+ * {@code version} identifica o conteúdo da tabela no momento da carga (SHA-256 de todos os registros);
+ * {@code entries} é a quantidade de regex carregadas.
+ * </p>
+ *
+ * @author Marco Willy
+ * @version 1.0
+ * @since 2025
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@ToString
+public class RegexSnapshotDTO {
+    private String version;
+    private int entries;
+    private LocalDateTime loadedAt;
+}
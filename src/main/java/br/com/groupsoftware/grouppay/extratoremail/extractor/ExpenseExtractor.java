@@ -2,14 +2,16 @@ package br.com.groupsoftware.grouppay.extratoremail.extractor;
 
 import br.com.groupsoftware.grouppay.extratoremail.domain.entity.Document;
 import br.com.groupsoftware.grouppay.extratoremail.domain.model.Expense;
+import br.com.groupsoftware.grouppay.extratoremail.util.brazil.ChaveAcessoUtil;
+import br.com.groupsoftware.grouppay.extratoremail.util.brazil.ChaveAcessoUtil.ChaveAcesso;
+import br.com.groupsoftware.grouppay.extratoremail.util.extractor.SafeRegex;
+import br.com.groupsoftware.grouppay.extratoremail.util.extractor.TokenIndex;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-import java.util.regex.Matcher;
+import java.time.YearMonth;
+import java.util.Comparator;
+import java.util.Optional;
 import java.util.regex.Pattern;
 
 /**
@@ -28,21 +30,18 @@ import java.util.regex.Pattern;
 public interface ExpenseExtractor {
     Expense getExpense(Document document);
 
-    default String extractByPattern(String text, String pattern) {
-        if (pattern == null || pattern.isEmpty()) {
+    default String extractByPattern(String text, Pattern pattern) {
+        if (pattern == null) {
             return null;
         }
-        Pattern compiledPattern = Pattern.compile(pattern, Pattern.CASE_INSENSITIVE);
-        Matcher matcher = compiledPattern.matcher(text);
-        if (matcher.find()) {
-            if (matcher.groupCount() >= 1 && matcher.group(1) != null) {
-                return matcher.group(1).trim();
-            }
-        }
-        return null;
+        // Padrões da tabela tb_regex são editáveis por cliente; a busca é limitada em passos e tempo
+        return SafeRegex.find(SafeRegex.REGEX_TABLE, pattern, text)
+                .filter(match -> match.groupCount() >= 1 && match.group(1) != null)
+                .map(match -> match.group(1).trim())
+                .orElse(null);
     }
 
-    default LocalDate extractDate(String text, String pattern) {
+    default LocalDate extractDate(String text, Pattern pattern) {
         String dateStr = extractByPattern(text, pattern);
         if (dateStr != null) {
             return LocalDate.parse(dateStr, java.time.format.DateTimeFormatter.ofPattern("dd/MM/yyyy"));
@@ -50,7 +49,7 @@ public interface ExpenseExtractor {
         return null;
     }
 
-    default BigDecimal extractValueByPattern(String text, String pattern) {
+    default BigDecimal extractValueByPattern(String text, Pattern pattern) {
         String valueStr = extractByPattern(text, pattern);
         if (valueStr != null && !valueStr.isEmpty()) {
             valueStr = valueStr.replaceAll("[^0-9,.]", "");
@@ -63,98 +62,100 @@ public interface ExpenseExtractor {
         return null;
     }
 
-    default String extractIssuerName(String text, String pattern) {
-        if (pattern == null || pattern.isEmpty()) {
+    default String extractIssuerName(String text, Pattern pattern) {
+        if (pattern == null) {
             return null;
         }
-        Pattern compiledPattern = Pattern.compile(pattern, Pattern.CASE_INSENSITIVE);
-        Matcher matcher = compiledPattern.matcher(text);
-        if (matcher.find() && matcher.groupCount() >= 1 && matcher.group(1) != null) {
-            return matcher.group(1).trim().replaceAll("\\s{2,}", " ");
-        }
-        return null;
+        return SafeRegex.find(SafeRegex.REGEX_TABLE, pattern, text)
+                .filter(match -> match.groupCount() >= 1 && match.group(1) != null)
+                .map(match -> match.group(1).trim().replaceAll("\\s{2,}", " "))
+                .orElse(null);
     }
 
 
     default LocalDate defaultDueDate(String text) {
-        List<LocalDate> datas = new ArrayList<>();
-        Pattern dataPattern = Pattern.compile("(\\d{2}/\\d{2}/\\d{4})");
-        Matcher dataMatcher = dataPattern.matcher(text);
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-        while (dataMatcher.find()) {
-            String dataStr = dataMatcher.group(1);
-            try {
-                LocalDate data = LocalDate.parse(dataStr, formatter);
-                datas.add(data);
-            } catch (Exception ignored) {
-            }
-        }
-        if (!datas.isEmpty()) {
-            Collections.sort(datas);
-            return datas.getFirst();
-        }
-        return null;
+        return defaultDueDate(TokenIndex.of(text));
+    }
+
+    /**
+     * Menor data do texto indexado.
+     */
+    default LocalDate defaultDueDate(TokenIndex tokens) {
+        return tokens.earliestDate().orElse(null);
     }
 
     default BigDecimal defaultTotalValue(String text) {
-        List<BigDecimal> valores = new ArrayList<>();
-        Pattern valorPattern = Pattern.compile("([0-9]{1,3}(?:\\.[0-9]{3})*,[0-9]{2})");
-        Matcher valorMatcher = valorPattern.matcher(text);
-        while (valorMatcher.find()) {
-            String valorStr = valorMatcher.group(1).replaceAll("\\.", "").replace(",", ".");
-            try {
-                BigDecimal valor = new BigDecimal(valorStr);
-                valores.add(valor);
-            } catch (NumberFormatException ignored) {}
-        }
-        if (!valores.isEmpty()) {
-            return valores.stream().max(BigDecimal::compareTo).orElse(null);
-        }
-        return null;
+        return defaultTotalValue(TokenIndex.of(text));
+    }
+
+    /**
+     * Maior valor monetário do texto indexado.
+     */
+    default BigDecimal defaultTotalValue(TokenIndex tokens) {
+        return tokens.largestAmount().orElse(null);
     }
 
     default String defaultIssuerCNPJ(String text) {
-        Pattern pattern = Pattern.compile("(\\d{2}[.\\-]?\\d{3}[.\\-]?\\d{3}[/\\-]?\\d{4}[\\-/]?\\d{2})");
-        Matcher matcher = pattern.matcher(text);
-        if (matcher.find()) {
-            return matcher.group(1).replaceAll("\\D", "");
-        }
-        return null;
+        return defaultIssuerCNPJ(TokenIndex.of(text));
     }
 
     /**
-     * Extrai a chave de acesso de documentos fiscais eletrônicos (44 dígitos).
-     * A chave pode estar com ou sem espaços no documento.
+     * Primeiro CNPJ do texto indexado, dando preferência ao primeiro com dígitos verificadores válidos.
+     */
+    default String defaultIssuerCNPJ(TokenIndex tokens) {
+        return tokens.firstCnpj().orElse(null);
+    }
+
+    /**
+     * Extrai a chave de acesso de documentos fiscais eletrônicos (44 posições).
+     * A chave pode estar com ou sem espaços no documento e só é aceita se o dígito verificador conferir.
      *
      * @param text Texto do documento
-     * @return Chave de acesso com 44 dígitos, ou null se não encontrada
+     * @return Chave de acesso sem espaços, ou null se não encontrada
      */
     default String extractChaveAcesso(String text) {
-        // Tenta encontrar após os termos "Chave de Acesso" ou "CHAVE"
-        Pattern pattern = Pattern.compile("(?:Chave\\s+de\\s+Acesso|CHAVE)[:\\s]*([0-9\\s]{44,60})", Pattern.CASE_INSENSITIVE);
-        Matcher matcher = pattern.matcher(text);
-        if (matcher.find()) {
-            String chave = matcher.group(1).replaceAll("\\s", "");
-            if (chave.length() == 44) {
-                return chave;
-            }
-        }
+        return ChaveAcessoUtil.find(text).map(ChaveAcesso::chave).orElse(null);
+    }
 
-        // Procura por sequência de 44 dígitos com ou sem espaços
-        Pattern pattern44 = Pattern.compile("([0-9\\s]{50,70})");
-        Matcher matcher44 = pattern44.matcher(text);
-        while (matcher44.find()) {
-            String candidate = matcher44.group(1).replaceAll("\\s", "");
-            if (candidate.length() == 44) {
-                // Valida se parece uma chave de acesso (começa com código UF válido)
-                String uf = candidate.substring(0, 2);
-                int ufCode = Integer.parseInt(uf);
-                if (ufCode >= 11 && ufCode <= 53) { // Códigos UF válidos
-                    return candidate;
-                }
-            }
-        }
+    /**
+     * Preenche emitente, número e série a partir da chave de acesso encontrada no texto. Os dados da chave são
+     * validados pelo dígito verificador e prevalecem sobre os extraídos por expressão regular. A data de emissão
+     * é conferida com o ano e mês da chave (AAMM), ver {@link #issueDateOf(LocalDate, YearMonth, TokenIndex)}.
+     *
+     * @param expense Despesa a ser preenchida
+     * @param text    Texto do documento
+     * @param tokens  Índice do texto do documento, o mesmo usado pelos demais campos
+     * @return Chave decodificada, ou vazio se o texto não contiver uma chave válida
+     */
+    default Optional<ChaveAcesso> applyChaveAcesso(Expense expense, String text, TokenIndex tokens) {
+        Optional<ChaveAcesso> chave = ChaveAcessoUtil.find(text);
+        chave.ifPresent(found -> {
+            expense.setCnpjCpfEmitente(found.cnpjCpfEmitente());
+            expense.setNumero(found.numero());
+            expense.setSerie(found.serie());
+            expense.setDataEmissao(issueDateOf(expense.getDataEmissao(), found.emissao(), tokens));
+        });
+        return chave;
+    }
 
-        return null;
+    /**
+     * Data de emissão conferida com o ano e mês da chave de acesso. A data extraída é mantida quando cai nesse
+     * mês; ausente ou fora dele, só é substituída pela menor data do texto no mês da chave. Sem data do texto
+     * nesse mês, a data extraída é mantida, mesmo nula, para não inventar uma data que não está no documento.
+     *
+     * @param extracted Data extraída por expressão regular ou pela menor data do texto, pode ser nula
+     * @param emissao   Ano e mês de emissão da chave de acesso
+     * @param tokens    Índice do texto do documento
+     * @return Data de emissão conferida, ou a extraída se o texto não tiver data no mês da chave
+     */
+    default LocalDate issueDateOf(LocalDate extracted, YearMonth emissao, TokenIndex tokens) {
+        if (extracted != null && YearMonth.from(extracted).equals(emissao)) {
+            return extracted;
+        }
+        return tokens.dates().stream()
+                .map(TokenIndex.Token::value)
+                .filter(date -> YearMonth.from(date).equals(emissao))
+                .min(Comparator.naturalOrder())
+                .orElse(extracted);
     }
 }
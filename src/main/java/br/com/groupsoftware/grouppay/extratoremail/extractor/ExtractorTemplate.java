@@ -1,9 +1,10 @@
 package br.com.groupsoftware.grouppay.extratoremail.extractor;
 
+import br.com.groupsoftware.grouppay.extratoremail.domain.entity.City;
 import br.com.groupsoftware.grouppay.extratoremail.domain.entity.Document;
-import br.com.groupsoftware.grouppay.extratoremail.domain.entity.Regex;
 import br.com.groupsoftware.grouppay.extratoremail.domain.enums.ExpenseType;
-import br.com.groupsoftware.grouppay.extratoremail.repository.RepositoryFacade;
+import br.com.groupsoftware.grouppay.extratoremail.domain.model.CompiledRegex;
+import br.com.groupsoftware.grouppay.extratoremail.service.RegexSnapshotService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
@@ -12,7 +13,8 @@ import org.springframework.stereotype.Component;
  * Classe abstrata que serve como template para a extração de dados utilizando padrões regex,
  * baseando-se no tipo de despesa e no subtipo do documento.
  * <p>
- * Esta classe fornece um método para recuperar um objeto {@link Regex} do repositório subjacente.
+ * Esta classe fornece um método para recuperar um {@link CompiledRegex} do snapshot em memória da tabela de regex
+ * ({@link RegexSnapshotService}), sem acesso ao banco por documento.
  * Se um regex para o subtipo especificado não for encontrado, será utilizado o regex padrão para o tipo de despesa.
  * As classes que estendem este template devem implementar a lógica específica de extração.
  * </p>
@@ -26,17 +28,14 @@ import org.springframework.stereotype.Component;
 @RequiredArgsConstructor
 public abstract class ExtractorTemplate {
 
-    private final RepositoryFacade facade;
+    private final RegexSnapshotService regexSnapshot;
 
-    protected Regex getRegexByDocumentTypeAndRegion(ExpenseType expenseType, String ibgeCode) {
-        Regex regex = facade.regex.findByExpenseTypeAndIbgeCode(expenseType, ibgeCode);
-        if (regex == null) {
-            regex = facade.regex.findByExpenseTypeAndIbgeCode(expenseType, "DEFAULT");
-        }
-        return regex;
+    protected CompiledRegex getRegexByDocumentTypeAndRegion(ExpenseType expenseType, String ibgeCode) {
+        return regexSnapshot.find(expenseType, ibgeCode).orElse(null);
     }
 
-    protected Regex getRegexByDocument(Document document) {
-        return getRegexByDocumentTypeAndRegion(document.getExpenseType(), String.valueOf(document.getCompany().getCity().getIbgeCode()));
+    protected CompiledRegex getRegexByDocument(Document document) {
+        City city = document.getCompany() != null ? document.getCompany().getCity() : null;
+        return getRegexByDocumentTypeAndRegion(document.getExpenseType(), city != null ? String.valueOf(city.getIbgeCode()) : null);
     }
-}
+}
\ No newline at end of file
@@ -0,0 +1,105 @@
+package br.com.groupsoftware.grouppay.extratoremail.extractor.core;
+
+import br.com.groupsoftware.grouppay.extratoremail.util.brazil.BoletoUtil.Boleto;
+import br.com.groupsoftware.grouppay.extratoremail.util.brazil.ChaveAcessoUtil.QrCodeNfce;
+import br.com.groupsoftware.grouppay.extratoremail.util.brazil.CpfCnpjUtil;
+import br.com.groupsoftware.grouppay.extratoremail.util.brazil.PixUtil.Pix;
+import br.com.groupsoftware.grouppay.extratoremail.util.extractor.TokenIndex;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Códigos lidos das páginas de um PDF pelo {@link SymbolExtractor}, já validados pelos dígitos verificadores.
+ * <p>
+ * {@link #asText()} descreve os códigos com os mesmos rótulos impressos nos documentos, para que o texto seja
+ * acrescentado ao texto extraído e interpretado pelos extratores existentes sem depender do OCR.
+ * </p>
+ *
+ * @param boletos código de barras de boletos e guias de arrecadação
+ * @param nfce    QR Code de consulta da NFC-e
+ * @param pix     BR Code do PIX
+ * @author Marco Willy
+ * @version 1.0
+ * @since 2025
+ */
+public record DecodedSymbols(List<Boleto> boletos, List<QrCodeNfce> nfce, List<Pix> pix) {
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final Locale PT_BR = Locale.of("pt", "BR");
+
+    public static DecodedSymbols empty() {
+        return new DecodedSymbols(List.of(), List.of(), List.of());
+    }
+
+    public boolean isEmpty() {
+        return boletos.isEmpty() && nfce.isEmpty() && pix.isEmpty();
+    }
+
+    /**
+     * Indica se os códigos determinam sozinhos a despesa descrita no texto das páginas lidas: um único código de
+     * barras de boleto ou QR Code de NFC-e, com valor, e esse mesmo valor presente no texto. Os códigos não trazem
+     * emitente, destinatário nem os demais dados impressos; sem texto que os confirme, o OCR continua necessário.
+     *
+     * @param pageText texto das páginas com camada de texto
+     */
+    public boolean determinesExpense(String pageText) {
+        if (pageText == null || pageText.isBlank()) {
+            return false;
+        }
+        List<BigDecimal> values = new ArrayList<>();
+        boletos.forEach(boleto -> values.add(boleto.valor()));
+        nfce.forEach(qrCode -> values.add(qrCode.valor()));
+        if (values.size() != 1 || values.get(0) == null || values.get(0).signum() <= 0) {
+            return false;
+        }
+        BigDecimal value = values.get(0);
+        return TokenIndex.of(pageText).amounts().stream().anyMatch(amount -> amount.value().compareTo(value) == 0);
+    }
+
+    public String asText() {
+        StringBuilder text = new StringBuilder();
+        for (Boleto boleto : boletos) {
+            text.append("Código de barras lido da imagem\n");
+            text.append("Linha Digitável: ").append(boleto.linhaDigitavel()).append('\n');
+            text.append("Código de Barras: ").append(boleto.codigoBarras()).append('\n');
+            appendDate(text, "Vencimento", boleto.vencimento());
+            appendAmount(text, "Valor do Documento", boleto.valor());
+            text.append('\n');
+        }
+        for (QrCodeNfce qrCode : nfce) {
+            text.append("NFC-e - QR Code lido da imagem\n");
+            text.append("Chave de Acesso: ").append(qrCode.chave().chave().replaceAll("(.{4})(?!$)", "$1 ")).append('\n');
+            text.append("CNPJ: ").append(CpfCnpjUtil.format(qrCode.chave().cnpjCpfEmitente())).append('\n');
+            text.append("Número: ").append(qrCode.chave().numero()).append(" Série: ").append(qrCode.chave().serie()).append('\n');
+            appendDate(text, "Data de Emissão", qrCode.dataEmissao());
+            appendAmount(text, "Valor Total", qrCode.valor());
+            text.append('\n');
+        }
+        for (Pix payload : pix) {
+            text.append("PIX Copia e Cola: ").append(payload.payload()).append('\n');
+            if (payload.nomeRecebedor() != null) {
+                text.append("Recebedor: ").append(payload.nomeRecebedor()).append('\n');
+            }
+            appendAmount(text, "Valor", payload.valor());
+            text.append('\n');
+        }
+        return text.toString().trim();
+    }
+
+    private static void appendDate(StringBuilder text, String label, LocalDate date) {
+        if (date != null) {
+            text.append(label).append(": ").append(date.format(DATE_FORMAT)).append('\n');
+        }
+    }
+
+    private static void appendAmount(StringBuilder text, String label, BigDecimal amount) {
+        if (amount != null) {
+            text.append(label).append(": R$ ").append(String.format(PT_BR, "%,.2f", amount)).append('\n');
+        }
+    }
+}
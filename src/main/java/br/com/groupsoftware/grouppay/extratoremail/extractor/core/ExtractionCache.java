@@ -0,0 +1,32 @@
+package br.com.groupsoftware.grouppay.extratoremail.extractor.core;
+
+import br.com.groupsoftware.grouppay.extratoremail.domain.enums.DocumentExtractorType;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Interface que define o contrato do cache de resultados de extração de texto de PDFs.
+ * <p>
+ * As entradas são indexadas pelo SHA-256 do conteúdo do arquivo e pela versão do extrator, de forma que
+ * reprocessamentos (novas tentativas após erro, anexos duplicados, reprocessamento manual) reutilizem o
+ * texto já extraído sem executar PDFBox ou OCR novamente.
+ * </p>
+ *
+ * @author Marco Willy
+ * @version 1.0
+ * @since 2025
+ */
+public interface ExtractionCache {
+
+    String contentHash(File pdfFile) throws IOException;
+
+    Optional<CachedExtraction> get(String contentHash, String extractorVersion);
+
+    void put(String contentHash, String extractorVersion, CachedExtraction extraction);
+
+    record CachedExtraction(String text, List<DocumentExtractorType> extractorTypes) {
+    }
+}
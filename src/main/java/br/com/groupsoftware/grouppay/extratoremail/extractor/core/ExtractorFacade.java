@@ -25,4 +25,5 @@ public class ExtractorFacade {
     public final InvoiceFacade invoice;
     public final SlipFacade slip;
     public final OcrExtractor ocr;
+    public final LayoutTemplateExtractor layout;
 }
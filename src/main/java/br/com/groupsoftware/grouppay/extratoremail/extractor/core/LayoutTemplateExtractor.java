@@ -0,0 +1,54 @@
+package br.com.groupsoftware.grouppay.extratoremail.extractor.core;
+
+import br.com.groupsoftware.grouppay.extratoremail.domain.entity.Document;
+import br.com.groupsoftware.grouppay.extratoremail.domain.enums.ExpenseType;
+import br.com.groupsoftware.grouppay.extratoremail.domain.model.Expense;
+
+import java.util.Optional;
+
+/**
+ * Interface que define o contrato da extração por template de layout do emitente.
+ * <p>
+ * Emitentes recorrentes (concessionárias, bancos, administradoras) mantêm o mesmo layout entre documentos.
+ * As regiões de cada campo são aprendidas a partir de documentos extraídos com sucesso e, nos documentos
+ * seguintes do mesmo emitente e layout, os campos são lidos diretamente dessas regiões, sem regex por
+ * documento inteiro, OCR de página inteira ou chamadas ao LLM.
+ * </p>
+ * <p>
+ * A extração e o aprendizado de um mesmo documento são feitos na mesma {@link Session}, que abre o PDF e lê as
+ * posições do texto no máximo uma vez.
+ * </p>
+ *
+ * @author Marco Willy
+ * @version 1.0
+ * @since 2025
+ */
+public interface LayoutTemplateExtractor {
+
+    /**
+     * Abre a sessão de template do documento. O PDF só é aberto quando a sessão precisar dele.
+     */
+    Session open(Document document, ExpenseType type);
+
+    /**
+     * Sessão de template de um documento, que deve ser fechada ao final do processamento.
+     */
+    interface Session extends AutoCloseable {
+
+        /**
+         * Extrai a despesa pelo template confirmado do emitente e layout do documento.
+         *
+         * @return a despesa, ou vazio se não houver template confirmado, algum campo não puder ser lido ou
+         * validado, ou faltar algum campo obrigatório do tipo de documento
+         */
+        Optional<Expense> extract();
+
+        /**
+         * Aprende ou confirma as regiões dos campos a partir de uma despesa extraída por outro meio.
+         */
+        void learn(Expense expense);
+
+        @Override
+        void close();
+    }
+}
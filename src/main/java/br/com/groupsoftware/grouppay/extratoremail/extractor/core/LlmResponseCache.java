@@ -0,0 +1,34 @@
+package br.com.groupsoftware.grouppay.extratoremail.extractor.core;
+
+import br.com.groupsoftware.grouppay.extratoremail.domain.enums.ExpenseType;
+
+import java.util.Optional;
+
+/**
+ * Interface que define o contrato do cache de respostas dos modelos de IA.
+ * <p>
+ * As respostas são indexadas pelo texto normalizado do documento (espaços consecutivos reduzidos a um), pelo
+ * tipo de despesa, pela versão do prompt e pelo nome do modelo, de forma que reprocessamentos, reenvios e textos
+ * idênticos recebidos por outros clientes não paguem novamente pela mesma chamada.
+ * </p>
+ *
+ * @author Marco Willy
+ * @version 1.0
+ * @since 2025
+ */
+public interface LlmResponseCache {
+
+    /**
+     * Chave da resposta no cache (SHA-256 em hexadecimal).
+     */
+    String key(String text, ExpenseType type, String promptVersion, String modelName);
+
+    Optional<String> get(String key);
+
+    /**
+     * Grava a resposta da API.
+     *
+     * @param totalTokens tokens consumidos pela chamada, contabilizados como economia a cada reutilização
+     */
+    void put(String key, ExpenseType type, String promptVersion, String modelName, String responseBody, long totalTokens);
+}
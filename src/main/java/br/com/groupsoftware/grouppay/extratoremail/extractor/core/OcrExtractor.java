@@ -1,6 +1,7 @@
 package br.com.groupsoftware.grouppay.extratoremail.extractor.core;
 
 import java.util.concurrent.Future;
+import java.util.function.IntSupplier;
 
 /**
  * Interface que define o contrato para extração de conteúdo textual de arquivos PDF,
@@ -11,6 +12,32 @@ import java.util.concurrent.Future;
  * @since 2024
  */
 public interface OcrExtractor {
-    Future<String> submitOcrTask(String username, String pdfName);
+
+    /**
+     * Imagem de uma página já renderizada, gravada no mesmo diretório do PDF.
+     *
+     * @param fileName nome do arquivo da imagem
+     * @param dpi      resolução em que a página foi renderizada
+     */
+    record PageImage(String fileName, int dpi) {
+    }
+
+    Future<String> submitOcrTask(String username, String pdfName, OcrTaskPriority priority);
+
+    /**
+     * Submete o OCR de uma única página (numeração a partir de 1) ao pool de OCR.
+     * A página é renderizada a partir da resolução informada por {@code startDpi} (consultada somente quando
+     * a tarefa começa a executar) e reprocessada em resoluções maiores enquanto a confiança for insuficiente.
+     * Cancelar o {@link Future} retornado retira a tarefa da fila ou encerra o processo em execução.
+     * <p>
+     * Com {@code renderedImage} informada e em resolução não inferior à inicial, a primeira tentativa usa essa
+     * imagem em vez de renderizar a página; a imagem não é apagada pela tarefa.
+     * </p>
+     *
+     * @param renderedImage imagem já renderizada da página, ou {@code null}
+     * @throws java.util.concurrent.RejectedExecutionException se a fila de OCR continuar cheia
+     */
+    Future<OcrPageResult> submitOcrPageTask(String username, String pdfName, int page, IntSupplier startDpi,
+                                            OcrTaskPriority priority, PageImage renderedImage);
 }
 
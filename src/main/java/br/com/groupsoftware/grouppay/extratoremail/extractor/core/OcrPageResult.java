@@ -0,0 +1,19 @@
+package br.com.groupsoftware.grouppay.extratoremail.extractor.core;
+
+/**
+ * Resultado do OCR de uma página.
+ *
+ * @param page       número da página (a partir de 1)
+ * @param text       texto reconhecido, ou {@code null} se o OCR falhar
+ * @param dpi        resolução utilizada na tentativa aceita
+ * @param confidence confiança média das palavras reconhecidas (0 a 100)
+ * @author Marco Willy
+ * @version 1.0
+ * @since 2025
+ */
+public record OcrPageResult(int page, String text, int dpi, double confidence) {
+
+    public static OcrPageResult failed(int page) {
+        return new OcrPageResult(page, null, 0, 0);
+    }
+}
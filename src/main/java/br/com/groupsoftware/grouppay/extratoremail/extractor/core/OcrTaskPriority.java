@@ -0,0 +1,88 @@
+package br.com.groupsoftware.grouppay.extratoremail.extractor.core;
+
+import br.com.groupsoftware.grouppay.extratoremail.domain.entity.ClientGroup;
+import br.com.groupsoftware.grouppay.extratoremail.domain.entity.Document;
+import br.com.groupsoftware.grouppay.extratoremail.domain.entity.DocumentStageHistory;
+import br.com.groupsoftware.grouppay.extratoremail.domain.enums.AiPlanType;
+import br.com.groupsoftware.grouppay.extratoremail.domain.enums.DocumentStage;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Objects;
+
+/**
+ * Prioridade de uma tarefa de OCR no escalonador.
+ * <p>
+ * O {@code tenant} identifica o ClientGroup dono do documento e é usado no rodízio entre clientes. O
+ * {@code score} ordena as tarefas (maior primeiro) e é composto por:
+ * </p>
+ * <ul>
+ *     <li>plano de IA: completo 300, básico 200, sem IA 100;</li>
+ *     <li>proximidade do vencimento: até 50 pontos, 5 a menos por dia restante (vencidos recebem 50);</li>
+ *     <li>reprocessamentos: 10 pontos a menos por falha anterior, até 50, para que reprocessamentos
+ *     sucessivos não atrasem documentos novos.</li>
+ * </ul>
+ *
+ * @param tenant identificador do ClientGroup
+ * @param score  pontuação de prioridade (maior é atendido primeiro)
+ * @author Marco Willy
+ * @version 1.0
+ * @since 2025
+ */
+public record OcrTaskPriority(String tenant, int score) {
+
+    private static final String DEFAULT_TENANT = "default";
+    private static final int MAX_DUE_DATE_BONUS = 50;
+    private static final int DUE_DATE_BONUS_PER_DAY = 5;
+    private static final int RETRY_PENALTY = 10;
+    private static final int MAX_RETRY_PENALTY = 50;
+
+    public static final OcrTaskPriority DEFAULT = new OcrTaskPriority(DEFAULT_TENANT, 100);
+
+    /**
+     * Calcula a prioridade do documento.
+     *
+     * @param dueDate vencimento já identificado no texto, ou {@code null} se desconhecido
+     */
+    public static OcrTaskPriority of(Document document, LocalDate dueDate) {
+        ClientGroup clientGroup = Objects.nonNull(document.getClientGroup())
+                ? document.getClientGroup()
+                : document.getCompany() != null ? document.getCompany().getClientGroup() : null;
+        if (clientGroup == null) {
+            return DEFAULT;
+        }
+        int score = planScore(clientGroup) + dueDateBonus(dueDate) - retryPenalty(document);
+        return new OcrTaskPriority(Objects.requireNonNullElse(clientGroup.getUuid(), DEFAULT_TENANT), score);
+    }
+
+    private static int planScore(ClientGroup clientGroup) {
+        if (!clientGroup.isAiUser()) {
+            return 100;
+        }
+        return AiPlanType.COMPLETE.equals(clientGroup.getAiPlanType()) ? 300 : 200;
+    }
+
+    private static int dueDateBonus(LocalDate dueDate) {
+        if (dueDate == null) {
+            return 0;
+        }
+        long days = ChronoUnit.DAYS.between(LocalDate.now(), dueDate);
+        return (int) Math.max(0, MAX_DUE_DATE_BONUS - Math.max(0, days) * DUE_DATE_BONUS_PER_DAY);
+    }
+
+    // Conta as transições para ERRO; o histórico pode repetir o mesmo estágio em gravações seguidas
+    private static int retryPenalty(Document document) {
+        if (document.getStagesHistory() == null) {
+            return 0;
+        }
+        int retries = 0;
+        DocumentStage previous = null;
+        for (DocumentStageHistory entry : document.getStagesHistory()) {
+            if (DocumentStage.ERRO.equals(entry.getStage()) && !DocumentStage.ERRO.equals(previous)) {
+                retries++;
+            }
+            previous = entry.getStage();
+        }
+        return Math.min(MAX_RETRY_PENALTY, retries * RETRY_PENALTY);
+    }
+}
@@ -4,6 +4,8 @@ import br.com.groupsoftware.grouppay.extratoremail.domain.entity.Document;
 import br.com.groupsoftware.grouppay.extratoremail.domain.enums.ExpenseType;
 import br.com.groupsoftware.grouppay.extratoremail.domain.model.Expense;
 
+import java.util.Set;
+
 /**
  * Interface que define o contrato para extração de despesas a partir de textos de documentos NF3.
  * Implementações desta interface devem transformar o conteúdo textual em uma instância de {@link Expense}.
@@ -14,4 +16,12 @@ import br.com.groupsoftware.grouppay.extratoremail.domain.model.Expense;
  */
 public interface OpenAiExtractor {
     Expense getExpense(Document document, ExpenseType type);
+
+    /**
+     * Pede ao modelo somente os campos informados e os preenche na despesa já extraída, sem alterar os demais.
+     *
+     * @param fields nomes das propriedades JSON da despesa que devem ser extraídas
+     * @return a própria despesa recebida, com os campos encontrados pelo modelo
+     */
+    Expense completeExpense(Document document, ExpenseType type, Expense expense, Set<String> fields);
 }
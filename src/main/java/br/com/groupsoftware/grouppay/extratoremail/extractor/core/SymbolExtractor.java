@@ -0,0 +1,42 @@
+package br.com.groupsoftware.grouppay.extratoremail.extractor.core;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+
+import java.awt.image.BufferedImage;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Interface que define o contrato da leitura de códigos (código de barras, QR Code e PIX) das páginas de um PDF.
+ * <p>
+ * Boletos digitalizados e DANFEs de NFC-e costumam trazer no código de barras ou no QR Code exatamente os dados
+ * que o OCR da página inteira deixa de reconhecer. Os códigos lidos são validados e devolvidos em
+ * {@link DecodedSymbols}.
+ * </p>
+ *
+ * @author Marco Willy
+ * @version 1.0
+ * @since 2025
+ */
+public interface SymbolExtractor {
+
+    /**
+     * Recebe cada página renderizada para a leitura do código de barras, para que a mesma imagem seja
+     * reaproveitada pelo OCR em vez de renderizar a página de novo.
+     */
+    @FunctionalInterface
+    interface RenderedPageConsumer {
+        void accept(int page, BufferedImage image, int dpi);
+    }
+
+    /**
+     * Lê os códigos das páginas informadas de um documento já aberto.
+     *
+     * @param pages          páginas (a partir de 1) cujos links são verificados
+     * @param renderedPages  páginas renderizadas para leitura do código de barras, normalmente as sem camada de texto
+     * @param renderedImages recebe a imagem de cada página renderizada
+     * @return códigos válidos encontrados; nunca {@code null}
+     */
+    DecodedSymbols decode(PDDocument document, List<Integer> pages, Collection<Integer> renderedPages,
+                          RenderedPageConsumer renderedImages);
+}
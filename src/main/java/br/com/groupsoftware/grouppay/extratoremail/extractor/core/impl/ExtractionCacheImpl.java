@@ -0,0 +1,210 @@
+package br.com.groupsoftware.grouppay.extratoremail.extractor.core.impl;
+
+import br.com.groupsoftware.grouppay.extratoremail.config.ExtractionCacheConfig;
+import br.com.groupsoftware.grouppay.extratoremail.extractor.core.ExtractionCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Implementação do cache de extração de texto em disco local com réplica opcional no S3.
+ * <p>
+ * Cada entrada é um arquivo JSON nomeado por {@code <sha256>-<versão>.json}. Um índice em memória
+ * ordenado por acesso mantém o tamanho total do diretório e remove as entradas menos usadas quando o
+ * limite configurado é ultrapassado. Com o S3 habilitado, as entradas também são gravadas no bucket de
+ * upload e, em caso de ausência local, buscadas de lá e trazidas para o disco.
+ * </p>
+ *
+ * @author Marco Willy
+ * @version 1.0
+ * @since 2025
+ */
+@Slf4j
+@Component
+class ExtractionCacheImpl implements ExtractionCache {
+
+    private static final String ENTRY_EXTENSION = ".json";
+
+    private final ExtractionCacheConfig config;
+    private final ObjectMapper objectMapper;
+    private final S3Client s3Client;
+    private final String bucketName;
+
+    // Índice LRU: chave da entrada -> tamanho em bytes (ordem de acesso)
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+    private Path cacheDir;
+
+    public ExtractionCacheImpl(
+            ExtractionCacheConfig config,
+            ObjectMapper objectMapper,
+            @Value("${aws.s3-upload.bucket-name}") String bucketName,
+            @Value("${aws.s3-upload.access-key-id}") String accessKeyId,
+            @Value("${aws.s3-upload.secret-access-key}") String secretAccessKey,
+            @Value("${aws.s3-upload.region}") String region) {
+        this.config = config;
+        this.objectMapper = objectMapper;
+        this.bucketName = bucketName;
+        this.s3Client = config.isEnabled() && config.isS3Enabled()
+                ? S3Client.builder()
+                .region(Region.of(region))
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKeyId, secretAccessKey)))
+                .build()
+                : null;
+    }
+
+    @PostConstruct
+    void loadIndex() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        cacheDir = Paths.get(config.getDir());
+        try {
+            Files.createDirectories(cacheDir);
+            try (Stream<Path> files = Files.list(cacheDir)) {
+                List<Path> cached = files.filter(file -> file.getFileName().toString().endsWith(ENTRY_EXTENSION))
+                        .sorted(Comparator.comparingLong(file -> file.toFile().lastModified()))
+                        .toList();
+                synchronized (entries) {
+                    for (Path file : cached) {
+                        register(entryKey(file), file.toFile().length());
+                    }
+                    evictIfNeeded();
+                }
+            }
+            log.info("Cache de extração carregado de {}: {} entradas, {} bytes.", cacheDir.toAbsolutePath(), entries.size(), totalBytes);
+        } catch (IOException e) {
+            log.error("Erro ao carregar o cache de extração em {}: {}", cacheDir, e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public String contentHash(File pdfFile) throws IOException {
+        try (InputStream inputStream = Files.newInputStream(pdfFile.toPath())) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível na JVM.", e);
+        }
+    }
+
+    @Override
+    public Optional<CachedExtraction> get(String contentHash, String extractorVersion) {
+        if (!config.isEnabled() || cacheDir == null) {
+            return Optional.empty();
+        }
+        String key = contentHash + "-" + extractorVersion;
+        Path file = cacheDir.resolve(key + ENTRY_EXTENSION);
+        try {
+            boolean indexed;
+            synchronized (entries) {
+                indexed = entries.get(key) != null;
+            }
+            if (indexed && Files.exists(file)) {
+                return Optional.of(objectMapper.readValue(file.toFile(), CachedExtraction.class));
+            }
+            if (s3Client != null) {
+                byte[] content = s3Client.getObjectAsBytes(GetObjectRequest.builder()
+                        .bucket(bucketName)
+                        .key(config.getS3Prefix() + key + ENTRY_EXTENSION)
+                        .build()).asByteArray();
+                writeLocal(key, content);
+                return Optional.of(objectMapper.readValue(content, CachedExtraction.class));
+            }
+        } catch (NoSuchKeyException e) {
+            log.debug("Entrada {} não encontrada no cache S3.", key);
+        } catch (Exception e) {
+            log.warn("Erro ao ler a entrada {} do cache de extração: {}", key, e.getMessage());
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public void put(String contentHash, String extractorVersion, CachedExtraction extraction) {
+        if (!config.isEnabled() || cacheDir == null) {
+            return;
+        }
+        String key = contentHash + "-" + extractorVersion;
+        try {
+            byte[] content = objectMapper.writeValueAsBytes(extraction);
+            writeLocal(key, content);
+            if (s3Client != null) {
+                s3Client.putObject(PutObjectRequest.builder()
+                        .bucket(bucketName)
+                        .key(config.getS3Prefix() + key + ENTRY_EXTENSION)
+                        .build(), RequestBody.fromBytes(content));
+            }
+        } catch (Exception e) {
+            log.warn("Erro ao gravar a entrada {} no cache de extração: {}", key, e.getMessage());
+        }
+    }
+
+    private void writeLocal(String key, byte[] content) throws IOException {
+        Path file = cacheDir.resolve(key + ENTRY_EXTENSION);
+        Path tempFile = Files.createTempFile(cacheDir, key, ".tmp");
+        Files.write(tempFile, content);
+        Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        synchronized (entries) {
+            register(key, content.length);
+            evictIfNeeded();
+        }
+    }
+
+    private void register(String key, long size) {
+        Long previous = entries.put(key, size);
+        totalBytes += size - (previous != null ? previous : 0);
+    }
+
+    private void evictIfNeeded() {
+        long maxBytes = config.getMaxSizeMb() * 1024 * 1024;
+        Iterator<Map.Entry<String, Long>> iterator = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && iterator.hasNext()) {
+            Map.Entry<String, Long> eldest = iterator.next();
+            iterator.remove();
+            totalBytes -= eldest.getValue();
+            try {
+                Files.deleteIfExists(cacheDir.resolve(eldest.getKey() + ENTRY_EXTENSION));
+            } catch (IOException e) {
+                log.warn("Falha ao remover a entrada {} do cache de extração: {}", eldest.getKey(), e.getMessage());
+            }
+        }
+    }
+
+    private String entryKey(Path file) {
+        String fileName = file.getFileName().toString();
+        return fileName.substring(0, fileName.length() - ENTRY_EXTENSION.length());
+    }
+}
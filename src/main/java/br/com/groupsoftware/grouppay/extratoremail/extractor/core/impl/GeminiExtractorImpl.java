@@ -20,7 +20,6 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.HttpClientErrorException;
-import org.springframework.web.client.RestTemplate;
 
 import java.util.Collections;
 import java.util.HashMap;
@@ -45,6 +44,8 @@ public class GeminiExtractorImpl implements GeminiExtractor {
     private final GeminiConfig config;
     private final ObjectMapper objectMapper;
     private final RepositoryFacade repository;
+    private final LlmHttpClient httpClient;
+    private final LlmPromptCompactor promptCompactor;
 
     @Override
     public Expense getExpense(Document document, ExpenseType type) {
@@ -53,7 +54,7 @@ public class GeminiExtractorImpl implements GeminiExtractor {
             AIMessageModel aiMessageModel = repository.aiMessageModel
                     .findByExpenseTypeAndPlanType(type, planType != null ? planType : AiPlanType.BASIC);
 
-            String extractedText = document.getTextExtracted();
+            String extractedText = promptCompactor.compact(document, type, planType, LlmHttpClient.Provider.GEMINI);
             String safeExtractedText = extractedText.substring(0, Math.min(65500, extractedText.length()));
 
             String requestBody = buildRequestBody(safeExtractedText, aiMessageModel);
@@ -71,10 +72,9 @@ public class GeminiExtractorImpl implements GeminiExtractor {
 
     private ResponseEntity<String> sendRequest(String requestBody) {
         try {
-            RestTemplate restTemplate = new RestTemplate();
             HttpHeaders headers = createHeaders();
             HttpEntity<String> entity = new HttpEntity<>(requestBody, headers);
-            return restTemplate.postForEntity(config.getUrl(), entity, String.class);
+            return httpClient.post(LlmHttpClient.Provider.GEMINI, config.getUrl(), entity);
         } catch (Exception e) {
             log.error("Erro ao enviar a requisição para a API do Gemini: {}", e.getMessage(), e);
             throw new RuntimeException("Falha ao enviar a requisição para a API do Gemini.");
@@ -127,6 +127,7 @@ public class GeminiExtractorImpl implements GeminiExtractor {
         return headers;
     }
 
+    // Texto do documento no fim, depois da parte fixa do prompt, para aproveitar o cache de prefixo do Gemini
     private String getUserMessage(String extractedText, AIMessageModel aiMessageModel) {
         return String.format(
                 """
@@ -178,13 +179,13 @@ public class GeminiExtractorImpl implements GeminiExtractor {
 
                         %s
 
-                        ### Texto do PDF:
+                        ### Exemplo JSON (Molde):
                         %s
 
-                        ### Exemplo JSON (Molde):
+                        ### Texto do PDF:
                         %s
                         """,
-                aiMessageModel.getRules(), extractedText, aiMessageModel.getJsonModel()
+                aiMessageModel.getRules(), aiMessageModel.getJsonModel(), extractedText
         );
     }
 
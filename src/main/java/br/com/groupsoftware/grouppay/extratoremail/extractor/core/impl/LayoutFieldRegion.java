@@ -0,0 +1,45 @@
+package br.com.groupsoftware.grouppay.extratoremail.extractor.core.impl;
+
+import java.awt.geom.Rectangle2D;
+
+/**
+ * Região de um campo da despesa em um template de layout.
+ * <p>
+ * As coordenadas seguem o PDFBox ({@code XDirAdj}/{@code YDirAdj}): origem no canto superior esquerdo da
+ * página, em pontos. {@code length} guarda a quantidade de dígitos esperada para campos {@link Kind#DIGITS} e o
+ * tamanho, só com letras e dígitos, do texto aprendido para campos {@link Kind#TEXT}.
+ * </p>
+ *
+ * @author Marco Willy
+ * @version 1.0
+ * @since 2025
+ */
+record LayoutFieldRegion(String field, Kind kind, int page, float x, float y, float width, float height, int length) {
+
+    // Tolerância, em pontos, para considerar duas regiões do mesmo campo equivalentes
+    private static final float SAME_POSITION_TOLERANCE = 12f;
+
+    enum Kind {
+        DATE, MONEY, DIGITS, TEXT
+    }
+
+    Rectangle2D toRectangle() {
+        return new Rectangle2D.Float(x, y, width, height);
+    }
+
+    boolean samePosition(LayoutFieldRegion other) {
+        return field.equals(other.field)
+                && kind == other.kind
+                && page == other.page
+                && Math.abs(centerX() - other.centerX()) <= SAME_POSITION_TOLERANCE
+                && Math.abs(centerY() - other.centerY()) <= SAME_POSITION_TOLERANCE;
+    }
+
+    private float centerX() {
+        return x + width / 2;
+    }
+
+    private float centerY() {
+        return y + height / 2;
+    }
+}
@@ -0,0 +1,571 @@
+package br.com.groupsoftware.grouppay.extratoremail.extractor.core.impl;
+
+import br.com.groupsoftware.grouppay.extratoremail.config.LayoutTemplateConfig;
+import br.com.groupsoftware.grouppay.extratoremail.domain.entity.Document;
+import br.com.groupsoftware.grouppay.extratoremail.domain.entity.IssuerLayoutTemplate;
+import br.com.groupsoftware.grouppay.extratoremail.domain.enums.DocumentExtractorType;
+import br.com.groupsoftware.grouppay.extratoremail.domain.enums.ExpenseType;
+import br.com.groupsoftware.grouppay.extratoremail.domain.model.*;
+import br.com.groupsoftware.grouppay.extratoremail.extractor.core.LayoutTemplateExtractor;
+import br.com.groupsoftware.grouppay.extratoremail.repository.RepositoryFacade;
+import br.com.groupsoftware.grouppay.extratoremail.util.brazil.BoletoUtil;
+import br.com.groupsoftware.grouppay.extratoremail.util.brazil.ChaveAcessoUtil;
+import br.com.groupsoftware.grouppay.extratoremail.util.brazil.CpfCnpjUtil;
+import br.com.groupsoftware.grouppay.extratoremail.util.extractor.ExpenseCompleteness;
+import br.com.groupsoftware.grouppay.extratoremail.util.extractor.TokenIndex;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDDocumentInformation;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.text.PDFTextStripperByArea;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.awt.geom.Rectangle2D;
+import java.beans.PropertyDescriptor;
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Implementação da extração por template de layout do emitente.
+ * <p>
+ * O template é identificado pelo CNPJ do emitente, pela impressão digital do layout (produtor/criador do PDF e
+ * geometria da primeira página) e pelo tipo de despesa. No aprendizado, o emitente é o CNPJ validado da despesa
+ * extraída e cada campo escalar dela (datas, valores e textos) é localizado no PDF e tem sua região registrada;
+ * um novo documento com as mesmas regiões confirma o template, e regiões diferentes o reiniciam. Na extração, os
+ * templates são procurados em uma única consulta por todos os CNPJs válidos do texto, já que o primeiro CNPJ do
+ * documento pode ser o do destinatário.
+ * </p>
+ * <p>
+ * As regiões são lidas com {@link PDFTextStripperByArea} e cada valor é validado conforme o tipo do campo: datas
+ * em um intervalo plausível, chave de acesso, linha digitável, código de barras e CNPJ/CPF pelos dígitos
+ * verificadores e textos pelo tamanho aprendido. O template só é aceito se a despesa lida tiver todos os campos
+ * obrigatórios do tipo ({@link ExpenseCompleteness}); caso contrário o documento segue pelo fluxo normal.
+ * O aprendizado e a extração usam apenas documentos com camada de texto (PDFBox), onde as posições são exatas;
+ * documentos de OCR seguem pelo fluxo normal. As posições só são lidas do PDF quando ao menos {@code minFields}
+ * valores da despesa aparecem no texto já extraído do documento.
+ * </p>
+ *
+ * @author Marco Willy
+ * @version 1.0
+ * @since 2025
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+class LayoutTemplateExtractorImpl implements LayoutTemplateExtractor {
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/uuuu").withResolverStyle(ResolverStyle.STRICT);
+    private static final Pattern DATE_PATTERN = Pattern.compile("\\d{2}/\\d{2}/\\d{4}");
+    private static final Pattern MONEY_PATTERN = Pattern.compile("\\d{1,3}(?:\\.\\d{3})*,\\d{2}|\\d+,\\d{2}");
+    private static final Pattern DIGITS_PATTERN = Pattern.compile("\\d[\\d\\s.\\-/]*\\d");
+    private static final Pattern DIGITS_VALUE = Pattern.compile("[\\d\\s.\\-/]+");
+    // Campos preenchidos pelo próprio fluxo, não pelo documento
+    private static final Set<String> IGNORED_PROPERTIES = Set.of("class", "expenseType", "companyUUID");
+    // Campos numéricos com dígitos verificadores, validados além do tamanho
+    private static final Map<String, Predicate<String>> CHECK_DIGITS = Map.of(
+            ExpenseCompleteness.CHAVE_ACESSO, digits -> ChaveAcessoUtil.decode(digits).isPresent(),
+            ExpenseCompleteness.LINHA_DIGITAVEL, digits -> BoletoUtil.decode(digits).isPresent(),
+            "codigoBarras", digits -> BoletoUtil.decode(digits).isPresent(),
+            ExpenseCompleteness.CNPJ_CPF_EMITENTE, CpfCnpjUtil::isCnpjCpfValid,
+            ExpenseCompleteness.CNPJ_CPF_DESTINATARIO, CpfCnpjUtil::isCnpjCpfValid
+    );
+    // Nas guias federais o condomínio é o contribuinte, identificado pelo CNPJ do emitente
+    private static final Set<ExpenseType> CONTRIBUTOR_GUIDES = EnumSet.of(ExpenseType.DARF, ExpenseType.GPS, ExpenseType.FGTS);
+    // Valores normalizados mais curtos que isso são ambíguos demais para localizar no documento
+    private static final int MIN_VALUE_LENGTH = 4;
+    // Textos lidos com menos da metade ou mais do dobro do tamanho aprendido são de outro conteúdo
+    private static final int TEXT_LENGTH_FACTOR = 2;
+    private static final int PLAUSIBLE_YEARS = 10;
+    private static final float VERTICAL_PADDING = 2f;
+    private static final float HORIZONTAL_PADDING = 10f;
+    private static final float TEXT_LEFT_PADDING = 2f;
+
+    private static final Map<ExpenseType, Supplier<Expense>> EXPENSE_FACTORIES = new EnumMap<>(Map.of(
+            ExpenseType.NFE, ExpenseNF::new,
+            ExpenseType.NFSE, ExpenseNFS::new,
+            ExpenseType.NFCE, ExpenseNFC::new,
+            ExpenseType.NF3E, ExpenseNF3::new,
+            ExpenseType.CTE, ExpenseCT::new,
+            ExpenseType.BOLETO, ExpenseBoleto::new,
+            ExpenseType.FATURA, ExpenseFatura::new,
+            ExpenseType.DARF, ExpenseDARF::new,
+            ExpenseType.FGTS, ExpenseFGTS::new,
+            ExpenseType.GPS, ExpenseGPS::new
+    ));
+
+    @Value("${reader.dir}")
+    private String readerDir;
+
+    private final RepositoryFacade repository;
+    private final LayoutTemplateConfig config;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public Session open(Document document, ExpenseType type) {
+        return new DocumentSession(document, type);
+    }
+
+    /**
+     * Sessão de um documento: o PDF, a impressão digital do layout, as posições do texto e os templates dos
+     * CNPJs do texto são carregados sob demanda, uma única vez, e compartilhados entre extração e aprendizado.
+     */
+    private final class DocumentSession implements Session {
+
+        private final Document document;
+        private final ExpenseType type;
+        private final boolean applicable;
+        private PDDocument pdf;
+        private String fingerprint;
+        private PdfTextLocator locator;
+        private Set<String> candidateIssuers;
+        private List<IssuerLayoutTemplate> candidateTemplates;
+
+        private DocumentSession(Document document, ExpenseType type) {
+            this.document = document;
+            this.type = type;
+            this.applicable = config.isEnabled() && EXPENSE_FACTORIES.containsKey(type) && hasExactPositions(document)
+                    && resolvePdfFile(document).exists();
+        }
+
+        @Override
+        public Optional<Expense> extract() {
+            if (!applicable) {
+                return Optional.empty();
+            }
+            try {
+                List<IssuerLayoutTemplate> confirmed = candidateTemplates().stream()
+                        .filter(template -> template.getConfirmations() >= config.getMinConfirmations())
+                        .toList();
+                if (confirmed.isEmpty()) {
+                    return Optional.empty();
+                }
+                String layout = fingerprint();
+                for (IssuerLayoutTemplate template : confirmed) {
+                    if (!template.getLayoutFingerprint().equals(layout)) {
+                        continue;
+                    }
+                    Optional<Expense> expense = extractTemplate(template);
+                    if (expense.isPresent()) {
+                        template.setHits(template.getHits() + 1);
+                        repository.issuerLayoutTemplate.save(template);
+                        log.info("Despesa do documento {} extraída pelo template do emitente {}.",
+                                document.getFileName(), template.getIssuerCnpj());
+                        return expense;
+                    }
+                }
+            } catch (Exception e) {
+                log.warn("Falha ao aplicar template de layout ao documento {}: {}", document.getFileName(), e.getMessage());
+            }
+            return Optional.empty();
+        }
+
+        @Override
+        public void learn(Expense expense) {
+            if (!applicable || expense == null) {
+                return;
+            }
+            String issuerCnpj = issuerOf(expense);
+            if (issuerCnpj == null) {
+                log.debug("Template do documento {} não aprendido: emitente sem CNPJ/CPF válido.", document.getFileName());
+                return;
+            }
+            try {
+                // O texto do documento é o da camada de texto do PDF: campos fora dele também não seriam localizados
+                List<FieldValue> values = valuesInText(fieldValues(expense));
+                if (values.size() < config.getMinFields()) {
+                    log.debug("Template do emitente {} não aprendido: apenas {} campo(s) no texto do documento.", issuerCnpj, values.size());
+                    return;
+                }
+                List<LayoutFieldRegion> regions = locateFields(locator(), values);
+                if (regions.size() < config.getMinFields()) {
+                    log.debug("Template do emitente {} não aprendido: apenas {} campo(s) localizado(s).", issuerCnpj, regions.size());
+                    return;
+                }
+                String layout = fingerprint();
+                IssuerLayoutTemplate template = findTemplate(issuerCnpj, layout)
+                        .orElseGet(() -> IssuerLayoutTemplate.builder()
+                                .issuerCnpj(issuerCnpj)
+                                .layoutFingerprint(layout)
+                                .expenseType(type)
+                                .build());
+                if (template.getFieldRegions() != null && sameRegions(readRegions(template), regions)) {
+                    template.setConfirmations(template.getConfirmations() + 1);
+                } else {
+                    template.setFieldRegions(objectMapper.writeValueAsString(regions));
+                    template.setConfirmations(1);
+                }
+                repository.issuerLayoutTemplate.save(template);
+                log.info("Template de layout do emitente {} ({}) atualizado: {} campo(s), {} confirmação(ões).",
+                        issuerCnpj, type, regions.size(), template.getConfirmations());
+            } catch (Exception e) {
+                log.warn("Falha ao aprender template de layout do documento {}: {}", document.getFileName(), e.getMessage());
+            }
+        }
+
+        @Override
+        public void close() {
+            if (pdf == null) {
+                return;
+            }
+            try {
+                pdf.close();
+            } catch (IOException e) {
+                log.warn("Erro ao fechar o PDF do documento {}: {}", document.getFileName(), e.getMessage());
+            }
+        }
+
+        private Optional<Expense> extractTemplate(IssuerLayoutTemplate template) throws IOException {
+            Optional<Expense> extracted = extractRegions(pdf(), type, readRegions(template));
+            if (extracted.isEmpty()) {
+                return Optional.empty();
+            }
+            Expense expense = extracted.get();
+            // O CNPJ do template é o emitente validado no aprendizado; outro valor na região indica outro documento
+            if (expense.getCnpjCpfEmitente() == null) {
+                expense.setCnpjCpfEmitente(template.getIssuerCnpj());
+            } else if (!template.getIssuerCnpj().equals(expense.getCnpjCpfEmitente())) {
+                log.debug("Emitente {} lido pelo template difere do emitente {} do template.",
+                        expense.getCnpjCpfEmitente(), template.getIssuerCnpj());
+                return Optional.empty();
+            }
+            Set<String> missingFields = new LinkedHashSet<>(ExpenseCompleteness.missingFields(expense, type));
+            if (!requiresRecipient()) {
+                missingFields.remove(ExpenseCompleteness.CNPJ_CPF_DESTINATARIO);
+            }
+            // Sem nome, o emitente é preenchido com o CNPJ já validado ao final da extração
+            missingFields.remove(ExpenseCompleteness.EMITENTE);
+            if (!missingFields.isEmpty()) {
+                log.debug("Template do emitente {} sem os campos obrigatórios {} no documento {}.",
+                        template.getIssuerCnpj(), missingFields, document.getFileName());
+                return Optional.empty();
+            }
+            return Optional.of(expense);
+        }
+
+        // O destinatário só é necessário para associar a company, e as guias são associadas pelo contribuinte
+        private boolean requiresRecipient() {
+            return document.getCompany() == null && !CONTRIBUTOR_GUIDES.contains(type);
+        }
+
+        /**
+         * O emitente aprendido é o CNPJ/CPF validado da despesa; se o texto tiver uma chave de acesso válida, ele
+         * precisa ser o emitente da chave.
+         */
+        private String issuerOf(Expense expense) {
+            if (expense.getCnpjCpfEmitente() == null) {
+                return null;
+            }
+            String issuer = CpfCnpjUtil.extractNumbers(expense.getCnpjCpfEmitente());
+            if (!CpfCnpjUtil.isCnpjCpfValid(issuer)) {
+                return null;
+            }
+            String text = document.getTextExtracted();
+            Optional<String> accessKeyIssuer = text == null ? Optional.empty()
+                    : ChaveAcessoUtil.find(text).map(ChaveAcessoUtil.ChaveAcesso::cnpjCpfEmitente);
+            return accessKeyIssuer.isEmpty() || accessKeyIssuer.get().equals(issuer) ? issuer : null;
+        }
+
+        private List<FieldValue> valuesInText(List<FieldValue> values) {
+            String text = document.getTextExtracted();
+            if (text == null) {
+                return List.of();
+            }
+            String normalizedText = PdfTextLocator.normalize(text);
+            return values.stream().filter(value -> normalizedText.contains(value.normalized())).toList();
+        }
+
+        private Optional<IssuerLayoutTemplate> findTemplate(String issuerCnpj, String layout) {
+            if (candidateTemplates != null && candidateIssuers.contains(issuerCnpj)) {
+                return candidateTemplates.stream()
+                        .filter(template -> template.getIssuerCnpj().equals(issuerCnpj)
+                                && template.getLayoutFingerprint().equals(layout))
+                        .findFirst();
+            }
+            return repository.issuerLayoutTemplate.findByIssuerCnpjAndLayoutFingerprintAndExpenseType(issuerCnpj, layout, type);
+        }
+
+        /**
+         * Templates de todos os CNPJs válidos do texto em uma única consulta, começando pelo emitente da chave de
+         * acesso e, entre os demais, pela ordem no texto.
+         */
+        private List<IssuerLayoutTemplate> candidateTemplates() {
+            if (candidateTemplates == null) {
+                candidateIssuers = candidateIssuers();
+                List<String> order = List.copyOf(candidateIssuers);
+                candidateTemplates = candidateIssuers.isEmpty() ? List.of()
+                        : repository.issuerLayoutTemplate.findByIssuerCnpjInAndExpenseType(candidateIssuers, type).stream()
+                        .sorted(Comparator.comparingInt((IssuerLayoutTemplate template) -> order.indexOf(template.getIssuerCnpj()))
+                                .thenComparing(IssuerLayoutTemplate::getConfirmations, Comparator.reverseOrder()))
+                        .toList();
+            }
+            return candidateTemplates;
+        }
+
+        private Set<String> candidateIssuers() {
+            Set<String> issuers = new LinkedHashSet<>();
+            String text = document.getTextExtracted();
+            if (text == null) {
+                return issuers;
+            }
+            ChaveAcessoUtil.find(text).ifPresent(chave -> issuers.add(chave.cnpjCpfEmitente()));
+            for (TokenIndex.Token<TokenIndex.DocumentNumber> cnpj : document.getTokenIndex().cnpjs()) {
+                if (cnpj.value().valid()) {
+                    issuers.add(cnpj.value().digits());
+                }
+            }
+            return issuers;
+        }
+
+        private PDDocument pdf() throws IOException {
+            if (pdf == null) {
+                pdf = PDDocument.load(resolvePdfFile(document), MemoryUsageSetting.setupTempFileOnly());
+            }
+            return pdf;
+        }
+
+        private String fingerprint() throws IOException {
+            if (fingerprint == null) {
+                fingerprint = layoutFingerprint(pdf());
+            }
+            return fingerprint;
+        }
+
+        private PdfTextLocator locator() throws IOException {
+            if (locator == null) {
+                locator = new PdfTextLocator(pdf(), config.getMaxPages());
+            }
+            return locator;
+        }
+    }
+
+    /**
+     * Campos escalares preenchidos da despesa, com o valor normalizado como aparece no texto do PDF.
+     */
+    private List<FieldValue> fieldValues(Expense expense) {
+        BeanWrapper wrapper = new BeanWrapperImpl(expense);
+        List<FieldValue> values = new ArrayList<>();
+        for (PropertyDescriptor property : wrapper.getPropertyDescriptors()) {
+            String name = property.getName();
+            if (IGNORED_PROPERTIES.contains(name) || !wrapper.isWritableProperty(name)) {
+                continue;
+            }
+            Object value = wrapper.getPropertyValue(name);
+            LayoutFieldRegion.Kind kind = kindOf(value);
+            if (kind == null) {
+                continue;
+            }
+            String normalized = normalizedValue(value, kind);
+            if (normalized.length() >= MIN_VALUE_LENGTH) {
+                values.add(new FieldValue(name, kind, normalized));
+            }
+        }
+        return values;
+    }
+
+    private List<LayoutFieldRegion> locateFields(PdfTextLocator locator, List<FieldValue> values) {
+        List<LayoutFieldRegion> regions = new ArrayList<>();
+        for (FieldValue value : values) {
+            locator.locate(value.normalized()).ifPresent(location -> regions.add(toRegion(value.field(), value.kind(), location,
+                    hasLength(value.kind()) ? value.normalized().length() : 0)));
+        }
+        regions.sort(Comparator.comparing(LayoutFieldRegion::field));
+        return regions;
+    }
+
+    private Optional<Expense> extractRegions(PDDocument pdf, ExpenseType type, List<LayoutFieldRegion> regions) throws IOException {
+        PDFTextStripperByArea stripper = new PDFTextStripperByArea();
+        stripper.setSortByPosition(true);
+        Map<Integer, List<LayoutFieldRegion>> regionsByPage = regions.stream()
+                .collect(Collectors.groupingBy(LayoutFieldRegion::page));
+
+        Expense expense = EXPENSE_FACTORIES.get(type).get();
+        BeanWrapper wrapper = new BeanWrapperImpl(expense);
+        for (Map.Entry<Integer, List<LayoutFieldRegion>> entry : regionsByPage.entrySet()) {
+            if (entry.getKey() > pdf.getNumberOfPages()) {
+                return Optional.empty();
+            }
+            PDPage page = pdf.getPage(entry.getKey() - 1);
+            entry.getValue().forEach(region -> stripper.addRegion(region.field(), region.toRectangle()));
+            stripper.extractRegions(page);
+            for (LayoutFieldRegion region : entry.getValue()) {
+                Object value = parseValue(stripper.getTextForRegion(region.field()), region);
+                stripper.removeRegion(region.field());
+                if (value == null) {
+                    log.debug("Campo {} não encontrado na região do template.", region.field());
+                    return Optional.empty();
+                }
+                wrapper.setPropertyValue(region.field(), value);
+            }
+        }
+        return Optional.of(expense);
+    }
+
+    private Object parseValue(String regionText, LayoutFieldRegion region) {
+        if (regionText == null || regionText.isBlank()) {
+            return null;
+        }
+        return switch (region.kind()) {
+            case DATE -> {
+                Matcher matcher = DATE_PATTERN.matcher(regionText);
+                try {
+                    LocalDate date = matcher.find() ? LocalDate.parse(matcher.group(), DATE_FORMAT) : null;
+                    yield date != null && isPlausible(date) ? date : null;
+                } catch (DateTimeParseException e) {
+                    yield null;
+                }
+            }
+            case MONEY -> {
+                Matcher matcher = MONEY_PATTERN.matcher(regionText);
+                yield matcher.find() ? new BigDecimal(matcher.group().replace(".", "").replace(",", ".")) : null;
+            }
+            case DIGITS -> {
+                Matcher matcher = DIGITS_PATTERN.matcher(regionText);
+                while (matcher.find()) {
+                    String digits = matcher.group().replaceAll("\\D", "");
+                    if (digits.length() == region.length() && CHECK_DIGITS.getOrDefault(region.field(), value -> true).test(digits)) {
+                        yield digits;
+                    }
+                }
+                yield null;
+            }
+            case TEXT -> {
+                String text = regionText.replaceAll("\\s+", " ").trim();
+                yield isPlausibleText(text, region) ? text : null;
+            }
+        };
+    }
+
+    private boolean isPlausible(LocalDate date) {
+        LocalDate today = LocalDate.now();
+        return date.isAfter(today.minusYears(PLAUSIBLE_YEARS)) && date.isBefore(today.plusYears(PLAUSIBLE_YEARS));
+    }
+
+    // Templates aprendidos antes do registro do tamanho do texto (length 0) só exigem uma letra
+    private boolean isPlausibleText(String text, LayoutFieldRegion region) {
+        if ("null".equalsIgnoreCase(text) || text.codePoints().noneMatch(Character::isLetter)) {
+            return false;
+        }
+        int length = PdfTextLocator.normalize(text).length();
+        return region.length() == 0
+                || (length * TEXT_LENGTH_FACTOR >= region.length() && length <= region.length() * TEXT_LENGTH_FACTOR);
+    }
+
+    private boolean hasLength(LayoutFieldRegion.Kind kind) {
+        return kind == LayoutFieldRegion.Kind.DIGITS || kind == LayoutFieldRegion.Kind.TEXT;
+    }
+
+    private LayoutFieldRegion.Kind kindOf(Object value) {
+        if (value instanceof LocalDate) {
+            return LayoutFieldRegion.Kind.DATE;
+        }
+        if (value instanceof BigDecimal) {
+            return LayoutFieldRegion.Kind.MONEY;
+        }
+        if (value instanceof String text && !text.isBlank()) {
+            return DIGITS_VALUE.matcher(text).matches() ? LayoutFieldRegion.Kind.DIGITS : LayoutFieldRegion.Kind.TEXT;
+        }
+        return null;
+    }
+
+    private String normalizedValue(Object value, LayoutFieldRegion.Kind kind) {
+        return switch (kind) {
+            case DATE -> PdfTextLocator.normalize(((LocalDate) value).format(DATE_FORMAT));
+            case MONEY -> PdfTextLocator.normalize(((BigDecimal) value).setScale(2, RoundingMode.HALF_UP).toPlainString());
+            case DIGITS, TEXT -> PdfTextLocator.normalize((String) value);
+        };
+    }
+
+    // Valores de tamanho variável crescem para os dois lados; datas têm tamanho fixo
+    private LayoutFieldRegion toRegion(String field, LayoutFieldRegion.Kind kind, PdfTextLocator.Location location, int length) {
+        Rectangle2D bounds = location.bounds();
+        float width = (float) bounds.getWidth();
+        float growth = kind == LayoutFieldRegion.Kind.DATE ? HORIZONTAL_PADDING : width / 2 + HORIZONTAL_PADDING;
+        float left = kind == LayoutFieldRegion.Kind.TEXT ? TEXT_LEFT_PADDING : growth;
+        return new LayoutFieldRegion(field, kind, location.page(),
+                (float) Math.max(0, bounds.getX() - left),
+                (float) Math.max(0, bounds.getY() - VERTICAL_PADDING),
+                width + left + growth,
+                (float) bounds.getHeight() + 2 * VERTICAL_PADDING,
+                length);
+    }
+
+    private boolean sameRegions(List<LayoutFieldRegion> current, List<LayoutFieldRegion> learned) {
+        if (current.size() != learned.size()) {
+            return false;
+        }
+        for (int i = 0; i < current.size(); i++) {
+            if (!current.get(i).samePosition(learned.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private List<LayoutFieldRegion> readRegions(IssuerLayoutTemplate template) throws IOException {
+        return objectMapper.readValue(template.getFieldRegions(), new TypeReference<List<LayoutFieldRegion>>() {
+        });
+    }
+
+    private String layoutFingerprint(PDDocument pdf) {
+        PDDocumentInformation info = pdf.getDocumentInformation();
+        PDPage firstPage = pdf.getPage(0);
+        String layout = String.join("|",
+                String.valueOf(info.getProducer()),
+                String.valueOf(info.getCreator()),
+                String.valueOf(Math.round(firstPage.getMediaBox().getWidth())),
+                String.valueOf(Math.round(firstPage.getMediaBox().getHeight())),
+                String.valueOf(firstPage.getRotation()));
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(layout.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível na JVM.", e);
+        }
+    }
+
+    private boolean hasExactPositions(Document document) {
+        List<DocumentExtractorType> extractorTypes = document.getDocumentExtractorTypes();
+        return extractorTypes != null
+                && extractorTypes.contains(DocumentExtractorType.PDFBOX)
+                && !extractorTypes.contains(DocumentExtractorType.OCR);
+    }
+
+    private File resolvePdfFile(Document document) {
+        return Paths.get(readerDir, document.getLocalFilePath()).toFile();
+    }
+
+    private record FieldValue(String field, LayoutFieldRegion.Kind kind, String normalized) {
+    }
+}
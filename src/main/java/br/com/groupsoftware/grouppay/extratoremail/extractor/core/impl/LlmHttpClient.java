@@ -0,0 +1,142 @@
+package br.com.groupsoftware.grouppay.extratoremail.extractor.core.impl;
+
+import br.com.groupsoftware.grouppay.extratoremail.config.LlmHttpConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientResponseException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cliente HTTP compartilhado das chamadas às APIs de IA.
+ * <p>
+ * Os extratores criavam um {@link RestTemplate} novo a cada documento, sem pool de conexões, sem timeouts e com
+ * um novo handshake TLS por chamada. Aqui cada provedor tem um {@link CloseableHttpClient} próprio com pool de
+ * conexões keep-alive, de forma que um provedor lento não esgote as conexões do outro. O HttpClient envia
+ * {@code Accept-Encoding: gzip, deflate} e descompacta as respostas por padrão.
+ * </p>
+ * <p>
+ * Cada chamada é medida no timer {@code llm.http.request}, com as tags {@code provider}, {@code endpoint}
+ * (host e caminho, sem a query string, que no Gemini contém a chave da API) e {@code status} (código HTTP ou
+ * {@code IO_ERROR} quando não houve resposta).
+ * </p>
+ *
+ * @author Marco Willy
+ * @version 1.0
+ * @since 2025
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+class LlmHttpClient {
+
+    enum Provider {
+        OPENAI, GEMINI
+    }
+
+    private final LlmHttpConfig config;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<Provider, CloseableHttpClient> httpClients = new EnumMap<>(Provider.class);
+    private final Map<Provider, RestTemplate> restTemplates = new EnumMap<>(Provider.class);
+
+    @PostConstruct
+    void start() {
+        for (Provider provider : Provider.values()) {
+            CloseableHttpClient httpClient = createHttpClient();
+            httpClients.put(provider, httpClient);
+            restTemplates.put(provider, new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient)));
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        httpClients.forEach((provider, httpClient) -> {
+            try {
+                httpClient.close();
+            } catch (IOException e) {
+                log.warn("Falha ao encerrar o cliente HTTP do provedor {}: {}", provider, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Envia um POST ao provedor e devolve a resposta como texto.
+     *
+     * @throws org.springframework.web.client.RestClientException em erro de comunicação ou resposta 4xx/5xx
+     */
+    ResponseEntity<String> post(Provider provider, String url, HttpEntity<String> request) {
+        long startedAt = System.nanoTime();
+        String status = "IO_ERROR";
+        try {
+            ResponseEntity<String> response = restTemplates.get(provider).postForEntity(url, request, String.class);
+            status = String.valueOf(response.getStatusCode().value());
+            return response;
+        } catch (RestClientResponseException e) {
+            status = String.valueOf(e.getStatusCode().value());
+            throw e;
+        } finally {
+            Timer.builder("llm.http.request")
+                    .description("Duração das chamadas às APIs de IA")
+                    .tag("provider", provider.name())
+                    .tag("endpoint", endpointTag(url))
+                    .tag("status", status)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private CloseableHttpClient createHttpClient() {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(config.getMaxConnectionsPerProvider())
+                .setMaxConnPerRoute(config.getMaxConnectionsPerProvider())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(config.getConnectTimeoutMillis()))
+                        .setSocketTimeout(Timeout.ofMilliseconds(config.getResponseTimeoutMillis()))
+                        .setTimeToLive(TimeValue.ofSeconds(config.getConnectionTtlSeconds()))
+                        .build())
+                .build();
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.ofMilliseconds(config.getPoolTimeoutMillis()))
+                .setResponseTimeout(Timeout.ofMilliseconds(config.getResponseTimeoutMillis()))
+                .build();
+
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofSeconds(config.getIdleEvictSeconds()))
+                .build();
+    }
+
+    private String endpointTag(String url) {
+        try {
+            URI uri = URI.create(url);
+            return uri.getHost() + uri.getPath();
+        } catch (IllegalArgumentException e) {
+            return "invalid";
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package br.com.groupsoftware.grouppay.extratoremail.extractor.core.impl;
+
+import br.com.groupsoftware.grouppay.extratoremail.config.PromptCompactionConfig;
+import br.com.groupsoftware.grouppay.extratoremail.domain.entity.Document;
+import br.com.groupsoftware.grouppay.extratoremail.domain.enums.AiPlanType;
+import br.com.groupsoftware.grouppay.extratoremail.domain.enums.ExpenseType;
+import br.com.groupsoftware.grouppay.extratoremail.util.document.PromptCompactor;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Compactação do texto do documento antes do envio aos modelos de IA, com o orçamento de tokens do plano.
+ * <p>
+ * O texto é pontuado com o {@link Document#getTokenIndex() índice do documento}, já montado pelos extratores
+ * determinísticos, sem indexar o texto de novo.
+ * </p>
+ * <p>
+ * A economia de cada documento é registrada em log e na métrica {@code llm.prompt.tokens.saved}, com as tags
+ * {@code provider} e {@code type}.
+ * </p>
+ *
+ * @author Marco Willy
+ * @version 1.0
+ * @since 2025
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+class LlmPromptCompactor {
+
+    private final PromptCompactionConfig config;
+    private final MeterRegistry meterRegistry;
+
+    String compact(Document document, ExpenseType type, AiPlanType planType, LlmHttpClient.Provider provider) {
+        String text = document.getTextExtracted();
+        if (!config.isEnabled() || text == null) {
+            return text;
+        }
+        PromptCompactor.Compaction compaction = PromptCompactor.compact(text, document.getTokenIndex(), type,
+                config.tokenBudgetFor(planType), config.getContextLines());
+        if (compaction.tokensSaved() > 0) {
+            log.info("Texto do documento compactado para a IA: {} -> {} tokens estimados ({} economizados).",
+                    compaction.originalTokens(), compaction.compactedTokens(), compaction.tokensSaved());
+        }
+        DistributionSummary.builder("llm.prompt.tokens.saved")
+                .description("Tokens estimados removidos do texto do documento antes do envio à IA")
+                .baseUnit("tokens")
+                .tag("provider", provider.name())
+                .tag("type", String.valueOf(type))
+                .register(meterRegistry)
+                .record(compaction.tokensSaved());
+        return compaction.text();
+    }
+}
@@ -0,0 +1,171 @@
+package br.com.groupsoftware.grouppay.extratoremail.extractor.core.impl;
+
+import br.com.groupsoftware.grouppay.extratoremail.config.LlmResponseCacheConfig;
+import br.com.groupsoftware.grouppay.extratoremail.domain.entity.LlmResponseCacheEntry;
+import br.com.groupsoftware.grouppay.extratoremail.domain.enums.ExpenseType;
+import br.com.groupsoftware.grouppay.extratoremail.extractor.core.LlmResponseCache;
+import br.com.groupsoftware.grouppay.extratoremail.repository.RepositoryFacade;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Implementação do cache de respostas dos modelos de IA no banco de dados.
+ * <p>
+ * Cada entrada vale por {@code ttlDays}; a limpeza periódica remove as vencidas e, acima de {@code maxEntries},
+ * as menos usadas. Uma falha de acesso ao banco nunca interrompe a extração: a consulta é tratada como ausência
+ * e a gravação é descartada.
+ * </p>
+ * <p>
+ * Métricas: {@code llm.cache.requests} com a tag {@code result} ({@code hit} ou {@code miss}), de onde sai a
+ * taxa de acerto, e {@code llm.cache.tokens.saved} com os tokens das chamadas evitadas.
+ * </p>
+ *
+ * @author Marco Willy
+ * @version 1.0
+ * @since 2025
+ */
+@Slf4j
+@Component
+class LlmResponseCacheImpl implements LlmResponseCache {
+
+    private final LlmResponseCacheConfig config;
+    private final RepositoryFacade repository;
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter tokensSavedCounter;
+
+    LlmResponseCacheImpl(LlmResponseCacheConfig config, RepositoryFacade repository, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.repository = repository;
+        this.hitCounter = Counter.builder("llm.cache.requests")
+                .description("Consultas ao cache de respostas dos modelos de IA")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder("llm.cache.requests")
+                .description("Consultas ao cache de respostas dos modelos de IA")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.tokensSavedCounter = Counter.builder("llm.cache.tokens.saved")
+                .description("Tokens das chamadas aos modelos de IA evitadas pelo cache")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String key(String text, ExpenseType type, String promptVersion, String modelName) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((modelName + '\n' + type + '\n' + promptVersion + '\n').getBytes(StandardCharsets.UTF_8));
+            digest.update(normalize(text).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível na JVM.", e);
+        }
+    }
+
+    @Override
+    public Optional<String> get(String key) {
+        if (!config.isEnabled()) {
+            return Optional.empty();
+        }
+        try {
+            Optional<LlmResponseCacheEntry> cached = repository.llmResponseCache.findByCacheKey(key)
+                    .filter(entry -> entry.getExpiresAt().isAfter(LocalDateTime.now()));
+            if (cached.isEmpty()) {
+                missCounter.increment();
+                return Optional.empty();
+            }
+            LlmResponseCacheEntry entry = cached.get();
+            entry.setHits(entry.getHits() + 1);
+            entry.setLastHitAt(LocalDateTime.now());
+            repository.llmResponseCache.save(entry);
+            hitCounter.increment();
+            tokensSavedCounter.increment(entry.getTotalTokens());
+            log.info("Resposta da IA reutilizada do cache ({} tokens economizados).", entry.getTotalTokens());
+            return Optional.of(entry.getResponseBody());
+        } catch (Exception e) {
+            log.warn("Erro ao consultar o cache de respostas da IA: {}", e.getMessage());
+            missCounter.increment();
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void put(String key, ExpenseType type, String promptVersion, String modelName, String responseBody, long totalTokens) {
+        if (!config.isEnabled() || responseBody == null) {
+            return;
+        }
+        try {
+            LlmResponseCacheEntry entry = repository.llmResponseCache.findByCacheKey(key)
+                    .orElseGet(() -> LlmResponseCacheEntry.builder().cacheKey(key).lastHitAt(LocalDateTime.now()).build());
+            entry.setExpenseType(type);
+            entry.setPromptVersion(promptVersion);
+            entry.setModelName(modelName);
+            entry.setResponseBody(responseBody);
+            entry.setTotalTokens(totalTokens);
+            entry.setExpiresAt(LocalDateTime.now().plusDays(config.getTtlDays()));
+            repository.llmResponseCache.save(entry);
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Resposta {} já gravada no cache por outra thread.", key);
+        } catch (Exception e) {
+            log.warn("Erro ao gravar a resposta {} no cache da IA: {}", key, e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${llm-response-cache.eviction-interval-ms:3600000}",
+            initialDelayString = "${llm-response-cache.eviction-interval-ms:3600000}")
+    void evict() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        try {
+            int expired = repository.llmResponseCache.deleteExpired(LocalDateTime.now());
+            long excess = repository.llmResponseCache.count() - config.getMaxEntries();
+            int evicted = 0;
+            if (excess > 0) {
+                List<Long> ids = repository.llmResponseCache.findLeastRecentlyUsedIds(PageRequest.of(0, (int) Math.min(excess, Integer.MAX_VALUE)));
+                repository.llmResponseCache.deleteAllByIdInBatch(ids);
+                evicted = ids.size();
+            }
+            if (expired > 0 || evicted > 0) {
+                log.info("Cache de respostas da IA: {} entrada(s) vencida(s) e {} excedente(s) removida(s).", expired, evicted);
+            }
+        } catch (Exception e) {
+            log.warn("Erro na limpeza do cache de respostas da IA: {}", e.getMessage());
+        }
+    }
+
+    // Espaços consecutivos (incluindo quebras de linha) reduzidos a um, sem espaços nas extremidades
+    private String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder normalized = new StringBuilder(text.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                pendingSpace = normalized.length() > 0;
+            } else {
+                if (pendingSpace) {
+                    normalized.append(' ');
+                    pendingSpace = false;
+                }
+                normalized.append(c);
+            }
+        }
+        return normalized.toString();
+    }
+}
@@ -0,0 +1,61 @@
+package br.com.groupsoftware.grouppay.extratoremail.extractor.core.impl;
+
+import br.com.groupsoftware.grouppay.extratoremail.config.OcrConfig;
+import br.com.groupsoftware.grouppay.extratoremail.domain.entity.IssuerOcrProfile;
+import br.com.groupsoftware.grouppay.extratoremail.repository.RepositoryFacade;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Define a resolução inicial do OCR a partir do histórico de cada emitente.
+ * <p>
+ * A resolução escolhida para os documentos de um CNPJ emitente é persistida em {@link IssuerOcrProfile}
+ * e mantida em memória, para que os próximos documentos do mesmo emitente comecem diretamente no nível
+ * que já se mostrou necessário, evitando renderizações descartadas.
+ * </p>
+ *
+ * @author Marco Willy
+ * @version 1.0
+ * @since 2025
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+class OcrDpiAdvisor {
+
+    private final RepositoryFacade repository;
+    private final OcrConfig ocrConfig;
+    private final Map<String, Integer> dpiByIssuer = new ConcurrentHashMap<>();
+
+    int startDpi(String issuerCnpj) {
+        if (issuerCnpj == null) {
+            return ocrConfig.getLowestDpi();
+        }
+        return dpiByIssuer.computeIfAbsent(issuerCnpj, cnpj -> repository.issuerOcrProfile.findByIssuerCnpj(cnpj)
+                .map(IssuerOcrProfile::getOcrDpi)
+                .orElse(ocrConfig.getLowestDpi()));
+    }
+
+    void record(String issuerCnpj, int dpi) {
+        if (issuerCnpj == null || dpi <= 0) {
+            return;
+        }
+        Integer previous = dpiByIssuer.put(issuerCnpj, dpi);
+        if (previous != null && previous == dpi) {
+            return;
+        }
+        try {
+            IssuerOcrProfile profile = repository.issuerOcrProfile.findByIssuerCnpj(issuerCnpj)
+                    .orElseGet(() -> IssuerOcrProfile.builder().issuerCnpj(issuerCnpj).build());
+            profile.setOcrDpi(dpi);
+            repository.issuerOcrProfile.save(profile);
+            log.info("Resolução de OCR do emitente {} registrada em {} dpi.", issuerCnpj, dpi);
+        } catch (Exception e) {
+            log.warn("Falha ao registrar a resolução de OCR do emitente {}: {}", issuerCnpj, e.getMessage());
+        }
+    }
+}
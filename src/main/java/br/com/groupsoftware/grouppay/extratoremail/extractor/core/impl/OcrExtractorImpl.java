@@ -1,6 +1,11 @@
 package br.com.groupsoftware.grouppay.extratoremail.extractor.core.impl;
 
+import br.com.groupsoftware.grouppay.extratoremail.config.OcrConfig;
 import br.com.groupsoftware.grouppay.extratoremail.extractor.core.OcrExtractor;
+import br.com.groupsoftware.grouppay.extratoremail.extractor.core.OcrPageResult;
+import br.com.groupsoftware.grouppay.extratoremail.extractor.core.OcrTaskPriority;
+import br.com.groupsoftware.grouppay.extratoremail.util.document.TesseractTsvUtil;
+import br.com.groupsoftware.grouppay.extratoremail.util.extractor.ExpenseFieldDetector;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.env.Environment;
@@ -16,9 +21,9 @@ import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
 import java.util.stream.Collectors;
 
 /**
@@ -28,6 +33,10 @@ import java.util.stream.Collectors;
  * O processamento é feito num contêiner Docker quando o ambiente de desenvolvimento está em uso,
  * e diretamente no sistema operativo em produção.
  * </p>
+ * <p>
+ * As tarefas são executadas pelo {@link OcrTaskScheduler}, que limita a fila, prioriza e reveza entre clientes
+ * e encerra o processo externo quando a tarefa é cancelada.
+ * </p>
  *
  * @author Marco Willy
  * @version 1.0
@@ -39,21 +48,198 @@ import java.util.stream.Collectors;
 public class OcrExtractorImpl implements OcrExtractor {
 
     private static final String DOCKER_CONTAINER_NAME = "tesseract-container";
+    private static final String IMAGE_EXTENSION = ".tif";
+    // Executa o comando em segundo plano, grava o PID em $1 e devolve o código de saída dele
+    private static final String CONTAINER_WRAPPER =
+            "pidfile=$1; shift; \"$@\" & echo $! > \"$pidfile\"; wait $!; code=$?; rm -f \"$pidfile\"; exit $code";
+    // O timeout repassa o TERM ao pdftoppm/Tesseract
+    private static final String CONTAINER_KILL = "kill -TERM $(cat \"$1\") 2>/dev/null; rm -f \"$1\"";
+    private static final int KILL_AFTER_SECONDS = 5;
+    private static final int TIMEOUT_EXIT_CODE = 124;
     private final Environment environment;
-    // Usando um pool de threads para processamento concorrente de OCR
-    private final ExecutorService ocrExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+    private final OcrConfig ocrConfig;
+    private final OcrTaskScheduler taskScheduler;
 
     @Override
-    public Future<String> submitOcrTask(String username, String pdfName) {
-        // Delega a execução para o pool de threads
-        return ocrExecutor.submit(() -> executeOcrTaskInternal(username, pdfName));
+    public Future<String> submitOcrTask(String username, String pdfName, OcrTaskPriority priority) {
+        // Delega a execução para o escalonador de OCR
+        return taskScheduler.submit(() -> executeOcrTaskInternal(username, pdfName), priority);
     }
 
-    private String executeOcrTaskInternal(String username, String pdfName) {
-        String baseOriginalFilePrefix = pdfName.replace(".pdf", ""); // Ex: "meu_documento"
-        String userPath = environment.acceptsProfiles(Profiles.of("dev"))
+    @Override
+    public Future<OcrPageResult> submitOcrPageTask(String username, String pdfName, int page, IntSupplier startDpi,
+                                                   OcrTaskPriority priority, PageImage renderedImage) {
+        return taskScheduler.submit(() -> executeOcrPageInternal(username, pdfName, page, startDpi.getAsInt(), renderedImage),
+                priority);
+    }
+
+    /**
+     * Executa o OCR de uma única página, renderizada com {@code pdftoppm -f N -l N -singlefile}
+     * para que o nome da imagem gerada seja determinístico.
+     * <p>
+     * A página é renderizada na menor resolução configurada a partir de {@code startDpi} e só é
+     * reprocessada no próximo nível quando a confiança média do Tesseract fica abaixo do mínimo ou
+     * quando nenhum dado-chave é reconhecido. O último nível é sempre aceito.
+     * </p>
+     * <p>
+     * A imagem já renderizada, quando houver, substitui a renderização do primeiro nível; os níveis seguintes
+     * são apenas os de resolução maior que a dela.
+     * </p>
+     */
+    private OcrPageResult executeOcrPageInternal(String username, String pdfName, int page, int startDpi, PageImage renderedImage) {
+        String userPath = resolveUserPath(username);
+        String pdfFilePath = String.format("%s/%s", userPath, pdfName);
+        String uniqueTaskId = UUID.randomUUID().toString();
+        String pageImagePrefix = Paths.get(userPath, uniqueTaskId + "_" + pdfName.replace(".pdf", "") + "-p" + page).toString();
+        String pageImagePath = pageImagePrefix + IMAGE_EXTENSION;
+
+        List<Integer> dpiLevels = ocrConfig.getDpiLevels().stream().sorted().filter(dpi -> dpi >= startDpi).toList();
+        if (dpiLevels.isEmpty()) {
+            dpiLevels = List.of(ocrConfig.getDpiLevels().stream().max(Integer::compare).orElse(startDpi));
+        }
+        boolean reuseRendered = renderedImage != null && renderedImage.dpi() >= startDpi;
+        if (reuseRendered) {
+            List<Integer> levels = new ArrayList<>(List.of(renderedImage.dpi()));
+            dpiLevels.stream().filter(dpi -> dpi > renderedImage.dpi()).forEach(levels::add);
+            dpiLevels = levels;
+        }
+
+        OcrPageResult result = OcrPageResult.failed(page);
+        try {
+            for (int level = 0; level < dpiLevels.size(); level++) {
+                int dpi = dpiLevels.get(level);
+                if (Thread.currentThread().isInterrupted()) {
+                    log.info("[OCR Task {}] OCR da página {} do PDF {} cancelado.", uniqueTaskId, page, pdfName);
+                    return result;
+                }
+                String imagePath = pageImagePath;
+                if (reuseRendered && level == 0) {
+                    imagePath = Paths.get(userPath, renderedImage.fileName()).toString();
+                } else {
+                    ProcessResult render = runProcess(buildCommand("pdftoppm", "-tiff", "-r", String.valueOf(dpi),
+                            "-f", String.valueOf(page), "-l", String.valueOf(page), "-singlefile", pdfFilePath, pageImagePrefix));
+                    if (render.exitCode() != 0) {
+                        log.error("[OCR Task {}] pdftoppm falhou para a página {} do PDF: {}. Código de saída: {}. Saída: {}",
+                                uniqueTaskId, page, pdfFilePath, render.exitCode(), render.output());
+                        return result;
+                    }
+                }
+
+                ProcessResult tesseract = runProcess(buildCommand("tesseract", imagePath, "stdout", "-l", "por+eng", "tsv"));
+                if (tesseract.exitCode() != 0) {
+                    log.warn("[OCR Task {}] Tesseract falhou para a página {} ({}). Código de saída: {}. Saída: {}",
+                            uniqueTaskId, page, imagePath, tesseract.exitCode(), tesseract.output());
+                    return result;
+                }
+
+                TesseractTsvUtil.TsvResult tsv = TesseractTsvUtil.parse(tesseract.output());
+                result = new OcrPageResult(page, tsv.text(), dpi, tsv.meanConfidence());
+                boolean lastLevel = level == dpiLevels.size() - 1;
+                boolean accepted = tsv.meanConfidence() >= ocrConfig.getMinConfidence()
+                        && ExpenseFieldDetector.containsKeyToken(tsv.text());
+                log.info("[OCR Task {}] Página {} do PDF {} a {} dpi: {} palavras, confiança média {}.",
+                        uniqueTaskId, page, pdfName, dpi, tsv.wordCount(), String.format("%.1f", tsv.meanConfidence()));
+                if (accepted || lastLevel) {
+                    return result;
+                }
+                log.info("[OCR Task {}] Confiança insuficiente na página {}. Reprocessando em resolução maior.", uniqueTaskId, page);
+            }
+            return result;
+        } catch (IOException | InterruptedException e) {
+            log.error("[OCR Task {}] Exceção durante o OCR da página {} do PDF {}: {}", uniqueTaskId, page, pdfName, e.getMessage(), e);
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            return result;
+        } finally {
+            try {
+                Files.deleteIfExists(Paths.get(pageImagePath));
+            } catch (IOException ex) {
+                log.error("[OCR Task {}] Falha ao deletar arquivo de imagem: {}. Erro: {}", uniqueTaskId, pageImagePath, ex.getMessage());
+            }
+        }
+    }
+
+    private String resolveUserPath(String username) {
+        return environment.acceptsProfiles(Profiles.of("dev"))
                 ? String.format("/pdfs/%s", username) // Caminho para ambiente de desenvolvimento
                 : String.format("/usr/local/tomcat/webapps/PDF/%s", username); // Caminho para produção
+    }
+
+    /**
+     * Monta o comando limitado por {@code timeout} a {@code processTimeoutSeconds}. No contêiner, o
+     * {@code docker exec} local não repassa o encerramento ao processo; por isso o comando roda em segundo plano
+     * sob um {@code sh} que grava o PID dele em um arquivo do contêiner, usado no cancelamento.
+     */
+    private OcrCommand buildCommand(String... command) {
+        List<String> timedCommand = new ArrayList<>(List.of("timeout", "-k", String.valueOf(KILL_AFTER_SECONDS),
+                String.valueOf(ocrConfig.getProcessTimeoutSeconds())));
+        timedCommand.addAll(List.of(command));
+        List<String> fullCommand = new ArrayList<>();
+        String pidFile = null;
+        if (environment.acceptsProfiles(Profiles.of("dev"))) {
+            pidFile = "/tmp/ocr-" + UUID.randomUUID() + ".pid";
+            fullCommand.addAll(List.of("docker", "exec", DOCKER_CONTAINER_NAME, "sh", "-c", CONTAINER_WRAPPER, "ocr", pidFile));
+        }
+        fullCommand.addAll(timedCommand);
+        ProcessBuilder processBuilder = new ProcessBuilder(fullCommand);
+        processBuilder.environment().put("OMP_THREAD_LIMIT", "1");
+        processBuilder.redirectErrorStream(true);
+        return new OcrCommand(processBuilder, pidFile);
+    }
+
+    private ProcessResult runProcess(OcrCommand command) throws IOException, InterruptedException {
+        log.debug("Executando: {}", String.join(" ", command.processBuilder().command()));
+        Process process = command.processBuilder().start();
+        taskScheduler.attachProcess(() -> terminate(process, command.containerPidFile()));
+        StringBuilder output = new StringBuilder();
+        try (BufferedReader processReader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+            String line;
+            while ((line = processReader.readLine()) != null) {
+                output.append(line).append(System.lineSeparator());
+            }
+            int exitCode = process.waitFor();
+            if (exitCode == TIMEOUT_EXIT_CODE) {
+                log.warn("Processo excedeu {} s e foi encerrado: {}", ocrConfig.getProcessTimeoutSeconds(),
+                        String.join(" ", command.processBuilder().command()));
+            }
+            return new ProcessResult(exitCode, output.toString().trim());
+        } finally {
+            taskScheduler.detachProcess();
+        }
+    }
+
+    /**
+     * Encerra o processo de uma tarefa cancelada. No contêiner, o processo é encerrado pelo PID gravado lá;
+     * localmente, os descendentes são encerrados antes do {@code timeout} que os iniciou.
+     */
+    private void terminate(Process process, String containerPidFile) {
+        if (containerPidFile != null) {
+            try {
+                Process kill = new ProcessBuilder("docker", "exec", DOCKER_CONTAINER_NAME, "sh", "-c", CONTAINER_KILL,
+                        "ocr", containerPidFile).redirectErrorStream(true).start();
+                if (!kill.waitFor(KILL_AFTER_SECONDS, TimeUnit.SECONDS)) {
+                    kill.destroyForcibly();
+                }
+            } catch (IOException e) {
+                log.warn("Falha ao encerrar o processo de OCR no contêiner: {}", e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        process.descendants().forEach(ProcessHandle::destroyForcibly);
+        process.destroyForcibly();
+    }
+
+    private record OcrCommand(ProcessBuilder processBuilder, String containerPidFile) {
+    }
+
+    private record ProcessResult(int exitCode, String output) {
+    }
+
+    private String executeOcrTaskInternal(String username, String pdfName) {
+        String baseOriginalFilePrefix = pdfName.replace(".pdf", ""); // Ex: "meu_documento"
+        String userPath = resolveUserPath(username);
         String pdfFilePath = String.format("%s/%s", userPath, pdfName);
 
         // 1. Gerar um ID único para esta tarefa de OCR específica
@@ -63,40 +249,16 @@ public class OcrExtractorImpl implements OcrExtractor {
         String uniqueImageFileBasePrefix = uniqueTaskId + "_" + baseOriginalFilePrefix;
         String fullImageOutputPrefix = Paths.get(userPath, uniqueImageFileBasePrefix).toString();
 
-        String imageExtension = ".tif"; // MUDANÇA: Usar TIFF como formato intermediário
         List<String> generatedImageFilePaths = new ArrayList<>(); // Lista para rastrear arquivos criados para limpeza
 
         try {
-            // 2. Preparar e executar o comando pdftoppm para converter PDF para imagens TIFF
-            ProcessBuilder extractImagesProcessBuilder;
-            if (environment.acceptsProfiles(Profiles.of("dev"))) {
-                extractImagesProcessBuilder = new ProcessBuilder("docker", "exec", DOCKER_CONTAINER_NAME,
-                        "pdftoppm", "-tiff", "-r", "300", pdfFilePath, fullImageOutputPrefix);
-            } else {
-                extractImagesProcessBuilder = new ProcessBuilder("pdftoppm", "-tiff", "-r", "300", pdfFilePath, fullImageOutputPrefix);
-            }
-
-            extractImagesProcessBuilder.environment().put("OMP_THREAD_LIMIT", "1");
-            extractImagesProcessBuilder.redirectErrorStream(true); // Captura stdout e stderr juntos
-
-            log.debug("[OCR Task {}] Executando pdftoppm: {}", uniqueTaskId, String.join(" ", extractImagesProcessBuilder.command()));
-            Process extractProcess = extractImagesProcessBuilder.start();
-
-            // Capturar a saída do pdftoppm para depuração
-            StringBuilder pdftoppmOutput = new StringBuilder();
-            try (BufferedReader processReader = new BufferedReader(new InputStreamReader(extractProcess.getInputStream()))) {
-                String line;
-                while ((line = processReader.readLine()) != null) {
-                    pdftoppmOutput.append(line).append(System.lineSeparator());
-                }
-            }
-            int extractExitCode = extractProcess.waitFor();
-
-            if (extractExitCode != 0) {
+            // 2. Executar o pdftoppm para converter PDF para imagens TIFF
+            ProcessResult extract = runProcess(buildCommand("pdftoppm", "-tiff", "-r", "300", pdfFilePath, fullImageOutputPrefix));
+            if (extract.exitCode() != 0) {
                 log.error("[OCR Task {}] pdftoppm falhou para o PDF: {}. Código de saída: {}. Saída: {}",
-                        uniqueTaskId, pdfFilePath, extractExitCode, pdftoppmOutput.toString().trim());
+                        uniqueTaskId, pdfFilePath, extract.exitCode(), extract.output());
                 // Retorna a saída do pdftoppm para que possa ser incluída na exceção ou log superior
-                return "Error extracting images from PDF: " + pdfFilePath + ". pdftoppm output: " + pdftoppmOutput.toString().trim();
+                return "Error extracting images from PDF: " + pdfFilePath + ". pdftoppm output: " + extract.output();
             }
             log.info("[OCR Task {}] pdftoppm concluído para o PDF: {}. Imagens geradas com prefixo: {}",
                     uniqueTaskId, pdfFilePath, fullImageOutputPrefix);
@@ -104,42 +266,26 @@ public class OcrExtractorImpl implements OcrExtractor {
             // 3. Processar as imagens TIFF geradas com o Tesseract
             List<String> ocrPageResults = new ArrayList<>();
             for (int i = 1; ; i++) {
+                if (Thread.currentThread().isInterrupted()) {
+                    log.info("[OCR Task {}] OCR do PDF {} cancelado.", uniqueTaskId, pdfName);
+                    break;
+                }
                 // Constrói o caminho para o arquivo de imagem específico da página e da tarefa
-                String currentImageFilePath = String.format("%s-%d%s", fullImageOutputPrefix, i, imageExtension);
+                String currentImageFilePath = String.format("%s-%d%s", fullImageOutputPrefix, i, IMAGE_EXTENSION);
                 File imageFile = new File(currentImageFilePath);
 
                 if (!imageFile.exists()) { // Verifica se a imagem da próxima página existe
                     if (i == 1) { // Nenhuma imagem foi gerada
                         log.warn("[OCR Task {}] Nenhuma imagem (ex: {}-1{}) encontrada após pdftoppm para o PDF: {}",
-                                uniqueTaskId, uniqueImageFileBasePrefix, imageExtension, pdfFilePath);
+                                uniqueTaskId, uniqueImageFileBasePrefix, IMAGE_EXTENSION, pdfFilePath);
                     }
                     break; // Sai do loop se não houver mais imagens
                 }
                 generatedImageFilePaths.add(currentImageFilePath); // Adiciona à lista para limpeza posterior
 
-                ProcessBuilder ocrProcessBuilder;
-                if (environment.acceptsProfiles(Profiles.of("dev"))) {
-                    ocrProcessBuilder = new ProcessBuilder("docker", "exec", DOCKER_CONTAINER_NAME,
-                            "tesseract", currentImageFilePath, "stdout", "-l", "por+eng");
-                } else {
-                    ocrProcessBuilder = new ProcessBuilder("tesseract", currentImageFilePath, "stdout", "-l", "por+eng");
-                }
-
-                ocrProcessBuilder.environment().put("OMP_THREAD_LIMIT", "1");
-                ocrProcessBuilder.redirectErrorStream(true);
-
-                log.debug("[OCR Task {}] Executando Tesseract: {}", uniqueTaskId, String.join(" ", ocrProcessBuilder.command()));
-                Process ocrProcess = ocrProcessBuilder.start();
-
-                StringBuilder tesseractOutput = new StringBuilder();
-                try (BufferedReader processReader = new BufferedReader(new InputStreamReader(ocrProcess.getInputStream()))) {
-                    String line;
-                    while ((line = processReader.readLine()) != null) {
-                        tesseractOutput.append(line).append(System.lineSeparator());
-                    }
-                }
-                int ocrExitCode = ocrProcess.waitFor();
-                String tesseractOutputString = tesseractOutput.toString().trim();
+                ProcessResult ocr = runProcess(buildCommand("tesseract", currentImageFilePath, "stdout", "-l", "por+eng"));
+                int ocrExitCode = ocr.exitCode();
+                String tesseractOutputString = ocr.output();
 
                 if (ocrExitCode != 0) {
                     log.warn("[OCR Task {}] Tesseract falhou para a imagem {}. Código de saída: {}. Saída: {}",
@@ -0,0 +1,133 @@
+package br.com.groupsoftware.grouppay.extratoremail.extractor.core.impl;
+
+import br.com.groupsoftware.grouppay.extratoremail.config.OcrConfig;
+import br.com.groupsoftware.grouppay.extratoremail.extractor.core.OcrExtractor;
+import br.com.groupsoftware.grouppay.extratoremail.extractor.core.OcrPageResult;
+import br.com.groupsoftware.grouppay.extratoremail.extractor.core.OcrTaskPriority;
+import br.com.groupsoftware.grouppay.extratoremail.util.extractor.ExpenseFieldDetector;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Escalonador do OCR por página.
+ * <p>
+ * Distribui as páginas de um documento no pool de OCR em paralelo e consome os resultados na ordem
+ * das páginas, alimentando um {@link ExpenseFieldDetector}. Assim que todos os campos obrigatórios do
+ * tipo identificado forem encontrados, ou o limite de páginas configurado para o tipo for atingido,
+ * as páginas restantes são canceladas.
+ * </p>
+ * <p>
+ * Ao final, a maior resolução que foi necessária é registrada para o emitente identificado.
+ * </p>
+ *
+ * @author Marco Willy
+ * @version 1.0
+ * @since 2025
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+class OcrPageScheduler {
+
+    /**
+     * Texto reconhecido por página e se todas as páginas pedidas foram reconhecidas. O resultado fica incompleto
+     * quando há página recusada pela fila, com erro, cancelada por timeout, pelo limite de páginas ou pelo
+     * encerramento antecipado.
+     */
+    record OcrPages(Map<Integer, String> texts, boolean complete) {
+    }
+
+    private final OcrExtractor ocr;
+    private final OcrConfig ocrConfig;
+    private final OcrDpiAdvisor dpiAdvisor;
+
+    /**
+     * Executa o OCR das páginas informadas.
+     *
+     * @param detector       detector já alimentado com o texto das páginas lidas pelo PDFBox
+     * @param renderedImages imagens das páginas já renderizadas na leitura dos códigos, reaproveitadas pelo OCR
+     * @param priority       prioridade das tarefas no escalonador de OCR
+     * @param timeoutSeconds tempo máximo total para o OCR de todas as páginas
+     * @return texto reconhecido por número da página, em ordem, e se todas as páginas foram reconhecidas
+     */
+    OcrPages ocrPages(String username, String pdfName, List<Integer> pages, Map<Integer, OcrExtractor.PageImage> renderedImages,
+                      ExpenseFieldDetector detector, OcrTaskPriority priority, long timeoutSeconds) {
+        int globalLimit = Math.min(pages.size(), ocrConfig.getDefaultMaxPages());
+        // A resolução inicial é lida quando cada página começa a executar: se o emitente for identificado
+        // nas primeiras páginas, as que ainda estão na fila já começam no nível registrado para ele.
+        String knownIssuer = detector.getIssuerCnpj();
+        AtomicInteger startDpi = new AtomicInteger(dpiAdvisor.startDpi(knownIssuer));
+        Map<Integer, Future<OcrPageResult>> pending = new LinkedHashMap<>();
+        for (Integer page : pages.subList(0, globalLimit)) {
+            try {
+                pending.put(page, ocr.submitOcrPageTask(username, pdfName, page, startDpi::get, priority,
+                        renderedImages.get(page)));
+            } catch (RejectedExecutionException e) {
+                log.warn("Fila de OCR cheia. PDF {} seguirá com {} de {} página(s): {}", pdfName, pending.size(), globalLimit, e.getMessage());
+                break;
+            }
+        }
+
+        Map<Integer, String> results = new TreeMap<>();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+        int processedPages = 0;
+        int recognizedPages = 0;
+        int chosenDpi = 0;
+        try {
+            for (Map.Entry<Integer, Future<OcrPageResult>> entry : pending.entrySet()) {
+                if (detector.isComplete()) {
+                    log.info("Campos obrigatórios de {} encontrados após {} página(s) de OCR. Cancelando as demais.",
+                            detector.getExpenseType(), processedPages);
+                    break;
+                }
+                if (processedPages >= ocrConfig.getMaxPages(detector.getExpenseType())) {
+                    log.info("Limite de {} página(s) de OCR atingido para {}. Cancelando as demais.",
+                            processedPages, detector.getExpenseType());
+                    break;
+                }
+                OcrPageResult result;
+                try {
+                    result = entry.getValue().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                } catch (ExecutionException ee) {
+                    log.error("Erro no OCR da página {} do PDF {}: {}", entry.getKey(), pdfName, ee.getMessage(), ee);
+                    result = OcrPageResult.failed(entry.getKey());
+                }
+                processedPages++;
+                if (result.text() != null) {
+                    recognizedPages++;
+                }
+                if (result.text() != null && !result.text().isBlank()) {
+                    results.put(entry.getKey(), result.text());
+                    detector.accept(result.text());
+                    chosenDpi = Math.max(chosenDpi, result.dpi());
+                }
+                // O emitente pode ser corrigido por uma página seguinte (ex.: chave de acesso no rodapé)
+                if (detector.getIssuerCnpj() != null && !detector.getIssuerCnpj().equals(knownIssuer)) {
+                    knownIssuer = detector.getIssuerCnpj();
+                    startDpi.set(dpiAdvisor.startDpi(knownIssuer));
+                }
+            }
+        } catch (TimeoutException te) {
+            log.error("Timeout no OCR das páginas do PDF {} após {} página(s) processada(s).", pdfName, processedPages);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            log.error("OCR das páginas do PDF {} interrompido.", pdfName);
+        } finally {
+            pending.values().forEach(future -> future.cancel(true));
+        }
+        dpiAdvisor.record(detector.getIssuerCnpj(), chosenDpi);
+        return new OcrPages(results, recognizedPages == pages.size());
+    }
+}
@@ -0,0 +1,307 @@
+package br.com.groupsoftware.grouppay.extratoremail.extractor.core.impl;
+
+import br.com.groupsoftware.grouppay.extratoremail.config.OcrConfig;
+import br.com.groupsoftware.grouppay.extratoremail.extractor.core.OcrTaskPriority;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Escalonador das tarefas de OCR com fila limitada, prioridade e rodízio entre clientes.
+ * <p>
+ * Cada ClientGroup tem sua própria fila ordenada por {@link OcrTaskPriority#score()}. A cada tarefa liberada,
+ * os clientes são percorridos em rodízio a partir do último atendido e é escolhido o que tiver a tarefa de
+ * maior prioridade; em caso de empate vence o próximo do rodízio, de forma que um cliente com muitos
+ * documentos não monopolize os workers.
+ * </p>
+ * <p>
+ * A prioridade envelhece: cada {@code agingStepMillis} de espera soma um ponto ao score, e assim uma carga
+ * contínua de planos maiores não impede indefinidamente as tarefas dos menores. Como todas as tarefas envelhecem
+ * no mesmo ritmo, a ordem dentro da fila de um cliente não muda com o tempo e é fixada ao enfileirar.
+ * </p>
+ * <p>
+ * A capacidade total das filas é limitada: quem submete aguarda até {@code submitTimeoutSeconds} por espaço e
+ * recebe {@link RejectedExecutionException} se a fila continuar cheia. Cancelar o {@link Future} retira a
+ * tarefa da fila ou, se ela já estiver em execução, interrompe a thread e encerra o processo externo
+ * (pdftoppm/Tesseract) pelo encerramento registrado em {@link #attachProcess(Runnable)}.
+ * </p>
+ * <p>
+ * Métricas: {@code ocr.task.wait} (tempo em fila), {@code ocr.task.service} (tempo de execução),
+ * {@code ocr.task.rejected} e {@code ocr.queue.size}.
+ * </p>
+ *
+ * @author Marco Willy
+ * @version 1.0
+ * @since 2025
+ */
+@Slf4j
+@Component
+class OcrTaskScheduler {
+
+    private static final ThreadLocal<OcrTask<?>> CURRENT_TASK = new ThreadLocal<>();
+    private static final Comparator<OcrTask<?>> TASK_ORDER = Comparator
+            .comparingLong((OcrTask<?> task) -> -task.rank)
+            .thenComparingLong(task -> task.sequence);
+
+    private final OcrConfig ocrConfig;
+    private final Timer waitTimer;
+    private final Timer serviceTimer;
+    private final Counter rejectedCounter;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final Map<String, PriorityQueue<OcrTask<?>>> queuesByTenant = new HashMap<>();
+    private final List<String> tenantRing = new ArrayList<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final List<Thread> workers = new ArrayList<>();
+    private int cursor;
+    private int queued;
+    private volatile boolean running = true;
+
+    OcrTaskScheduler(OcrConfig ocrConfig, MeterRegistry meterRegistry) {
+        this.ocrConfig = ocrConfig;
+        this.waitTimer = Timer.builder("ocr.task.wait")
+                .description("Tempo de espera das tarefas de OCR na fila")
+                .register(meterRegistry);
+        this.serviceTimer = Timer.builder("ocr.task.service")
+                .description("Tempo de execução das tarefas de OCR")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("ocr.task.rejected")
+                .description("Tarefas de OCR rejeitadas por fila cheia")
+                .register(meterRegistry);
+        Gauge.builder("ocr.queue.size", this, OcrTaskScheduler::queuedTasks)
+                .description("Tarefas de OCR aguardando execução")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        int workerCount = ocrConfig.getWorkers() > 0 ? ocrConfig.getWorkers() : Runtime.getRuntime().availableProcessors();
+        for (int i = 1; i <= workerCount; i++) {
+            Thread worker = new Thread(this::workLoop, "ocr-worker-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+        log.info("Escalonador de OCR iniciado com {} worker(s) e capacidade de {} tarefa(s).", workerCount, ocrConfig.getQueueCapacity());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        running = false;
+        workers.forEach(Thread::interrupt);
+    }
+
+    /**
+     * Enfileira uma tarefa, aguardando espaço na fila por até {@code submitTimeoutSeconds}.
+     *
+     * @throws RejectedExecutionException se a fila continuar cheia ou a thread for interrompida
+     */
+    <T> Future<T> submit(Callable<T> callable, OcrTaskPriority priority) {
+        OcrTask<T> task = new OcrTask<>(callable, priority != null ? priority : OcrTaskPriority.DEFAULT);
+        lock.lock();
+        try {
+            long remaining = TimeUnit.SECONDS.toNanos(ocrConfig.getSubmitTimeoutSeconds());
+            while (queued >= ocrConfig.getQueueCapacity()) {
+                if (remaining <= 0) {
+                    rejectedCounter.increment();
+                    throw new RejectedExecutionException("Fila de OCR cheia (" + queued + " tarefas).");
+                }
+                remaining = notFull.awaitNanos(remaining);
+            }
+            task.enqueue(System.nanoTime(), agingStepNanos());
+            queuesByTenant.computeIfAbsent(task.priority.tenant(), tenant -> {
+                tenantRing.add(tenant);
+                return new PriorityQueue<>(TASK_ORDER);
+            }).add(task);
+            queued++;
+            notEmpty.signal();
+            return task;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrompido aguardando espaço na fila de OCR.", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Associa à tarefa em execução na thread atual o encerramento do seu processo externo, chamado se ela for
+     * cancelada. O encerramento é de quem inicia o processo, que sabe se ele roda no contêiner.
+     */
+    void attachProcess(Runnable terminator) {
+        OcrTask<?> task = CURRENT_TASK.get();
+        if (task != null) {
+            task.terminator = terminator;
+            if (task.isCancelled()) {
+                terminator.run();
+            }
+        }
+    }
+
+    void detachProcess() {
+        OcrTask<?> task = CURRENT_TASK.get();
+        if (task != null) {
+            task.terminator = null;
+        }
+    }
+
+    private void workLoop() {
+        while (running) {
+            OcrTask<?> task;
+            try {
+                task = take();
+            } catch (InterruptedException e) {
+                if (!running) {
+                    return;
+                }
+                continue;
+            }
+            waitTimer.record(System.nanoTime() - task.enqueuedAt, TimeUnit.NANOSECONDS);
+            long startedAt = System.nanoTime();
+            CURRENT_TASK.set(task);
+            try {
+                task.run();
+            } finally {
+                CURRENT_TASK.remove();
+                serviceTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                // Limpa a interrupção de um cancelamento para não afetar a próxima tarefa
+                Thread.interrupted();
+            }
+        }
+    }
+
+    private OcrTask<?> take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (queued == 0) {
+                notEmpty.await();
+            }
+            int size = tenantRing.size();
+            int chosen = -1;
+            long bestScore = Long.MIN_VALUE;
+            long now = System.nanoTime();
+            long agingStepNanos = agingStepNanos();
+            for (int offset = 0; offset < size; offset++) {
+                int index = (cursor + offset) % size;
+                long score = queuesByTenant.get(tenantRing.get(index)).peek().agedScore(now, agingStepNanos);
+                if (score > bestScore) {
+                    bestScore = score;
+                    chosen = index;
+                }
+            }
+            String tenant = tenantRing.get(chosen);
+            PriorityQueue<OcrTask<?>> queue = queuesByTenant.get(tenant);
+            OcrTask<?> task = queue.poll();
+            if (queue.isEmpty()) {
+                removeTenant(chosen);
+                cursor = tenantRing.isEmpty() ? 0 : chosen % tenantRing.size();
+            } else {
+                cursor = (chosen + 1) % size;
+            }
+            queued--;
+            notFull.signal();
+            return task;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void remove(OcrTask<?> task) {
+        lock.lock();
+        try {
+            PriorityQueue<OcrTask<?>> queue = queuesByTenant.get(task.priority.tenant());
+            if (queue != null && queue.remove(task)) {
+                queued--;
+                if (queue.isEmpty()) {
+                    int index = tenantRing.indexOf(task.priority.tenant());
+                    removeTenant(index);
+                    if (index < cursor) {
+                        cursor--;
+                    }
+                    cursor = tenantRing.isEmpty() ? 0 : cursor % tenantRing.size();
+                }
+                notFull.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void removeTenant(int index) {
+        queuesByTenant.remove(tenantRing.remove(index));
+    }
+
+    private long agingStepNanos() {
+        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, ocrConfig.getAgingStepMillis()));
+    }
+
+    private int queuedTasks() {
+        lock.lock();
+        try {
+            return queued;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private final class OcrTask<T> extends FutureTask<T> {
+
+        private final OcrTaskPriority priority;
+        private final long sequence;
+        private long enqueuedAt;
+        // Prioridade envelhecida deslocada pelo instante de entrada: maior primeiro, constante enquanto na fila
+        private long rank;
+        private volatile Runnable terminator;
+
+        private OcrTask(Callable<T> callable, OcrTaskPriority priority) {
+            super(callable);
+            this.priority = priority;
+            this.sequence = OcrTaskScheduler.this.sequence.incrementAndGet();
+        }
+
+        private void enqueue(long now, long agingStepNanos) {
+            this.enqueuedAt = now;
+            this.rank = agingStepNanos > 0 ? priority.score() * agingStepNanos - now : priority.score();
+        }
+
+        // Pontos inteiros, para que tarefas de clientes diferentes empatem e sigam o rodízio
+        private long agedScore(long now, long agingStepNanos) {
+            return priority.score() + (agingStepNanos > 0 ? (now - enqueuedAt) / agingStepNanos : 0);
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if (cancelled) {
+                remove(this);
+                Runnable running = terminator;
+                if (running != null && mayInterruptIfRunning) {
+                    running.run();
+                }
+            }
+            return cancelled;
+        }
+    }
+}
@@ -9,12 +9,18 @@ import br.com.groupsoftware.grouppay.extratoremail.domain.enums.ExpenseType;
 import br.com.groupsoftware.grouppay.extratoremail.domain.model.Expense;
 import br.com.groupsoftware.grouppay.extratoremail.domain.model.dto.OpenAIDTO;
 import br.com.groupsoftware.grouppay.extratoremail.domain.model.dto.OpenAIMessageDTO;
+import br.com.groupsoftware.grouppay.extratoremail.extractor.core.LlmResponseCache;
 import br.com.groupsoftware.grouppay.extratoremail.extractor.core.OpenAiExtractor;
 import br.com.groupsoftware.grouppay.extratoremail.repository.RepositoryFacade;
 import br.com.groupsoftware.grouppay.extratoremail.util.DocumentUtils;
 import br.com.groupsoftware.grouppay.extratoremail.util.brazil.CpfCnpjUtil;
+import br.com.groupsoftware.grouppay.extratoremail.util.extractor.ExpenseCompleteness;
 import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpEntity;
@@ -23,11 +29,19 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.HttpClientErrorException;
-import org.springframework.web.client.RestTemplate;
 
-import java.util.Collections;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Implementação do serviço de extração de informações financeiras utilizando a API da OpenAI.
@@ -46,9 +60,78 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class OpenAIExtractorImpl implements OpenAiExtractor {
 
+    // Versões dos prompts na chave do cache de respostas; devem ser alteradas sempre que o texto do prompt mudar
+    private static final String FULL_PROMPT_VERSION = "full-v2";
+    private static final String MISSING_FIELDS_PROMPT_VERSION = "fields-v2";
+
+    private static final String FULL_INSTRUCTIONS = """
+                        Extraia informações do texto fornecido e retorne como JSON seguindo o modelo abaixo. Utilize o exemplo apenas como molde, não copie os valores – extraia os dados reais conforme os campos encontrados.
+                        
+                        ### Regras Gerais:
+                        1. **Campos Obrigatórios:**
+                           - `dataEmissao`: Data de emissão (formato `dd/MM/yyyy` ou `yyyy-MM-dd`).
+                           - `dataVencimento`: Data de vencimento.
+                           - `valorTotal`: Valor total do documento.
+                           - `emitente`: Nome ou razão social do emitente.
+                           - `cnpjCpfEmitente`: CNPJ/CPF do emitente. **Atenção:** Valide e normalize removendo formatações (pontos, barras, hífens). Este valor deve corresponder ao emitente da nota e não à transportadora, a não ser que a transportadora seja a emissora.
+                           - `cnpjCpfDestinatario`: CNPJ/CPF do destinatário (quando presente).
+                        
+                        2. **Dados Importantes Adicionais:**
+                           - **Número da Nota (`numero`) e Série (`serie`):** Estes campos são essenciais e devem ser extraídos com precisão. Procure por indicadores como "Nº.", "Número da Nota", "Nota" e "Série" ou "SÉRIE" para identificar corretamente esses valores.
+                        
+                        3. **Adaptação de Termos:**
+                           - Identifique e normalize CNPJs e CPFs em qualquer formato.
+                           - Se o campo "Emitente" for identificado, relacione o CNPJ/CPF mais próximo como `cnpjCpfEmitente`.
+                           - Associe o campo "Destinatário" ao nome e CNPJ/CPF mais próximos, se presentes.
+                        
+                        4. **Itens e Detalhamento:**
+                           - Se o documento contiver itens, extraia-os em um array no campo `itens` com os atributos:
+                             - `descricao`
+                             - `quantidade`
+                             - `valorUnitario`
+                             - `valorTotalItem`
+                           - Para documentos do tipo NF (ExpenseNF, ExpenseNF3, ExpenseNFC), cada item pode incluir uma lista de `impostos` com os campos:
+                             - `tipoImposto` (ex.: ICMS, IPI, PIS)
+                             - `valor`
+                        
+                        5. **Datas e Períodos:**
+                           - Converta as datas para os formatos especificados (`dd/MM/yyyy` ou `yyyy-MM-dd`).
+                           - Quando aplicável, extraia os campos `periodoInicio` e `periodoFim`.
+                        
+                        6. **Campos Específicos por Tipo de Documento:**
+                           - **ExpenseBoleto:** Extraia também os campos `bancoEmissor`, `codigoBarras`, `linhaDigitavel`, `cedente`, `nossoNumero`, `juros`, `multa` e `descontos`.
+                           - **ExpenseCT:** Extraia também os campos `remetente`, `veiculo`, `pesoCarga`, `tipoCarga` e `motorista`.
+                           - **ExpenseFatura:** Extraia também o campo `valorPago` e a lista de itens conforme definido.
+                           - **ExpenseNF:** Extraia também os campos `chaveAcesso`, `numero`, `serie`, `valorFrete`, `valorSeguro` e `descontos`, além dos itens com seus impostos.
+                           - **ExpenseNF3:** Além dos campos de ExpenseNF, extraia `numeroMedidor`, `periodoInicio` e `periodoFim`.
+                           - **ExpenseNFS:** Extraia também os campos `numero`, `serie`, `codigoVerificacao`, `descricaoServico`, `aliquotaISS`, `valorISS`, `descontos` e `valorLiquido`.
+                        
+                        7. **Instruções Adicionais:**
+                           - Utilize o modelo JSON abaixo apenas como referência para a estrutura final.
+                           - Se algum campo obrigatório não for identificado, retorne-o como `null` ou omita-o.
+                           - A resposta deve ser **exclusivamente** o JSON final, sem comentários ou explicações adicionais.
+                        """;
+
+    // Descrição de cada campo obrigatório no prompt reduzido usado para completar a extração determinística
+    private static final Map<String, String> FIELD_DESCRIPTIONS = Map.of(
+            ExpenseCompleteness.DATA_EMISSAO, "Data de emissão (formato `yyyy-MM-dd`).",
+            ExpenseCompleteness.DATA_VENCIMENTO, "Data de vencimento (formato `yyyy-MM-dd`).",
+            ExpenseCompleteness.VALOR_TOTAL, "Valor total do documento, como número com ponto decimal.",
+            ExpenseCompleteness.EMITENTE, "Nome ou razão social do emitente.",
+            ExpenseCompleteness.CNPJ_CPF_EMITENTE, "CNPJ/CPF do emitente, somente dígitos. Deve ser o emitente do documento e não a transportadora ou o destinatário.",
+            ExpenseCompleteness.CNPJ_CPF_DESTINATARIO, "CNPJ/CPF do destinatário (tomador, pagador ou sacado), somente dígitos.",
+            ExpenseCompleteness.NUMERO, "Número do documento (procure por \"Nº.\", \"Número da Nota\" ou \"Nota\").",
+            ExpenseCompleteness.CHAVE_ACESSO, "Chave de acesso de 44 dígitos, sem espaços.",
+            ExpenseCompleteness.LINHA_DIGITAVEL, "Linha digitável do boleto, somente dígitos."
+    );
+
     private final OpenAIConfig config;
     private final ObjectMapper objectMapper;
     private final RepositoryFacade repository;
+    private final LlmHttpClient httpClient;
+    private final LlmResponseCache responseCache;
+    private final LlmPromptCompactor promptCompactor;
+    private final MeterRegistry meterRegistry;
 
     @Override
     public Expense getExpense(Document document, ExpenseType type) {
@@ -57,11 +140,25 @@ public class OpenAIExtractorImpl implements OpenAiExtractor {
             AIMessageModel aiMessageModel = repository.aiMessageModel
                     .findByExpenseTypeAndPlanType(type, planType != null ? planType : AiPlanType.BASIC);
 
-            OpenAIDTO request = buildRequest(document.getTextExtracted(), aiMessageModel);
+            String promptVersion = FULL_PROMPT_VERSION + ":" + aiMessageModel.getId() + ":"
+                    + contentHash(aiMessageModel.getRules(), aiMessageModel.getJsonModel());
+            String text = promptCompactor.compact(document, type, planType, LlmHttpClient.Provider.OPENAI);
+            String cacheKey = responseCache.key(text, type, promptVersion, config.getModel());
+            Optional<String> cached = responseCache.get(cacheKey);
+            if (cached.isPresent()) {
+                return mapJsonToExpense(processAIResponse(cached.get()), document, type);
+            }
+
+            OpenAIDTO request = buildRequest(getSystemMessage(aiMessageModel), text,
+                    FULL_PROMPT_VERSION + ":" + aiMessageModel.getId());
             ResponseEntity<String> responseEntity = sendRequest(request);
 
-            logTokensUsage(responseEntity.getBody());
-            return mapJsonToExpense(processAIResponse(responseEntity.getBody()), document, type);
+            long totalTokens = logTokensUsage(responseEntity.getBody());
+            Expense expense = mapJsonToExpense(processAIResponse(responseEntity.getBody()), document, type);
+            if (expense != null) {
+                responseCache.put(cacheKey, type, promptVersion, config.getModel(), responseEntity.getBody(), totalTokens);
+            }
+            return expense;
 
         } catch (HttpClientErrorException e) {
             log.error("Erro ao se comunicar com a API da OpenAI: {}", e.getMessage(), e);
@@ -71,27 +168,98 @@ public class OpenAIExtractorImpl implements OpenAiExtractor {
         return null;
     }
 
+    @Override
+    public Expense completeExpense(Document document, ExpenseType type, Expense expense, Set<String> fields) {
+        try {
+            String promptVersion = MISSING_FIELDS_PROMPT_VERSION + ":" + String.join(",", fields);
+            String text = promptCompactor.compact(document, type, DocumentUtils.getAiPlanType(document),
+                    LlmHttpClient.Provider.OPENAI);
+            String cacheKey = responseCache.key(text, type, promptVersion, config.getModel());
+            Optional<String> cached = responseCache.get(cacheKey);
+            if (cached.isPresent()) {
+                mergeFields(processAIResponse(cached.get()), expense, fields);
+                return expense;
+            }
+
+            OpenAIDTO request = buildRequest(getMissingFieldsInstructions(type, fields), text,
+                    MISSING_FIELDS_PROMPT_VERSION + ":" + type);
+            ResponseEntity<String> responseEntity = sendRequest(request);
+
+            long totalTokens = logTokensUsage(responseEntity.getBody());
+            mergeFields(processAIResponse(responseEntity.getBody()), expense, fields);
+            responseCache.put(cacheKey, type, promptVersion, config.getModel(), responseEntity.getBody(), totalTokens);
+
+        } catch (HttpClientErrorException e) {
+            log.error("Erro ao se comunicar com a API da OpenAI: {}", e.getMessage(), e);
+        } catch (Exception e) {
+            log.error("Erro inesperado ao completar a despesa: {}", e.getMessage(), e);
+        }
+        return expense;
+    }
+
+    /**
+     * Copia para a despesa apenas os campos pedidos; campos extras ou nulos na resposta não sobrescrevem o que os
+     * extratores determinísticos já encontraram.
+     */
+    private void mergeFields(String json, Expense expense, Set<String> fields) throws IOException {
+        JsonNode node = objectMapper.readTree(json);
+        if (!(node instanceof ObjectNode response)) {
+            log.warn("Resposta da IA não é um objeto JSON: {}", json);
+            return;
+        }
+        response.retain(fields);
+        List<String> nullFields = new ArrayList<>();
+        response.fieldNames().forEachRemaining(name -> {
+            if (response.get(name).isNull()) {
+                nullFields.add(name);
+            }
+        });
+        response.remove(nullFields);
+        objectMapper.readerForUpdating(expense).readValue(response);
+    }
+
     private ResponseEntity<String> sendRequest(OpenAIDTO request) {
         try {
-            RestTemplate restTemplate = new RestTemplate();
             HttpEntity<String> entity = new HttpEntity<>(objectMapper.writeValueAsString(request), createHeaders());
-            return restTemplate.postForEntity(config.getUrl(), entity, String.class);
+            return httpClient.post(LlmHttpClient.Provider.OPENAI, config.getUrl(), entity);
         } catch (Exception e) {
             log.error("Erro ao enviar a requisição para a API da OpenAI: {}", e.getMessage(), e);
             throw new RuntimeException("Falha ao enviar a requisição para a API da OpenAI.");
         }
     }
 
-    private void logTokensUsage(String responseBody) {
+    /**
+     * Registra o consumo da chamada em log e na métrica {@code llm.tokens} (tag {@code kind}: {@code prompt},
+     * {@code cached} para a parte do prompt atendida pelo cache de prefixo da OpenAI, e {@code completion}).
+     *
+     * @return total de tokens da chamada
+     */
+    private long logTokensUsage(String responseBody) {
         try {
-            Map<String, Object> responseMap = objectMapper.readValue(responseBody, Map.class);
-            Map<String, Object> usage = (Map<String, Object>) responseMap.get("usage");
+            JsonNode usage = objectMapper.readTree(responseBody).path("usage");
+            long promptTokens = usage.path("prompt_tokens").asLong();
+            long cachedTokens = usage.path("prompt_tokens_details").path("cached_tokens").asLong();
+            long completionTokens = usage.path("completion_tokens").asLong();
 
-            log.info("Tokens usados - Prompt: {}, Resposta: {}, Total: {}",
-                    usage.get("prompt_tokens"), usage.get("completion_tokens"), usage.get("total_tokens"));
+            log.info("Tokens usados - Prompt: {} (em cache: {}), Resposta: {}, Total: {}",
+                    promptTokens, cachedTokens, completionTokens, usage.path("total_tokens").asLong());
+            countTokens("prompt", promptTokens);
+            countTokens("cached", cachedTokens);
+            countTokens("completion", completionTokens);
+            return usage.path("total_tokens").asLong();
         } catch (Exception e) {
             log.error("Erro ao registrar o uso de tokens: {}", e.getMessage(), e);
         }
+        return 0;
+    }
+
+    private void countTokens(String kind, long tokens) {
+        Counter.builder("llm.tokens")
+                .description("Tokens consumidos nas chamadas à API da OpenAI")
+                .tag("provider", LlmHttpClient.Provider.OPENAI.name())
+                .tag("kind", kind)
+                .register(meterRegistry)
+                .increment(tokens);
     }
 
     private Expense mapJsonToExpense(String json, Document document, ExpenseType type) {
@@ -117,9 +285,14 @@ public class OpenAIExtractorImpl implements OpenAiExtractor {
     }
 
 
-    private OpenAIDTO buildRequest(String extractedText, AIMessageModel aiMessageModel) {
-        OpenAIMessageDTO message = new OpenAIMessageDTO("user", getUserMessage(extractedText, aiMessageModel));
-        return new OpenAIDTO(config.getModel(), Collections.singletonList(message));
+    private OpenAIDTO buildRequest(String systemMessage, String extractedText, String promptCacheKey) {
+        return OpenAIDTO.builder()
+                .model(config.getModel())
+                .messages(List.of(
+                        new OpenAIMessageDTO("system", systemMessage),
+                        new OpenAIMessageDTO("user", getUserMessage(extractedText))))
+                .promptCacheKey(promptCacheKey)
+                .build();
     }
 
     private HttpHeaders createHeaders() {
@@ -129,67 +302,55 @@ public class OpenAIExtractorImpl implements OpenAiExtractor {
         return headers;
     }
 
-    private String getUserMessage(String extractedText, AIMessageModel aiMessageModel) {
+    /**
+     * Instruções, regras do tipo de documento e molde JSON: parte fixa do prompt para o mesmo modelo de mensagem,
+     * enviada antes do texto para que o cache de prefixo do provedor seja aproveitado entre documentos.
+     */
+    private String getSystemMessage(AIMessageModel aiMessageModel) {
+        return FULL_INSTRUCTIONS
+                + "\n" + Objects.toString(aiMessageModel.getRules(), "")
+                + "\n\n### Exemplo JSON (Molde):\n" + aiMessageModel.getJsonModel();
+    }
+
+    /**
+     * SHA-256 das regras e do molde JSON, para que qualquer edição do modelo de mensagem invalide as respostas
+     * guardadas no cache com a versão anterior do prompt.
+     */
+    private static String contentHash(String rules, String jsonModel) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((Objects.toString(rules, "") + '\0').getBytes(StandardCharsets.UTF_8));
+            digest.update(Objects.toString(jsonModel, "").getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível na JVM.", e);
+        }
+    }
+
+    private String getMissingFieldsInstructions(ExpenseType type, Set<String> fields) {
+        String fieldList = fields.stream()
+                .map(field -> "- `" + field + "`: " + FIELD_DESCRIPTIONS.getOrDefault(field, ""))
+                .collect(Collectors.joining("\n"));
         return String.format(
                 """
-                        Extraia informações do texto fornecido e retorne como JSON seguindo o modelo abaixo. Utilize o exemplo apenas como molde, não copie os valores – extraia os dados reais conforme os campos encontrados.
-                        
-                        ### Regras Gerais:
-                        1. **Campos Obrigatórios:**
-                           - `dataEmissao`: Data de emissão (formato `dd/MM/yyyy` ou `yyyy-MM-dd`).
-                           - `dataVencimento`: Data de vencimento.
-                           - `valorTotal`: Valor total do documento.
-                           - `emitente`: Nome ou razão social do emitente.
-                           - `cnpjCpfEmitente`: CNPJ/CPF do emitente. **Atenção:** Valide e normalize removendo formatações (pontos, barras, hífens). Este valor deve corresponder ao emitente da nota e não à transportadora, a não ser que a transportadora seja a emissora.
-                           - `cnpjCpfDestinatario`: CNPJ/CPF do destinatário (quando presente).
-                        
-                        2. **Dados Importantes Adicionais:**
-                           - **Número da Nota (`numero`) e Série (`serie`):** Estes campos são essenciais e devem ser extraídos com precisão. Procure por indicadores como "Nº.", "Número da Nota", "Nota" e "Série" ou "SÉRIE" para identificar corretamente esses valores.
-                        
-                        3. **Adaptação de Termos:**
-                           - Identifique e normalize CNPJs e CPFs em qualquer formato.
-                           - Se o campo "Emitente" for identificado, relacione o CNPJ/CPF mais próximo como `cnpjCpfEmitente`.
-                           - Associe o campo "Destinatário" ao nome e CNPJ/CPF mais próximos, se presentes.
+                        Extraia do texto fornecido, de um documento do tipo %s, somente os campos abaixo e retorne como JSON.
                         
-                        4. **Itens e Detalhamento:**
-                           - Se o documento contiver itens, extraia-os em um array no campo `itens` com os atributos:
-                             - `descricao`
-                             - `quantidade`
-                             - `valorUnitario`
-                             - `valorTotalItem`
-                           - Para documentos do tipo NF (ExpenseNF, ExpenseNF3, ExpenseNFC), cada item pode incluir uma lista de `impostos` com os campos:
-                             - `tipoImposto` (ex.: ICMS, IPI, PIS)
-                             - `valor`
-                        
-                        5. **Datas e Períodos:**
-                           - Converta as datas para os formatos especificados (`dd/MM/yyyy` ou `yyyy-MM-dd`).
-                           - Quando aplicável, extraia os campos `periodoInicio` e `periodoFim`.
-                        
-                        6. **Campos Específicos por Tipo de Documento:**
-                           - **ExpenseBoleto:** Extraia também os campos `bancoEmissor`, `codigoBarras`, `linhaDigitavel`, `cedente`, `nossoNumero`, `juros`, `multa` e `descontos`.
-                           - **ExpenseCT:** Extraia também os campos `remetente`, `veiculo`, `pesoCarga`, `tipoCarga` e `motorista`.
-                           - **ExpenseFatura:** Extraia também o campo `valorPago` e a lista de itens conforme definido.
-                           - **ExpenseNF:** Extraia também os campos `chaveAcesso`, `numero`, `serie`, `valorFrete`, `valorSeguro` e `descontos`, além dos itens com seus impostos.
-                           - **ExpenseNF3:** Além dos campos de ExpenseNF, extraia `numeroMedidor`, `periodoInicio` e `periodoFim`.
-                           - **ExpenseNFS:** Extraia também os campos `numero`, `serie`, `codigoVerificacao`, `descricaoServico`, `aliquotaISS`, `valorISS`, `descontos` e `valorLiquido`.
-                        
-                        7. **Instruções Adicionais:**
-                           - Utilize o modelo JSON abaixo apenas como referência para a estrutura final.
-                           - Se algum campo obrigatório não for identificado, retorne-o como `null` ou omita-o.
-                           - A resposta deve ser **exclusivamente** o JSON final, sem comentários ou explicações adicionais.
-                        
-                        %s
-                        
-                        ### Texto do PDF:
+                        ### Campos:
                         %s
                         
-                        ### Exemplo JSON (Molde):
-                        %s
+                        ### Instruções:
+                        - Se algum campo não for identificado, retorne-o como `null`.
+                        - A resposta deve ser **exclusivamente** o JSON com esses campos, sem comentários ou explicações adicionais.
                         """,
-                aiMessageModel.getRules(), extractedText, aiMessageModel.getJsonModel()
+                type, fieldList
         );
     }
 
+    // O texto do documento é a única parte variável e fica sempre no fim do prompt
+    private String getUserMessage(String extractedText) {
+        return "### Texto do PDF:\n" + extractedText;
+    }
+
     private String processAIResponse(String aiResponse) {
         try {
             return getJson(aiResponse, objectMapper);
@@ -1,24 +1,47 @@
 package br.com.groupsoftware.grouppay.extratoremail.extractor.core.impl;
 
+import br.com.groupsoftware.grouppay.extratoremail.config.PdfExtractionConfig;
 import br.com.groupsoftware.grouppay.extratoremail.domain.entity.Document;
 import br.com.groupsoftware.grouppay.extratoremail.domain.enums.DocumentExtractorType;
 import br.com.groupsoftware.grouppay.extratoremail.exception.MailReaderException;
+import br.com.groupsoftware.grouppay.extratoremail.extractor.core.DecodedSymbols;
+import br.com.groupsoftware.grouppay.extratoremail.extractor.core.ExtractionCache;
+import br.com.groupsoftware.grouppay.extratoremail.extractor.core.ExtractionCache.CachedExtraction;
 import br.com.groupsoftware.grouppay.extratoremail.extractor.core.OcrExtractor;
+import br.com.groupsoftware.grouppay.extratoremail.extractor.core.OcrExtractor.PageImage;
+import br.com.groupsoftware.grouppay.extratoremail.extractor.core.OcrTaskPriority;
 import br.com.groupsoftware.grouppay.extratoremail.extractor.core.PdfExtractor;
+import br.com.groupsoftware.grouppay.extratoremail.extractor.core.SymbolExtractor;
+import br.com.groupsoftware.grouppay.extratoremail.util.document.ExtractedTextUtil;
+import br.com.groupsoftware.grouppay.extratoremail.util.extractor.ExpenseFieldDetector;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.io.MemoryUsageSetting;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.text.PDFTextStripper;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * Serviço para extração de texto de documentos PDF utilizando PDFBox e OCR.
@@ -26,6 +49,28 @@ import java.util.concurrent.TimeoutException;
  * Este serviço tenta primeiro extrair o texto de um PDF usando a biblioteca PDFBox. Caso o conteúdo extraído seja vazio ou inválido,
  * ele utiliza o OCR (Tesseract) para tentar extrair o texto da imagem gerada do PDF.
  * </p>
+ * <p>
+ * A extração é feita por página: páginas com camada de texto são lidas pelo PDFBox e somente as páginas
+ * sem texto (digitalizadas) são enviadas ao OCR, com o resultado mesclado na ordem original das páginas.
+ * O OCR é distribuído por página e encerrado assim que os campos obrigatórios do tipo de documento forem encontrados.
+ * </p>
+ * <p>
+ * Antes de qualquer leitura o resultado é procurado no {@link ExtractionCache} pelo SHA-256 do arquivo e pela
+ * {@link #EXTRACTOR_VERSION}; reprocessamentos do mesmo PDF reaproveitam o texto sem executar PDFBox ou OCR.
+ * Só é gravado no cache o texto de extrações completas: resultados degradados (timeout ou recusa do OCR, limite
+ * de páginas, encerramento antecipado ou leitura parcial do PDF) são refeitos no próximo processamento.
+ * </p>
+ * <p>
+ * Para limitar o uso de heap com anexos muito grandes, o PDFBox usa memória mista com arquivo temporário,
+ * lê apenas uma janela de páginas (as primeiras e a última) e respeita um orçamento global de bytes em
+ * processamento, configurados em {@link PdfExtractionConfig}.
+ * </p>
+ * <p>
+ * Códigos de barras, QR Codes de NFC-e e payloads PIX lidos pelo {@link SymbolExtractor} são acrescentados ao
+ * texto. O OCR das páginas digitalizadas só é dispensado quando os códigos determinam a despesa: um único boleto
+ * ou NFC-e cujo valor confere com o texto das páginas lidas pelo PDFBox. Caso contrário, as imagens renderizadas
+ * para a leitura do código de barras são gravadas ao lado do PDF e reaproveitadas pelo OCR.
+ * </p>
  *
  * @author Marco Willy
  * @version 1.0
@@ -40,7 +85,25 @@ class PdfExtractorImpl implements PdfExtractor {
     private String readerDir;
 
     private final OcrExtractor ocr;
+    private final OcrPageScheduler ocrPageScheduler;
+    private final ExtractionCache extractionCache;
+    private final PdfMemoryBudget memoryBudget;
+    private final PdfExtractionConfig pdfExtractionConfig;
+    private final SymbolExtractor symbolExtractor;
     private static final long TIMEOUT_SECONDS = 60;
+    // Deve ser incrementada sempre que a extração ou a normalização mudarem, invalidando o cache
+    static final String EXTRACTOR_VERSION = "v5";
+    // Abaixo deste tamanho a página é tratada como imagem (sem camada de texto)
+    private static final int MIN_PAGE_TEXT_LENGTH = 10;
+    private static final int MAX_TEXT_LENGTH = 65500;
+
+    /**
+     * Texto de cada página lida pelo PDFBox, os códigos lidos das mesmas páginas, as imagens das páginas
+     * renderizadas para a leitura dos códigos e se todas as páginas do PDF estão na janela lida.
+     */
+    private record PdfBoxPages(SortedMap<Integer, String> texts, DecodedSymbols symbols,
+                               Map<Integer, PageImage> renderedImages, boolean allPagesRead) {
+    }
 
     public Document extractText(Document document) throws MailReaderException {
         // Constrói o caminho completo do arquivo incluindo readerDir
@@ -51,85 +114,328 @@ class PdfExtractorImpl implements PdfExtractor {
             throw new MailReaderException("Arquivo PDF não encontrado: " + pdfFile.getAbsolutePath());
         }
         
+        String contentHash = resolveContentHash(pdfFile);
+        if (contentHash != null) {
+            Optional<CachedExtraction> cached = extractionCache.get(contentHash, EXTRACTOR_VERSION);
+            if (cached.isPresent()) {
+                log.info("Texto do PDF {} recuperado do cache de extração ({}).", pdfFile.getName(), contentHash);
+                document.setTextExtracted(cached.get().text());
+                document.setDocumentExtractorTypes(new ArrayList<>(cached.get().extractorTypes()));
+                return document;
+            }
+        }
+
+        boolean complete = extractFromPdf(document, pdfFile);
+        if (contentHash != null && complete) {
+            extractionCache.put(contentHash, EXTRACTOR_VERSION,
+                    new CachedExtraction(document.getTextExtracted(), List.copyOf(document.getDocumentExtractorTypes())));
+        } else if (contentHash != null) {
+            log.info("Extração do PDF {} incompleta. Resultado não gravado no cache de extração.", pdfFile.getName());
+        }
+        return document;
+    }
+
+    /**
+     * Extrai o texto do PDF para o documento.
+     *
+     * @return {@code true} se todas as páginas foram processadas por completo e o resultado pode ir para o cache
+     */
+    private boolean extractFromPdf(Document document, File pdfFile) throws MailReaderException {
         log.debug("Extraindo texto do PDF: {}", pdfFile.getAbsolutePath());
-        String content = readPdfContentWithPdfBox(pdfFile);
-
-        // Verifica se o conteúdo extraído é válido (não vazio e tem tamanho mínimo)
-        // Não exige necessariamente "CNPJ" pois alguns PDFs podem não ter essa palavra
-        if (content != null && !content.trim().isEmpty() && content.trim().length() > 10) {
-            // Verifica se contém "CNPJ" ou outros indicadores de documento válido
-            String upperContent = content.toUpperCase();
-            boolean hasValidContent = upperContent.contains("CNPJ") || 
-                                     upperContent.contains("CPF") ||
-                                     upperContent.contains("CNPJ/CPF") ||
-                                     upperContent.matches(".*\\d{2}\\.\\d{3}\\.\\d{3}/\\d{4}-\\d{2}.*") || // Padrão CNPJ
-                                     upperContent.matches(".*\\d{3}\\.\\d{3}\\.\\d{3}-\\d{2}.*"); // Padrão CPF
-            
-            if (hasValidContent) {
+        PdfBoxPages pdfBoxPages = readPdfPagesWithPdfBox(pdfFile);
+        if (pdfBoxPages == null || pdfBoxPages.texts().isEmpty()) {
+            log.warn("PDFBox não conseguiu ler as páginas do PDF. Tentando OCR do documento inteiro...");
+            return extractWithFullOcr(document, pdfFile);
+        }
+        try {
+            return extractFromPdfPages(document, pdfFile, pdfBoxPages);
+        } finally {
+            deleteRenderedImages(pdfFile, pdfBoxPages.renderedImages());
+        }
+    }
+
+    private boolean extractFromPdfPages(Document document, File pdfFile, PdfBoxPages pdfBoxPages) throws MailReaderException {
+        SortedMap<Integer, String> pageTexts = pdfBoxPages.texts();
+        String symbolText = pdfBoxPages.symbols().asText();
+
+        // Classifica as páginas: com camada de texto ou somente imagem
+        List<Integer> imageOnlyPages = new ArrayList<>();
+        pageTexts.forEach((page, text) -> {
+            if (!hasTextLayer(text)) {
+                imageOnlyPages.add(page);
+            }
+        });
+
+        if (imageOnlyPages.isEmpty()) {
+            String content = withSymbols(mergePages(pageTexts.values()), symbolText);
+            if (hasValidContent(content)) {
                 log.info("Texto extraído com sucesso pelo PDFBox (contém indicadores válidos).");
-                updateDocumentWithContent(document, content, DocumentExtractorType.PDFBOX);
-                return document;
-            } else {
-                log.warn("Texto extraído pelo PDFBox não contém indicadores válidos (CNPJ/CPF). Tamanho: {} caracteres. Tentando OCR...", content.length());
+                updateDocumentWithContent(document, content, withSymbolType(List.of(DocumentExtractorType.PDFBOX), symbolText));
+                return pdfBoxPages.allPagesRead();
             }
+            log.warn("Texto extraído pelo PDFBox não contém indicadores válidos (CNPJ/CPF). Tamanho: {} caracteres. Tentando OCR...", content.length());
+            return extractWithPageOcr(document, pdfFile, pdfBoxPages);
+        }
+
+        // OCR apenas das páginas sem camada de texto, mesclando na ordem das páginas.
+        // O detector já recebe o texto das páginas lidas pelo PDFBox para permitir o encerramento antecipado do OCR.
+        log.info("PDF com {} página(s) lidas, {} sem camada de texto. Aplicando OCR somente nas páginas {}.",
+                pageTexts.size(), imageOnlyPages.size(), imageOnlyPages);
+        // Os códigos lidos das imagens entram no detector antes do OCR. Campos obrigatórios presentes não bastam para
+        // dispensar o OCR, que perderia o restante do texto digitalizado: é preciso que os códigos determinem a despesa.
+        ExpenseFieldDetector detector = new ExpenseFieldDetector();
+        pageTexts.values().stream().filter(this::hasTextLayer).forEach(detector::accept);
+        detector.accept(symbolText);
+        Map<Integer, String> ocrPages = Map.of();
+        boolean ocrComplete = false;
+        String textLayer = mergePages(pageTexts.values().stream().filter(this::hasTextLayer).toList());
+        if (detector.isComplete() && pdfBoxPages.symbols().determinesExpense(textLayer)) {
+            log.info("Despesa {} determinada pelos códigos lidos e confirmada pelo texto. OCR das páginas {} dispensado.",
+                    detector.getExpenseType(), imageOnlyPages);
         } else {
-            log.warn("Texto extraído pelo PDFBox é vazio ou muito curto. Tamanho: {}. Tentando OCR...", 
-                    content != null ? content.length() : 0);
+            OcrTaskPriority priority = OcrTaskPriority.of(document, detector.getNearestUpcomingDate());
+            OcrPageScheduler.OcrPages ocrResult = ocrPageScheduler.ocrPages(resolveOcrUsername(document), document.getFileName(),
+                    imageOnlyPages, pdfBoxPages.renderedImages(), detector, priority, TIMEOUT_SECONDS);
+            ocrPages = ocrResult.texts();
+            ocrComplete = ocrResult.complete();
         }
+        SortedMap<Integer, String> mergedPages = new TreeMap<>(pageTexts);
+        mergedPages.putAll(ocrPages);
+        String content = withSymbols(mergePages(mergedPages.values()), symbolText);
 
-        log.info("Tentando extrair texto usando OCR com Tesseract...");
-        try {
-            String email;
-            if (Objects.nonNull(document.getClientGroup())) {
-                email = document.getClientGroup().getEmail();
+        // Em PDFs totalmente digitalizados não há camada de texto para tentar de novo: a ausência de CNPJ/CPF no
+        // texto do OCR é só registrada e o documento segue para a extração; apenas texto vazio é erro
+        boolean scannedOnly = imageOnlyPages.size() == pageTexts.size();
+        boolean validContent = hasValidContent(content);
+        if (validContent || scannedOnly) {
+            if (content.isBlank()) {
+                throw extractionError(pdfFile);
+            }
+            if (!validContent) {
+                log.warn("Texto do OCR do PDF {} sem indicadores válidos (CNPJ/CPF). Tamanho: {} caracteres. Texto mantido para a extração.",
+                        pdfFile.getName(), content.length());
+            }
+            List<DocumentExtractorType> extractorTypes = new ArrayList<>();
+            if (imageOnlyPages.size() < pageTexts.size()) {
+                extractorTypes.add(DocumentExtractorType.PDFBOX);
             }
-            else {
-                email = document.getCompany().getEmail();
+            if (!ocrPages.isEmpty()) {
+                extractorTypes.add(DocumentExtractorType.OCR);
             }
+            log.info("Texto extraído com sucesso por página ({} via PDFBox, {} via OCR).",
+                    pageTexts.size() - imageOnlyPages.size(), ocrPages.size());
+            updateDocumentWithContent(document, content, withSymbolType(extractorTypes, symbolText));
+            return pdfBoxPages.allPagesRead() && ocrComplete;
+        }
+
+        log.warn("Extração híbrida por página não encontrou indicadores válidos. Tentando OCR do documento inteiro...");
+        return extractWithPageOcr(document, pdfFile, pdfBoxPages);
+    }
+
+    /**
+     * OCR de todas as páginas da janela lida (a camada de texto é descartada), distribuído por página.
+     */
+    private boolean extractWithPageOcr(Document document, File pdfFile, PdfBoxPages pdfBoxPages) throws MailReaderException {
+        log.info("Tentando extrair texto usando OCR com Tesseract...");
+        List<Integer> pages = new ArrayList<>(pdfBoxPages.texts().keySet());
+        String symbolText = pdfBoxPages.symbols().asText();
+        OcrPageScheduler.OcrPages ocrPages = ocrPageScheduler.ocrPages(resolveOcrUsername(document), document.getFileName(),
+                pages, pdfBoxPages.renderedImages(), new ExpenseFieldDetector(), OcrTaskPriority.of(document, null), TIMEOUT_SECONDS);
+        String content = withSymbols(mergePages(ocrPages.texts().values()), symbolText);
+        if (!content.isEmpty()) {
+            log.info("Texto extraído com sucesso pelo Tesseract OCR ({} de {} página(s)).", ocrPages.texts().size(), pages.size());
+            updateDocumentWithContent(document, content, withSymbolType(List.of(DocumentExtractorType.OCR), symbolText));
+            return pdfBoxPages.allPagesRead() && ocrPages.complete();
+        }
+        log.info("Tesseract OCR não conseguiu extrair texto significativo.");
+        throw extractionError(pdfFile);
+    }
 
-            Future<String> futureContent = ocr.submitOcrTask(email, document.getFileName());
-            content = futureContent.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    private boolean extractWithFullOcr(Document document, File pdfFile) throws MailReaderException {
+        log.info("Tentando extrair texto usando OCR com Tesseract...");
+        Future<String> futureContent = null;
+        try {
+            futureContent = ocr.submitOcrTask(resolveOcrUsername(document), document.getFileName(), OcrTaskPriority.of(document, null));
+            String content = futureContent.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
 
             if (content != null && !content.trim().isEmpty()) {
                 log.info("Texto extraído com sucesso pelo Tesseract OCR.");
-                updateDocumentWithContent(document, content, DocumentExtractorType.OCR);
-                return document;
+                updateDocumentWithContent(document, content, List.of(DocumentExtractorType.OCR));
+                return true;
             } else {
                 log.info("Tesseract OCR não conseguiu extrair texto significativo.");
             }
         } catch (TimeoutException te) {
+            futureContent.cancel(true);
             log.error("Timeout ao realizar OCR com Tesseract para o arquivo {}: {}", pdfFile.getAbsolutePath(), te.getMessage(), te);
         } catch (Exception e) {
             log.error("Erro ao realizar OCR com Tesseract para o arquivo {}: {}", pdfFile.getAbsolutePath(), e.getMessage(), e);
         }
+        throw extractionError(pdfFile);
+    }
+
+    private String resolveContentHash(File pdfFile) {
+        try {
+            return extractionCache.contentHash(pdfFile);
+        } catch (IOException e) {
+            log.warn("Não foi possível calcular o hash do PDF {}. Cache de extração ignorado: {}", pdfFile.getName(), e.getMessage());
+            return null;
+        }
+    }
 
+    private String resolveOcrUsername(Document document) {
+        if (Objects.nonNull(document.getClientGroup())) {
+            return document.getClientGroup().getEmail();
+        }
+        return document.getCompany().getEmail();
+    }
+
+    private MailReaderException extractionError(File pdfFile) {
         String errorMessage = String.format(
             "Erro ao extrair texto do PDF. Arquivo: %s. PDFBox não conseguiu extrair texto válido e OCR também falhou ou não retornou conteúdo.",
             pdfFile.getAbsolutePath()
         );
-        throw new MailReaderException(errorMessage);
+        return new MailReaderException(errorMessage);
     }
 
-    private String readPdfContentWithPdfBox(File pdfFile) {
-        try (PDDocument document = PDDocument.load(pdfFile)) {
-            PDFTextStripper stripper = new PDFTextStripper();
-            stripper.setSortByPosition(true);
-            return stripper.getText(document);
+    /**
+     * Extrai o texto de cada página separadamente, usando o mesmo {@link PDFTextStripper} com
+     * página inicial e final ajustadas. Retorna {@code null} se o PDF não puder ser lido.
+     * <p>
+     * O documento é aberto em modo misto memória/arquivo temporário e sob o {@link PdfMemoryBudget};
+     * somente as primeiras {@code headPages} páginas e a última são lidas. Com o documento ainda aberto, o
+     * {@link SymbolExtractor} lê os códigos das páginas, renderizando apenas as que não têm camada de texto; as
+     * imagens são gravadas ao lado do PDF para o OCR.
+     * </p>
+     */
+    private PdfBoxPages readPdfPagesWithPdfBox(File pdfFile) {
+        int reserved = 0;
+        try {
+            reserved = memoryBudget.acquire(pdfFile.length());
+            try (PDDocument document = PDDocument.load(pdfFile, memoryUsageSetting())) {
+                int pageCount = document.getNumberOfPages();
+                List<Integer> pages = pageWindow(pageCount);
+                if (pages.size() < pageCount) {
+                    log.info("PDF {} com {} páginas. Lendo somente as páginas {}.", pdfFile.getName(), pageCount, describeWindow(pages));
+                }
+                PDFTextStripper stripper = new PDFTextStripper();
+                stripper.setSortByPosition(true);
+                SortedMap<Integer, String> pageTexts = new TreeMap<>();
+                for (int page : pages) {
+                    stripper.setStartPage(page);
+                    stripper.setEndPage(page);
+                    pageTexts.put(page, stripper.getText(document));
+                }
+                List<Integer> imageOnlyPages = pageTexts.entrySet().stream()
+                        .filter(entry -> !hasTextLayer(entry.getValue()))
+                        .map(Map.Entry::getKey)
+                        .toList();
+                Map<Integer, PageImage> renderedImages = new HashMap<>();
+                DecodedSymbols symbols = symbolExtractor.decode(document, pages, imageOnlyPages,
+                        (page, image, dpi) -> storeRenderedImage(pdfFile, page, image, dpi).ifPresent(stored -> renderedImages.put(page, stored)));
+                return new PdfBoxPages(pageTexts, symbols, renderedImages, pages.size() == pageCount);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("Interrompido aguardando orçamento de memória para o PDF {}.", pdfFile.getName());
+            return null;
         } catch (Exception e) {
             log.error("Erro ao extrair texto com PDFBox: {}", e.getMessage(), e);
             return null;
+        } finally {
+            if (reserved > 0) {
+                memoryBudget.release(reserved);
+            }
+        }
+    }
+
+    // Mesmo padrão de nome (nomePDF-número.png) limpo pelo job de extração caso a remoção abaixo não ocorra
+    private Optional<PageImage> storeRenderedImage(File pdfFile, int page, BufferedImage image, int dpi) {
+        String fileName = pdfFile.getName().replaceAll("\\.pdf$", "") + "-" + page + ".png";
+        try {
+            ImageIO.write(image, "png", new File(pdfFile.getParentFile(), fileName));
+            return Optional.of(new PageImage(fileName, dpi));
+        } catch (IOException e) {
+            log.warn("Falha ao gravar a imagem da página {} do PDF {}. O OCR renderizará a página: {}", page, pdfFile.getName(), e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private void deleteRenderedImages(File pdfFile, Map<Integer, PageImage> renderedImages) {
+        for (PageImage image : renderedImages.values()) {
+            try {
+                Files.deleteIfExists(new File(pdfFile.getParentFile(), image.fileName()).toPath());
+            } catch (IOException e) {
+                log.warn("Falha ao remover a imagem {} do PDF {}: {}", image.fileName(), pdfFile.getName(), e.getMessage());
+            }
+        }
+    }
+
+    private MemoryUsageSetting memoryUsageSetting() {
+        MemoryUsageSetting setting = MemoryUsageSetting.setupMixed(pdfExtractionConfig.getMainMemoryMb() * 1024 * 1024);
+        if (pdfExtractionConfig.getTempDir() != null && !pdfExtractionConfig.getTempDir().isBlank()) {
+            setting.setTempDir(new File(pdfExtractionConfig.getTempDir()));
+        }
+        return setting;
+    }
+
+    // Primeiras headPages páginas mais a última
+    private List<Integer> pageWindow(int pageCount) {
+        int head = Math.max(1, pdfExtractionConfig.getHeadPages());
+        if (pageCount <= head + 1) {
+            return IntStream.rangeClosed(1, pageCount).boxed().toList();
+        }
+        List<Integer> pages = new ArrayList<>(IntStream.rangeClosed(1, head).boxed().toList());
+        pages.add(pageCount);
+        return pages;
+    }
+
+    private String describeWindow(List<Integer> pages) {
+        return "1-" + pages.get(pages.size() - 2) + " e " + pages.get(pages.size() - 1);
+    }
+
+    private boolean hasTextLayer(String pageText) {
+        return pageText != null && pageText.trim().length() > MIN_PAGE_TEXT_LENGTH;
+    }
+
+    private String mergePages(Collection<String> pages) {
+        return pages.stream()
+                .filter(page -> page != null && !page.isBlank())
+                .map(String::trim)
+                .collect(Collectors.joining("\n\n"));
+    }
+
+    // Os códigos lidos vão ao final do texto, depois das páginas
+    private String withSymbols(String content, String symbolText) {
+        if (symbolText.isEmpty()) {
+            return content;
+        }
+        return content.isEmpty() ? symbolText : content + "\n\n" + symbolText;
+    }
+
+    private List<DocumentExtractorType> withSymbolType(List<DocumentExtractorType> extractorTypes, String symbolText) {
+        if (symbolText.isEmpty()) {
+            return extractorTypes;
+        }
+        List<DocumentExtractorType> types = new ArrayList<>(extractorTypes);
+        types.add(DocumentExtractorType.SYMBOL);
+        return types;
+    }
+
+    // Verifica se contém "CNPJ" ou outros indicadores de documento válido.
+    // Não exige necessariamente "CNPJ" pois alguns PDFs podem não ter essa palavra
+    private boolean hasValidContent(String content) {
+        if (content == null || content.trim().length() <= MIN_PAGE_TEXT_LENGTH) {
+            return false;
         }
+        return ExtractedTextUtil.hasDocumentIndicators(content);
     }
 
-    private void updateDocumentWithContent(Document document, String content, DocumentExtractorType extractorType) {
-        document.setDocumentExtractorTypes(List.of(extractorType));
+    private void updateDocumentWithContent(Document document, String content, List<DocumentExtractorType> extractorTypes) {
+        document.setDocumentExtractorTypes(extractorTypes);
         // Normalização menos agressiva que preserva caracteres importantes para extração
         // Preserva: letras, números, espaços, pontuação comum, símbolos monetários e especiais
-        String extractedTextNormalized = content
-                .replaceAll("[^\\p{L}\\p{N}\\s:/.\\-,;()\\[\\]{}|#*+=<>\"'`~^&!?\\\\@$%R]", " ") // remove apenas símbolos realmente indesejados
-                .replaceAll("\\s+", " ") // normaliza espaços múltiplos
-                .trim();
-        String safeExtractedText = extractedTextNormalized.substring(0, Math.min(65500, extractedTextNormalized.length()));
+        String safeExtractedText = ExtractedTextUtil.normalize(content, MAX_TEXT_LENGTH);
         document.setTextExtracted(safeExtractedText);
     }
 }
@@ -0,0 +1,50 @@
+package br.com.groupsoftware.grouppay.extratoremail.extractor.core.impl;
+
+import br.com.groupsoftware.grouppay.extratoremail.config.PdfExtractionConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * Orçamento global de bytes de PDFs abertos simultaneamente pelo PDFBox.
+ * <p>
+ * As permissões do semáforo são contadas em KB. Cada documento reserva o tamanho do seu arquivo, limitado ao
+ * orçamento total, e bloqueia enquanto não houver espaço; assim poucos documentos grandes não disputam o heap
+ * com o restante do processamento paralelo.
+ * </p>
+ *
+ * @author Marco Willy
+ * @version 1.0
+ * @since 2025
+ */
+@Slf4j
+@Component
+class PdfMemoryBudget {
+
+    private final int totalPermits;
+    private final Semaphore permits;
+
+    PdfMemoryBudget(PdfExtractionConfig config) {
+        this.totalPermits = (int) Math.min(Integer.MAX_VALUE, Math.max(1, config.getInFlightBudgetMb() * 1024));
+        this.permits = new Semaphore(totalPermits, true);
+    }
+
+    /**
+     * Reserva o orçamento para um arquivo de {@code bytes} bytes, bloqueando até que esteja disponível.
+     *
+     * @return quantidade de permissões reservadas, a ser devolvida em {@link #release(int)}
+     */
+    int acquire(long bytes) throws InterruptedException {
+        int requested = (int) Math.min(totalPermits, Math.max(1, bytes / 1024));
+        if (!permits.tryAcquire(requested)) {
+            log.info("Aguardando orçamento de memória para abrir PDF de {} KB ({} KB livres).", requested, permits.availablePermits());
+            permits.acquire(requested);
+        }
+        return requested;
+    }
+
+    void release(int reserved) {
+        permits.release(reserved);
+    }
+}
@@ -0,0 +1,100 @@
+package br.com.groupsoftware.grouppay.extratoremail.extractor.core.impl;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.apache.pdfbox.text.TextPosition;
+
+import java.awt.geom.Rectangle2D;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Localiza valores no texto de um PDF e devolve a posição em que aparecem.
+ * <p>
+ * Durante a extração, mantém por página somente as letras e dígitos (em maiúsculas) junto com a
+ * {@link TextPosition} de cada um. Assim um valor é encontrado independentemente da pontuação usada no
+ * documento (CNPJ formatado, data com barras, valor com separador de milhar).
+ * </p>
+ *
+ * @author Marco Willy
+ * @version 1.0
+ * @since 2025
+ */
+class PdfTextLocator extends PDFTextStripper {
+
+    record Location(int page, Rectangle2D bounds) {
+    }
+
+    private final Map<Integer, StringBuilder> textByPage = new TreeMap<>();
+    private final Map<Integer, List<TextPosition>> positionsByPage = new TreeMap<>();
+
+    PdfTextLocator(PDDocument document, int maxPages) throws IOException {
+        setSortByPosition(true);
+        setStartPage(1);
+        setEndPage(Math.min(maxPages, document.getNumberOfPages()));
+        writeText(document, new StringWriter());
+    }
+
+    static String normalize(String value) {
+        StringBuilder normalized = new StringBuilder(value.length());
+        value.codePoints()
+                .filter(Character::isLetterOrDigit)
+                .map(Character::toUpperCase)
+                .forEach(normalized::appendCodePoint);
+        return normalized.toString();
+    }
+
+    @Override
+    protected void writeString(String text, List<TextPosition> textPositions) {
+        int page = getCurrentPageNo();
+        StringBuilder pageText = textByPage.computeIfAbsent(page, key -> new StringBuilder());
+        List<TextPosition> pagePositions = positionsByPage.computeIfAbsent(page, key -> new ArrayList<>());
+        for (TextPosition position : textPositions) {
+            String unicode = position.getUnicode();
+            if (unicode == null) {
+                continue;
+            }
+            String normalized = normalize(unicode);
+            for (int i = 0; i < normalized.length(); i++) {
+                pageText.append(normalized.charAt(i));
+                pagePositions.add(position);
+            }
+        }
+    }
+
+    /**
+     * Primeira ocorrência do valor (já normalizado) na ordem de leitura.
+     */
+    Optional<Location> locate(String normalizedValue) {
+        if (normalizedValue.isEmpty()) {
+            return Optional.empty();
+        }
+        for (Map.Entry<Integer, StringBuilder> page : textByPage.entrySet()) {
+            int index = page.getValue().indexOf(normalizedValue);
+            if (index >= 0) {
+                List<TextPosition> positions = positionsByPage.get(page.getKey()).subList(index, index + normalizedValue.length());
+                return Optional.of(new Location(page.getKey(), bounds(positions)));
+            }
+        }
+        return Optional.empty();
+    }
+
+    private Rectangle2D bounds(List<TextPosition> positions) {
+        float minX = Float.MAX_VALUE;
+        float minY = Float.MAX_VALUE;
+        float maxX = -Float.MAX_VALUE;
+        float maxY = -Float.MAX_VALUE;
+        for (TextPosition position : positions) {
+            minX = Math.min(minX, position.getXDirAdj());
+            maxX = Math.max(maxX, position.getXDirAdj() + position.getWidthDirAdj());
+            minY = Math.min(minY, position.getYDirAdj() - position.getHeightDir());
+            maxY = Math.max(maxY, position.getYDirAdj());
+        }
+        return new Rectangle2D.Float(minX, minY, maxX - minX, maxY - minY);
+    }
+}
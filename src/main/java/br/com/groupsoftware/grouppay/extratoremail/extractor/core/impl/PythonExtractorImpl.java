@@ -2,6 +2,8 @@ package br.com.groupsoftware.grouppay.extratoremail.extractor.core.impl;
 
 import br.com.groupsoftware.grouppay.extratoremail.exception.MailReaderException;
 import br.com.groupsoftware.grouppay.extratoremail.extractor.core.PythonExtractor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
@@ -19,6 +21,11 @@ import java.nio.charset.StandardCharsets;
  * O script é chamado através de um processo do sistema operacional, e o texto extraído é capturado
  * a partir da saída do script.</p>
  *
+ * <p>Quando o {@link PythonWorkerPool} está habilitado, a extração é delegada a um worker persistente,
+ * evitando iniciar o interpretador e recarregar os modelos a cada PDF. Se o pool falhar (worker que não
+ * inicia, não é liberado a tempo ou encerra durante a requisição), o PDF é extraído pelo script avulso e a
+ * ocorrência é contada em {@code python.worker.fallback}.</p>
+ *
  * @author Marco Willy
  * @version 1.0
  * @since 2024
@@ -28,13 +35,32 @@ import java.nio.charset.StandardCharsets;
 @Component
 class PythonExtractorImpl implements PythonExtractor {
 
+    private final PythonWorkerPool workerPool;
+    private final Counter fallbackCounter;
+
     @Value("${python.scripts}")
     private String scriptPath;
 
     @Value("${python.path}")
     private String pythonPath;
 
+    PythonExtractorImpl(PythonWorkerPool workerPool, MeterRegistry meterRegistry) {
+        this.workerPool = workerPool;
+        this.fallbackCounter = Counter.builder("python.worker.fallback")
+                .description("Extrações feitas pelo script Python avulso por falha do pool de workers")
+                .register(meterRegistry);
+    }
+
     public String extractText(File pdfFile) throws MailReaderException {
+        if (workerPool.isEnabled()) {
+            try {
+                return workerPool.extract(pdfFile);
+            } catch (PythonWorkerPool.WorkerUnavailableException e) {
+                fallbackCounter.increment();
+                log.warn("Pool de workers Python indisponível ({}); extraindo {} pelo script avulso.",
+                        e.getMessage(), pdfFile.getName());
+            }
+        }
         try {
             // Resolva o caminho relativo para o script
             String absoluteScriptPath = new File(scriptPath).getCanonicalPath();
@@ -0,0 +1,271 @@
+package br.com.groupsoftware.grouppay.extratoremail.extractor.core.impl;
+
+import br.com.groupsoftware.grouppay.extratoremail.config.PythonWorkerConfig;
+import br.com.groupsoftware.grouppay.extratoremail.exception.MailReaderException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool supervisionado de processos Python de longa duração para extração de texto.
+ * <p>
+ * Cada worker executa {@code extract_text_worker.py}, que importa as bibliotecas e carrega o modelo do EasyOCR
+ * uma única vez, e troca mensagens em JSON por linha pela entrada e saída padrão. A fila de workers ociosos
+ * limita a concorrência ao tamanho do pool. Workers que excedem o tempo da requisição, encerram inesperadamente
+ * ou falham na verificação periódica de saúde são finalizados e substituídos em segundo plano.
+ * </p>
+ * <p>
+ * Os workers são iniciados na primeira extração, para não ocupar memória com modelos em ambientes que não
+ * utilizam o extrator Python.
+ * </p>
+ * <p>
+ * Falhas do próprio pool (nenhum worker ativo, nenhum worker liberado no prazo ou worker encerrado durante a
+ * requisição) são sinalizadas por {@link WorkerUnavailableException}, para que o chamador possa extrair o
+ * documento por outro caminho. Tempo esgotado e erros informados pelo worker são tratados como erros do
+ * documento.
+ * </p>
+ *
+ * @author Marco Willy
+ * @version 1.0
+ * @since 2025
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+class PythonWorkerPool {
+
+    private static final long PING_TIMEOUT_SECONDS = 10;
+
+    @Value("${python.path}")
+    private String pythonPath;
+
+    private final PythonWorkerConfig config;
+    private final ObjectMapper objectMapper;
+
+    private final BlockingQueue<PythonWorker> idleWorkers = new LinkedBlockingQueue<>();
+    // Workers ativos ou em inicialização; usado para completar o pool após falhas
+    private final AtomicInteger workerCount = new AtomicInteger();
+    private final AtomicLong requestIds = new AtomicLong();
+    private final ExecutorService ioExecutor = Executors.newCachedThreadPool();
+    private volatile boolean started;
+    private volatile boolean shuttingDown;
+
+    /**
+     * Falha do pool, e não do documento: a mesma extração pode ser feita sem os workers.
+     */
+    static class WorkerUnavailableException extends MailReaderException {
+        WorkerUnavailableException(String message) {
+            super(message);
+        }
+    }
+
+    boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    String extract(File pdfFile) throws MailReaderException {
+        if (!started) {
+            started = true;
+            fillPool();
+        } else if (workerCount.get() == 0) {
+            // Todos os workers falharam ao iniciar; tenta de novo em segundo plano sem prender esta extração
+            fillPool();
+            throw new WorkerUnavailableException("Nenhum worker Python ativo.");
+        }
+        PythonWorker worker;
+        try {
+            worker = idleWorkers.poll(config.getAcquireTimeoutSeconds(), TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MailReaderException("Interrompido aguardando um worker Python disponível.");
+        }
+        if (worker == null) {
+            throw new WorkerUnavailableException("Nenhum worker Python disponível após " + config.getAcquireTimeoutSeconds() + " segundos.");
+        }
+
+        boolean healthy = false;
+        try {
+            ObjectNode request = objectMapper.createObjectNode()
+                    .put("op", "extract")
+                    .put("path", pdfFile.getAbsolutePath());
+            JsonNode response = worker.request(request, config.getRequestTimeoutSeconds());
+            healthy = true;
+            if (!response.path("ok").asBoolean()) {
+                throw new MailReaderException("Erro ao executar extração no worker Python: " + response.path("error").asText());
+            }
+            return response.path("output").asText().trim();
+        } catch (TimeoutException e) {
+            throw new MailReaderException("Timeout de " + config.getRequestTimeoutSeconds() + " segundos na extração do worker Python: " + pdfFile.getName());
+        } catch (IOException e) {
+            throw new WorkerUnavailableException("Worker Python encerrado durante a extração: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MailReaderException("Extração no worker Python interrompida: " + pdfFile.getName());
+        } finally {
+            release(worker, healthy);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${python.worker.health-check-interval-ms:60000}")
+    void healthCheck() {
+        if (!config.isEnabled() || !started || shuttingDown) {
+            return;
+        }
+        // Verifica apenas os workers ociosos no momento; os ocupados são validados pela própria requisição
+        for (int i = idleWorkers.size(); i > 0; i--) {
+            PythonWorker worker = idleWorkers.poll();
+            if (worker == null) {
+                break;
+            }
+            boolean healthy = false;
+            try {
+                JsonNode response = worker.request(objectMapper.createObjectNode().put("op", "ping"), PING_TIMEOUT_SECONDS);
+                healthy = response.path("ok").asBoolean();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                log.warn("Worker Python {} falhou na verificação de saúde: {}", worker.pid(), e.getMessage());
+            } finally {
+                release(worker, healthy);
+            }
+        }
+        fillPool();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        shuttingDown = true;
+        PythonWorker worker;
+        while ((worker = idleWorkers.poll()) != null) {
+            worker.destroy();
+        }
+        ioExecutor.shutdownNow();
+    }
+
+    private void release(PythonWorker worker, boolean healthy) {
+        if (healthy && worker.isAlive() && !shuttingDown) {
+            idleWorkers.offer(worker);
+            return;
+        }
+        worker.destroy();
+        workerCount.decrementAndGet();
+        if (!shuttingDown) {
+            log.warn("Worker Python {} descartado. Iniciando substituto...", worker.pid());
+            fillPool();
+        }
+    }
+
+    private synchronized void fillPool() {
+        while (workerCount.get() < config.getPoolSize()) {
+            workerCount.incrementAndGet();
+            ioExecutor.submit(this::startWorker);
+        }
+    }
+
+    private void startWorker() {
+        try {
+            PythonWorker worker = new PythonWorker();
+            idleWorkers.offer(worker);
+            log.info("Worker Python {} iniciado.", worker.pid());
+        } catch (Exception e) {
+            workerCount.decrementAndGet();
+            log.error("Falha ao iniciar worker Python: {}", e.getMessage(), e);
+        }
+    }
+
+    private class PythonWorker {
+
+        private final Process process;
+        private final BufferedWriter writer;
+        private final BufferedReader reader;
+
+        PythonWorker() throws IOException, TimeoutException, InterruptedException {
+            File script = new File(config.getScript()).getCanonicalFile();
+            ProcessBuilder processBuilder = new ProcessBuilder(pythonPath, "-u", script.getPath());
+            processBuilder.directory(script.getParentFile());
+            processBuilder.environment().put("PYTHONIOENCODING", "utf-8");
+            processBuilder.redirectError(ProcessBuilder.Redirect.INHERIT);
+            process = processBuilder.start();
+            writer = new BufferedWriter(new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8));
+            reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+            try {
+                // O worker sinaliza "ready" após carregar os modelos
+                JsonNode ready = readResponse(null, config.getStartupTimeoutSeconds());
+                if (!ready.path("ok").asBoolean()) {
+                    throw new IOException("Worker Python não ficou pronto: " + ready.path("error").asText());
+                }
+            } catch (IOException | TimeoutException | InterruptedException e) {
+                destroy();
+                throw e;
+            }
+        }
+
+        JsonNode request(ObjectNode request, long timeoutSeconds) throws IOException, TimeoutException, InterruptedException {
+            String id = String.valueOf(requestIds.incrementAndGet());
+            request.put("id", id);
+            writer.write(objectMapper.writeValueAsString(request));
+            writer.newLine();
+            writer.flush();
+            return readResponse(id, timeoutSeconds);
+        }
+
+        private JsonNode readResponse(String id, long timeoutSeconds) throws IOException, TimeoutException, InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+            while (true) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    throw new TimeoutException("Tempo esgotado aguardando resposta do worker Python.");
+                }
+                String line;
+                try {
+                    line = ioExecutor.submit(reader::readLine).get(remaining, TimeUnit.NANOSECONDS);
+                } catch (ExecutionException e) {
+                    throw new IOException(e.getCause().getMessage(), e.getCause());
+                }
+                if (line == null) {
+                    throw new IOException("Worker Python encerrado (código " + (process.isAlive() ? "-" : process.exitValue()) + ").");
+                }
+                JsonNode response = objectMapper.readTree(line);
+                // Descarta respostas atrasadas de requisições anteriores
+                if (id == null || id.equals(response.path("id").asText(null))) {
+                    return response;
+                }
+            }
+        }
+
+        boolean isAlive() {
+            return process.isAlive();
+        }
+
+        long pid() {
+            return process.pid();
+        }
+
+        void destroy() {
+            process.destroyForcibly();
+        }
+    }
+}
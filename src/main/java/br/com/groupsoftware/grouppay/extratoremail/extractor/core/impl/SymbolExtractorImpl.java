@@ -0,0 +1,113 @@
+package br.com.groupsoftware.grouppay.extratoremail.extractor.core.impl;
+
+import br.com.groupsoftware.grouppay.extratoremail.config.PdfExtractionConfig;
+import br.com.groupsoftware.grouppay.extratoremail.extractor.core.DecodedSymbols;
+import br.com.groupsoftware.grouppay.extratoremail.extractor.core.SymbolExtractor;
+import br.com.groupsoftware.grouppay.extratoremail.util.brazil.BoletoUtil;
+import br.com.groupsoftware.grouppay.extratoremail.util.brazil.BoletoUtil.Boleto;
+import br.com.groupsoftware.grouppay.extratoremail.util.brazil.ChaveAcessoUtil;
+import br.com.groupsoftware.grouppay.extratoremail.util.brazil.ChaveAcessoUtil.QrCodeNfce;
+import br.com.groupsoftware.grouppay.extratoremail.util.brazil.PixUtil;
+import br.com.groupsoftware.grouppay.extratoremail.util.brazil.PixUtil.Pix;
+import br.com.groupsoftware.grouppay.extratoremail.util.document.ItfBarcodeUtil;
+import br.com.groupsoftware.grouppay.extratoremail.util.document.QrCodeUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.interactive.action.PDActionURI;
+import org.apache.pdfbox.pdmodel.interactive.annotation.PDAnnotation;
+import org.apache.pdfbox.pdmodel.interactive.annotation.PDAnnotationLink;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.springframework.stereotype.Component;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Implementação da leitura de códigos das páginas de um PDF.
+ * <p>
+ * Páginas sem camada de texto são renderizadas em tons de cinza e percorridas pelo {@link ItfBarcodeUtil} em
+ * busca do código de barras de 44 dígitos de boletos e guias, aceito somente se os dígitos verificadores
+ * conferirem em {@link BoletoUtil}. A mesma imagem é lida pelo {@link QrCodeUtil} em busca do QR Code da NFC-e
+ * e de payloads PIX. A imagem renderizada é entregue ao chamador para ser reaproveitada pelo OCR.
+ * </p>
+ * <p>
+ * Os links de todas as páginas também são verificados, pois muitos emissores gravam a URL do QR Code junto à
+ * imagem; assim o QR Code é aproveitado mesmo em páginas com camada de texto, que não são renderizadas.
+ * </p>
+ *
+ * @author Marco Willy
+ * @version 1.0
+ * @since 2025
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+class SymbolExtractorImpl implements SymbolExtractor {
+
+    private static final int BARCODE_LENGTH = 44;
+
+    private final PdfExtractionConfig pdfExtractionConfig;
+
+    @Override
+    public DecodedSymbols decode(PDDocument document, List<Integer> pages, Collection<Integer> renderedPages,
+                                 RenderedPageConsumer renderedImages) {
+        if (!pdfExtractionConfig.isSymbolDecoding()) {
+            return DecodedSymbols.empty();
+        }
+        List<Boleto> boletos = new ArrayList<>();
+        List<QrCodeNfce> nfce = new ArrayList<>();
+        List<Pix> pix = new ArrayList<>();
+        for (int page : pages) {
+            for (String uri : linkUris(document, page)) {
+                addQrCode(uri, nfce, pix);
+            }
+        }
+        PDFRenderer renderer = new PDFRenderer(document);
+        int dpi = Math.round(pdfExtractionConfig.getSymbolDpi());
+        for (int page : renderedPages) {
+            try {
+                BufferedImage image = renderer.renderImageWithDPI(page - 1, dpi, ImageType.GRAY);
+                renderedImages.accept(page, image, dpi);
+                for (String digits : ItfBarcodeUtil.find(image, BARCODE_LENGTH)) {
+                    BoletoUtil.decode(digits).filter(boleto -> !boletos.contains(boleto)).ifPresent(boletos::add);
+                }
+                for (String payload : QrCodeUtil.find(image)) {
+                    addQrCode(payload, nfce, pix);
+                }
+            } catch (IOException | RuntimeException e) {
+                log.warn("Falha ao ler os códigos da página {}: {}", page, e.getMessage());
+            }
+        }
+        DecodedSymbols symbols = new DecodedSymbols(List.copyOf(boletos), List.copyOf(nfce), List.copyOf(pix));
+        if (!symbols.isEmpty()) {
+            log.info("Códigos lidos do PDF: {} código(s) de barras, {} QR Code(s) de NFC-e e {} PIX.",
+                    boletos.size(), nfce.size(), pix.size());
+        }
+        return symbols;
+    }
+
+    private void addQrCode(String content, List<QrCodeNfce> nfce, List<Pix> pix) {
+        ChaveAcessoUtil.fromQrCode(content).filter(qrCode -> !nfce.contains(qrCode)).ifPresent(nfce::add);
+        PixUtil.find(content).filter(payload -> !pix.contains(payload)).ifPresent(pix::add);
+    }
+
+    private List<String> linkUris(PDDocument document, int page) {
+        List<String> uris = new ArrayList<>();
+        try {
+            for (PDAnnotation annotation : document.getPage(page - 1).getAnnotations()) {
+                if (annotation instanceof PDAnnotationLink link && link.getAction() instanceof PDActionURI action
+                        && action.getURI() != null) {
+                    uris.add(action.getURI());
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Falha ao ler os links da página {}: {}", page, e.getMessage());
+        }
+        return uris;
+    }
+}
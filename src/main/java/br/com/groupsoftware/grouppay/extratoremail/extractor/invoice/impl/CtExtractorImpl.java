@@ -1,12 +1,12 @@
 package br.com.groupsoftware.grouppay.extratoremail.extractor.invoice.impl;
 
 import br.com.groupsoftware.grouppay.extratoremail.domain.entity.Document;
-import br.com.groupsoftware.grouppay.extratoremail.domain.entity.Regex;
+import br.com.groupsoftware.grouppay.extratoremail.domain.model.CompiledRegex;
 import br.com.groupsoftware.grouppay.extratoremail.domain.model.Expense;
 import br.com.groupsoftware.grouppay.extratoremail.domain.model.ExpenseCT;
 import br.com.groupsoftware.grouppay.extratoremail.extractor.ExtractorTemplate;
 import br.com.groupsoftware.grouppay.extratoremail.extractor.invoice.CtExtractor;
-import br.com.groupsoftware.grouppay.extratoremail.repository.RepositoryFacade;
+import br.com.groupsoftware.grouppay.extratoremail.service.RegexSnapshotService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
@@ -33,24 +33,26 @@ import java.time.LocalDate;
 @Component
 public class CtExtractorImpl extends ExtractorTemplate implements CtExtractor {
 
-    public CtExtractorImpl(RepositoryFacade facade) {
-        super(facade);
+    public CtExtractorImpl(RegexSnapshotService regexSnapshot) {
+        super(regexSnapshot);
     }
 
     @Override
     public Expense getExpense(Document document) {
-        Regex regex = getRegexByDocument(document);
-        LocalDate dataEmissao = extractDate(document.getTextExtracted(), regex.getIssueDate());
-        String cnpjEmissor = extractByPattern(document.getTextExtracted(), regex.getIssuerCNPJ());
+        CompiledRegex regex = getRegexByDocument(document);
+        LocalDate dataEmissao = extractDate(document.getTextExtracted(), regex.issueDate());
+        String cnpjEmissor = extractByPattern(document.getTextExtracted(), regex.issuerCNPJ());
 
         ExpenseCT despesaCT = new ExpenseCT();
         despesaCT.setCnpjCpfEmitente(cnpjEmissor);
         despesaCT.setDataEmissao(dataEmissao);
-        despesaCT.setNumero(extractByPattern(document.getTextExtracted(), regex.getNumber()));
-        despesaCT.setSerie(extractByPattern(document.getTextExtracted(), regex.getSerie()));
-        despesaCT.setValorTotal(extractValueByPattern(document.getTextExtracted(), regex.getTotalValue()));
-        despesaCT.setEmitente(cnpjEmissor);
-        despesaCT.setDataEmissao(dataEmissao);
+        despesaCT.setNumero(extractByPattern(document.getTextExtracted(), regex.number()));
+        despesaCT.setSerie(extractByPattern(document.getTextExtracted(), regex.serie()));
+        despesaCT.setValorTotal(extractValueByPattern(document.getTextExtracted(), regex.totalValue()));
+
+        // Chave de acesso (44 posições, pode ter espaços no texto original); emitente, número e série da chave prevalecem
+        applyChaveAcesso(despesaCT, document.getTextExtracted(), document.getTokenIndex()).ifPresent(chave -> despesaCT.setChaveAcesso(chave.chave()));
+        despesaCT.setEmitente(despesaCT.getCnpjCpfEmitente());
 
         return despesaCT;
     }
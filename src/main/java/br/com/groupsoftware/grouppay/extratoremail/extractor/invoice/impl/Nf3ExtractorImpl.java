@@ -1,12 +1,12 @@
 package br.com.groupsoftware.grouppay.extratoremail.extractor.invoice.impl;
 
 import br.com.groupsoftware.grouppay.extratoremail.domain.entity.Document;
-import br.com.groupsoftware.grouppay.extratoremail.domain.entity.Regex;
+import br.com.groupsoftware.grouppay.extratoremail.domain.model.CompiledRegex;
 import br.com.groupsoftware.grouppay.extratoremail.domain.model.Expense;
 import br.com.groupsoftware.grouppay.extratoremail.domain.model.ExpenseNF3;
 import br.com.groupsoftware.grouppay.extratoremail.extractor.ExtractorTemplate;
 import br.com.groupsoftware.grouppay.extratoremail.extractor.invoice.Nf3Extractor;
-import br.com.groupsoftware.grouppay.extratoremail.repository.RepositoryFacade;
+import br.com.groupsoftware.grouppay.extratoremail.service.RegexSnapshotService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
@@ -28,27 +28,27 @@ import java.time.LocalDate;
 @Component
 class Nf3ExtractorImpl extends ExtractorTemplate implements Nf3Extractor {
 
-    public Nf3ExtractorImpl(RepositoryFacade facade) {
-        super(facade);
+    public Nf3ExtractorImpl(RegexSnapshotService regexSnapshot) {
+        super(regexSnapshot);
     }
 
     @Override
     public Expense getExpense(Document document) {
         String text = document.getTextExtracted();
-        Regex regex = getRegexByDocument(document);
-        LocalDate dataEmissao = extractDate(text, regex.getIssueDate());
-        String cnpjEmissor = extractByPattern(text, regex.getIssuerCNPJ());
+        CompiledRegex regex = getRegexByDocument(document);
+        LocalDate dataEmissao = extractDate(text, regex.issueDate());
+        String cnpjEmissor = extractByPattern(text, regex.issuerCNPJ());
 
         ExpenseNF3 despesaNF3 = new ExpenseNF3();
         despesaNF3.setCnpjCpfEmitente(cnpjEmissor);
         despesaNF3.setDataEmissao(dataEmissao);
-        despesaNF3.setNumero(extractByPattern(text, regex.getNumber()));
-        despesaNF3.setSerie(extractByPattern(text, regex.getSerie()));
-        despesaNF3.setValorTotal(extractValueByPattern(text, regex.getTotalValue()));
-        despesaNF3.setEmitente(cnpjEmissor);
+        despesaNF3.setNumero(extractByPattern(text, regex.number()));
+        despesaNF3.setSerie(extractByPattern(text, regex.serie()));
+        despesaNF3.setValorTotal(extractValueByPattern(text, regex.totalValue()));
 
-        // Extrai a chave de acesso (44 dígitos, pode ter espaços no texto original)
-        despesaNF3.setChaveAcesso(extractChaveAcesso(text));
+        // Chave de acesso (44 posições, pode ter espaços no texto original); emitente, número e série da chave prevalecem
+        applyChaveAcesso(despesaNF3, text, document.getTokenIndex()).ifPresent(chave -> despesaNF3.setChaveAcesso(chave.chave()));
+        despesaNF3.setEmitente(despesaNF3.getCnpjCpfEmitente());
 
         return despesaNF3;
     }
@@ -1,12 +1,12 @@
 package br.com.groupsoftware.grouppay.extratoremail.extractor.invoice.impl;
 
 import br.com.groupsoftware.grouppay.extratoremail.domain.entity.Document;
-import br.com.groupsoftware.grouppay.extratoremail.domain.entity.Regex;
+import br.com.groupsoftware.grouppay.extratoremail.domain.model.CompiledRegex;
 import br.com.groupsoftware.grouppay.extratoremail.domain.model.Expense;
 import br.com.groupsoftware.grouppay.extratoremail.domain.model.ExpenseNF;
 import br.com.groupsoftware.grouppay.extratoremail.extractor.ExtractorTemplate;
 import br.com.groupsoftware.grouppay.extratoremail.extractor.invoice.NfExtractor;
-import br.com.groupsoftware.grouppay.extratoremail.repository.RepositoryFacade;
+import br.com.groupsoftware.grouppay.extratoremail.service.RegexSnapshotService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
@@ -27,40 +27,46 @@ import java.time.LocalDate;
 @Component
 class NfExtractorImpl extends ExtractorTemplate implements NfExtractor {
 
-    public NfExtractorImpl(RepositoryFacade facade) {
-        super(facade);
+    public NfExtractorImpl(RegexSnapshotService regexSnapshot) {
+        super(regexSnapshot);
     }
 
     @Override
     public Expense getExpense(Document document) {
-        Regex regex = getRegexByDocumentTypeAndRegion(document.getExpenseType(), String.valueOf(document.getCompany().getCity().getIbgeCode()));
+        // Documentos de grupos ainda sem company associada usam o regex padrão do tipo
+        CompiledRegex regex = getRegexByDocument(document);
+        if (regex == null) {
+            log.warn("Nenhum regex cadastrado para {}. Documento {} extraído somente pelos padrões do texto.",
+                    document.getExpenseType(), document.getFileName());
+            regex = new Regex();
+        }
         String text = document.getTextExtracted();
 
-        LocalDate dataEmissao = extractDate(text, regex.getIssueDate());
+        LocalDate dataEmissao = extractDate(text, regex.issueDate());
         if (dataEmissao == null) {
-            dataEmissao = defaultDueDate(text);
+            dataEmissao = defaultDueDate(document.getTokenIndex());
         }
 
-        BigDecimal valorTotal = extractValueByPattern(text, regex.getTotalValue());
+        BigDecimal valorTotal = extractValueByPattern(text, regex.totalValue());
         if (valorTotal == null) {
-            valorTotal = defaultTotalValue(text);
+            valorTotal = defaultTotalValue(document.getTokenIndex());
         }
 
-        String cnpjCpfEmitente = extractByPattern(text, regex.getIssuerCNPJ());
+        String cnpjCpfEmitente = extractByPattern(text, regex.issuerCNPJ());
         if(cnpjCpfEmitente == null || cnpjCpfEmitente.trim().isEmpty()){
-            cnpjCpfEmitente = defaultIssuerCNPJ(text);
+            cnpjCpfEmitente = defaultIssuerCNPJ(document.getTokenIndex());
         }
         cnpjCpfEmitente = (cnpjCpfEmitente != null ? cnpjCpfEmitente.replaceAll("\\D", "") : null);
 
         ExpenseNF despesaNF = new ExpenseNF();
         despesaNF.setCnpjCpfEmitente(cnpjCpfEmitente);
         despesaNF.setDataEmissao(dataEmissao);
-        despesaNF.setNumero(extractByPattern(document.getTextExtracted(), regex.getNumber()));
-        despesaNF.setSerie(extractByPattern(document.getTextExtracted(), regex.getSerie()));
+        despesaNF.setNumero(extractByPattern(document.getTextExtracted(), regex.number()));
+        despesaNF.setSerie(extractByPattern(document.getTextExtracted(), regex.serie()));
         despesaNF.setValorTotal(valorTotal);
 
-        // Extrai a chave de acesso (44 dígitos, pode ter espaços no texto original)
-        despesaNF.setChaveAcesso(extractChaveAcesso(text));
+        // Chave de acesso (44 posições, pode ter espaços no texto original); emitente, número e série da chave prevalecem
+        applyChaveAcesso(despesaNF, text, document.getTokenIndex()).ifPresent(chave -> despesaNF.setChaveAcesso(chave.chave()));
 
         return despesaNF;
     }
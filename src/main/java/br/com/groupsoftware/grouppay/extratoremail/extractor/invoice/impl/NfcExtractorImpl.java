@@ -1,12 +1,12 @@
 package br.com.groupsoftware.grouppay.extratoremail.extractor.invoice.impl;
 
 import br.com.groupsoftware.grouppay.extratoremail.domain.entity.Document;
-import br.com.groupsoftware.grouppay.extratoremail.domain.entity.Regex;
+import br.com.groupsoftware.grouppay.extratoremail.domain.model.CompiledRegex;
 import br.com.groupsoftware.grouppay.extratoremail.domain.model.Expense;
 import br.com.groupsoftware.grouppay.extratoremail.domain.model.ExpenseNFC;
 import br.com.groupsoftware.grouppay.extratoremail.extractor.ExtractorTemplate;
 import br.com.groupsoftware.grouppay.extratoremail.extractor.invoice.NfcExtractor;
-import br.com.groupsoftware.grouppay.extratoremail.repository.RepositoryFacade;
+import br.com.groupsoftware.grouppay.extratoremail.service.RegexSnapshotService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
@@ -33,27 +33,27 @@ import java.time.LocalDate;
 @Component
 public class NfcExtractorImpl extends ExtractorTemplate implements NfcExtractor {
 
-    public NfcExtractorImpl(RepositoryFacade facade) {
-        super(facade);
+    public NfcExtractorImpl(RegexSnapshotService regexSnapshot) {
+        super(regexSnapshot);
     }
 
     @Override
     public Expense getExpense(Document document) {
         String text = document.getTextExtracted();
-        Regex regex = getRegexByDocument(document);
-        LocalDate dataEmissao = extractDate(text, regex.getIssueDate());
-        String cnpjEmissor = extractByPattern(text, regex.getIssuerCNPJ());
+        CompiledRegex regex = getRegexByDocument(document);
+        LocalDate dataEmissao = extractDate(text, regex.issueDate());
+        String cnpjEmissor = extractByPattern(text, regex.issuerCNPJ());
 
         ExpenseNFC despesaNFC = new ExpenseNFC();
         despesaNFC.setCnpjCpfEmitente(cnpjEmissor);
         despesaNFC.setDataEmissao(dataEmissao);
-        despesaNFC.setNumero(extractByPattern(text, regex.getNumber()));
-        despesaNFC.setSerie(extractByPattern(text, regex.getSerie()));
-        despesaNFC.setValorTotal(extractValueByPattern(text, regex.getTotalValue()));
-        despesaNFC.setEmitente(cnpjEmissor);
+        despesaNFC.setNumero(extractByPattern(text, regex.number()));
+        despesaNFC.setSerie(extractByPattern(text, regex.serie()));
+        despesaNFC.setValorTotal(extractValueByPattern(text, regex.totalValue()));
 
-        // Extrai a chave de acesso (44 dígitos, pode ter espaços no texto original)
-        despesaNFC.setChaveAcesso(extractChaveAcesso(text));
+        // Chave de acesso (44 posições, pode ter espaços no texto original); emitente, número e série da chave prevalecem
+        applyChaveAcesso(despesaNFC, text, document.getTokenIndex()).ifPresent(chave -> despesaNFC.setChaveAcesso(chave.chave()));
+        despesaNFC.setEmitente(despesaNFC.getCnpjCpfEmitente());
 
         return despesaNFC;
     }
@@ -1,12 +1,12 @@
 package br.com.groupsoftware.grouppay.extratoremail.extractor.invoice.impl;
 
 import br.com.groupsoftware.grouppay.extratoremail.domain.entity.Document;
-import br.com.groupsoftware.grouppay.extratoremail.domain.entity.Regex;
+import br.com.groupsoftware.grouppay.extratoremail.domain.model.CompiledRegex;
 import br.com.groupsoftware.grouppay.extratoremail.domain.model.Expense;
 import br.com.groupsoftware.grouppay.extratoremail.domain.model.ExpenseNFS;
 import br.com.groupsoftware.grouppay.extratoremail.extractor.ExtractorTemplate;
 import br.com.groupsoftware.grouppay.extratoremail.extractor.invoice.NfsExtractor;
-import br.com.groupsoftware.grouppay.extratoremail.repository.RepositoryFacade;
+import br.com.groupsoftware.grouppay.extratoremail.service.RegexSnapshotService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
@@ -29,36 +29,42 @@ import java.time.LocalDate;
 @Component
 class NfsExtractorImpl extends ExtractorTemplate implements NfsExtractor {
 
-    public NfsExtractorImpl(RepositoryFacade facade) {
-        super(facade);
+    public NfsExtractorImpl(RegexSnapshotService regexSnapshot) {
+        super(regexSnapshot);
     }
 
     @Override
     public Expense getExpense(Document document) {
-        Regex regex = getRegexByDocumentTypeAndRegion(document.getExpenseType(), String.valueOf(document.getCompany().getCity().getIbgeCode()));
+        // Documentos de grupos ainda sem company associada usam o regex padrão do tipo
+        CompiledRegex regex = getRegexByDocument(document);
+        if (regex == null) {
+            log.warn("Nenhum regex cadastrado para {}. Documento {} extraído somente pelos padrões do texto.",
+                    document.getExpenseType(), document.getFileName());
+            regex = new Regex();
+        }
         String text = document.getTextExtracted();
 
-        LocalDate dataEmissao = extractDate(text, regex.getIssueDate());
+        LocalDate dataEmissao = extractDate(text, regex.issueDate());
         if (dataEmissao == null) {
-            dataEmissao = defaultDueDate(text);
+            dataEmissao = defaultDueDate(document.getTokenIndex());
         }
 
-        BigDecimal valorTotal = extractValueByPattern(text, regex.getTotalValue());
+        BigDecimal valorTotal = extractValueByPattern(text, regex.totalValue());
         if (valorTotal == null) {
-            valorTotal = defaultTotalValue(text);
+            valorTotal = defaultTotalValue(document.getTokenIndex());
         }
 
-        String cnpjCpfEmitente = extractByPattern(text, regex.getIssuerCNPJ());
+        String cnpjCpfEmitente = extractByPattern(text, regex.issuerCNPJ());
         if(cnpjCpfEmitente == null || cnpjCpfEmitente.trim().isEmpty()){
-            cnpjCpfEmitente = defaultIssuerCNPJ(text);
+            cnpjCpfEmitente = defaultIssuerCNPJ(document.getTokenIndex());
         }
         cnpjCpfEmitente = (cnpjCpfEmitente != null ? cnpjCpfEmitente.replaceAll("\\D", "") : null);
 
         ExpenseNFS despesaNFS = new ExpenseNFS();
         despesaNFS.setCnpjCpfEmitente(cnpjCpfEmitente);
         despesaNFS.setDataEmissao(dataEmissao);
-        despesaNFS.setNumero(extractByPattern(text, regex.getNumber()));
-        despesaNFS.setSerie(extractByPattern(text, regex.getSerie()));
+        despesaNFS.setNumero(extractByPattern(text, regex.number()));
+        despesaNFS.setSerie(extractByPattern(text, regex.serie()));
         despesaNFS.setValorTotal(valorTotal);
 
         return despesaNFS;
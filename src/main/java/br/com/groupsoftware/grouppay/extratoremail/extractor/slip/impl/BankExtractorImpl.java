@@ -1,16 +1,25 @@
 package br.com.groupsoftware.grouppay.extratoremail.extractor.slip.impl;
 
 import br.com.groupsoftware.grouppay.extratoremail.domain.entity.Document;
-import br.com.groupsoftware.grouppay.extratoremail.domain.entity.Regex;
+import br.com.groupsoftware.grouppay.extratoremail.domain.model.CompiledRegex;
 import br.com.groupsoftware.grouppay.extratoremail.domain.model.Expense;
 import br.com.groupsoftware.grouppay.extratoremail.domain.model.ExpenseBoleto;
 import br.com.groupsoftware.grouppay.extratoremail.extractor.ExtractorTemplate;
 import br.com.groupsoftware.grouppay.extratoremail.extractor.slip.BankSlipExtractor;
-import br.com.groupsoftware.grouppay.extratoremail.repository.RepositoryFacade;
+import br.com.groupsoftware.grouppay.extratoremail.service.RegexSnapshotService;
+import br.com.groupsoftware.grouppay.extratoremail.util.brazil.BoletoUtil;
+import br.com.groupsoftware.grouppay.extratoremail.util.brazil.PixUtil;
+import br.com.groupsoftware.grouppay.extratoremail.util.extractor.PatternRegistry;
+import br.com.groupsoftware.grouppay.extratoremail.util.extractor.SafeRegex;
+import br.com.groupsoftware.grouppay.extratoremail.util.extractor.TokenIndex;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.MatchResult;
+import java.util.regex.Pattern;
 
 /**
  * Serviço para parsing e extração de dados de Boletos Bancários.
@@ -33,43 +42,69 @@ import java.time.LocalDate;
 @Component
 public class BankExtractorImpl extends ExtractorTemplate implements BankSlipExtractor {
 
-    public BankExtractorImpl(RepositoryFacade facade) {
-        super(facade);
+    private static final Map<String, String> BANK_NAMES = Map.of(
+            "001", "BANCO DO BRASIL",
+            "033", "SANTANDER",
+            "104", "CAIXA",
+            "237", "BRADESCO",
+            "341", "ITAU"
+    );
+
+    public BankExtractorImpl(RegexSnapshotService regexSnapshot) {
+        super(regexSnapshot);
     }
 
     @Override
     public Expense getExpense(Document document) {
         String text = document.getTextExtracted();
-        Regex regex = getRegexByDocument(document);
+        TokenIndex tokens = document.getTokenIndex();
+        CompiledRegex regex = getRegexByDocument(document);
 
         ExpenseBoleto despesaBoleto = new ExpenseBoleto();
 
+        // A linha digitável/código de barras, quando válida, é a fonte mais confiável de vencimento e valor
+        Optional<BoletoUtil.Boleto> boleto = BoletoUtil.find(text);
+        boleto.ifPresent(decoded -> applyBoleto(despesaBoleto, decoded));
+
         // Extração de campos básicos usando regex se disponível
         if (regex != null) {
-            despesaBoleto.setDataEmissao(extractDate(text, regex.getIssueDate()));
-            despesaBoleto.setDataVencimento(extractDate(text, regex.getDueDate()));
-            despesaBoleto.setValorTotal(extractValueByPattern(text, regex.getTotalValue()));
-            despesaBoleto.setNumero(extractByPattern(text, regex.getNumber()));
+            despesaBoleto.setDataEmissao(extractDate(text, regex.issueDate()));
+            if (despesaBoleto.getDataVencimento() == null) {
+                despesaBoleto.setDataVencimento(extractDate(text, regex.dueDate()));
+            }
+            if (despesaBoleto.getValorTotal() == null) {
+                despesaBoleto.setValorTotal(extractValueByPattern(text, regex.totalValue()));
+            }
+            despesaBoleto.setNumero(extractByPattern(text, regex.number()));
+        }
+
+        // O BR Code do PIX (boleto híbrido) também traz valor e recebedor, validados pelo CRC
+        Optional<PixUtil.Pix> pix = PixUtil.find(text);
+        if (despesaBoleto.getValorTotal() == null) {
+            pix.map(PixUtil.Pix::valor).ifPresent(despesaBoleto::setValorTotal);
         }
 
         // Fallback para métodos específicos
         if (despesaBoleto.getDataVencimento() == null) {
-            despesaBoleto.setDataVencimento(defaultDueDate(text));
+            despesaBoleto.setDataVencimento(defaultDueDate(tokens));
         }
 
         if (despesaBoleto.getValorTotal() == null) {
-            despesaBoleto.setValorTotal(defaultTotalValue(text));
+            despesaBoleto.setValorTotal(defaultTotalValue(tokens));
         }
 
         // Extração específica do cedente/beneficiário (emitente do boleto)
         String cnpjCedente = extractCnpjCedente(text);
         if (cnpjCedente == null && regex != null) {
-            cnpjCedente = extractByPattern(text, regex.getIssuerCNPJ());
+            cnpjCedente = extractByPattern(text, regex.issuerCNPJ());
         }
         despesaBoleto.setCnpjCpfEmitente(cnpjCedente);
 
         // Extração do nome do cedente
         String nomeCedente = extractNomeCedente(text);
+        if (nomeCedente == null) {
+            nomeCedente = pix.map(PixUtil.Pix::nomeRecebedor).orElse(null);
+        }
         despesaBoleto.setCedente(nomeCedente);
         despesaBoleto.setEmitente(nomeCedente);
 
@@ -77,9 +112,13 @@ public class BankExtractorImpl extends ExtractorTemplate implements BankSlipExtr
         despesaBoleto.setCnpjCpfDestinatario(extractCnpjPagador(text));
 
         // Extração de campos específicos do boleto
-        despesaBoleto.setBancoEmissor(extractBanco(text));
-        despesaBoleto.setLinhaDigitavel(extractLinhaDigitavel(text));
-        despesaBoleto.setCodigoBarras(extractCodigoBarras(text));
+        if (despesaBoleto.getBancoEmissor() == null) {
+            despesaBoleto.setBancoEmissor(extractBanco(text));
+        }
+        if (boleto.isEmpty()) {
+            despesaBoleto.setLinhaDigitavel(extractLinhaDigitavel(text));
+            despesaBoleto.setCodigoBarras(extractCodigoBarras(tokens));
+        }
         despesaBoleto.setNossoNumero(extractNossoNumero(text));
         despesaBoleto.setJuros(extractJuros(text));
         despesaBoleto.setMulta(extractMulta(text));
@@ -88,16 +127,30 @@ public class BankExtractorImpl extends ExtractorTemplate implements BankSlipExtr
         return despesaBoleto;
     }
 
+    /**
+     * Preenche os campos informados pelo código do boleto. Em boletos de arrecadação não há banco nem vencimento
+     * no código; esses campos ficam para a extração por texto.
+     */
+    private void applyBoleto(ExpenseBoleto despesaBoleto, BoletoUtil.Boleto boleto) {
+        despesaBoleto.setLinhaDigitavel(boleto.linhaDigitavel());
+        despesaBoleto.setCodigoBarras(boleto.codigoBarras());
+        despesaBoleto.setDataVencimento(boleto.vencimento());
+        despesaBoleto.setValorTotal(boleto.valor());
+        if (boleto.banco() != null) {
+            despesaBoleto.setBancoEmissor(BANK_NAMES.getOrDefault(boleto.banco(), boleto.banco()));
+        }
+    }
+
     /**
      * Extrai o CNPJ/CPF do cedente/beneficiário (quem emitiu o boleto).
      * Procura especificamente após as palavras "Beneficiário" ou "Cedente".
      */
     private String extractCnpjCedente(String text) {
         // Tenta extrair CNPJ/CPF após "Beneficiário" ou "Cedente"
-        Pattern pattern = Pattern.compile("(?:Benefici[aá]rio|Cedente)[:\\s]*.*?([0-9./-]{11,20})", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
-        Matcher matcher = pattern.matcher(text);
-        if (matcher.find()) {
-            String cnpj = matcher.group(1).replaceAll("[^0-9]", "");
+        Pattern pattern = PatternRegistry.compile("(?:Benefici[aá]rio|Cedente)[:\\s]*.*?([0-9./-]{11,20})", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+        Optional<MatchResult> match = SafeRegex.find("bank.cnpjCedente", pattern, text);
+        if (match.isPresent()) {
+            String cnpj = match.get().group(1).replaceAll("[^0-9]", "");
             // Valida se tem 11 (CPF) ou 14 (CNPJ) dígitos
             if (cnpj.length() == 11 || cnpj.length() == 14) {
                 return cnpj;
@@ -105,10 +158,10 @@ public class BankExtractorImpl extends ExtractorTemplate implements BankSlipExtr
         }
 
         // Tenta extrair procurando por padrão de CNPJ/CPF próximo a Beneficiário
-        Pattern patternLine = Pattern.compile("(?:Benefici[aá]rio|Cedente)[^\\n]{0,200}?([0-9]{2,3}[.\\-]?[0-9]{3}[.\\-]?[0-9]{3}[/\\-]?[0-9]{4}[\\-]?[0-9]{2}|[0-9]{3}[.\\-]?[0-9]{3}[.\\-]?[0-9]{3}[\\-]?[0-9]{2})", Pattern.CASE_INSENSITIVE);
-        Matcher matcherLine = patternLine.matcher(text);
-        if (matcherLine.find()) {
-            return matcherLine.group(1).replaceAll("[^0-9]", "");
+        Pattern patternLine = PatternRegistry.compile("(?:Benefici[aá]rio|Cedente)[^\\n]{0,200}?([0-9]{2,3}[.\\-]?[0-9]{3}[.\\-]?[0-9]{3}[/\\-]?[0-9]{4}[\\-]?[0-9]{2}|[0-9]{3}[.\\-]?[0-9]{3}[.\\-]?[0-9]{3}[\\-]?[0-9]{2})", Pattern.CASE_INSENSITIVE);
+        Optional<MatchResult> matchLine = SafeRegex.find("bank.cnpjCedente.linha", patternLine, text);
+        if (matchLine.isPresent()) {
+            return matchLine.get().group(1).replaceAll("[^0-9]", "");
         }
 
         return null;
@@ -118,10 +171,10 @@ public class BankExtractorImpl extends ExtractorTemplate implements BankSlipExtr
      * Extrai o nome do cedente/beneficiário.
      */
     private String extractNomeCedente(String text) {
-        Pattern pattern = Pattern.compile("(?:Benefici[aá]rio|Cedente)[:\\s]*([A-Z][A-Za-z\\s]+?)(?:CNPJ|CPF|\\d{2,3}\\.)", Pattern.CASE_INSENSITIVE);
-        Matcher matcher = pattern.matcher(text);
-        if (matcher.find()) {
-            return matcher.group(1).trim().replaceAll("\\s{2,}", " ");
+        Pattern pattern = PatternRegistry.compile("(?:Benefici[aá]rio|Cedente)[:\\s]*([A-Z][A-Za-z\\s]+?)(?:CNPJ|CPF|\\d{2,3}\\.)", Pattern.CASE_INSENSITIVE);
+        Optional<MatchResult> match = SafeRegex.find("bank.nomeCedente", pattern, text);
+        if (match.isPresent()) {
+            return match.get().group(1).trim().replaceAll("\\s{2,}", " ");
         }
         return null;
     }
@@ -130,10 +183,10 @@ public class BankExtractorImpl extends ExtractorTemplate implements BankSlipExtr
      * Extrai o CNPJ/CPF do pagador/sacado.
      */
     private String extractCnpjPagador(String text) {
-        Pattern pattern = Pattern.compile("(?:Pagador|Sacado)[:\\s]*.*?([0-9./-]{11,20})", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
-        Matcher matcher = pattern.matcher(text);
-        if (matcher.find()) {
-            String cnpj = matcher.group(1).replaceAll("[^0-9]", "");
+        Pattern pattern = PatternRegistry.compile("(?:Pagador|Sacado)[:\\s]*.*?([0-9./-]{11,20})", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+        Optional<MatchResult> match = SafeRegex.find("bank.cnpjPagador", pattern, text);
+        if (match.isPresent()) {
+            String cnpj = match.get().group(1).replaceAll("[^0-9]", "");
             if (cnpj.length() == 11 || cnpj.length() == 14) {
                 return cnpj;
             }
@@ -147,24 +200,24 @@ public class BankExtractorImpl extends ExtractorTemplate implements BankSlipExtr
      */
     private String extractLinhaDigitavel(String text) {
         // Padrão com pontos e espaços (formato padrão)
-        Pattern pattern = Pattern.compile("(\\d{5}\\.\\d{5}\\s+\\d{5}\\.\\d{6}\\s+\\d{5}\\.\\d{6}\\s+\\d{1}\\s+\\d{14})");
-        Matcher matcher = pattern.matcher(text);
-        if (matcher.find()) {
-            return matcher.group(1);
+        Pattern pattern = PatternRegistry.compile("(\\d{5}\\.\\d{5}\\s+\\d{5}\\.\\d{6}\\s+\\d{5}\\.\\d{6}\\s+\\d{1}\\s+\\d{14})");
+        Optional<MatchResult> match = SafeRegex.find("bank.linhaDigitavel", pattern, text);
+        if (match.isPresent()) {
+            return match.get().group(1);
         }
 
         // Padrão sem pontos mas com espaços
-        Pattern patternNoDots = Pattern.compile("(\\d{5}\\s?\\d{5}\\s+\\d{5}\\s?\\d{6}\\s+\\d{5}\\s?\\d{6}\\s+\\d{1}\\s+\\d{14})");
-        Matcher matcherNoDots = patternNoDots.matcher(text);
-        if (matcherNoDots.find()) {
-            return matcherNoDots.group(1);
+        Pattern patternNoDots = PatternRegistry.compile("(\\d{5}\\s?\\d{5}\\s+\\d{5}\\s?\\d{6}\\s+\\d{5}\\s?\\d{6}\\s+\\d{1}\\s+\\d{14})");
+        Optional<MatchResult> matchNoDots = SafeRegex.find("bank.linhaDigitavel.semPontos", patternNoDots, text);
+        if (matchNoDots.isPresent()) {
+            return matchNoDots.get().group(1);
         }
 
         // Padrão de 47 dígitos contíguos
-        Pattern pattern47 = Pattern.compile("(\\d{47})");
-        Matcher matcher47 = pattern47.matcher(text);
-        if (matcher47.find()) {
-            String digits = matcher47.group(1);
+        Pattern pattern47 = PatternRegistry.compile("(\\d{47})");
+        Optional<MatchResult> match47 = SafeRegex.find("bank.linhaDigitavel.digitos", pattern47, text);
+        if (match47.isPresent()) {
+            String digits = match47.get().group(1);
             // Formata: 5 + 5 + 5 + 6 + 5 + 6 + 1 + 14
             return String.format("%s.%s %s.%s %s.%s %s %s",
                 digits.substring(0, 5), digits.substring(5, 10),
@@ -179,11 +232,8 @@ public class BankExtractorImpl extends ExtractorTemplate implements BankSlipExtr
     /**
      * Extrai o código de barras do boleto (44 ou 47 dígitos).
      */
-    private String extractCodigoBarras(String text) {
-        Pattern pattern = Pattern.compile("([0-9\\s]{44,50})");
-        Matcher matcher = pattern.matcher(text);
-        while (matcher.find()) {
-            String barcode = matcher.group(1).replaceAll("\\s", "");
+    private String extractCodigoBarras(TokenIndex tokens) {
+        for (String barcode : tokens.numericWindows(44, 50)) {
             if (barcode.length() == 44 || barcode.length() == 47) {
                 return barcode;
             }
@@ -210,10 +260,10 @@ public class BankExtractorImpl extends ExtractorTemplate implements BankSlipExtr
         }
 
         // Tenta extrair nome do banco
-        Pattern pattern = Pattern.compile("(?:Banco|Bank)[:\\s]*([A-Z\\s]+)", Pattern.CASE_INSENSITIVE);
-        Matcher matcher = pattern.matcher(text);
-        if (matcher.find()) {
-            return matcher.group(1).trim();
+        Pattern pattern = PatternRegistry.compile("(?:Banco|Bank)[:\\s]*([A-Z\\s]+)", Pattern.CASE_INSENSITIVE);
+        Optional<MatchResult> match = SafeRegex.find("bank.banco", pattern, text);
+        if (match.isPresent()) {
+            return match.get().group(1).trim();
         }
 
         return null;
@@ -223,10 +273,10 @@ public class BankExtractorImpl extends ExtractorTemplate implements BankSlipExtr
      * Extrai o nosso número.
      */
     private String extractNossoNumero(String text) {
-        Pattern pattern = Pattern.compile("(?:Nosso.*N[uú]mero)[:\\s]*([0-9\\-]+)", Pattern.CASE_INSENSITIVE);
-        Matcher matcher = pattern.matcher(text);
-        if (matcher.find()) {
-            return matcher.group(1).trim();
+        Pattern pattern = PatternRegistry.compile("(?:Nosso.*N[uú]mero)[:\\s]*([0-9\\-]+)", Pattern.CASE_INSENSITIVE);
+        Optional<MatchResult> match = SafeRegex.find("bank.nossoNumero", pattern, text);
+        if (match.isPresent()) {
+            return match.get().group(1).trim();
         }
         return null;
     }
@@ -235,35 +285,38 @@ public class BankExtractorImpl extends ExtractorTemplate implements BankSlipExtr
      * Extrai o valor dos juros.
      */
     private java.math.BigDecimal extractJuros(String text) {
-        Pattern pattern = Pattern.compile("(?:Juros)[:\\s]*R?\\$?\\s*([0-9.,]+)", Pattern.CASE_INSENSITIVE);
-        Matcher matcher = pattern.matcher(text);
-        if (matcher.find()) {
-            return extractValueByPattern(text, pattern.pattern());
-        }
-        return null;
+        Pattern pattern = PatternRegistry.compile("(?:Juros)[:\\s]*R?\\$?\\s*([0-9.,]+)", Pattern.CASE_INSENSITIVE);
+        Optional<MatchResult> match = SafeRegex.find("bank.juros", pattern, text);
+        return match.map(found -> parseValue(found.group(1))).orElse(null);
     }
 
     /**
      * Extrai o valor da multa.
      */
     private java.math.BigDecimal extractMulta(String text) {
-        Pattern pattern = Pattern.compile("(?:Multa)[:\\s]*R?\\$?\\s*([0-9.,]+)", Pattern.CASE_INSENSITIVE);
-        Matcher matcher = pattern.matcher(text);
-        if (matcher.find()) {
-            return extractValueByPattern(text, pattern.pattern());
-        }
-        return null;
+        Pattern pattern = PatternRegistry.compile("(?:Multa)[:\\s]*R?\\$?\\s*([0-9.,]+)", Pattern.CASE_INSENSITIVE);
+        Optional<MatchResult> match = SafeRegex.find("bank.multa", pattern, text);
+        return match.map(found -> parseValue(found.group(1))).orElse(null);
     }
 
     /**
      * Extrai o valor dos descontos.
      */
     private java.math.BigDecimal extractDescontos(String text) {
-        Pattern pattern = Pattern.compile("(?:Desconto)[:\\s]*R?\\$?\\s*([0-9.,]+)", Pattern.CASE_INSENSITIVE);
-        Matcher matcher = pattern.matcher(text);
-        if (matcher.find()) {
-            return extractValueByPattern(text, pattern.pattern());
+        Pattern pattern = PatternRegistry.compile("(?:Desconto)[:\\s]*R?\\$?\\s*([0-9.,]+)", Pattern.CASE_INSENSITIVE);
+        Optional<MatchResult> match = SafeRegex.find("bank.descontos", pattern, text);
+        return match.map(found -> parseValue(found.group(1))).orElse(null);
+    }
+
+    /**
+     * Converte string de valor para BigDecimal.
+     */
+    private java.math.BigDecimal parseValue(String valueStr) {
+        String digits = valueStr.replaceAll("[^0-9,.]", "");
+        try {
+            return new java.math.BigDecimal(digits.replace(".", "").replace(",", "."));
+        } catch (NumberFormatException e) {
+            return null;
         }
-        return null;
     }
 }
@@ -1,17 +1,16 @@
 package br.com.groupsoftware.grouppay.extratoremail.extractor.slip.impl;
 
 import br.com.groupsoftware.grouppay.extratoremail.domain.entity.Document;
-import br.com.groupsoftware.grouppay.extratoremail.domain.entity.Regex;
+import br.com.groupsoftware.grouppay.extratoremail.domain.model.CompiledRegex;
 import br.com.groupsoftware.grouppay.extratoremail.domain.model.Expense;
 import br.com.groupsoftware.grouppay.extratoremail.domain.model.ExpenseFatura;
 import br.com.groupsoftware.grouppay.extratoremail.extractor.ExtractorTemplate;
 import br.com.groupsoftware.grouppay.extratoremail.extractor.slip.BillExtractor;
-import br.com.groupsoftware.grouppay.extratoremail.repository.RepositoryFacade;
+import br.com.groupsoftware.grouppay.extratoremail.service.RegexSnapshotService;
+import br.com.groupsoftware.grouppay.extratoremail.util.brazil.BoletoUtil;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
-import java.time.LocalDate;
-
 /**
  * Serviço para parsing e extração de dados de faturas.
  * <p>
@@ -33,24 +32,33 @@ import java.time.LocalDate;
 @Component
 public class BillExtractorImpl extends ExtractorTemplate implements BillExtractor {
 
-    public BillExtractorImpl(RepositoryFacade facade) {
-        super(facade);
+    public BillExtractorImpl(RegexSnapshotService regexSnapshot) {
+        super(regexSnapshot);
     }
 
     @Override
     public Expense getExpense(Document document) {
-        Regex regex = getRegexByDocument(document);
-        LocalDate dataEmissao = extractDate(document.getTextExtracted(), regex.getIssueDate());
-        String cnpjEmissor = extractByPattern(document.getTextExtracted(), regex.getIssuerCNPJ());
-
+        String text = document.getTextExtracted();
+        CompiledRegex regex = getRegexByDocument(document);
         ExpenseFatura despesaFatura = new ExpenseFatura();
-        despesaFatura.setCnpjCpfEmitente(cnpjEmissor);
-        despesaFatura.setDataEmissao(dataEmissao);
-        despesaFatura.setNumero(extractByPattern(document.getTextExtracted(), regex.getNumber()));
-        despesaFatura.setValorTotal(extractValueByPattern(document.getTextExtracted(), regex.getTotalValue()));
-        despesaFatura.setEmitente(cnpjEmissor);
-        despesaFatura.setDataEmissao(dataEmissao);
+
+        // Faturas de concessionárias costumam trazer o código de arrecadação, que informa o valor a pagar
+        BoletoUtil.find(text).ifPresent(boleto -> {
+            despesaFatura.setValorTotal(boleto.valor());
+            despesaFatura.setDataVencimento(boleto.vencimento());
+        });
+
+        if (regex != null) {
+            String cnpjEmissor = extractByPattern(text, regex.issuerCNPJ());
+            despesaFatura.setCnpjCpfEmitente(cnpjEmissor);
+            despesaFatura.setEmitente(cnpjEmissor);
+            despesaFatura.setDataEmissao(extractDate(text, regex.issueDate()));
+            despesaFatura.setNumero(extractByPattern(text, regex.number()));
+            if (despesaFatura.getValorTotal() == null) {
+                despesaFatura.setValorTotal(extractValueByPattern(text, regex.totalValue()));
+            }
+        }
 
         return despesaFatura;
     }
-}
+}
\ No newline at end of file
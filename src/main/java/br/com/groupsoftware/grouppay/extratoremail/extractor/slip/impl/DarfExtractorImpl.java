@@ -1,12 +1,15 @@
 package br.com.groupsoftware.grouppay.extratoremail.extractor.slip.impl;
 
 import br.com.groupsoftware.grouppay.extratoremail.domain.entity.Document;
-import br.com.groupsoftware.grouppay.extratoremail.domain.entity.Regex;
+import br.com.groupsoftware.grouppay.extratoremail.domain.model.CompiledRegex;
 import br.com.groupsoftware.grouppay.extratoremail.domain.model.Expense;
 import br.com.groupsoftware.grouppay.extratoremail.domain.model.ExpenseDARF;
 import br.com.groupsoftware.grouppay.extratoremail.extractor.ExtractorTemplate;
 import br.com.groupsoftware.grouppay.extratoremail.extractor.slip.DarfExtractor;
-import br.com.groupsoftware.grouppay.extratoremail.repository.RepositoryFacade;
+import br.com.groupsoftware.grouppay.extratoremail.service.RegexSnapshotService;
+import br.com.groupsoftware.grouppay.extratoremail.util.extractor.PatternRegistry;
+import br.com.groupsoftware.grouppay.extratoremail.util.extractor.SafeRegex;
+import br.com.groupsoftware.grouppay.extratoremail.util.extractor.TokenIndex;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
@@ -14,7 +17,8 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Matcher;
+import java.util.Optional;
+import java.util.regex.MatchResult;
 import java.util.regex.Pattern;
 
 /**
@@ -34,37 +38,38 @@ import java.util.regex.Pattern;
 @Component
 public class DarfExtractorImpl extends ExtractorTemplate implements DarfExtractor {
 
-    public DarfExtractorImpl(RepositoryFacade facade) {
-        super(facade);
+    public DarfExtractorImpl(RegexSnapshotService regexSnapshot) {
+        super(regexSnapshot);
     }
 
     @Override
     public Expense getExpense(Document document) {
         String text = document.getTextExtracted();
-        Regex regex = getRegexByDocument(document);
+        TokenIndex tokens = document.getTokenIndex();
+        CompiledRegex regex = getRegexByDocument(document);
 
         ExpenseDARF darf = new ExpenseDARF();
 
         // Extração de campos básicos usando regex se disponível
         if (regex != null) {
-            darf.setCnpjCpfEmitente(extractByPattern(text, regex.getIssuerCNPJ()));
-            darf.setDataEmissao(extractDate(text, regex.getIssueDate()));
-            darf.setDataVencimento(extractDate(text, regex.getDueDate()));
-            darf.setValorTotal(extractValueByPattern(text, regex.getTotalValue()));
-            darf.setNumero(extractByPattern(text, regex.getNumber()));
+            darf.setCnpjCpfEmitente(extractByPattern(text, regex.issuerCNPJ()));
+            darf.setDataEmissao(extractDate(text, regex.issueDate()));
+            darf.setDataVencimento(extractDate(text, regex.dueDate()));
+            darf.setValorTotal(extractValueByPattern(text, regex.totalValue()));
+            darf.setNumero(extractByPattern(text, regex.number()));
         }
 
         // Fallback para extração com métodos default e regex específicos
         if (darf.getCnpjCpfEmitente() == null) {
-            darf.setCnpjCpfEmitente(extractCnpjContribuinte(text));
+            darf.setCnpjCpfEmitente(extractCnpjContribuinte(text, tokens));
         }
 
         if (darf.getDataVencimento() == null) {
-            darf.setDataVencimento(extractDataVencimento(text));
+            darf.setDataVencimento(extractDataVencimento(text, tokens));
         }
 
         if (darf.getValorTotal() == null) {
-            darf.setValorTotal(extractValorTotal(text));
+            darf.setValorTotal(extractValorTotal(text, tokens));
         }
 
         // Extração de campos específicos do DARF
@@ -72,7 +77,7 @@ public class DarfExtractorImpl extends ExtractorTemplate implements DarfExtracto
         darf.setPeriodoApuracao(extractPeriodoApuracao(text));
         darf.setNumeroDocumento(extractNumeroDocumento(text));
         darf.setNumeroRecibo(extractNumeroRecibo(text));
-        darf.setCodigoBarras(extractCodigoBarras(text));
+        darf.setCodigoBarras(extractCodigoBarras(tokens));
         darf.setPixCopiaCola(extractPixCopiaCola(text));
         darf.setComposicao(extractComposicaoTributos(text));
 
@@ -86,26 +91,26 @@ public class DarfExtractorImpl extends ExtractorTemplate implements DarfExtracto
      * Extrai o CNPJ/CPF do contribuinte do DARF.
      * Procura especificamente pelo CNPJ/CPF que aparece após "CNPJ" ou "CPF".
      */
-    private String extractCnpjContribuinte(String text) {
+    private String extractCnpjContribuinte(String text, TokenIndex tokens) {
         // Tenta extrair CNPJ (14 dígitos)
-        Pattern pattern = Pattern.compile("(?:CNPJ|CPF)[:\\s]*([0-9./-]{14,20})", Pattern.CASE_INSENSITIVE);
-        Matcher matcher = pattern.matcher(text);
-        if (matcher.find()) {
-            return matcher.group(1).replaceAll("[^0-9]", "");
+        Pattern pattern = PatternRegistry.compile("(?:CNPJ|CPF)[:\\s]*([0-9./-]{14,20})", Pattern.CASE_INSENSITIVE);
+        Optional<MatchResult> match = SafeRegex.find("darf.cnpjContribuinte", pattern, text);
+        if (match.isPresent()) {
+            return match.get().group(1).replaceAll("[^0-9]", "");
         }
 
         // Fallback para primeiro CNPJ encontrado
-        return defaultIssuerCNPJ(text);
+        return defaultIssuerCNPJ(tokens);
     }
 
     /**
      * Extrai a razão social do contribuinte.
      */
     private String extractRazaoSocial(String text) {
-        Pattern pattern = Pattern.compile("(?:Raz[aã]o Social|Nome)[:\\s]*([A-Z\\s]+(?:LTDA|S/A|ME|EPP|EIRELI)?)", Pattern.CASE_INSENSITIVE);
-        Matcher matcher = pattern.matcher(text);
-        if (matcher.find()) {
-            return matcher.group(1).trim();
+        Pattern pattern = PatternRegistry.compile("(?:Raz[aã]o Social|Nome)[:\\s]*([A-Z\\s]+(?:LTDA|S/A|ME|EPP|EIRELI)?)", Pattern.CASE_INSENSITIVE);
+        Optional<MatchResult> match = SafeRegex.find("darf.razaoSocial", pattern, text);
+        if (match.isPresent()) {
+            return match.get().group(1).trim();
         }
         return null;
     }
@@ -114,10 +119,10 @@ public class DarfExtractorImpl extends ExtractorTemplate implements DarfExtracto
      * Extrai o período de apuração (formato: Out/2025 ou 10/2025).
      */
     private String extractPeriodoApuracao(String text) {
-        Pattern pattern = Pattern.compile("(?:Per[ií]odo.*Apura[cç][aã]o|PA)[:\\s]*([A-Za-z]{3}/\\d{4}|\\d{2}/\\d{4})", Pattern.CASE_INSENSITIVE);
-        Matcher matcher = pattern.matcher(text);
-        if (matcher.find()) {
-            return matcher.group(1).trim();
+        Pattern pattern = PatternRegistry.compile("(?:Per[ií]odo.*Apura[cç][aã]o|PA)[:\\s]*([A-Za-z]{3}/\\d{4}|\\d{2}/\\d{4})", Pattern.CASE_INSENSITIVE);
+        Optional<MatchResult> match = SafeRegex.find("darf.periodoApuracao", pattern, text);
+        if (match.isPresent()) {
+            return match.get().group(1).trim();
         }
         return null;
     }
@@ -125,45 +130,45 @@ public class DarfExtractorImpl extends ExtractorTemplate implements DarfExtracto
     /**
      * Extrai a data de vencimento.
      */
-    private LocalDate extractDataVencimento(String text) {
-        Pattern pattern = Pattern.compile("(?:Vencimento|Data.*Vencimento)[:\\s]*(\\d{2}/\\d{2}/\\d{4})", Pattern.CASE_INSENSITIVE);
-        Matcher matcher = pattern.matcher(text);
-        if (matcher.find()) {
-            String dateStr = matcher.group(1);
+    private LocalDate extractDataVencimento(String text, TokenIndex tokens) {
+        Pattern pattern = PatternRegistry.compile("(?:Vencimento|Data.*Vencimento)[:\\s]*(\\d{2}/\\d{2}/\\d{4})", Pattern.CASE_INSENSITIVE);
+        Optional<MatchResult> match = SafeRegex.find("darf.dataVencimento", pattern, text);
+        if (match.isPresent()) {
+            String dateStr = match.get().group(1);
             try {
                 return LocalDate.parse(dateStr, java.time.format.DateTimeFormatter.ofPattern("dd/MM/yyyy"));
             } catch (Exception e) {
                 log.warn("Erro ao parsear data de vencimento: {}", dateStr, e);
             }
         }
-        return defaultDueDate(text);
+        return defaultDueDate(tokens);
     }
 
     /**
      * Extrai o valor total do documento.
      */
-    private BigDecimal extractValorTotal(String text) {
-        Pattern pattern = Pattern.compile("(?:Valor Total|Total.*Documento)[:\\s]*R?\\$?\\s*([0-9.,]+)", Pattern.CASE_INSENSITIVE);
-        Matcher matcher = pattern.matcher(text);
-        if (matcher.find()) {
-            String valueStr = matcher.group(1).replaceAll("[^0-9,.]", "");
+    private BigDecimal extractValorTotal(String text, TokenIndex tokens) {
+        Pattern pattern = PatternRegistry.compile("(?:Valor Total|Total.*Documento)[:\\s]*R?\\$?\\s*([0-9.,]+)", Pattern.CASE_INSENSITIVE);
+        Optional<MatchResult> match = SafeRegex.find("darf.valorTotal", pattern, text);
+        if (match.isPresent()) {
+            String valueStr = match.get().group(1).replaceAll("[^0-9,.]", "");
             try {
                 return new BigDecimal(valueStr.replace(".", "").replace(",", "."));
             } catch (NumberFormatException e) {
                 log.warn("Erro ao parsear valor total: {}", valueStr, e);
             }
         }
-        return defaultTotalValue(text);
+        return defaultTotalValue(tokens);
     }
 
     /**
      * Extrai o número do documento DARF.
      */
     private String extractNumeroDocumento(String text) {
-        Pattern pattern = Pattern.compile("(?:N[uú]mero.*Documento|Documento)[:\\s]*(\\d+)", Pattern.CASE_INSENSITIVE);
-        Matcher matcher = pattern.matcher(text);
-        if (matcher.find()) {
-            return matcher.group(1).trim();
+        Pattern pattern = PatternRegistry.compile("(?:N[uú]mero.*Documento|Documento)[:\\s]*(\\d+)", Pattern.CASE_INSENSITIVE);
+        Optional<MatchResult> match = SafeRegex.find("darf.numeroDocumento", pattern, text);
+        if (match.isPresent()) {
+            return match.get().group(1).trim();
         }
         return null;
     }
@@ -172,10 +177,10 @@ public class DarfExtractorImpl extends ExtractorTemplate implements DarfExtracto
      * Extrai o número do recibo.
      */
     private String extractNumeroRecibo(String text) {
-        Pattern pattern = Pattern.compile("(?:N[uú]mero.*Recibo|Recibo)[:\\s]*(\\d+)", Pattern.CASE_INSENSITIVE);
-        Matcher matcher = pattern.matcher(text);
-        if (matcher.find()) {
-            return matcher.group(1).trim();
+        Pattern pattern = PatternRegistry.compile("(?:N[uú]mero.*Recibo|Recibo)[:\\s]*(\\d+)", Pattern.CASE_INSENSITIVE);
+        Optional<MatchResult> match = SafeRegex.find("darf.numeroRecibo", pattern, text);
+        if (match.isPresent()) {
+            return match.get().group(1).trim();
         }
         return null;
     }
@@ -183,12 +188,8 @@ public class DarfExtractorImpl extends ExtractorTemplate implements DarfExtracto
     /**
      * Extrai o código de barras (48 dígitos).
      */
-    private String extractCodigoBarras(String text) {
-        // Remove espaços e procura por 48 dígitos contíguos
-        Pattern pattern = Pattern.compile("([0-9\\s]{48,60})");
-        Matcher matcher = pattern.matcher(text);
-        while (matcher.find()) {
-            String barcode = matcher.group(1).replaceAll("\\s", "");
+    private String extractCodigoBarras(TokenIndex tokens) {
+        for (String barcode : tokens.numericWindows(48, 60)) {
             if (barcode.length() == 48) {
                 return barcode;
             }
@@ -200,10 +201,10 @@ public class DarfExtractorImpl extends ExtractorTemplate implements DarfExtracto
      * Extrai o código PIX copia e cola.
      */
     private String extractPixCopiaCola(String text) {
-        Pattern pattern = Pattern.compile("(?:PIX.*Copia.*Cola|C[oó]pia.*Cola)[:\\s]*([A-Za-z0-9./-]+)", Pattern.CASE_INSENSITIVE);
-        Matcher matcher = pattern.matcher(text);
-        if (matcher.find()) {
-            return matcher.group(1).trim();
+        Pattern pattern = PatternRegistry.compile("(?:PIX.*Copia.*Cola|C[oó]pia.*Cola)[:\\s]*([A-Za-z0-9./-]+)", Pattern.CASE_INSENSITIVE);
+        Optional<MatchResult> match = SafeRegex.find("darf.pixCopiaCola", pattern, text);
+        if (match.isPresent()) {
+            return match.get().group(1).trim();
         }
         return null;
     }
@@ -215,17 +216,15 @@ public class DarfExtractorImpl extends ExtractorTemplate implements DarfExtracto
         List<ExpenseDARF.TributoDARF> tributos = new ArrayList<>();
 
         // Regex para linhas de tributos (ex: "1082 - IRPJ - Principal: 1.000,00 Multa: 50,00 Juros: 10,00 Total: 1.060,00")
-        Pattern pattern = Pattern.compile("(\\d{4})\\s*-?\\s*([A-Z\\s]+?)\\s*-?\\s*(?:Principal|Valor)[:\\s]*([0-9.,]+)(?:.*Multa[:\\s]*([0-9.,]+))?(?:.*Juros[:\\s]*([0-9.,]+))?(?:.*Total[:\\s]*([0-9.,]+))?", Pattern.CASE_INSENSITIVE);
-        Matcher matcher = pattern.matcher(text);
-
-        while (matcher.find()) {
+        Pattern pattern = PatternRegistry.compile("(\\d{4})\\s*-?\\s*([A-Z\\s]+?)\\s*-?\\s*(?:Principal|Valor)[:\\s]*([0-9.,]+)(?:.*Multa[:\\s]*([0-9.,]+))?(?:.*Juros[:\\s]*([0-9.,]+))?(?:.*Total[:\\s]*([0-9.,]+))?", Pattern.CASE_INSENSITIVE);
+        for (MatchResult match : SafeRegex.findAll("darf.composicaoTributos", pattern, text)) {
             ExpenseDARF.TributoDARF tributo = new ExpenseDARF.TributoDARF();
-            tributo.setCodigoReceita(matcher.group(1));
-            tributo.setDenominacao(matcher.group(2).trim());
-            tributo.setPrincipal(parseValue(matcher.group(3)));
-            tributo.setMulta(parseValue(matcher.group(4)));
-            tributo.setJuros(parseValue(matcher.group(5)));
-            tributo.setTotal(parseValue(matcher.group(6)));
+            tributo.setCodigoReceita(match.group(1));
+            tributo.setDenominacao(match.group(2).trim());
+            tributo.setPrincipal(parseValue(match.group(3)));
+            tributo.setMulta(parseValue(match.group(4)));
+            tributo.setJuros(parseValue(match.group(5)));
+            tributo.setTotal(parseValue(match.group(6)));
 
             tributos.add(tributo);
         }
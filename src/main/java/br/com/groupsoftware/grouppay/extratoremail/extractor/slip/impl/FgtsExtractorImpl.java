@@ -1,12 +1,15 @@
 package br.com.groupsoftware.grouppay.extratoremail.extractor.slip.impl;
 
 import br.com.groupsoftware.grouppay.extratoremail.domain.entity.Document;
-import br.com.groupsoftware.grouppay.extratoremail.domain.entity.Regex;
+import br.com.groupsoftware.grouppay.extratoremail.domain.model.CompiledRegex;
 import br.com.groupsoftware.grouppay.extratoremail.domain.model.Expense;
 import br.com.groupsoftware.grouppay.extratoremail.domain.model.ExpenseFGTS;
 import br.com.groupsoftware.grouppay.extratoremail.extractor.ExtractorTemplate;
 import br.com.groupsoftware.grouppay.extratoremail.extractor.slip.FgtsExtractor;
-import br.com.groupsoftware.grouppay.extratoremail.repository.RepositoryFacade;
+import br.com.groupsoftware.grouppay.extratoremail.service.RegexSnapshotService;
+import br.com.groupsoftware.grouppay.extratoremail.util.extractor.PatternRegistry;
+import br.com.groupsoftware.grouppay.extratoremail.util.extractor.SafeRegex;
+import br.com.groupsoftware.grouppay.extratoremail.util.extractor.TokenIndex;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
@@ -14,7 +17,8 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Matcher;
+import java.util.Optional;
+import java.util.regex.MatchResult;
 import java.util.regex.Pattern;
 
 /**
@@ -33,43 +37,44 @@ import java.util.regex.Pattern;
 @Component
 public class FgtsExtractorImpl extends ExtractorTemplate implements FgtsExtractor {
 
-    public FgtsExtractorImpl(RepositoryFacade facade) {
-        super(facade);
+    public FgtsExtractorImpl(RegexSnapshotService regexSnapshot) {
+        super(regexSnapshot);
     }
 
     @Override
     public Expense getExpense(Document document) {
         String text = document.getTextExtracted();
-        Regex regex = getRegexByDocument(document);
+        TokenIndex tokens = document.getTokenIndex();
+        CompiledRegex regex = getRegexByDocument(document);
 
         ExpenseFGTS fgts = new ExpenseFGTS();
 
         // Extração de campos básicos usando regex se disponível
         if (regex != null) {
-            fgts.setCnpjCpfEmitente(extractByPattern(text, regex.getIssuerCNPJ()));
-            fgts.setDataEmissao(extractDate(text, regex.getIssueDate()));
-            fgts.setDataVencimento(extractDate(text, regex.getDueDate()));
-            fgts.setValorTotal(extractValueByPattern(text, regex.getTotalValue()));
-            fgts.setNumero(extractByPattern(text, regex.getNumber()));
+            fgts.setCnpjCpfEmitente(extractByPattern(text, regex.issuerCNPJ()));
+            fgts.setDataEmissao(extractDate(text, regex.issueDate()));
+            fgts.setDataVencimento(extractDate(text, regex.dueDate()));
+            fgts.setValorTotal(extractValueByPattern(text, regex.totalValue()));
+            fgts.setNumero(extractByPattern(text, regex.number()));
         }
 
         // Fallback para extração com métodos default e regex específicos
         if (fgts.getCnpjCpfEmitente() == null) {
-            fgts.setCnpjCpfEmitente(extractCnpjEmpregador(text));
+            fgts.setCnpjCpfEmitente(extractCnpjEmpregador(text, tokens));
         }
 
         if (fgts.getDataVencimento() == null) {
-            fgts.setDataVencimento(extractDataVencimento(text));
+            fgts.setDataVencimento(extractDataVencimento(text, tokens));
         }
 
         if (fgts.getValorTotal() == null) {
-            fgts.setValorTotal(extractValorTotal(text));
+            fgts.setValorTotal(extractValorTotal(text, tokens));
         }
 
         // Extração de campos específicos do FGTS
         fgts.setRazaoSocialEmpregador(extractRazaoSocial(text));
         fgts.setIdentificador(extractIdentificador(text));
-        fgts.setCodigoBarras(extractCodigoBarras(text));
+        fgts.setCodigoBarras(extractCodigoBarras(tokens));
         fgts.setPixCopiaCola(extractPixCopiaCola(text));
         fgts.setComposicao(extractComposicaoFgts(text));
 
@@ -82,26 +87,26 @@ public class FgtsExtractorImpl extends ExtractorTemplate implements FgtsExtracto
     /**
      * Extrai o CNPJ do empregador.
      */
-    private String extractCnpjEmpregador(String text) {
+    private String extractCnpjEmpregador(String text, TokenIndex tokens) {
         // Tenta extrair CNPJ após "CPF/CNPJ do Empregador" ou similar
-        Pattern pattern = Pattern.compile("(?:CPF/CNPJ.*Empregador|Empregador)[:\\s]*([0-9./-]{14,20})", Pattern.CASE_INSENSITIVE);
-        Matcher matcher = pattern.matcher(text);
-        if (matcher.find()) {
-            return matcher.group(1).replaceAll("[^0-9]", "");
+        Pattern pattern = PatternRegistry.compile("(?:CPF/CNPJ.*Empregador|Empregador)[:\\s]*([0-9./-]{14,20})", Pattern.CASE_INSENSITIVE);
+        Optional<MatchResult> match = SafeRegex.find("fgts.cnpjEmpregador", pattern, text);
+        if (match.isPresent()) {
+            return match.get().group(1).replaceAll("[^0-9]", "");
         }
 
         // Fallback para primeiro CNPJ encontrado
-        return defaultIssuerCNPJ(text);
+        return defaultIssuerCNPJ(tokens);
     }
 
     /**
      * Extrai a razão social do empregador.
      */
     private String extractRazaoSocial(String text) {
-        Pattern pattern = Pattern.compile("(?:Nome|Raz[aã]o Social)[:\\s]*([A-Z\\s]+(?:LTDA|S/A|ME|EPP|EIRELI)?)", Pattern.CASE_INSENSITIVE);
-        Matcher matcher = pattern.matcher(text);
-        if (matcher.find()) {
-            return matcher.group(1).trim();
+        Pattern pattern = PatternRegistry.compile("(?:Nome|Raz[aã]o Social)[:\\s]*([A-Z\\s]+(?:LTDA|S/A|ME|EPP|EIRELI)?)", Pattern.CASE_INSENSITIVE);
+        Optional<MatchResult> match = SafeRegex.find("fgts.razaoSocial", pattern, text);
+        if (match.isPresent()) {
+            return match.get().group(1).trim();
         }
         return null;
     }
@@ -110,10 +115,10 @@ public class FgtsExtractorImpl extends ExtractorTemplate implements FgtsExtracto
      * Extrai o identificador da guia FGTS (ex: 0124040202313489-5).
      */
     private String extractIdentificador(String text) {
-        Pattern pattern = Pattern.compile("(?:Identificador)[:\\s]*(\\d{16}-\\d)", Pattern.CASE_INSENSITIVE);
-        Matcher matcher = pattern.matcher(text);
-        if (matcher.find()) {
-            return matcher.group(1).trim();
+        Pattern pattern = PatternRegistry.compile("(?:Identificador)[:\\s]*(\\d{16}-\\d)", Pattern.CASE_INSENSITIVE);
+        Optional<MatchResult> match = SafeRegex.find("fgts.identificador", pattern, text);
+        if (match.isPresent()) {
+            return match.get().group(1).trim();
         }
         return null;
     }
@@ -121,46 +126,42 @@ public class FgtsExtractorImpl extends ExtractorTemplate implements FgtsExtracto
     /**
      * Extrai a data de vencimento.
      */
-    private LocalDate extractDataVencimento(String text) {
-        Pattern pattern = Pattern.compile("(?:Vencimento|Data.*Vencimento)[:\\s]*(\\d{2}/\\d{2}/\\d{4})", Pattern.CASE_INSENSITIVE);
-        Matcher matcher = pattern.matcher(text);
-        if (matcher.find()) {
-            String dateStr = matcher.group(1);
+    private LocalDate extractDataVencimento(String text, TokenIndex tokens) {
+        Pattern pattern = PatternRegistry.compile("(?:Vencimento|Data.*Vencimento)[:\\s]*(\\d{2}/\\d{2}/\\d{4})", Pattern.CASE_INSENSITIVE);
+        Optional<MatchResult> match = SafeRegex.find("fgts.dataVencimento", pattern, text);
+        if (match.isPresent()) {
+            String dateStr = match.get().group(1);
             try {
                 return LocalDate.parse(dateStr, java.time.format.DateTimeFormatter.ofPattern("dd/MM/yyyy"));
             } catch (Exception e) {
                 log.warn("Erro ao parsear data de vencimento: {}", dateStr, e);
             }
         }
-        return defaultDueDate(text);
+        return defaultDueDate(tokens);
     }
 
     /**
      * Extrai o valor total a recolher.
      */
-    private BigDecimal extractValorTotal(String text) {
-        Pattern pattern = Pattern.compile("(?:Valor.*Recolher|Total.*Recolher)[:\\s]*R?\\$?\\s*([0-9.,]+)", Pattern.CASE_INSENSITIVE);
-        Matcher matcher = pattern.matcher(text);
-        if (matcher.find()) {
-            String valueStr = matcher.group(1).replaceAll("[^0-9,.]", "");
+    private BigDecimal extractValorTotal(String text, TokenIndex tokens) {
+        Pattern pattern = PatternRegistry.compile("(?:Valor.*Recolher|Total.*Recolher)[:\\s]*R?\\$?\\s*([0-9.,]+)", Pattern.CASE_INSENSITIVE);
+        Optional<MatchResult> match = SafeRegex.find("fgts.valorTotal", pattern, text);
+        if (match.isPresent()) {
+            String valueStr = match.get().group(1).replaceAll("[^0-9,.]", "");
             try {
                 return new BigDecimal(valueStr.replace(".", "").replace(",", "."));
             } catch (NumberFormatException e) {
                 log.warn("Erro ao parsear valor total: {}", valueStr, e);
             }
         }
-        return defaultTotalValue(text);
+        return defaultTotalValue(tokens);
     }
 
     /**
      * Extrai o código de barras.
      */
-    private String extractCodigoBarras(String text) {
-        // Remove espaços e procura por 47/48 dígitos contíguos
-        Pattern pattern = Pattern.compile("([0-9\\s]{44,50})");
-        Matcher matcher = pattern.matcher(text);
-        while (matcher.find()) {
-            String barcode = matcher.group(1).replaceAll("\\s", "");
+    private String extractCodigoBarras(TokenIndex tokens) {
+        for (String barcode : tokens.numericWindows(44, 50)) {
             if (barcode.length() >= 44 && barcode.length() <= 48) {
                 return barcode;
             }
@@ -172,10 +173,10 @@ public class FgtsExtractorImpl extends ExtractorTemplate implements FgtsExtracto
      * Extrai o código PIX copia e cola.
      */
     private String extractPixCopiaCola(String text) {
-        Pattern pattern = Pattern.compile("(?:PIX.*Copia.*Cola|C[oó]pia.*Cola)[:\\s]*([A-Za-z0-9./-]+)", Pattern.CASE_INSENSITIVE);
-        Matcher matcher = pattern.matcher(text);
-        if (matcher.find()) {
-            return matcher.group(1).trim();
+        Pattern pattern = PatternRegistry.compile("(?:PIX.*Copia.*Cola|C[oó]pia.*Cola)[:\\s]*([A-Za-z0-9./-]+)", Pattern.CASE_INSENSITIVE);
+        Optional<MatchResult> match = SafeRegex.find("fgts.pixCopiaCola", pattern, text);
+        if (match.isPresent()) {
+            return match.get().group(1).trim();
         }
         return null;
     }
@@ -187,15 +188,13 @@ public class FgtsExtractorImpl extends ExtractorTemplate implements FgtsExtracto
         List<ExpenseFGTS.ComposicaoFGTS> composicoes = new ArrayList<>();
 
         // Regex para linhas de composição (ex: "09/2025 - 10 trabalhadores - Remuneração: 5.000,00 - FGTS: 400,00")
-        Pattern pattern = Pattern.compile("(\\d{2}/\\d{4})\\s*-?\\s*(\\d+)\\s*(?:trabalhadores?)?.*?(?:Remunera[cç][aã]o|Sal[aá]rios?)[:\\s]*([0-9.,]+).*?FGTS[:\\s]*([0-9.,]+)", Pattern.CASE_INSENSITIVE);
-        Matcher matcher = pattern.matcher(text);
-
-        while (matcher.find()) {
+        Pattern pattern = PatternRegistry.compile("(\\d{2}/\\d{4})\\s*-?\\s*(\\d+)\\s*(?:trabalhadores?)?.*?(?:Remunera[cç][aã]o|Sal[aá]rios?)[:\\s]*([0-9.,]+).*?FGTS[:\\s]*([0-9.,]+)", Pattern.CASE_INSENSITIVE);
+        for (MatchResult match : SafeRegex.findAll("fgts.composicao", pattern, text)) {
             ExpenseFGTS.ComposicaoFGTS composicao = new ExpenseFGTS.ComposicaoFGTS();
-            composicao.setCompetencia(matcher.group(1));
-            composicao.setQuantidadeTrabalhadores(Integer.parseInt(matcher.group(2)));
-            composicao.setValorRemuneracao(parseValue(matcher.group(3)));
-            composicao.setValorFgts(parseValue(matcher.group(4)));
+            composicao.setCompetencia(match.group(1));
+            composicao.setQuantidadeTrabalhadores(Integer.parseInt(match.group(2)));
+            composicao.setValorRemuneracao(parseValue(match.group(3)));
+            composicao.setValorFgts(parseValue(match.group(4)));
 
             // Total é a soma de remuneração + FGTS (ou pode ser extraído separadamente)
             if (composicao.getValorRemuneracao() != null && composicao.getValorFgts() != null) {
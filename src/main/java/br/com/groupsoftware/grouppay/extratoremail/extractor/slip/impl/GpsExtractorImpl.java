@@ -1,18 +1,22 @@
 package br.com.groupsoftware.grouppay.extratoremail.extractor.slip.impl;
 
 import br.com.groupsoftware.grouppay.extratoremail.domain.entity.Document;
-import br.com.groupsoftware.grouppay.extratoremail.domain.entity.Regex;
+import br.com.groupsoftware.grouppay.extratoremail.domain.model.CompiledRegex;
 import br.com.groupsoftware.grouppay.extratoremail.domain.model.Expense;
 import br.com.groupsoftware.grouppay.extratoremail.domain.model.ExpenseGPS;
 import br.com.groupsoftware.grouppay.extratoremail.extractor.ExtractorTemplate;
 import br.com.groupsoftware.grouppay.extratoremail.extractor.slip.GpsExtractor;
-import br.com.groupsoftware.grouppay.extratoremail.repository.RepositoryFacade;
+import br.com.groupsoftware.grouppay.extratoremail.service.RegexSnapshotService;
+import br.com.groupsoftware.grouppay.extratoremail.util.extractor.PatternRegistry;
+import br.com.groupsoftware.grouppay.extratoremail.util.extractor.SafeRegex;
+import br.com.groupsoftware.grouppay.extratoremail.util.extractor.TokenIndex;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.util.regex.Matcher;
+import java.util.Optional;
+import java.util.regex.MatchResult;
 import java.util.regex.Pattern;
 
 /**
@@ -31,37 +35,38 @@ import java.util.regex.Pattern;
 @Component
 public class GpsExtractorImpl extends ExtractorTemplate implements GpsExtractor {
 
-    public GpsExtractorImpl(RepositoryFacade facade) {
-        super(facade);
+    public GpsExtractorImpl(RegexSnapshotService regexSnapshot) {
+        super(regexSnapshot);
     }
 
     @Override
     public Expense getExpense(Document document) {
         String text = document.getTextExtracted();
-        Regex regex = getRegexByDocument(document);
+        TokenIndex tokens = document.getTokenIndex();
+        CompiledRegex regex = getRegexByDocument(document);
 
         ExpenseGPS gps = new ExpenseGPS();
 
         // Extração de campos básicos usando regex se disponível
         if (regex != null) {
-            gps.setCnpjCpfEmitente(extractByPattern(text, regex.getIssuerCNPJ()));
-            gps.setDataEmissao(extractDate(text, regex.getIssueDate()));
-            gps.setDataVencimento(extractDate(text, regex.getDueDate()));
-            gps.setValorTotal(extractValueByPattern(text, regex.getTotalValue()));
-            gps.setNumero(extractByPattern(text, regex.getNumber()));
+            gps.setCnpjCpfEmitente(extractByPattern(text, regex.issuerCNPJ()));
+            gps.setDataEmissao(extractDate(text, regex.issueDate()));
+            gps.setDataVencimento(extractDate(text, regex.dueDate()));
+            gps.setValorTotal(extractValueByPattern(text, regex.totalValue()));
+            gps.setNumero(extractByPattern(text, regex.number()));
         }
 
         // Fallback para extração com métodos default e regex específicos
         if (gps.getCnpjCpfEmitente() == null) {
-            gps.setCnpjCpfEmitente(extractCnpjContribuinte(text));
+            gps.setCnpjCpfEmitente(extractCnpjContribuinte(text, tokens));
         }
 
         if (gps.getDataVencimento() == null) {
-            gps.setDataVencimento(extractDataVencimento(text));
+            gps.setDataVencimento(extractDataVencimento(text, tokens));
         }
 
         if (gps.getValorTotal() == null) {
-            gps.setValorTotal(extractValorTotal(text));
+            gps.setValorTotal(extractValorTotal(text, tokens));
         }
 
         // Extração de campos específicos do GPS
@@ -69,7 +74,7 @@ public class GpsExtractorImpl extends ExtractorTemplate implements GpsExtractor
         gps.setCodigoPagamento(extractCodigoPagamento(text));
         gps.setCompetencia(extractCompetencia(text));
         gps.setIdentificador(extractIdentificador(text));
-        gps.setCodigoBarras(extractCodigoBarras(text));
+        gps.setCodigoBarras(extractCodigoBarras(tokens));
         gps.setPixCopiaCola(extractPixCopiaCola(text));
         gps.setValorINSS(extractValorINSS(text));
         gps.setValorOutrasEntidades(extractValorOutrasEntidades(text));
@@ -86,23 +91,23 @@ public class GpsExtractorImpl extends ExtractorTemplate implements GpsExtractor
     /**
      * Extrai o CNPJ/CPF do contribuinte.
      */
-    private String extractCnpjContribuinte(String text) {
-        Pattern pattern = Pattern.compile("(?:CNPJ/CEI/NIT|CNPJ)[:\\s]*([0-9./-]{11,20})", Pattern.CASE_INSENSITIVE);
-        Matcher matcher = pattern.matcher(text);
-        if (matcher.find()) {
-            return matcher.group(1).replaceAll("[^0-9]", "");
+    private String extractCnpjContribuinte(String text, TokenIndex tokens) {
+        Pattern pattern = PatternRegistry.compile("(?:CNPJ/CEI/NIT|CNPJ)[:\\s]*([0-9./-]{11,20})", Pattern.CASE_INSENSITIVE);
+        Optional<MatchResult> match = SafeRegex.find("gps.cnpjContribuinte", pattern, text);
+        if (match.isPresent()) {
+            return match.get().group(1).replaceAll("[^0-9]", "");
         }
-        return defaultIssuerCNPJ(text);
+        return defaultIssuerCNPJ(tokens);
     }
 
     /**
      * Extrai a razão social do contribuinte.
      */
     private String extractRazaoSocial(String text) {
-        Pattern pattern = Pattern.compile("(?:Nome|Raz[aã]o Social)[:\\s]*([A-Z\\s]+(?:LTDA|S/A|ME|EPP|EIRELI)?)", Pattern.CASE_INSENSITIVE);
-        Matcher matcher = pattern.matcher(text);
-        if (matcher.find()) {
-            return matcher.group(1).trim();
+        Pattern pattern = PatternRegistry.compile("(?:Nome|Raz[aã]o Social)[:\\s]*([A-Z\\s]+(?:LTDA|S/A|ME|EPP|EIRELI)?)", Pattern.CASE_INSENSITIVE);
+        Optional<MatchResult> match = SafeRegex.find("gps.razaoSocial", pattern, text);
+        if (match.isPresent()) {
+            return match.get().group(1).trim();
         }
         return null;
     }
@@ -111,10 +116,10 @@ public class GpsExtractorImpl extends ExtractorTemplate implements GpsExtractor
      * Extrai o código de pagamento (ex: 2100, 2208).
      */
     private String extractCodigoPagamento(String text) {
-        Pattern pattern = Pattern.compile("(?:C[oó]digo.*Pagamento)[:\\s]*(\\d{4})", Pattern.CASE_INSENSITIVE);
-        Matcher matcher = pattern.matcher(text);
-        if (matcher.find()) {
-            return matcher.group(1).trim();
+        Pattern pattern = PatternRegistry.compile("(?:C[oó]digo.*Pagamento)[:\\s]*(\\d{4})", Pattern.CASE_INSENSITIVE);
+        Optional<MatchResult> match = SafeRegex.find("gps.codigoPagamento", pattern, text);
+        if (match.isPresent()) {
+            return match.get().group(1).trim();
         }
         return null;
     }
@@ -123,10 +128,10 @@ public class GpsExtractorImpl extends ExtractorTemplate implements GpsExtractor
      * Extrai a competência (formato: 10/2025).
      */
     private String extractCompetencia(String text) {
-        Pattern pattern = Pattern.compile("(?:Compet[eê]ncia)[:\\s]*(\\d{2}/\\d{4})", Pattern.CASE_INSENSITIVE);
-        Matcher matcher = pattern.matcher(text);
-        if (matcher.find()) {
-            return matcher.group(1).trim();
+        Pattern pattern = PatternRegistry.compile("(?:Compet[eê]ncia)[:\\s]*(\\d{2}/\\d{4})", Pattern.CASE_INSENSITIVE);
+        Optional<MatchResult> match = SafeRegex.find("gps.competencia", pattern, text);
+        if (match.isPresent()) {
+            return match.get().group(1).trim();
         }
         return null;
     }
@@ -135,10 +140,10 @@ public class GpsExtractorImpl extends ExtractorTemplate implements GpsExtractor
      * Extrai o identificador (CEI ou NIT).
      */
     private String extractIdentificador(String text) {
-        Pattern pattern = Pattern.compile("(?:CEI|NIT)[:\\s]*(\\d{11,14})", Pattern.CASE_INSENSITIVE);
-        Matcher matcher = pattern.matcher(text);
-        if (matcher.find()) {
-            return matcher.group(1).trim();
+        Pattern pattern = PatternRegistry.compile("(?:CEI|NIT)[:\\s]*(\\d{11,14})", Pattern.CASE_INSENSITIVE);
+        Optional<MatchResult> match = SafeRegex.find("gps.identificador", pattern, text);
+        if (match.isPresent()) {
+            return match.get().group(1).trim();
         }
         return null;
     }
@@ -146,40 +151,37 @@ public class GpsExtractorImpl extends ExtractorTemplate implements GpsExtractor
     /**
      * Extrai a data de vencimento.
      */
-    private LocalDate extractDataVencimento(String text) {
-        Pattern pattern = Pattern.compile("(?:Vencimento|Data.*Vencimento)[:\\s]*(\\d{2}/\\d{2}/\\d{4})", Pattern.CASE_INSENSITIVE);
-        Matcher matcher = pattern.matcher(text);
-        if (matcher.find()) {
-            String dateStr = matcher.group(1);
+    private LocalDate extractDataVencimento(String text, TokenIndex tokens) {
+        Pattern pattern = PatternRegistry.compile("(?:Vencimento|Data.*Vencimento)[:\\s]*(\\d{2}/\\d{2}/\\d{4})", Pattern.CASE_INSENSITIVE);
+        Optional<MatchResult> match = SafeRegex.find("gps.dataVencimento", pattern, text);
+        if (match.isPresent()) {
+            String dateStr = match.get().group(1);
             try {
                 return LocalDate.parse(dateStr, java.time.format.DateTimeFormatter.ofPattern("dd/MM/yyyy"));
             } catch (Exception e) {
                 log.warn("Erro ao parsear data de vencimento: {}", dateStr, e);
             }
         }
-        return defaultDueDate(text);
+        return defaultDueDate(tokens);
     }
 
     /**
      * Extrai o valor total.
      */
-    private BigDecimal extractValorTotal(String text) {
-        Pattern pattern = Pattern.compile("(?:Total.*Pagar|Valor Total)[:\\s]*R?\\$?\\s*([0-9.,]+)", Pattern.CASE_INSENSITIVE);
-        Matcher matcher = pattern.matcher(text);
-        if (matcher.find()) {
-            return parseValue(matcher.group(1));
+    private BigDecimal extractValorTotal(String text, TokenIndex tokens) {
+        Pattern pattern = PatternRegistry.compile("(?:Total.*Pagar|Valor Total)[:\\s]*R?\\$?\\s*([0-9.,]+)", Pattern.CASE_INSENSITIVE);
+        Optional<MatchResult> match = SafeRegex.find("gps.valorTotal", pattern, text);
+        if (match.isPresent()) {
+            return parseValue(match.get().group(1));
         }
-        return defaultTotalValue(text);
+        return defaultTotalValue(tokens);
     }
 
     /**
      * Extrai o código de barras.
      */
-    private String extractCodigoBarras(String text) {
-        Pattern pattern = Pattern.compile("([0-9\\s]{44,50})");
-        Matcher matcher = pattern.matcher(text);
-        while (matcher.find()) {
-            String barcode = matcher.group(1).replaceAll("\\s", "");
+    private String extractCodigoBarras(TokenIndex tokens) {
+        for (String barcode : tokens.numericWindows(44, 50)) {
             if (barcode.length() >= 44 && barcode.length() <= 48) {
                 return barcode;
             }
@@ -191,10 +193,10 @@ public class GpsExtractorImpl extends ExtractorTemplate implements GpsExtractor
      * Extrai o código PIX copia e cola.
      */
     private String extractPixCopiaCola(String text) {
-        Pattern pattern = Pattern.compile("(?:PIX.*Copia.*Cola|C[oó]pia.*Cola)[:\\s]*([A-Za-z0-9./-]+)", Pattern.CASE_INSENSITIVE);
-        Matcher matcher = pattern.matcher(text);
-        if (matcher.find()) {
-            return matcher.group(1).trim();
+        Pattern pattern = PatternRegistry.compile("(?:PIX.*Copia.*Cola|C[oó]pia.*Cola)[:\\s]*([A-Za-z0-9./-]+)", Pattern.CASE_INSENSITIVE);
+        Optional<MatchResult> match = SafeRegex.find("gps.pixCopiaCola", pattern, text);
+        if (match.isPresent()) {
+            return match.get().group(1).trim();
         }
         return null;
     }
@@ -203,10 +205,10 @@ public class GpsExtractorImpl extends ExtractorTemplate implements GpsExtractor
      * Extrai o valor do INSS.
      */
     private BigDecimal extractValorINSS(String text) {
-        Pattern pattern = Pattern.compile("(?:INSS|Previd[eê]ncia)[:\\s]*R?\\$?\\s*([0-9.,]+)", Pattern.CASE_INSENSITIVE);
-        Matcher matcher = pattern.matcher(text);
-        if (matcher.find()) {
-            return parseValue(matcher.group(1));
+        Pattern pattern = PatternRegistry.compile("(?:INSS|Previd[eê]ncia)[:\\s]*R?\\$?\\s*([0-9.,]+)", Pattern.CASE_INSENSITIVE);
+        Optional<MatchResult> match = SafeRegex.find("gps.valorINSS", pattern, text);
+        if (match.isPresent()) {
+            return parseValue(match.get().group(1));
         }
         return null;
     }
@@ -215,10 +217,10 @@ public class GpsExtractorImpl extends ExtractorTemplate implements GpsExtractor
      * Extrai o valor de outras entidades.
      */
     private BigDecimal extractValorOutrasEntidades(String text) {
-        Pattern pattern = Pattern.compile("(?:Outras Entidades)[:\\s]*R?\\$?\\s*([0-9.,]+)", Pattern.CASE_INSENSITIVE);
-        Matcher matcher = pattern.matcher(text);
-        if (matcher.find()) {
-            return parseValue(matcher.group(1));
+        Pattern pattern = PatternRegistry.compile("(?:Outras Entidades)[:\\s]*R?\\$?\\s*([0-9.,]+)", Pattern.CASE_INSENSITIVE);
+        Optional<MatchResult> match = SafeRegex.find("gps.valorOutrasEntidades", pattern, text);
+        if (match.isPresent()) {
+            return parseValue(match.get().group(1));
         }
         return null;
     }
@@ -227,10 +229,10 @@ public class GpsExtractorImpl extends ExtractorTemplate implements GpsExtractor
      * Extrai a atualização monetária.
      */
     private BigDecimal extractAtualizacaoMonetaria(String text) {
-        Pattern pattern = Pattern.compile("(?:Atualiza[cç][aã]o.*Monet[aá]ria)[:\\s]*R?\\$?\\s*([0-9.,]+)", Pattern.CASE_INSENSITIVE);
-        Matcher matcher = pattern.matcher(text);
-        if (matcher.find()) {
-            return parseValue(matcher.group(1));
+        Pattern pattern = PatternRegistry.compile("(?:Atualiza[cç][aã]o.*Monet[aá]ria)[:\\s]*R?\\$?\\s*([0-9.,]+)", Pattern.CASE_INSENSITIVE);
+        Optional<MatchResult> match = SafeRegex.find("gps.atualizacaoMonetaria", pattern, text);
+        if (match.isPresent()) {
+            return parseValue(match.get().group(1));
         }
         return null;
     }
@@ -239,10 +241,10 @@ public class GpsExtractorImpl extends ExtractorTemplate implements GpsExtractor
      * Extrai os juros.
      */
     private BigDecimal extractJuros(String text) {
-        Pattern pattern = Pattern.compile("(?:Juros)[:\\s]*R?\\$?\\s*([0-9.,]+)", Pattern.CASE_INSENSITIVE);
-        Matcher matcher = pattern.matcher(text);
-        if (matcher.find()) {
-            return parseValue(matcher.group(1));
+        Pattern pattern = PatternRegistry.compile("(?:Juros)[:\\s]*R?\\$?\\s*([0-9.,]+)", Pattern.CASE_INSENSITIVE);
+        Optional<MatchResult> match = SafeRegex.find("gps.juros", pattern, text);
+        if (match.isPresent()) {
+            return parseValue(match.get().group(1));
         }
         return null;
     }
@@ -251,10 +253,10 @@ public class GpsExtractorImpl extends ExtractorTemplate implements GpsExtractor
      * Extrai a multa.
      */
     private BigDecimal extractMulta(String text) {
-        Pattern pattern = Pattern.compile("(?:Multa)[:\\s]*R?\\$?\\s*([0-9.,]+)", Pattern.CASE_INSENSITIVE);
-        Matcher matcher = pattern.matcher(text);
-        if (matcher.find()) {
-            return parseValue(matcher.group(1));
+        Pattern pattern = PatternRegistry.compile("(?:Multa)[:\\s]*R?\\$?\\s*([0-9.,]+)", Pattern.CASE_INSENSITIVE);
+        Optional<MatchResult> match = SafeRegex.find("gps.multa", pattern, text);
+        if (match.isPresent()) {
+            return parseValue(match.get().group(1));
         }
         return null;
     }
@@ -58,5 +58,7 @@ public interface DocumentRepository extends JpaRepository<Document, Long> {
     @Query("SELECT COUNT(d) > 0 FROM Document d WHERE d.messageId = :messageId AND d.clientGroup = :clientGroup")
     boolean existsByMessageIdAndClientGroup(@Param("messageId") String messageId, @Param("clientGroup") ClientGroup clientGroup);
 
-    boolean existsByTextExtracted(String textExtracted);
+    boolean existsByTextFingerprint(String textFingerprint);
+
+    boolean existsByTextFingerprintAndIdNot(String textFingerprint, Long id);
 }
\ No newline at end of file
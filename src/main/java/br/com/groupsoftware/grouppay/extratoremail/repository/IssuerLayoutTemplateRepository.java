@@ -0,0 +1,25 @@
+package br.com.groupsoftware.grouppay.extratoremail.repository;
+
+import br.com.groupsoftware.grouppay.extratoremail.domain.entity.IssuerLayoutTemplate;
+import br.com.groupsoftware.grouppay.extratoremail.domain.enums.ExpenseType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repositório para a entidade {@link IssuerLayoutTemplate}.
+ *
+ * @author Marco Willy
+ * @version 1.0
+ * @since 2025
+ */
+@Repository
+public interface IssuerLayoutTemplateRepository extends JpaRepository<IssuerLayoutTemplate, Long> {
+    Optional<IssuerLayoutTemplate> findByIssuerCnpjAndLayoutFingerprintAndExpenseType(String issuerCnpj, String layoutFingerprint,
+                                                                                     ExpenseType expenseType);
+
+    List<IssuerLayoutTemplate> findByIssuerCnpjInAndExpenseType(Collection<String> issuerCnpjs, ExpenseType expenseType);
+}
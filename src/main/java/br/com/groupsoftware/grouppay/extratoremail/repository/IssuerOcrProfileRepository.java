@@ -0,0 +1,19 @@
+package br.com.groupsoftware.grouppay.extratoremail.repository;
+
+import br.com.groupsoftware.grouppay.extratoremail.domain.entity.IssuerOcrProfile;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Repositório para a entidade {@link IssuerOcrProfile}.
+ *
+ * @author Marco Willy
+ * @version 1.0
+ * @since 2025
+ */
+@Repository
+public interface IssuerOcrProfileRepository extends JpaRepository<IssuerOcrProfile, Long> {
+    Optional<IssuerOcrProfile> findByIssuerCnpj(String issuerCnpj);
+}
@@ -0,0 +1,35 @@
+package br.com.groupsoftware.grouppay.extratoremail.repository;
+
+import br.com.groupsoftware.grouppay.extratoremail.domain.entity.LlmResponseCacheEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repositório para a entidade {@link LlmResponseCacheEntry}.
+ *
+ * @author Marco Willy
+ * @version 1.0
+ * @since 2025
+ */
+@Repository
+public interface LlmResponseCacheRepository extends JpaRepository<LlmResponseCacheEntry, Long> {
+    Optional<LlmResponseCacheEntry> findByCacheKey(String cacheKey);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM LlmResponseCacheEntry e WHERE e.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+
+    // Entradas menos usadas primeiro; o último uso é preenchido na criação e indexado
+    @Query("SELECT e.id FROM LlmResponseCacheEntry e ORDER BY e.lastHitAt ASC")
+    List<Long> findLeastRecentlyUsedIds(Pageable pageable);
+}
@@ -32,4 +32,7 @@ public class RepositoryFacade {
     public final UpdateCompanyRepository companyUpdate;
     public final EmailSearchConfigRepository emailSearchConfig;
     public final EmailAccessLogRepository emailAccessLog;
+    public final IssuerOcrProfileRepository issuerOcrProfile;
+    public final IssuerLayoutTemplateRepository issuerLayoutTemplate;
+    public final LlmResponseCacheRepository llmResponseCache;
 }
@@ -0,0 +1,26 @@
+package br.com.groupsoftware.grouppay.extratoremail.service;
+
+import br.com.groupsoftware.grouppay.extratoremail.domain.enums.ExpenseType;
+import br.com.groupsoftware.grouppay.extratoremail.domain.model.CompiledRegex;
+import br.com.groupsoftware.grouppay.extratoremail.domain.model.dto.RegexSnapshotDTO;
+
+import java.util.Optional;
+
+/**
+ * Interface para o snapshot em memória da tabela de regex usada pelos extratores.
+ * <p>
+ * A consulta por tipo de despesa e código IBGE não acessa o banco: já devolve o regex padrão
+ * ({@code DEFAULT}) do tipo quando não houver um específico para a região, com as expressões já compiladas.
+ * </p>
+ *
+ * @author Marco Willy
+ * @version 1.0
+ * @since 2025
+ */
+public interface RegexSnapshotService {
+    Optional<CompiledRegex> find(ExpenseType expenseType, String ibgeCode);
+
+    RegexSnapshotDTO current();
+
+    RegexSnapshotDTO reload();
+}
@@ -29,4 +29,5 @@ public class ServiceFacade {
     public final ExpenseSenderService expenseSender;
     public final GroupPayService groupPay;
     public final MailService mail;
+    public final RegexSnapshotService regexSnapshot;
 }
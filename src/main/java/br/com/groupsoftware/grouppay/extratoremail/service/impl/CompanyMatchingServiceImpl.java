@@ -4,10 +4,14 @@ import br.com.groupsoftware.grouppay.extratoremail.domain.entity.Company;
 import br.com.groupsoftware.grouppay.extratoremail.domain.entity.Document;
 import br.com.groupsoftware.grouppay.extratoremail.domain.enums.DocumentStage;
 import br.com.groupsoftware.grouppay.extratoremail.domain.model.Expense;
+import br.com.groupsoftware.grouppay.extratoremail.domain.model.ExpenseDARF;
+import br.com.groupsoftware.grouppay.extratoremail.domain.model.ExpenseFGTS;
+import br.com.groupsoftware.grouppay.extratoremail.domain.model.ExpenseGPS;
 import br.com.groupsoftware.grouppay.extratoremail.repository.RepositoryFacade;
 import br.com.groupsoftware.grouppay.extratoremail.service.CompanyMatchingService;
 import br.com.groupsoftware.grouppay.extratoremail.service.DocumentService;
 import br.com.groupsoftware.grouppay.extratoremail.service.ExpenseMapperService;
+import br.com.groupsoftware.grouppay.extratoremail.util.brazil.CpfCnpjUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -67,9 +71,14 @@ public class CompanyMatchingServiceImpl implements CompanyMatchingService {
         String cnpjDestino = extractCnpjDestino(expense);
         if (cnpjDestino != null && !cnpjDestino.trim().isEmpty()) {
             String cnpjDestinoNormalizado = normalizeCnpj(cnpjDestino);
-            
+            long cnpjDestinoCompactado = CpfCnpjUtil.pack(cnpjDestinoNormalizado);
+
+            // CPF/CNPJ completos são comparados pelo valor compactado, sem normalizar o texto de cada company
             Optional<Company> matchExato = companies.stream()
                     .filter(company -> {
+                        if (cnpjDestinoCompactado != CpfCnpjUtil.NOT_PACKED) {
+                            return CpfCnpjUtil.pack(company.getCnpj()) == cnpjDestinoCompactado;
+                        }
                         String cnpjCompany = normalizeCnpj(company.getCnpj());
                         return cnpjCompany != null && cnpjCompany.equals(cnpjDestinoNormalizado);
                     })
@@ -129,7 +138,13 @@ public class CompanyMatchingServiceImpl implements CompanyMatchingService {
             if (cnpjDestinatario != null && !cnpjDestinatario.trim().isEmpty() && !"null".equalsIgnoreCase(cnpjDestinatario.trim())) {
                 return cnpjDestinatario;
             }
-            // Adicionar lógica para outros tipos de documento
+            // Nas guias federais (DARF, GPS e FGTS) o condomínio é o contribuinte, extraído em cnpjCpfEmitente
+            if (isFederalGuide(expense)) {
+                String cnpjContribuinte = expense.getCnpjCpfEmitente();
+                if (cnpjContribuinte != null && !cnpjContribuinte.trim().isEmpty() && !"null".equalsIgnoreCase(cnpjContribuinte.trim())) {
+                    return cnpjContribuinte;
+                }
+            }
         } catch (Exception e) {
             log.debug("Erro ao extrair CNPJ do destinatário: {}", e.getMessage());
         }
@@ -142,6 +157,10 @@ public class CompanyMatchingServiceImpl implements CompanyMatchingService {
         }
         
         try {
+            String razaoSocialContribuinte = extractRazaoSocialContribuinte(expense);
+            if (razaoSocialContribuinte != null && !razaoSocialContribuinte.trim().isEmpty()) {
+                return razaoSocialContribuinte;
+            }
             if (expense.getExpenseType() != null) {
                 String expenseType = expense.getExpenseType().name();
                 boolean isBoletoOuFatura = "BOLETO".equals(expenseType) || "FATURA".equals(expenseType);
@@ -154,7 +173,7 @@ public class CompanyMatchingServiceImpl implements CompanyMatchingService {
                             (br.com.groupsoftware.grouppay.extratoremail.domain.model.ExpenseBoleto) expense;
                         String cedente = boleto.getCedente();
                         if (cedente != null && !cedente.trim().isEmpty() && !"null".equalsIgnoreCase(cedente.trim())) {
-                            String cedenteLimpo = cedente.replaceAll("\\D", "");
+                            String cedenteLimpo = CpfCnpjUtil.extractNumbers(cedente);
                             if (cedenteLimpo.length() < 11 || cedenteLimpo.length() > 14) {
                                 return cedente;
                             }
@@ -164,7 +183,7 @@ public class CompanyMatchingServiceImpl implements CompanyMatchingService {
                     // 2. Campo cnpjCpfDestinatario (pode conter nome quando não há CNPJ)
                     String cnpjDestinatario = expense.getCnpjCpfDestinatario();
                     if (cnpjDestinatario != null && !cnpjDestinatario.trim().isEmpty() && !"null".equalsIgnoreCase(cnpjDestinatario.trim())) {
-                        String cnpjLimpo = cnpjDestinatario.replaceAll("\\D", "");
+                        String cnpjLimpo = CpfCnpjUtil.extractNumbers(cnpjDestinatario);
                         // Se não parece ser um CNPJ/CPF (menos de 11 ou mais de 14 dígitos), pode ser nome
                         if (cnpjLimpo.length() < 11 || cnpjLimpo.length() > 14) {
                             return cnpjDestinatario;
@@ -174,7 +193,7 @@ public class CompanyMatchingServiceImpl implements CompanyMatchingService {
                     // 3. Campo emitente (fallback, menos confiável para concessionárias)
                     String emitente = expense.getEmitente();
                     if (emitente != null && !emitente.trim().isEmpty() && !"null".equalsIgnoreCase(emitente.trim())) {
-                        String emitenteLimpo = emitente.replaceAll("\\D", "");
+                        String emitenteLimpo = CpfCnpjUtil.extractNumbers(emitente);
                         if (emitenteLimpo.length() < 11 || emitenteLimpo.length() > 14) {
                             return emitente;
                         }
@@ -184,7 +203,7 @@ public class CompanyMatchingServiceImpl implements CompanyMatchingService {
                     // (caso comum quando extractors regex não extraem corretamente)
                     String cnpjDestinatario = expense.getCnpjCpfDestinatario();
                     if (cnpjDestinatario != null && !cnpjDestinatario.trim().isEmpty() && !"null".equalsIgnoreCase(cnpjDestinatario.trim())) {
-                        String cnpjLimpo = cnpjDestinatario.replaceAll("\\D", "");
+                        String cnpjLimpo = CpfCnpjUtil.extractNumbers(cnpjDestinatario);
                         // Se não parece ser um CNPJ/CPF (menos de 11 ou mais de 14 dígitos), pode ser nome
                         if (cnpjLimpo.length() < 11 || cnpjLimpo.length() > 14) {
                             return cnpjDestinatario;
@@ -199,10 +218,27 @@ public class CompanyMatchingServiceImpl implements CompanyMatchingService {
         return null;
     }
 
+    private boolean isFederalGuide(Expense expense) {
+        return expense instanceof ExpenseDARF || expense instanceof ExpenseGPS || expense instanceof ExpenseFGTS;
+    }
+
+    private String extractRazaoSocialContribuinte(Expense expense) {
+        if (expense instanceof ExpenseDARF darf) {
+            return darf.getRazaoSocialContribuinte();
+        }
+        if (expense instanceof ExpenseGPS gps) {
+            return gps.getRazaoSocialContribuinte();
+        }
+        if (expense instanceof ExpenseFGTS fgts) {
+            return fgts.getRazaoSocialEmpregador();
+        }
+        return null;
+    }
+
     private String normalizeCnpj(String cnpj) {
         if (cnpj == null) return null;
         // Remove todos os caracteres não numéricos (pontos, barras, hífens, espaços, etc)
-        return cnpj.replaceAll("\\D", "");
+        return CpfCnpjUtil.extractNumbers(cnpj);
     }
 
     private boolean isNomeMatch(String nomeDocumento, Company company) {
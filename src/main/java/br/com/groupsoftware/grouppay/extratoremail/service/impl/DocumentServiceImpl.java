@@ -8,6 +8,7 @@ import br.com.groupsoftware.grouppay.extratoremail.exception.MailReaderException
 import br.com.groupsoftware.grouppay.extratoremail.repository.RepositoryFacade;
 import br.com.groupsoftware.grouppay.extratoremail.service.DocumentService;
 import br.com.groupsoftware.grouppay.extratoremail.service.PdfService;
+import br.com.groupsoftware.grouppay.extratoremail.util.document.TextFingerprintUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -58,6 +59,14 @@ class DocumentServiceImpl implements DocumentService {
     }
 
     public boolean existsTextExtracted(Document document) {
-        return repository.document.existsByTextExtracted(document.getTextExtracted());
+        // Compara pela impressão digital indexada; o próprio documento é desconsiderado em reprocessamentos
+        String fingerprint = TextFingerprintUtil.fingerprint(document.getTextExtracted());
+        if (fingerprint == null) {
+            return false;
+        }
+        if (document.getId() == null) {
+            return repository.document.existsByTextFingerprint(fingerprint);
+        }
+        return repository.document.existsByTextFingerprintAndIdNot(fingerprint, document.getId());
     }
 }
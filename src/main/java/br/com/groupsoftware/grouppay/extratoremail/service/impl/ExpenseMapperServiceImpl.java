@@ -56,6 +56,15 @@ class ExpenseMapperServiceImpl implements ExpenseMapperService {
                 case CTE:
                     expense = objectMapper.readValue(document.getExpenseJson(), ExpenseCT.class);
                     break;
+                case DARF:
+                    expense = objectMapper.readValue(document.getExpenseJson(), ExpenseDARF.class);
+                    break;
+                case GPS:
+                    expense = objectMapper.readValue(document.getExpenseJson(), ExpenseGPS.class);
+                    break;
+                case FGTS:
+                    expense = objectMapper.readValue(document.getExpenseJson(), ExpenseFGTS.class);
+                    break;
                 default:
                     log.error("Tipo de despesa não reconhecido: {}", document.getExpenseType());
                     return null;
@@ -1,24 +1,36 @@
 package br.com.groupsoftware.grouppay.extratoremail.service.impl;
 
+import br.com.groupsoftware.grouppay.extratoremail.config.HybridExtractionConfig;
 import br.com.groupsoftware.grouppay.extratoremail.domain.entity.Document;
 import br.com.groupsoftware.grouppay.extratoremail.domain.enums.DocumentExtractorType;
 import br.com.groupsoftware.grouppay.extratoremail.domain.enums.DocumentStage;
 import br.com.groupsoftware.grouppay.extratoremail.domain.enums.ExpenseType;
 import br.com.groupsoftware.grouppay.extratoremail.domain.model.Expense;
+import br.com.groupsoftware.grouppay.extratoremail.domain.model.ExpenseBoleto;
+import br.com.groupsoftware.grouppay.extratoremail.domain.model.ExpenseCT;
+import br.com.groupsoftware.grouppay.extratoremail.domain.model.ExpenseNF;
 import br.com.groupsoftware.grouppay.extratoremail.exception.MailReaderException;
 import br.com.groupsoftware.grouppay.extratoremail.extractor.core.ExtractorFacade;
+import br.com.groupsoftware.grouppay.extratoremail.extractor.core.LayoutTemplateExtractor;
 import br.com.groupsoftware.grouppay.extratoremail.repository.RepositoryFacade;
 import br.com.groupsoftware.grouppay.extratoremail.service.PdfService;
 import br.com.groupsoftware.grouppay.extratoremail.util.DocumentUtils;
+import br.com.groupsoftware.grouppay.extratoremail.util.brazil.BoletoUtil;
+import br.com.groupsoftware.grouppay.extratoremail.util.brazil.ChaveAcessoUtil;
 import br.com.groupsoftware.grouppay.extratoremail.util.brazil.CpfCnpjUtil;
+import br.com.groupsoftware.grouppay.extratoremail.util.document.PdfTypeClassification;
 import br.com.groupsoftware.grouppay.extratoremail.util.document.PdfTypeUtil;
+import br.com.groupsoftware.grouppay.extratoremail.util.extractor.ExpenseCompleteness;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 /**
  * Implementação do serviço de processamento de arquivos PDF e extração de dados financeiros.
@@ -37,8 +49,12 @@ import java.util.List;
 @RequiredArgsConstructor
 class PdfServiceImpl implements PdfService {
 
+    // Guias federais têm layout fixo e são extraídas pelos extratores determinísticos, mesmo para clientes de IA
+    private static final Set<ExpenseType> FEDERAL_GUIDES = EnumSet.of(ExpenseType.DARF, ExpenseType.GPS, ExpenseType.FGTS);
+
     private final ExtractorFacade extractor;
     private final RepositoryFacade repository;
+    private final HybridExtractionConfig hybridExtractionConfig;
 
     @Override
     public Expense getExpenseFromDocument(Document document) throws MailReaderException {
@@ -60,7 +76,7 @@ class PdfServiceImpl implements PdfService {
     private void updateEmitenteInfo(Expense expense) {
         String originalCnpjCpf = expense.getCnpjCpfEmitente();
         if (!isNullOrEmpty(originalCnpjCpf) && !"null".equalsIgnoreCase(originalCnpjCpf.trim())) {
-            String sanitized = originalCnpjCpf.replaceAll("\\D", "");
+            String sanitized = CpfCnpjUtil.extractNumbers(originalCnpjCpf);
             if (CpfCnpjUtil.isCnpjCpfValid(sanitized)) {
                 expense.setCnpjCpfEmitente(sanitized);
                 if (isNullOrEmpty(expense.getEmitente()) || "null".equalsIgnoreCase(expense.getEmitente().trim())) {
@@ -78,7 +94,7 @@ class PdfServiceImpl implements PdfService {
     }
 
     private String sanitize(String value) {
-        return value != null ? value.replaceAll("\\D", "") : null;
+        return value != null ? CpfCnpjUtil.extractNumbers(value) : null;
     }
 
     private boolean isNullOrEmpty(String value) {
@@ -86,24 +102,139 @@ class PdfServiceImpl implements PdfService {
     }
 
     private Expense processDocument(Document document) {
-        ExpenseType type = PdfTypeUtil.identificarTipoPdf(document.getTextExtracted());
+        PdfTypeClassification classification = PdfTypeUtil.classificar(document.getTextExtracted());
+        ExpenseType type = classification.type();
+        classification.firstEvidence().ifPresent(evidence ->
+                log.debug("Documento {} classificado como {} pelo termo '{}' na posição {}.",
+                        document.getFileName(), type, evidence.term(), evidence.start()));
         document.setExpenseType(type);
         if (ExpenseType.OUTRO.equals(type)) {
             processUnknownDocumentType(document, type);
             return null;
         }
-        if (DocumentUtils.isAiUser(document)) {
-            log.info("Tipo de documento identificado: {}", type);
-            return processAIDocument(document, type);
+        // O PDF aberto pela extração por template é reaproveitado pelo aprendizado
+        try (LayoutTemplateExtractor.Session layout = extractor.layout.open(document, type)) {
+            Optional<Expense> templateExpense = layout.extract();
+            if (templateExpense.isPresent()) {
+                addExtractorType(document, DocumentExtractorType.TEMPLATE);
+                applyValidatedCodes(templateExpense.get(), document.getTextExtracted());
+                return templateExpense.get();
+            }
+            Expense expense;
+            if (DocumentUtils.isAiUser(document) && !FEDERAL_GUIDES.contains(type)) {
+                log.info("Tipo de documento identificado: {}", type);
+                expense = hybridExtractionConfig.isEnabled() ? processHybridDocument(document, type) : processAIDocument(document, type);
+            } else {
+                expense = processRegexDocument(document, type);
+            }
+            if (expense != null) {
+                layout.learn(expense);
+            }
+            return expense;
         }
-        return processRegexDocument(document, type);
     }
 
-    private Expense processAIDocument(Document document, ExpenseType type) {
+    private void addExtractorType(Document document, DocumentExtractorType extractorType) {
         List<DocumentExtractorType> extractorTypes = new ArrayList<>(document.getDocumentExtractorTypes());
-        extractorTypes.add(DocumentExtractorType.OPENAI);
+        extractorTypes.add(extractorType);
         document.setDocumentExtractorTypes(extractorTypes);
-        return extractor.openAi.getExpense(document, type);
+    }
+
+    private Expense processAIDocument(Document document, ExpenseType type) {
+        addExtractorType(document, DocumentExtractorType.OPENAI);
+        Expense expense = extractor.openAi.getExpense(document, type);
+        applyValidatedCodes(expense, document.getTextExtracted());
+        return expense;
+    }
+
+    /**
+     * Executa primeiro os extratores determinísticos e consulta o modelo de IA somente para os campos obrigatórios
+     * que eles não preencheram com valor confiável. Quando a fração preenchida fica abaixo de {@code minScore},
+     * a extração inteira é feita pelo modelo. O destinatário só é cobrado quando o documento ainda não tem
+     * company associada, e antes é procurado no próprio texto.
+     */
+    private Expense processHybridDocument(Document document, ExpenseType type) {
+        Expense expense = processRegexDocumentSafely(document, type);
+        applyRecipientFromText(expense, document);
+        boolean recipientRequired = document.getCompany() == null;
+        double score = ExpenseCompleteness.score(expense, type, recipientRequired);
+        if (score < hybridExtractionConfig.getMinScore()) {
+            log.info("Extração determinística do documento {} com {}% dos campos obrigatórios; extraindo com IA.",
+                    document.getFileName(), Math.round(score * 100));
+            return processAIDocument(document, type);
+        }
+        Set<String> missingFields = ExpenseCompleteness.missingFields(expense, type, recipientRequired);
+        if (missingFields.isEmpty()) {
+            log.info("Extração determinística do documento {} completa; consulta à IA dispensada.", document.getFileName());
+            return expense;
+        }
+        log.info("Solicitando à IA os campos {} do documento {}.", missingFields, document.getFileName());
+        addExtractorType(document, DocumentExtractorType.OPENAI);
+        expense = extractor.openAi.completeExpense(document, type, expense, missingFields);
+        applyValidatedCodes(expense, document.getTextExtracted());
+        return expense;
+    }
+
+    /**
+     * Os extratores por expressão regular não leem o destinatário; ele é o primeiro CNPJ/CPF válido do texto
+     * diferente do emitente (destinatário da nota, tomador ou pagador do boleto).
+     */
+    private void applyRecipientFromText(Expense expense, Document document) {
+        if (expense == null || CpfCnpjUtil.isCnpjCpfValid(sanitize(expense.getCnpjCpfDestinatario()))) {
+            return;
+        }
+        document.getTokenIndex().firstValidCnpjCpfExcept(sanitize(expense.getCnpjCpfEmitente()))
+                .ifPresent(expense::setCnpjCpfDestinatario);
+    }
+
+    // A extração determinística é só um atalho: uma falha inesperada nela não impede a extração pela IA
+    private Expense processRegexDocumentSafely(Document document, ExpenseType type) {
+        try {
+            return processRegexDocument(document, type);
+        } catch (RuntimeException e) {
+            log.warn("Falha na extração determinística do documento {}: {}", document.getFileName(), e.getMessage());
+            return null;
+        }
+    }
+
+    private void applyValidatedCodes(Expense expense, String text) {
+        if (expense instanceof ExpenseBoleto boleto) {
+            applyValidatedBarcode(boleto, text);
+        } else if (expense instanceof ExpenseNF || expense instanceof ExpenseCT) {
+            applyValidatedAccessKey(expense, text);
+        }
+    }
+
+    /**
+     * O código do boleto validado pelos dígitos verificadores prevalece sobre o que o modelo leu do texto.
+     */
+    private void applyValidatedBarcode(ExpenseBoleto expense, String text) {
+        BoletoUtil.find(text).ifPresent(boleto -> {
+            expense.setLinhaDigitavel(boleto.linhaDigitavel());
+            expense.setCodigoBarras(boleto.codigoBarras());
+            if (boleto.vencimento() != null) {
+                expense.setDataVencimento(boleto.vencimento());
+            }
+            if (boleto.valor() != null) {
+                expense.setValorTotal(boleto.valor());
+            }
+        });
+    }
+
+    /**
+     * Emitente, número e série da chave de acesso validada prevalecem sobre o que o modelo leu do texto.
+     */
+    private void applyValidatedAccessKey(Expense expense, String text) {
+        ChaveAcessoUtil.find(text).ifPresent(chave -> {
+            expense.setCnpjCpfEmitente(chave.cnpjCpfEmitente());
+            expense.setNumero(chave.numero());
+            expense.setSerie(chave.serie());
+            if (expense instanceof ExpenseNF nf) {
+                nf.setChaveAcesso(chave.chave());
+            } else if (expense instanceof ExpenseCT ct) {
+                ct.setChaveAcesso(chave.chave());
+            }
+        });
     }
 
     private Expense processRegexDocument(Document document, ExpenseType type) {
@@ -136,6 +267,18 @@ class PdfServiceImpl implements PdfService {
                 log.info("Processando Fatura...");
                 yield extractor.slip.bill.getExpense(document);
             }
+            case DARF -> {
+                log.info("Processando DARF...");
+                yield extractor.slip.darf.getExpense(document);
+            }
+            case GPS -> {
+                log.info("Processando GPS...");
+                yield extractor.slip.gps.getExpense(document);
+            }
+            case FGTS -> {
+                log.info("Processando guia do FGTS...");
+                yield extractor.slip.fgts.getExpense(document);
+            }
             default -> null;
         };
     }
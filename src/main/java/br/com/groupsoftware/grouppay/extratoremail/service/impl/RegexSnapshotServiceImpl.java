@@ -0,0 +1,151 @@
+package br.com.groupsoftware.grouppay.extratoremail.service.impl;
+
+import br.com.groupsoftware.grouppay.extratoremail.domain.entity.Regex;
+import br.com.groupsoftware.grouppay.extratoremail.domain.enums.ExpenseType;
+import br.com.groupsoftware.grouppay.extratoremail.domain.model.CompiledRegex;
+import br.com.groupsoftware.grouppay.extratoremail.domain.model.dto.RegexSnapshotDTO;
+import br.com.groupsoftware.grouppay.extratoremail.repository.RepositoryFacade;
+import br.com.groupsoftware.grouppay.extratoremail.service.RegexSnapshotService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Implementação do snapshot em memória da tabela {@code tb_regex}.
+ * <p>
+ * A tabela é pequena e muda raramente, então é carregada inteira em um índice imutável por tipo de despesa e
+ * código IBGE, com o regex {@code DEFAULT} de cada tipo já separado para o fallback. O índice guarda cópias
+ * {@link CompiledRegex} com as expressões compiladas na carga, e não as entidades JPA: nada do snapshot é
+ * alterado depois de publicado nem depende de um cache com remoção. A troca de snapshot é atômica: extratores
+ * em andamento continuam usando o índice anterior. Expressões inválidas aparecem no log na carga.
+ * </p>
+ * <p>
+ * A versão do snapshot é o SHA-256 do conteúdo da tabela (todos os campos de todos os registros, em ordem de
+ * {@code ID}). A tabela é relida a cada {@code regex-snapshot.poll-interval-ms} e o snapshot só é recompilado
+ * quando o hash muda, o que detecta também alterações no mesmo segundo e exclusões seguidas de inclusões. A
+ * recarga também pode ser pedida por {@link #reload()}.
+ * </p>
+ *
+ * @author Marco Willy
+ * @version 1.0
+ * @since 2025
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+class RegexSnapshotServiceImpl implements RegexSnapshotService {
+
+    private static final String DEFAULT_REGION = "DEFAULT";
+
+    private record Snapshot(String version,
+                            Map<ExpenseType, Map<String, CompiledRegex>> byRegion,
+                            Map<ExpenseType, CompiledRegex> defaults,
+                            int entries,
+                            LocalDateTime loadedAt) {
+    }
+
+    private final RepositoryFacade repository;
+    private volatile Snapshot snapshot;
+
+    @Override
+    public Optional<CompiledRegex> find(ExpenseType expenseType, String ibgeCode) {
+        Snapshot current = currentSnapshot();
+        Map<String, CompiledRegex> regional = current.byRegion().get(expenseType);
+        CompiledRegex regex = regional != null && ibgeCode != null ? regional.get(ibgeCode) : null;
+        return Optional.ofNullable(regex != null ? regex : current.defaults().get(expenseType));
+    }
+
+    @Override
+    public RegexSnapshotDTO current() {
+        return toDTO(currentSnapshot());
+    }
+
+    @Override
+    public synchronized RegexSnapshotDTO reload() {
+        List<Regex> regexes = repository.regex.findAll();
+        return toDTO(load(regexes, contentHash(regexes)));
+    }
+
+    @Scheduled(fixedDelayString = "${regex-snapshot.poll-interval-ms:60000}",
+            initialDelayString = "${regex-snapshot.poll-interval-ms:60000}")
+    synchronized void refreshIfChanged() {
+        try {
+            List<Regex> regexes = repository.regex.findAll();
+            String version = contentHash(regexes);
+            Snapshot current = snapshot;
+            if (current == null || !current.version().equals(version)) {
+                load(regexes, version);
+            }
+        } catch (Exception e) {
+            log.warn("Falha ao verificar alterações na tabela de regex; mantendo o snapshot atual: {}", e.getMessage());
+        }
+    }
+
+    private Snapshot currentSnapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            reload();
+            current = snapshot;
+        }
+        return current;
+    }
+
+    private Snapshot load(List<Regex> regexes, String version) {
+        Map<ExpenseType, Map<String, CompiledRegex>> byRegion = new EnumMap<>(ExpenseType.class);
+        Map<ExpenseType, CompiledRegex> defaults = new EnumMap<>(ExpenseType.class);
+        for (Regex regex : regexes) {
+            CompiledRegex compiled = CompiledRegex.of(regex, (expression, e) ->
+                    log.warn("Regex {} ({}/{}) possui expressão inválida: {}",
+                            regex.getId(), regex.getExpenseType(), regex.getIbgeCode(), e.getDescription()));
+            if (DEFAULT_REGION.equals(regex.getIbgeCode())) {
+                defaults.put(regex.getExpenseType(), compiled);
+            } else {
+                byRegion.computeIfAbsent(regex.getExpenseType(), type -> new HashMap<>()).put(regex.getIbgeCode(), compiled);
+            }
+        }
+        byRegion.replaceAll((type, regional) -> Map.copyOf(regional));
+        Snapshot loaded = new Snapshot(version, byRegion, defaults, regexes.size(), LocalDateTime.now());
+        snapshot = loaded;
+        log.info("Snapshot de regex carregado: {} registro(s), versão {}.", loaded.entries(), version);
+        return loaded;
+    }
+
+    // Cada campo termina em \0 e o nulo é \1, para que campos vizinhos não se confundam
+    private static String contentHash(List<Regex> regexes) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            regexes.stream()
+                    .sorted(Comparator.comparing(Regex::getId, Comparator.nullsFirst(Comparator.naturalOrder())))
+                    .flatMap(regex -> Stream.of(regex.getId(), regex.getExpenseType(), regex.getIbgeCode(),
+                            regex.getIssuerCNPJ(), regex.getTotalValue(), regex.getDueDate(), regex.getIssueDate(),
+                            regex.getNumber(), regex.getIssuerName(), regex.getSerie()))
+                    .forEach(field -> digest.update(((field == null ? "\u0001" : field.toString()) + '\0')
+                            .getBytes(StandardCharsets.UTF_8)));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível na JVM.", e);
+        }
+    }
+
+    private RegexSnapshotDTO toDTO(Snapshot current) {
+        return RegexSnapshotDTO.builder()
+                .version(current.version())
+                .entries(current.entries())
+                .loadedAt(current.loadedAt())
+                .build();
+    }
+}
@@ -0,0 +1,290 @@
+package br.com.groupsoftware.grouppay.extratoremail.util.brazil;
+
+import lombok.experimental.UtilityClass;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Utilitário para decodificação e validação de boletos no padrão FEBRABAN.
+ * <p>
+ * Interpreta a linha digitável (47 dígitos para boletos bancários, 48 para arrecadação/concessionárias) ou o
+ * código de barras (44 dígitos) e devolve os dados que eles carregam:
+ * <ul>
+ *     <li>Bancário: banco, fator de vencimento e valor, validados pelos dígitos dos campos (módulo 10) e pelo
+ *     DAC geral (módulo 11);</li>
+ *     <li>Arrecadação: segmento, valor (quando o identificador indica valor efetivo) e identificação da
+ *     empresa/órgão, validados em módulo 10 ou 11 conforme o identificador de valor.</li>
+ * </ul>
+ * </p>
+ * <p>
+ * O fator de vencimento conta dias a partir de 07/10/1997 e, ao atingir 9999 (21/02/2025), voltou a 1000 em
+ * 22/02/2025. Como o mesmo fator representa datas distantes 9000 dias, é escolhida a data mais próxima da data
+ * de referência informada.
+ * </p>
+ *
+ * @author Marco Willy
+ * @version 1.0
+ * @since 2025
+ */
+@UtilityClass
+public class BoletoUtil {
+
+    public enum Tipo {
+        BANCARIO, ARRECADACAO
+    }
+
+    /**
+     * Dados decodificados de um boleto. {@code banco} só existe em boletos bancários; {@code segmento} e
+     * {@code identificacaoEmpresa} só em boletos de arrecadação. {@code vencimento} e {@code valor} são nulos
+     * quando o código não os informa.
+     */
+    public record Boleto(Tipo tipo,
+                         String codigoBarras,
+                         String linhaDigitavel,
+                         String banco,
+                         Integer segmento,
+                         String identificacaoEmpresa,
+                         LocalDate vencimento,
+                         BigDecimal valor) {
+    }
+
+    private static final LocalDate FACTOR_BASE_DATE = LocalDate.of(1997, 10, 7);
+    private static final int FACTOR_CYCLE_DAYS = 9000;
+    private static final int FACTOR_CYCLES = 3;
+
+    private static final Pattern BANK_LINE = Pattern.compile(
+            "(?<!\\d)\\d{5}[.\\s]?\\d{5}\\s*\\d{5}[.\\s]?\\d{6}\\s*\\d{5}[.\\s]?\\d{6}\\s*\\d\\s*\\d{14}(?!\\d)");
+    private static final Pattern COLLECTION_LINE = Pattern.compile(
+            "(?<!\\d)\\d{11}[\\s-]?\\d\\s*\\d{11}[\\s-]?\\d\\s*\\d{11}[\\s-]?\\d\\s*\\d{11}[\\s-]?\\d(?!\\d)");
+    private static final Pattern BARCODE = Pattern.compile("(?<!\\d)\\d{44}(?!\\d)");
+    private static final List<Pattern> CANDIDATES = List.of(BANK_LINE, COLLECTION_LINE, BARCODE);
+
+    /**
+     * Procura no texto a primeira linha digitável ou código de barras válido.
+     */
+    public Optional<Boleto> find(String text, LocalDate referenceDate) {
+        if (text == null || text.isEmpty()) {
+            return Optional.empty();
+        }
+        for (Pattern candidate : CANDIDATES) {
+            Matcher matcher = candidate.matcher(text);
+            while (matcher.find()) {
+                Optional<Boleto> boleto = decode(matcher.group(), referenceDate);
+                if (boleto.isPresent()) {
+                    return boleto;
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    public Optional<Boleto> find(String text) {
+        return find(text, LocalDate.now());
+    }
+
+    /**
+     * Decodifica uma linha digitável ou código de barras, com ou sem formatação.
+     *
+     * @return vazio se o tamanho não corresponder a nenhum formato ou algum dígito verificador não conferir
+     */
+    public Optional<Boleto> decode(String value, LocalDate referenceDate) {
+        if (value == null) {
+            return Optional.empty();
+        }
+        String digits = value.replaceAll("\\D", "");
+        return switch (digits.length()) {
+            case 47 -> decodeBankLine(digits, referenceDate);
+            case 48 -> decodeCollectionLine(digits);
+            case 44 -> digits.charAt(0) == '8' ? decodeCollectionBarcode(digits) : decodeBankBarcode(digits, referenceDate);
+            default -> Optional.empty();
+        };
+    }
+
+    public Optional<Boleto> decode(String value) {
+        return decode(value, LocalDate.now());
+    }
+
+    /**
+     * Data de vencimento do fator, escolhendo o ciclo mais próximo da data de referência. Fator zero indica
+     * boleto sem vencimento.
+     */
+    public LocalDate dueDateFromFactor(int factor, LocalDate referenceDate) {
+        if (factor == 0) {
+            return null;
+        }
+        LocalDate best = null;
+        for (int cycle = 0; cycle < FACTOR_CYCLES; cycle++) {
+            LocalDate candidate = FACTOR_BASE_DATE.plusDays(factor + (long) cycle * FACTOR_CYCLE_DAYS);
+            if (best == null || distance(candidate, referenceDate) < distance(best, referenceDate)) {
+                best = candidate;
+            }
+        }
+        return best;
+    }
+
+    private Optional<Boleto> decodeBankLine(String line, LocalDate referenceDate) {
+        String field1 = line.substring(0, 10);
+        String field2 = line.substring(10, 21);
+        String field3 = line.substring(21, 32);
+        if (!hasValidMod10(field1) || !hasValidMod10(field2) || !hasValidMod10(field3)) {
+            return Optional.empty();
+        }
+        String barcode = line.substring(0, 4)
+                + line.charAt(32)
+                + line.substring(33, 47)
+                + field1.substring(4, 9)
+                + field2.substring(0, 10)
+                + field3.substring(0, 10);
+        return decodeBankBarcode(barcode, referenceDate);
+    }
+
+    private Optional<Boleto> decodeBankBarcode(String barcode, LocalDate referenceDate) {
+        if (barcode.charAt(3) != '9') {
+            return Optional.empty();
+        }
+        String withoutDac = barcode.substring(0, 4) + barcode.substring(5);
+        if (bankMod11(withoutDac) != digit(barcode, 4)) {
+            return Optional.empty();
+        }
+        String freeField = barcode.substring(19);
+        String field1 = barcode.substring(0, 4) + freeField.substring(0, 5);
+        String field2 = freeField.substring(5, 15);
+        String field3 = freeField.substring(15, 25);
+        String line = field1 + mod10(field1)
+                + field2 + mod10(field2)
+                + field3 + mod10(field3)
+                + barcode.charAt(4)
+                + barcode.substring(5, 19);
+        return Optional.of(new Boleto(
+                Tipo.BANCARIO,
+                barcode,
+                formatBankLine(line),
+                barcode.substring(0, 3),
+                null,
+                null,
+                dueDateFromFactor(Integer.parseInt(barcode.substring(5, 9)), referenceDate),
+                amount(barcode.substring(9, 19))));
+    }
+
+    private Optional<Boleto> decodeCollectionLine(String line) {
+        StringBuilder barcode = new StringBuilder(44);
+        boolean useMod10 = usesMod10(line.charAt(2));
+        for (int block = 0; block < 4; block++) {
+            String data = line.substring(block * 12, block * 12 + 11);
+            int checkDigit = digit(line, block * 12 + 11);
+            if ((useMod10 ? mod10(data) : collectionMod11(data)) != checkDigit) {
+                return Optional.empty();
+            }
+            barcode.append(data);
+        }
+        return decodeCollectionBarcode(barcode.toString());
+    }
+
+    private Optional<Boleto> decodeCollectionBarcode(String barcode) {
+        char valueId = barcode.charAt(2);
+        if (barcode.charAt(0) != '8' || valueId < '6' || valueId > '9') {
+            return Optional.empty();
+        }
+        String withoutDac = barcode.substring(0, 3) + barcode.substring(4);
+        int dac = usesMod10(valueId) ? mod10(withoutDac) : collectionMod11(withoutDac);
+        if (dac != digit(barcode, 3)) {
+            return Optional.empty();
+        }
+        int segment = digit(barcode, 1);
+        // Segmento 6 identifica a empresa pelos 8 primeiros dígitos do CNPJ; os demais, por 4 dígitos
+        String company = segment == 6 ? barcode.substring(15, 23) : barcode.substring(15, 19);
+        // Identificadores 6 e 8 indicam valor efetivo; 7 e 9, valor de referência (quantidade ou índice)
+        BigDecimal value = valueId == '6' || valueId == '8' ? amount(barcode.substring(4, 15)) : null;
+        return Optional.of(new Boleto(
+                Tipo.ARRECADACAO,
+                barcode,
+                formatCollectionLine(barcode, usesMod10(valueId)),
+                null,
+                segment,
+                company,
+                null,
+                value));
+    }
+
+    private boolean usesMod10(char valueId) {
+        return valueId == '6' || valueId == '7';
+    }
+
+    private boolean hasValidMod10(String field) {
+        return mod10(field.substring(0, field.length() - 1)) == digit(field, field.length() - 1);
+    }
+
+    /**
+     * Módulo 10: pesos 2 e 1 alternados da direita para a esquerda, somando os algarismos de cada produto.
+     */
+    private int mod10(String digits) {
+        int sum = 0;
+        int weight = 2;
+        for (int i = digits.length() - 1; i >= 0; i--) {
+            int product = digit(digits, i) * weight;
+            sum += product / 10 + product % 10;
+            weight = weight == 2 ? 1 : 2;
+        }
+        return (10 - sum % 10) % 10;
+    }
+
+    private int weightedMod11(String digits) {
+        int sum = 0;
+        int weight = 2;
+        for (int i = digits.length() - 1; i >= 0; i--) {
+            sum += digit(digits, i) * weight;
+            weight = weight == 9 ? 2 : weight + 1;
+        }
+        return 11 - sum % 11;
+    }
+
+    // No boleto bancário o DAC nunca é zero: resultados 0, 10 e 11 viram 1
+    private int bankMod11(String digits) {
+        int dac = weightedMod11(digits);
+        return dac == 10 || dac == 11 ? 1 : dac;
+    }
+
+    private int collectionMod11(String digits) {
+        int dac = weightedMod11(digits);
+        return dac == 10 || dac == 11 ? 0 : dac;
+    }
+
+    private BigDecimal amount(String cents) {
+        BigDecimal value = new BigDecimal(cents).movePointLeft(2);
+        return value.signum() == 0 ? null : value;
+    }
+
+    private String formatBankLine(String line) {
+        return line.substring(0, 5) + "." + line.substring(5, 10) + " "
+                + line.substring(10, 15) + "." + line.substring(15, 21) + " "
+                + line.substring(21, 26) + "." + line.substring(26, 32) + " "
+                + line.charAt(32) + " "
+                + line.substring(33);
+    }
+
+    private String formatCollectionLine(String barcode, boolean useMod10) {
+        StringBuilder line = new StringBuilder(55);
+        for (int block = 0; block < 4; block++) {
+            String data = barcode.substring(block * 11, block * 11 + 11);
+            if (block > 0) {
+                line.append(' ');
+            }
+            line.append(data).append('-').append(useMod10 ? mod10(data) : collectionMod11(data));
+        }
+        return line.toString();
+    }
+
+    private long distance(LocalDate date, LocalDate referenceDate) {
+        return Math.abs(ChronoUnit.DAYS.between(referenceDate, date));
+    }
+
+    private int digit(String digits, int index) {
+        return digits.charAt(index) - '0';
+    }
+}
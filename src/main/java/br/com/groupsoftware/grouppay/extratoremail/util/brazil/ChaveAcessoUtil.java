@@ -0,0 +1,235 @@
+package br.com.groupsoftware.grouppay.extratoremail.util.brazil;
+
+import br.com.groupsoftware.grouppay.extratoremail.domain.enums.ExpenseType;
+import lombok.experimental.UtilityClass;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Utilitário para decodificação e validação da chave de acesso de documentos fiscais eletrônicos
+ * (NF-e, NFC-e, CT-e, NF3-e).
+ * <p>
+ * A chave tem 44 posições: cUF (2), ano e mês de emissão AAMM (4), CNPJ ou CPF do emitente (14), modelo (2),
+ * série (3), número (9), tipo de emissão (1), código numérico (8) e dígito verificador (1). O dígito é o
+ * módulo 11 das 43 posições anteriores, com pesos de 2 a 9 da direita para a esquerda; restos 0 e 1 resultam
+ * em dígito zero.
+ * </p>
+ * <p>
+ * A partir do CNPJ alfanumérico, as posições do emitente podem conter letras maiúsculas. No cálculo do dígito
+ * cada caractere vale o seu código ASCII menos 48, o que mantém o resultado das chaves apenas numéricas.
+ * Emitentes pessoa física (CPF) ocupam as 11 últimas posições do campo, precedidas de zeros.
+ * </p>
+ *
+ * @author Marco Willy
+ * @version 1.0
+ * @since 2025
+ */
+@UtilityClass
+public class ChaveAcessoUtil {
+
+    /**
+     * Dados decodificados de uma chave de acesso. {@code numero} e {@code serie} são devolvidos sem os zeros à
+     * esquerda; {@code cnpjCpfEmitente} tem 14 posições (CNPJ) ou 11 dígitos (CPF).
+     */
+    public record ChaveAcesso(String chave,
+                              int codigoUf,
+                              String uf,
+                              YearMonth emissao,
+                              String cnpjCpfEmitente,
+                              String modelo,
+                              String serie,
+                              String numero,
+                              int tipoEmissao,
+                              String codigoNumerico) {
+
+        /**
+         * Tipo de despesa correspondente ao modelo do documento, ou {@code null} para modelos não tratados.
+         */
+        public ExpenseType expenseType() {
+            return MODEL_TYPES.get(modelo);
+        }
+    }
+
+    /**
+     * Dados do QR Code de consulta da NFC-e. Data de emissão e valor só constam no QR Code de emissão em
+     * contingência (offline); nas demais versões ficam nulos.
+     */
+    public record QrCodeNfce(ChaveAcesso chave, String url, LocalDate dataEmissao, BigDecimal valor) {
+    }
+
+    private static final int KEY_LENGTH = 44;
+    private static final int ISSUER_START = 6;
+    private static final int ISSUER_END = 20;
+
+    private static final Map<Integer, String> UF_CODES = Map.ofEntries(
+            Map.entry(11, "RO"), Map.entry(12, "AC"), Map.entry(13, "AM"), Map.entry(14, "RR"),
+            Map.entry(15, "PA"), Map.entry(16, "AP"), Map.entry(17, "TO"), Map.entry(21, "MA"),
+            Map.entry(22, "PI"), Map.entry(23, "CE"), Map.entry(24, "RN"), Map.entry(25, "PB"),
+            Map.entry(26, "PE"), Map.entry(27, "AL"), Map.entry(28, "SE"), Map.entry(29, "BA"),
+            Map.entry(31, "MG"), Map.entry(32, "ES"), Map.entry(33, "RJ"), Map.entry(35, "SP"),
+            Map.entry(41, "PR"), Map.entry(42, "SC"), Map.entry(43, "RS"), Map.entry(50, "MS"),
+            Map.entry(51, "MT"), Map.entry(52, "GO"), Map.entry(53, "DF"));
+
+    private static final Map<String, ExpenseType> MODEL_TYPES = Map.of(
+            "55", ExpenseType.NFE,
+            "65", ExpenseType.NFCE,
+            "57", ExpenseType.CTE,
+            "67", ExpenseType.CTE,
+            "66", ExpenseType.NF3E);
+
+    // 44 posições, aceitando um espaço ou ponto entre elas (a DANFE imprime a chave em grupos de 4)
+    private static final Pattern KEY = Pattern.compile("(?<![0-9A-Z])[0-9A-Z](?:[\\s.]?[0-9A-Z]){43}(?![0-9A-Z])");
+
+    private static final Pattern QR_CODE_COMPACT = Pattern.compile("[?&]p=([^&\\s]+)");
+    private static final Pattern QR_CODE_SEPARATOR = Pattern.compile("\\||%7C", Pattern.CASE_INSENSITIVE);
+    private static final Pattern QR_CODE_LEGACY = Pattern.compile("[?&]chNFe=(\\d{44})");
+    private static final Pattern QR_CODE_LEGACY_VALUE = Pattern.compile("[?&]vNF=([\\d.]+)");
+
+    /**
+     * Procura no texto a primeira chave de acesso válida.
+     */
+    public Optional<ChaveAcesso> find(String text) {
+        if (text == null || text.length() < KEY_LENGTH) {
+            return Optional.empty();
+        }
+        Matcher matcher = KEY.matcher(text);
+        int from = 0;
+        while (from < text.length() && matcher.find(from)) {
+            Optional<ChaveAcesso> chave = decode(matcher.group());
+            if (chave.isPresent()) {
+                return chave;
+            }
+            // Uma ocorrência rejeitada pode conter o início de outra; continua a partir do caractere seguinte
+            from = matcher.start() + 1;
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Decodifica uma chave de acesso, com ou sem espaços e pontos.
+     *
+     * @return vazio se a chave não tiver 44 posições, tiver UF, mês ou caracteres inválidos ou se o dígito
+     * verificador não conferir
+     */
+    public Optional<ChaveAcesso> decode(String value) {
+        if (value == null) {
+            return Optional.empty();
+        }
+        String chave = value.replaceAll("[\\s.]", "");
+        if (chave.length() != KEY_LENGTH || !hasValidCharacters(chave)) {
+            return Optional.empty();
+        }
+        int codigoUf = Integer.parseInt(chave.substring(0, 2));
+        int month = Integer.parseInt(chave.substring(4, 6));
+        if (!UF_CODES.containsKey(codigoUf) || month < 1 || month > 12) {
+            return Optional.empty();
+        }
+        if (checkDigit(chave.substring(0, KEY_LENGTH - 1)) != chave.charAt(KEY_LENGTH - 1) - '0') {
+            return Optional.empty();
+        }
+        return Optional.of(new ChaveAcesso(
+                chave,
+                codigoUf,
+                UF_CODES.get(codigoUf),
+                YearMonth.of(2000 + Integer.parseInt(chave.substring(2, 4)), month),
+                issuer(chave.substring(ISSUER_START, ISSUER_END)),
+                chave.substring(20, 22),
+                withoutLeadingZeros(chave.substring(22, 25)),
+                withoutLeadingZeros(chave.substring(25, 34)),
+                chave.charAt(34) - '0',
+                chave.substring(35, 43)));
+    }
+
+    /**
+     * Interpreta a URL do QR Code da NFC-e. Aceita o parâmetro {@code p} das versões 2 e 3
+     * ({@code chave|versão|ambiente|...}, com dia e valor na emissão offline) e o parâmetro {@code chNFe} da
+     * versão 1 (com o valor em {@code vNF}).
+     *
+     * @return vazio se a URL não contiver uma chave de acesso válida
+     */
+    public Optional<QrCodeNfce> fromQrCode(String url) {
+        if (url == null) {
+            return Optional.empty();
+        }
+        Matcher compact = QR_CODE_COMPACT.matcher(url);
+        if (compact.find()) {
+            String[] parts = QR_CODE_SEPARATOR.split(compact.group(1));
+            return decode(parts[0]).map(chave -> {
+                // Online tem até 5 campos (chave|versão|ambiente|token|hash); offline tem 8, com dia e valor
+                boolean offline = parts.length >= 8 && parts[3].matches("\\d{1,2}");
+                return new QrCodeNfce(chave, url,
+                        offline ? dayOf(chave.emissao(), Integer.parseInt(parts[3])) : null,
+                        offline ? amount(parts[4]) : null);
+            });
+        }
+        Matcher legacy = QR_CODE_LEGACY.matcher(url);
+        if (legacy.find()) {
+            Matcher value = QR_CODE_LEGACY_VALUE.matcher(url);
+            BigDecimal valor = value.find() ? amount(value.group(1)) : null;
+            return decode(legacy.group(1)).map(chave -> new QrCodeNfce(chave, url, null, valor));
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Dígito verificador em módulo 11, pesos 2 a 9 da direita para a esquerda.
+     */
+    int checkDigit(String body) {
+        int sum = 0;
+        int weight = 2;
+        for (int i = body.length() - 1; i >= 0; i--) {
+            sum += (body.charAt(i) - '0') * weight;
+            weight = weight == 9 ? 2 : weight + 1;
+        }
+        int rest = sum % 11;
+        return rest < 2 ? 0 : 11 - rest;
+    }
+
+    // Apenas as posições do emitente aceitam letras (CNPJ alfanumérico)
+    private boolean hasValidCharacters(String chave) {
+        for (int i = 0; i < chave.length(); i++) {
+            char c = chave.charAt(i);
+            boolean digit = c >= '0' && c <= '9';
+            boolean letter = c >= 'A' && c <= 'Z' && i >= ISSUER_START && i < ISSUER_END - 2;
+            if (!digit && !letter) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String issuer(String field) {
+        String cpf = field.substring(3);
+        if (field.startsWith("000") && !CpfCnpjUtil.isCnpjValid(field) && CpfCnpjUtil.isCpfValid(cpf)) {
+            return cpf;
+        }
+        return field;
+    }
+
+    private LocalDate dayOf(YearMonth month, int day) {
+        return month.isValidDay(day) ? month.atDay(day) : null;
+    }
+
+    private BigDecimal amount(String value) {
+        try {
+            BigDecimal amount = new BigDecimal(value.trim());
+            return amount.signum() > 0 ? amount : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private String withoutLeadingZeros(String digits) {
+        int i = 0;
+        while (i < digits.length() - 1 && digits.charAt(i) == '0') {
+            i++;
+        }
+        return digits.substring(i);
+    }
+}
@@ -3,10 +3,7 @@ package br.com.groupsoftware.grouppay.extratoremail.util.brazil;
 import lombok.experimental.UtilityClass;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Objects;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.Arrays;
 
 /**
  * Utilitário para formatação, validação e manipulação de CPFs e CNPJs.
@@ -16,10 +13,14 @@ import java.util.concurrent.atomic.AtomicInteger;
  *     <li>Formatar uma sequência de caracteres numéricos como CPF ou CNPJ, aplicando a máscara apropriada;</li>
  *     <li>Validar se um CPF ou CNPJ é válido, verificando os dígitos verificadores;</li>
  *     <li>Extrair somente os dígitos numéricos de uma string;</li>
- *     <li>Converter uma sequência numérica em lista de inteiros e vice-versa;</li>
- *     <li>Realizar o cálculo do dígito verificador utilizando o método módulo 11.</li>
+ *     <li>Representar um CPF ou CNPJ em um único {@code long}, utilizável como chave de mapas;</li>
+ *     <li>Localizar em um texto todos os CPFs e CNPJs com dígitos verificadores válidos.</li>
  * </ul>
  * </p>
+ * <p>
+ * Os dígitos são lidos caractere a caractere e acumulados em um {@code long}; o cálculo do módulo 11 é feito
+ * sobre esse valor, sem listas, objetos intermediários ou expressões regulares.
+ * </p>
  *
  * <p>
  * Exemplo de uso:
@@ -37,6 +38,21 @@ import java.util.concurrent.atomic.AtomicInteger;
 @Slf4j
 public class CpfCnpjUtil {
 
+    /**
+     * Valor devolvido por {@link #pack(CharSequence)} quando a entrada não tem 11 nem 14 dígitos.
+     */
+    public static final long NOT_PACKED = -1L;
+
+    private static final int CPF_LENGTH = 11;
+    private static final int CNPJ_LENGTH = 14;
+    private static final int LENGTH_BITS = 4;
+    private static final int LENGTH_MASK = (1 << LENGTH_BITS) - 1;
+
+    private static final int[] CPF_FIRST_WEIGHTS = {1, 2, 3, 4, 5, 6, 7, 8, 9};
+    private static final int[] CPF_SECOND_WEIGHTS = {0, 1, 2, 3, 4, 5, 6, 7, 8, 9};
+    private static final int[] CNPJ_FIRST_WEIGHTS = {6, 7, 8, 9, 2, 3, 4, 5, 6, 7, 8, 9};
+    private static final int[] CNPJ_SECOND_WEIGHTS = {5, 6, 7, 8, 9, 2, 3, 4, 5, 6, 7, 8, 9};
+
     /**
      * Formata um número de CPF ou CNPJ.
      * <p>
@@ -50,10 +66,11 @@ public class CpfCnpjUtil {
      */
     public static String format(final String value) {
         final var val = extractNumbers(value);
-        if (val.length() == 11) {
-            return val.replaceAll("(\\d{3})(\\d{3})(\\d{3})(\\d{2})", "$1.$2.$3-$4");
-        } else if (val.length() == 14) {
-            return val.replaceAll("(\\d{2})(\\d{3})(\\d{3})(\\d{4})(\\d{2})", "$1.$2.$3/$4-$5");
+        if (val.length() == CPF_LENGTH) {
+            return val.substring(0, 3) + '.' + val.substring(3, 6) + '.' + val.substring(6, 9) + '-' + val.substring(9);
+        } else if (val.length() == CNPJ_LENGTH) {
+            return val.substring(0, 2) + '.' + val.substring(2, 5) + '.' + val.substring(5, 8) + '/'
+                    + val.substring(8, 12) + '-' + val.substring(12);
         }
         return val;
     }
@@ -69,7 +86,7 @@ public class CpfCnpjUtil {
      * @return {@code true} se o CPF ou CNPJ for válido; {@code false} caso contrário.
      */
     public static boolean isCnpjCpfValid(final String cnpjCpf) {
-        return isCpfValid(cnpjCpf) || isCnpjValid(cnpjCpf);
+        return isValid(pack(cnpjCpf));
     }
 
     /**
@@ -83,11 +100,8 @@ public class CpfCnpjUtil {
      * @return {@code true} se o CPF for válido; {@code false} caso contrário.
      */
     public static boolean isCpfValid(final String cpf) {
-        final List<Integer> digits = extractNumbersToList(cpf);
-        if (digits.size() == 11 && digits.stream().distinct().count() > 1) {
-            return getCpfValid(digits.subList(0, 9)).equals(extractNumbers(cpf));
-        }
-        return false;
+        final long packed = pack(cpf);
+        return length(packed) == CPF_LENGTH && isValid(packed);
     }
 
     /**
@@ -101,60 +115,124 @@ public class CpfCnpjUtil {
      * @return {@code true} se o CNPJ for válido; {@code false} caso contrário.
      */
     public static boolean isCnpjValid(final String cnpj) {
-        final List<Integer> digits = extractNumbersToList(cnpj);
-        if (digits.size() == 14 && digits.stream().distinct().count() > 1) {
-            return getCnpjValid(digits.subList(0, 12)).equals(extractNumbers(cnpj));
-        }
-        return false;
+        final long packed = pack(cnpj);
+        return length(packed) == CNPJ_LENGTH && isValid(packed);
     }
 
     /**
-     * Calcula e retorna o CPF completo com os dígitos verificadores.
+     * Representa um CPF ou CNPJ em um único {@code long}.
      * <p>
-     * A partir dos 9 primeiros dígitos, este método calcula os dois dígitos verificadores
-     * utilizando o algoritmo módulo 11 e adiciona-os à lista original, retornando o CPF completo.
+     * Os caracteres que não são dígitos são ignorados. O valor numérico ocupa os bits mais altos e a quantidade
+     * de dígitos os 4 bits mais baixos, de modo que CPF e CNPJ com o mesmo valor numérico não se confundem.
+     * Dois valores com os mesmos dígitos, formatados ou não, resultam no mesmo {@code long}.
      * </p>
      *
-     * @param digits Lista de inteiros representando os 9 primeiros dígitos do CPF.
-     * @return O CPF completo em formato de string com os dígitos verificadores calculados.
+     * @param value Valor contendo o CPF ou CNPJ.
+     * @return O valor compactado, ou {@link #NOT_PACKED} se não houver exatamente 11 ou 14 dígitos.
+     */
+    public static long pack(final CharSequence value) {
+        if (value == null) {
+            return NOT_PACKED;
+        }
+        long digits = 0;
+        int length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (++length > CNPJ_LENGTH) {
+                    return NOT_PACKED;
+                }
+                digits = digits * 10 + (c - '0');
+            }
+        }
+        return pack(digits, length);
+    }
+
+    /**
+     * Converte o valor compactado de volta para os dígitos do CPF ou CNPJ, com os zeros à esquerda.
+     *
+     * @param packed Valor obtido em {@link #pack(CharSequence)}.
+     * @return Os dígitos, ou {@code null} se o valor não representar um CPF ou CNPJ.
      */
-    private static String getCpfValid(final List<Integer> digits) {
-        digits.add(mod11(digits, 1, 2, 3, 4, 5, 6, 7, 8, 9));
-        digits.add(mod11(digits, 0, 1, 2, 3, 4, 5, 6, 7, 8, 9));
-        return listToString(digits);
+    public static String unpack(final long packed) {
+        final int length = length(packed);
+        if (length != CPF_LENGTH && length != CNPJ_LENGTH) {
+            return null;
+        }
+        final char[] digits = new char[length];
+        long rest = packed >>> LENGTH_BITS;
+        for (int i = length - 1; i >= 0; i--) {
+            digits[i] = (char) ('0' + rest % 10);
+            rest /= 10;
+        }
+        return new String(digits);
     }
 
     /**
-     * Calcula e retorna o CNPJ completo com os dígitos verificadores.
+     * Verifica os dígitos verificadores de um CPF ou CNPJ compactado.
      * <p>
-     * A partir dos 12 primeiros dígitos, este método calcula os dois dígitos verificadores
-     * utilizando o algoritmo módulo 11 e adiciona-os à lista original, retornando o CNPJ completo.
+     * Sequências com todos os dígitos iguais são rejeitadas, como nos métodos de validação por texto.
      * </p>
      *
-     * @param digits Lista de inteiros representando os 12 primeiros dígitos do CNPJ.
-     * @return O CNPJ completo em formato de string com os dígitos verificadores calculados.
+     * @param packed Valor obtido em {@link #pack(CharSequence)}.
+     * @return {@code true} se o CPF ou CNPJ for válido; {@code false} caso contrário.
      */
-    private static String getCnpjValid(final List<Integer> digits) {
-        digits.add(mod11(digits, 6, 7, 8, 9, 2, 3, 4, 5, 6, 7, 8, 9));
-        digits.add(mod11(digits, 5, 6, 7, 8, 9, 2, 3, 4, 5, 6, 7, 8, 9));
-        return listToString(digits);
+    public static boolean isValid(final long packed) {
+        final int length = length(packed);
+        if (length == CPF_LENGTH) {
+            return hasValidCheckDigits(packed >>> LENGTH_BITS, length, CPF_FIRST_WEIGHTS, CPF_SECOND_WEIGHTS);
+        } else if (length == CNPJ_LENGTH) {
+            return hasValidCheckDigits(packed >>> LENGTH_BITS, length, CNPJ_FIRST_WEIGHTS, CNPJ_SECOND_WEIGHTS);
+        }
+        return false;
     }
 
     /**
-     * Realiza o cálculo do dígito verificador utilizando o método módulo 11.
+     * Localiza no texto todos os CPFs e CNPJs com dígitos verificadores válidos, em uma única leitura.
      * <p>
-     * Multiplica cada dígito da lista pelos multiplicadores correspondentes, soma os resultados e
-     * calcula o resto da divisão por 11. Se o resto for maior que 9, retorna 0; caso contrário, retorna o resto.
+     * São considerados os números com 11 ou 14 dígitos, separados ou não por ponto, hífen ou barra, que não
+     * fazem parte de uma sequência numérica maior.
      * </p>
      *
-     * @param digits     Lista de inteiros a serem utilizados no cálculo.
-     * @param multipliers Vetor de multiplicadores a serem aplicados.
-     * @return O dígito verificador calculado.
+     * @param text Texto a ser percorrido.
+     * @return Os valores compactados (ver {@link #pack(CharSequence)}) na ordem em que aparecem no texto.
      */
-    private static int mod11(final List<Integer> digits, final int... multipliers) {
-        final var i = new AtomicInteger(0);
-        final var rest = digits.stream().reduce(0, (p, e) -> p + e * multipliers[i.getAndIncrement()]) % 11;
-        return rest > 9 ? 0 : rest;
+    public static long[] findAll(final CharSequence text) {
+        if (text == null) {
+            return new long[0];
+        }
+        long[] found = new long[4];
+        int count = 0;
+        final int length = text.length();
+        int i = 0;
+        while (i < length) {
+            if (!isDigit(text.charAt(i))) {
+                i++;
+                continue;
+            }
+            long digits = 0;
+            int size = 0;
+            while (i < length) {
+                final char c = text.charAt(i);
+                if (isDigit(c)) {
+                    size++;
+                    digits = size <= CNPJ_LENGTH ? digits * 10 + (c - '0') : digits;
+                    i++;
+                } else if (isSeparator(c) && i + 1 < length && isDigit(text.charAt(i + 1))) {
+                    i++;
+                } else {
+                    break;
+                }
+            }
+            final long packed = pack(digits, size);
+            if (isValid(packed)) {
+                if (count == found.length) {
+                    found = Arrays.copyOf(found, count * 2);
+                }
+                found[count++] = packed;
+            }
+        }
+        return Arrays.copyOf(found, count);
     }
 
     /**
@@ -166,37 +244,79 @@ public class CpfCnpjUtil {
      * @param s A string de onde os dígitos serão extraídos.
      * @return Uma string contendo apenas os dígitos numéricos.
      */
-    private static String extractNumbers(final String s) {
-        return Objects.nonNull(s) ? s.replaceAll("\\D+", "") : "";
+    public static String extractNumbers(final CharSequence s) {
+        if (s == null) {
+            return "";
+        }
+        final StringBuilder digits = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            final char c = s.charAt(i);
+            if (isDigit(c)) {
+                digits.append(c);
+            }
+        }
+        return digits.length() == s.length() ? s.toString() : digits.toString();
     }
 
-    /**
-     * Converte uma string em uma lista de inteiros, contendo apenas os dígitos numéricos.
-     * <p>
-     * Este método extrai os dígitos da string e os converte para uma lista de inteiros.
-     * </p>
-     *
-     * @param value A string contendo os dígitos.
-     * @return Uma lista de inteiros representando os dígitos extraídos.
-     */
-    private static List<Integer> extractNumbersToList(final String value) {
-        final var digits = new ArrayList<Integer>();
-        for (char item : extractNumbers(value).toCharArray()) {
-            digits.add(Integer.parseInt(String.valueOf(item)));
+    private static long pack(final long digits, final int length) {
+        if (length != CPF_LENGTH && length != CNPJ_LENGTH) {
+            return NOT_PACKED;
         }
-        return digits;
+        return digits << LENGTH_BITS | length;
+    }
+
+    private static int length(final long packed) {
+        return packed == NOT_PACKED ? 0 : (int) (packed & LENGTH_MASK);
     }
 
     /**
-     * Converte uma lista de inteiros em uma string concatenada.
+     * Confere os dois dígitos verificadores pelo método módulo 11.
      * <p>
-     * Cada inteiro da lista é convertido para string e todos são concatenados para formar uma única string.
+     * Cada dígito é multiplicado pelo peso da sua posição (da esquerda para a direita) e o resto da soma por
+     * 11 é o dígito verificador; restos maiores que 9 resultam em 0. O primeiro dígito verificador entra no
+     * cálculo do segundo. Os dígitos são lidos do valor numérico da direita para a esquerda.
      * </p>
-     *
-     * @param list A lista de inteiros a ser convertida.
-     * @return Uma string representando a concatenação dos inteiros da lista.
      */
-    private static String listToString(final List<Integer> list) {
-        return list.stream().map(Object::toString).reduce("", (p, e) -> p.concat(e));
+    private static boolean hasValidCheckDigits(final long digits, final int length,
+                                               final int[] firstWeights, final int[] secondWeights) {
+        final long last = digits % 10;
+        if (digits == last * repunit(length)) {
+            return false;
+        }
+        final int secondDigit = (int) last;
+        final int firstDigit = (int) (digits / 10 % 10);
+        long rest = digits / 100;
+        int firstSum = 0;
+        int secondSum = 0;
+        for (int position = length - 3; position >= 0; position--) {
+            final int digit = (int) (rest % 10);
+            rest /= 10;
+            firstSum += digit * firstWeights[position];
+            secondSum += digit * secondWeights[position];
+        }
+        final int first = mod11(firstSum);
+        return first == firstDigit && mod11(secondSum + first * secondWeights[length - 2]) == secondDigit;
+    }
+
+    private static int mod11(final int sum) {
+        final int rest = sum % 11;
+        return rest > 9 ? 0 : rest;
+    }
+
+    // 11...1 com a quantidade de dígitos informada: multiplicado por um dígito, resulta na sequência repetida
+    private static long repunit(final int length) {
+        long value = 0;
+        for (int i = 0; i < length; i++) {
+            value = value * 10 + 1;
+        }
+        return value;
+    }
+
+    private static boolean isDigit(final char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isSeparator(final char c) {
+        return c == '.' || c == '-' || c == '/';
     }
 }
@@ -0,0 +1,187 @@
+package br.com.groupsoftware.grouppay.extratoremail.util.brazil;
+
+import lombok.experimental.UtilityClass;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Utilitário para interpretação do BR Code do PIX ("PIX copia e cola").
+ * <p>
+ * O BR Code segue o padrão EMV MPM: uma sequência de campos TLV, cada um com identificador (2 dígitos),
+ * tamanho (2 dígitos) e valor. O payload começa com {@code 000201} e termina no campo {@code 63}, que traz o
+ * CRC16-CCITT (polinômio 0x1021, valor inicial 0xFFFF) calculado sobre todo o conteúdo anterior, incluindo
+ * {@code 6304}. Payloads com CRC divergente são descartados.
+ * </p>
+ * <p>
+ * Campos utilizados: 26 (conta do recebedor: 01 chave, 25 URL do payload dinâmico), 54 (valor), 59 (nome do
+ * recebedor), 60 (cidade) e 62 (dados adicionais: 05 identificador da transação).
+ * </p>
+ *
+ * @author Marco Willy
+ * @version 1.0
+ * @since 2025
+ */
+@UtilityClass
+public class PixUtil {
+
+    /**
+     * Dados de um BR Code válido. {@code chave} só existe no PIX estático e {@code url} só no dinâmico;
+     * {@code valor} é nulo quando o pagador informa o valor.
+     */
+    public record Pix(String payload,
+                      String chave,
+                      String url,
+                      BigDecimal valor,
+                      String nomeRecebedor,
+                      String cidade,
+                      String txid) {
+    }
+
+    private static final String PAYLOAD_START = "000201";
+    private static final String PIX_GUI = "br.gov.bcb.pix";
+    private static final String MERCHANT_ACCOUNT = "26";
+    private static final String AMOUNT = "54";
+    private static final String MERCHANT_NAME = "59";
+    private static final String MERCHANT_CITY = "60";
+    private static final String ADDITIONAL_DATA = "62";
+    private static final String CRC = "63";
+    private static final int MAX_PAYLOAD_LENGTH = 512;
+
+    /**
+     * Procura no texto o primeiro BR Code válido. Quebras de linha dentro do payload são ignoradas.
+     */
+    public Optional<Pix> find(String text) {
+        if (text == null || text.isEmpty()) {
+            return Optional.empty();
+        }
+        String joined = text.replace("\r", "").replace("\n", "");
+        int start = joined.indexOf(PAYLOAD_START);
+        while (start >= 0) {
+            Optional<Pix> pix = parse(joined, start);
+            if (pix.isPresent()) {
+                return pix;
+            }
+            start = joined.indexOf(PAYLOAD_START, start + 1);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Interpreta um payload completo.
+     *
+     * @return vazio se a estrutura TLV for inválida, se o CRC não conferir ou se não for um PIX
+     */
+    public Optional<Pix> decode(String payload) {
+        String trimmed = payload == null ? "" : payload.trim();
+        if (!trimmed.startsWith(PAYLOAD_START)) {
+            return Optional.empty();
+        }
+        return parse(trimmed, 0).filter(pix -> pix.payload().length() == trimmed.length());
+    }
+
+    /**
+     * CRC16-CCITT (0x1021, inicial 0xFFFF, sem reflexão), em 4 dígitos hexadecimais maiúsculos.
+     */
+    public String crc16(String data) {
+        int crc = 0xFFFF;
+        for (int i = 0; i < data.length(); i++) {
+            crc ^= (data.charAt(i) & 0xFF) << 8;
+            for (int bit = 0; bit < 8; bit++) {
+                crc = (crc & 0x8000) != 0 ? (crc << 1) ^ 0x1021 : crc << 1;
+                crc &= 0xFFFF;
+            }
+        }
+        return String.format("%04X", crc);
+    }
+
+    // Lê os campos a partir de start até o campo 63 (CRC), que encerra o payload
+    private Optional<Pix> parse(String text, int start) {
+        Map<String, String> fields = new LinkedHashMap<>();
+        int position = start;
+        while (position + 4 <= text.length() && position - start < MAX_PAYLOAD_LENGTH) {
+            String id = text.substring(position, position + 2);
+            Integer length = parseLength(text.substring(position + 2, position + 4));
+            if (length == null || !isDigits(id) || position + 4 + length > text.length()) {
+                return Optional.empty();
+            }
+            String value = text.substring(position + 4, position + 4 + length);
+            if (CRC.equals(id)) {
+                if (length != 4) {
+                    return Optional.empty();
+                }
+                String payload = text.substring(start, position + 8);
+                if (!crc16(text.substring(start, position + 4)).equalsIgnoreCase(value)) {
+                    return Optional.empty();
+                }
+                return toPix(payload, fields);
+            }
+            fields.put(id, value);
+            position += 4 + length;
+        }
+        return Optional.empty();
+    }
+
+    private Optional<Pix> toPix(String payload, Map<String, String> fields) {
+        Map<String, String> account = subFields(fields.get(MERCHANT_ACCOUNT));
+        if (account == null || !PIX_GUI.equalsIgnoreCase(account.get("00"))) {
+            return Optional.empty();
+        }
+        Map<String, String> additional = subFields(fields.get(ADDITIONAL_DATA));
+        return Optional.of(new Pix(
+                payload,
+                account.get("01"),
+                account.get("25"),
+                amount(fields.get(AMOUNT)),
+                fields.get(MERCHANT_NAME),
+                fields.get(MERCHANT_CITY),
+                additional == null ? null : additional.get("05")));
+    }
+
+    private Map<String, String> subFields(String value) {
+        if (value == null) {
+            return null;
+        }
+        Map<String, String> fields = new LinkedHashMap<>();
+        int position = 0;
+        while (position < value.length()) {
+            if (position + 4 > value.length()) {
+                return null;
+            }
+            Integer length = parseLength(value.substring(position + 2, position + 4));
+            if (length == null || position + 4 + length > value.length()) {
+                return null;
+            }
+            fields.put(value.substring(position, position + 2), value.substring(position + 4, position + 4 + length));
+            position += 4 + length;
+        }
+        return fields;
+    }
+
+    private BigDecimal amount(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            BigDecimal amount = new BigDecimal(value);
+            return amount.signum() > 0 ? amount : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private Integer parseLength(String value) {
+        return isDigits(value) ? Integer.parseInt(value) : null;
+    }
+
+    private boolean isDigits(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) < '0' || value.charAt(i) > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
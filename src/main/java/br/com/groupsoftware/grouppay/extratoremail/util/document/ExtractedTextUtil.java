@@ -0,0 +1,127 @@
+package br.com.groupsoftware.grouppay.extratoremail.util.document;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Utilitário para normalização e validação do texto extraído de PDFs.
+ * <p>
+ * Substitui as duas passagens de {@code replaceAll} da normalização e as expressões {@code matches(".*...*")}
+ * da validação por varreduras lineares sobre o texto, sem expressões regulares. A normalização filtra os
+ * caracteres indesejados, colapsa espaços e limita o tamanho em uma única passagem, usando um buffer
+ * reaproveitado por thread.
+ * </p>
+ *
+ * @author Marco Willy
+ * @version 1.0
+ * @since 2025
+ */
+@UtilityClass
+public class ExtractedTextUtil {
+
+    // Pontuação e símbolos preservados, além de letras, números e espaços
+    private static final String ALLOWED_SYMBOLS = ":/.-,;()[]{}|#*+=<>\"'`~^&!?\\@$%";
+    private static final String CNPJ_MASK = "99.999.999/9999-99";
+    private static final String CPF_MASK = "999.999.999-99";
+    // Acima deste tamanho o buffer não é mantido entre chamadas
+    private static final int MAX_RETAINED_BUFFER = 128 * 1024;
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(8 * 1024));
+
+    /**
+     * Mantém letras, números e {@link #ALLOWED_SYMBOLS}; qualquer outro caractere vira espaço. Sequências de
+     * espaços são reduzidas a um único espaço, as extremidades são removidas e o resultado é limitado a
+     * {@code maxLength} caracteres.
+     */
+    public String normalize(CharSequence content, int maxLength) {
+        if (content == null) {
+            return "";
+        }
+        StringBuilder buffer = BUFFER.get();
+        buffer.setLength(0);
+        boolean pendingSpace = false;
+        int length = content.length();
+        for (int i = 0; i < length && buffer.length() < maxLength; ) {
+            int codePoint = Character.codePointAt(content, i);
+            i += Character.charCount(codePoint);
+            if (!isAllowed(codePoint)) {
+                pendingSpace = true;
+                continue;
+            }
+            if (pendingSpace && buffer.length() > 0) {
+                buffer.append(' ');
+                if (buffer.length() >= maxLength) {
+                    break;
+                }
+            }
+            pendingSpace = false;
+            buffer.appendCodePoint(codePoint);
+        }
+        String normalized = buffer.substring(0, Math.min(buffer.length(), maxLength));
+        if (buffer.capacity() > MAX_RETAINED_BUFFER) {
+            BUFFER.remove();
+        }
+        return normalized;
+    }
+
+    /**
+     * Indica se o texto contém as palavras CNPJ ou CPF (sem diferenciar maiúsculas) ou um CNPJ/CPF formatado.
+     */
+    public boolean hasDocumentIndicators(CharSequence content) {
+        if (content == null) {
+            return false;
+        }
+        int length = content.length();
+        for (int i = 0; i < length; i++) {
+            char c = content.charAt(i);
+            if ((c == 'C' || c == 'c') && (regionMatchesIgnoreCase(content, i, "CNPJ") || regionMatchesIgnoreCase(content, i, "CPF"))) {
+                return true;
+            }
+            if (isAsciiDigit(c) && (matchesMask(content, i, CNPJ_MASK) || matchesMask(content, i, CPF_MASK))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isAllowed(int codePoint) {
+        if (Character.isLetter(codePoint)) {
+            return true;
+        }
+        int type = Character.getType(codePoint);
+        if (type == Character.DECIMAL_DIGIT_NUMBER || type == Character.LETTER_NUMBER || type == Character.OTHER_NUMBER) {
+            return true;
+        }
+        return codePoint < 128 && ALLOWED_SYMBOLS.indexOf(codePoint) >= 0;
+    }
+
+    private boolean regionMatchesIgnoreCase(CharSequence content, int offset, String token) {
+        if (offset + token.length() > content.length()) {
+            return false;
+        }
+        for (int j = 0; j < token.length(); j++) {
+            if (Character.toUpperCase(content.charAt(offset + j)) != token.charAt(j)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Na máscara, '9' representa um dígito e os demais caracteres devem coincidir exatamente
+    private boolean matchesMask(CharSequence content, int offset, String mask) {
+        if (offset + mask.length() > content.length()) {
+            return false;
+        }
+        for (int j = 0; j < mask.length(); j++) {
+            char expected = mask.charAt(j);
+            char actual = content.charAt(offset + j);
+            if (expected == '9' ? !isAsciiDigit(actual) : expected != actual) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isAsciiDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -0,0 +1,198 @@
+package br.com.groupsoftware.grouppay.extratoremail.util.document;
+
+import lombok.experimental.UtilityClass;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Leitor de códigos de barras Intercalado 2 de 5 (ITF), o padrão do código de barras de boletos e guias de
+ * arrecadação, a partir da imagem renderizada de uma página.
+ * <p>
+ * A imagem é percorrida em linhas e colunas espaçadas, nos dois sentidos. Cada linha é binarizada pelo ponto
+ * médio entre o menor e o maior brilho e convertida em larguras de barras e espaços. O código começa com o
+ * padrão de início (barra, espaço, barra, espaço estreitos) após uma zona clara e cada par de dígitos ocupa
+ * cinco barras (primeiro dígito) intercaladas com cinco espaços (segundo dígito), dos quais exatamente dois
+ * são largos. O padrão de fim é barra larga, espaço estreito e barra estreita.
+ * </p>
+ * <p>
+ * A leitura não valida dígitos verificadores; o resultado deve ser conferido por quem o utiliza (por exemplo,
+ * {@code BoletoUtil.decode}).
+ * </p>
+ *
+ * @author Marco Willy
+ * @version 1.0
+ * @since 2025
+ */
+@UtilityClass
+public class ItfBarcodeUtil {
+
+    // Larguras de cada dígito (bit 4 = primeiro elemento), 1 = elemento largo
+    private static final int[] DIGIT_BY_PATTERN = new int[32];
+    private static final int[] PATTERNS = {6, 17, 9, 24, 5, 20, 12, 3, 18, 10};
+
+    static {
+        Arrays.fill(DIGIT_BY_PATTERN, -1);
+        for (int digit = 0; digit < PATTERNS.length; digit++) {
+            DIGIT_BY_PATTERN[PATTERNS[digit]] = digit;
+        }
+    }
+
+    private static final int SCAN_LINES = 120;
+    private static final int MIN_CONTRAST = 64;
+    private static final double WIDE_RATIO = 1.4;
+    private static final double START_TOLERANCE = 1.6;
+    private static final int QUIET_ZONE_NARROW_WIDTHS = 3;
+
+    /**
+     * Códigos com a quantidade de dígitos informada encontrados na imagem, sem repetição e na ordem de leitura.
+     */
+    public List<String> find(BufferedImage image, int length) {
+        if (image == null || length <= 0 || length % 2 != 0) {
+            return List.of();
+        }
+        Set<String> found = new LinkedHashSet<>();
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int rowStep = Math.max(1, height / SCAN_LINES);
+        for (int y = rowStep / 2; y < height; y += rowStep) {
+            int[] line = new int[width];
+            for (int x = 0; x < width; x++) {
+                line[x] = luminance(image, x, y);
+            }
+            scan(line, length, found);
+        }
+        int columnStep = Math.max(1, width / SCAN_LINES);
+        for (int x = columnStep / 2; x < width; x += columnStep) {
+            int[] line = new int[height];
+            for (int y = 0; y < height; y++) {
+                line[y] = luminance(image, x, y);
+            }
+            scan(line, length, found);
+        }
+        return new ArrayList<>(found);
+    }
+
+    private void scan(int[] line, int length, Set<String> found) {
+        int[] runs = runs(line);
+        if (runs == null) {
+            return;
+        }
+        decodeRuns(runs, length, found);
+        // No sentido inverso o primeiro elemento também precisa ser claro
+        int offset = runs.length % 2 == 0 ? 1 : 0;
+        int[] reversed = new int[runs.length + offset];
+        for (int i = 0; i < runs.length; i++) {
+            reversed[i + offset] = runs[runs.length - 1 - i];
+        }
+        decodeRuns(reversed, length, found);
+    }
+
+    /**
+     * Larguras alternadas de elementos claros e escuros, sempre começando por um elemento claro (de largura
+     * zero quando a linha começa escura). Devolve {@code null} se a linha não tiver contraste suficiente.
+     */
+    private int[] runs(int[] line) {
+        int min = 255;
+        int max = 0;
+        for (int value : line) {
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+        if (max - min < MIN_CONTRAST) {
+            return null;
+        }
+        int threshold = (min + max) / 2;
+        List<Integer> widths = new ArrayList<>();
+        boolean dark = false;
+        int current = 0;
+        for (int value : line) {
+            boolean pixelDark = value < threshold;
+            if (pixelDark != dark) {
+                widths.add(current);
+                current = 0;
+                dark = pixelDark;
+            }
+            current++;
+        }
+        widths.add(current);
+        return widths.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    // Nos índices ímpares estão as barras (elementos escuros)
+    private void decodeRuns(int[] runs, int length, Set<String> found) {
+        int needed = 4 + length * 5 + 3;
+        for (int start = 1; start + needed <= runs.length; start += 2) {
+            if (runs[start - 1] == 0) {
+                continue;
+            }
+            String digits = decodeAt(runs, start, length);
+            if (digits != null) {
+                found.add(digits);
+            }
+        }
+    }
+
+    private String decodeAt(int[] runs, int start, int length) {
+        int minStart = Integer.MAX_VALUE;
+        int maxStart = 0;
+        for (int i = start; i < start + 4; i++) {
+            minStart = Math.min(minStart, runs[i]);
+            maxStart = Math.max(maxStart, runs[i]);
+        }
+        double narrow = (runs[start] + runs[start + 1] + runs[start + 2] + runs[start + 3]) / 4.0;
+        if (maxStart > minStart * START_TOLERANCE + 1 || runs[start - 1] < narrow * QUIET_ZONE_NARROW_WIDTHS) {
+            return null;
+        }
+        StringBuilder digits = new StringBuilder(length);
+        int position = start + 4;
+        for (int pair = 0; pair < length / 2; pair++) {
+            int bars = pattern(runs, position);
+            int spaces = pattern(runs, position + 1);
+            if (bars < 0 || spaces < 0 || DIGIT_BY_PATTERN[bars] < 0 || DIGIT_BY_PATTERN[spaces] < 0) {
+                return null;
+            }
+            digits.append(DIGIT_BY_PATTERN[bars]).append(DIGIT_BY_PATTERN[spaces]);
+            position += 10;
+        }
+        // Fim: barra larga, espaço estreito, barra estreita
+        boolean stop = runs[position] >= runs[position + 2] * WIDE_RATIO
+                && runs[position + 1] < runs[position] / WIDE_RATIO;
+        return stop ? digits.toString() : null;
+    }
+
+    /**
+     * Padrão de cinco elementos alternados a partir de {@code first}: os dois mais largos são os largos.
+     * Devolve -1 se não houver diferença clara entre largos e estreitos.
+     */
+    private int pattern(int[] runs, int first) {
+        int[] widths = new int[5];
+        for (int i = 0; i < 5; i++) {
+            widths[i] = runs[first + i * 2];
+        }
+        int[] sorted = widths.clone();
+        Arrays.sort(sorted);
+        int widestNarrow = sorted[2];
+        int narrowestWide = sorted[3];
+        if (narrowestWide < widestNarrow * WIDE_RATIO) {
+            return -1;
+        }
+        int pattern = 0;
+        for (int width : widths) {
+            pattern = (pattern << 1) | (width >= narrowestWide ? 1 : 0);
+        }
+        return pattern;
+    }
+
+    private int luminance(BufferedImage image, int x, int y) {
+        if (image.getType() == BufferedImage.TYPE_BYTE_GRAY) {
+            return image.getRaster().getSample(x, y, 0);
+        }
+        int rgb = image.getRGB(x, y);
+        return (((rgb >> 16) & 0xFF) * 299 + ((rgb >> 8) & 0xFF) * 587 + (rgb & 0xFF) * 114) / 1000;
+    }
+}
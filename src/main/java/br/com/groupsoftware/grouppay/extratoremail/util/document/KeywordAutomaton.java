@@ -0,0 +1,206 @@
+package br.com.groupsoftware.grouppay.extratoremail.util.document;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Autômato de Aho-Corasick para localizar vários termos em uma única leitura do texto.
+ * <p>
+ * O texto é normalizado durante a leitura: letras em minúsculas e sem acento, e cada sequência de espaços em
+ * branco ({@code \s}) reduzida a um único espaço. Os termos devem ser informados já nessa forma, usando apenas
+ * letras de {@code a} a {@code z}, dígitos, espaço e hífen. As posições devolvidas referem-se ao texto original.
+ * </p>
+ * <p>
+ * Termos delimitados exigem fronteira de palavra nas duas extremidades, com a mesma regra do {@code \b} das
+ * expressões regulares Java: de um lado um caractere de palavra ASCII ({@code [a-zA-Z0-9_]}, avaliado no texto
+ * original) e do outro não.
+ * </p>
+ * <p>
+ * Instâncias são imutáveis e podem ser compartilhadas entre threads.
+ * </p>
+ *
+ * @author Marco Willy
+ * @version 1.0
+ * @since 2025
+ */
+final class KeywordAutomaton<T> {
+
+    record Keyword<T>(String term, T value, boolean wordBounded) {
+    }
+
+    /**
+     * Ocorrência de um termo; {@code start} inclusivo e {@code end} exclusivo, no texto original.
+     */
+    record Match<T>(Keyword<T> keyword, int start, int end) {
+    }
+
+    // a-z, 0-9, espaço, hífen e um símbolo para qualquer outro caractere
+    private static final int ALPHABET_SIZE = 39;
+    private static final int SPACE = 36;
+    private static final int HYPHEN = 37;
+    private static final int OTHER = 38;
+
+    private final List<Keyword<T>> keywords;
+    private final int[][] transitions;
+    private final int[][] outputs;
+
+    private KeywordAutomaton(List<Keyword<T>> keywords, int[][] transitions, int[][] outputs) {
+        this.keywords = keywords;
+        this.transitions = transitions;
+        this.outputs = outputs;
+    }
+
+    static <T> KeywordAutomaton<T> of(List<Keyword<T>> keywords) {
+        List<int[]> trie = new ArrayList<>();
+        List<List<Integer>> terminals = new ArrayList<>();
+        trie.add(newNode());
+        terminals.add(new ArrayList<>());
+        for (int k = 0; k < keywords.size(); k++) {
+            String term = keywords.get(k).term();
+            if (term.isEmpty()) {
+                throw new IllegalArgumentException("Termo vazio não é permitido.");
+            }
+            int node = 0;
+            for (int i = 0; i < term.length(); i++) {
+                int symbol = symbol(term.charAt(i));
+                if (symbol == OTHER) {
+                    throw new IllegalArgumentException("Caractere não suportado no termo '" + term + "'.");
+                }
+                if (trie.get(node)[symbol] < 0) {
+                    trie.get(node)[symbol] = trie.size();
+                    trie.add(newNode());
+                    terminals.add(new ArrayList<>());
+                }
+                node = trie.get(node)[symbol];
+            }
+            terminals.get(node).add(k);
+        }
+
+        // Transforma a trie em autômato determinístico, herdando transições e saídas do nó de falha
+        int[] fail = new int[trie.size()];
+        int[][] outputs = new int[trie.size()][];
+        outputs[0] = toArray(terminals.get(0));
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int symbol = 0; symbol < ALPHABET_SIZE; symbol++) {
+            int child = trie.get(0)[symbol];
+            if (child < 0) {
+                trie.get(0)[symbol] = 0;
+            } else {
+                fail[child] = 0;
+                queue.add(child);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            List<Integer> output = new ArrayList<>(terminals.get(node));
+            for (int inherited : outputs[fail[node]]) {
+                output.add(inherited);
+            }
+            outputs[node] = toArray(output);
+            for (int symbol = 0; symbol < ALPHABET_SIZE; symbol++) {
+                int child = trie.get(node)[symbol];
+                if (child < 0) {
+                    trie.get(node)[symbol] = trie.get(fail[node])[symbol];
+                } else {
+                    fail[child] = trie.get(fail[node])[symbol];
+                    queue.add(child);
+                }
+            }
+        }
+        return new KeywordAutomaton<>(List.copyOf(keywords), trie.toArray(new int[0][]), outputs);
+    }
+
+    /**
+     * Todas as ocorrências dos termos, na ordem em que terminam no texto.
+     */
+    List<Match<T>> findAll(CharSequence text) {
+        int length = text.length();
+        char[] normalized = new char[length];
+        int[] originalIndex = new int[length];
+        boolean[] wordChar = new boolean[length];
+        int size = 0;
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (isWhitespace(c)) {
+                if (size > 0 && normalized[size - 1] == ' ') {
+                    continue;
+                }
+                c = ' ';
+            } else {
+                c = fold(c);
+            }
+            normalized[size] = c;
+            originalIndex[size] = i;
+            wordChar[size] = isWordChar(text.charAt(i));
+            size++;
+        }
+
+        List<Match<T>> matches = new ArrayList<>();
+        int state = 0;
+        for (int i = 0; i < size; i++) {
+            state = transitions[state][symbol(normalized[i])];
+            for (int k : outputs[state]) {
+                Keyword<T> keyword = keywords.get(k);
+                int start = i - keyword.term().length() + 1;
+                if (!keyword.wordBounded() || (isBoundary(wordChar, size, start) && isBoundary(wordChar, size, i + 1))) {
+                    matches.add(new Match<>(keyword, originalIndex[start], originalIndex[i] + 1));
+                }
+            }
+        }
+        return matches;
+    }
+
+    private static boolean isBoundary(boolean[] wordChar, int size, int index) {
+        boolean before = index > 0 && wordChar[index - 1];
+        boolean after = index < size && wordChar[index];
+        return before != after;
+    }
+
+    private static boolean isWordChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+    }
+
+    // Mesmo conjunto do \s das expressões regulares Java
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    private static char fold(char c) {
+        char lower = Character.toLowerCase(c);
+        return switch (lower) {
+            case 'á', 'à', 'â', 'ã', 'ä' -> 'a';
+            case 'é', 'è', 'ê', 'ë' -> 'e';
+            case 'í', 'ì', 'î', 'ï' -> 'i';
+            case 'ó', 'ò', 'ô', 'õ', 'ö' -> 'o';
+            case 'ú', 'ù', 'û', 'ü' -> 'u';
+            case 'ç' -> 'c';
+            default -> lower;
+        };
+    }
+
+    private static int symbol(char c) {
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a';
+        }
+        if (c >= '0' && c <= '9') {
+            return 26 + (c - '0');
+        }
+        if (c == ' ') {
+            return SPACE;
+        }
+        return c == '-' ? HYPHEN : OTHER;
+    }
+
+    private static int[] newNode() {
+        int[] node = new int[ALPHABET_SIZE];
+        Arrays.fill(node, -1);
+        return node;
+    }
+
+    private static int[] toArray(List<Integer> values) {
+        return values.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
@@ -0,0 +1,37 @@
+package br.com.groupsoftware.grouppay.extratoremail.util.document;
+
+import br.com.groupsoftware.grouppay.extratoremail.domain.enums.ExpenseType;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Resultado da classificação de um documento por {@link PdfTypeUtil#classificar(String)}.
+ * <p>
+ * Além do tipo identificado, traz todos os termos encontrados no texto com suas posições (início inclusivo,
+ * fim exclusivo), permitindo que os extratores comecem a busca pela região que definiu o tipo.
+ * </p>
+ *
+ * @author Marco Willy
+ * @version 1.0
+ * @since 2025
+ */
+public record PdfTypeClassification(ExpenseType type, List<Evidence> evidence) {
+
+    public record Evidence(ExpenseType type, String term, int start, int end) {
+    }
+
+    public static PdfTypeClassification unknown() {
+        return new PdfTypeClassification(ExpenseType.OUTRO, List.of());
+    }
+
+    /**
+     * Primeira ocorrência, no texto, de um termo do tipo identificado.
+     */
+    public Optional<Evidence> firstEvidence() {
+        return evidence.stream()
+                .filter(found -> found.type() == type)
+                .min(Comparator.comparingInt(Evidence::start));
+    }
+}
@@ -4,15 +4,22 @@ import br.com.groupsoftware.grouppay.extratoremail.domain.enums.ExpenseType;
 import lombok.experimental.UtilityClass;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
 
 /**
  * Utilitário para identificação do tipo de documento com base em padrões textuais.
  * <p>
  * Esta classe contém métodos que permitem identificar o tipo de documento a partir de seu conteúdo textual,
- * como Notas Fiscais Eletrônicas (NFE), Notas Fiscais de Serviço (NFSE), entre outros. A identificação é feita
- * através de expressões regulares que procuram por termos específicos relacionados a cada tipo de documento.
+ * como Notas Fiscais Eletrônicas (NFE), Notas Fiscais de Serviço (NFSE), guias federais (DARF, GPS, FGTS), entre outros. A identificação é feita
+ * procurando termos específicos relacionados a cada tipo de documento.
+ * </p>
+ * <p>
+ * Todos os termos são localizados em uma única leitura do texto por um {@link KeywordAutomaton} montado uma
+ * única vez. Quando termos de vários tipos aparecem, vale a ordem de {@link #PRIORITY}. A comparação ignora
+ * maiúsculas e acentos e trata qualquer sequência de espaços em branco como um único espaço.
  * </p>
  *
  * @author Marco Willy
@@ -23,66 +30,90 @@ import java.util.regex.Pattern;
 @UtilityClass
 public class PdfTypeUtil {
 
-    public ExpenseType identificarTipoPdf(String text) {
-        if (containsNFSETerm(text)) {
-            return ExpenseType.NFSE;
-        } else if (containsNFCETerm(text)) {
-            return ExpenseType.NFCE;
-        } else if (containsNF3ETerm(text)) {
-            return ExpenseType.NF3E;
-        } else if (containsNFETerm(text)) {
-            return ExpenseType.NFE;
-        } else if (containsFaturaTerm(text)) {
-            return ExpenseType.FATURA;
-        } else if (containsBoletoTerm(text)) {
-            return ExpenseType.BOLETO;
-        } else if (containsCTETerm(text)) {
-            return ExpenseType.CTE;
-        }
-        return ExpenseType.OUTRO;
-    }
+    private static final List<ExpenseType> PRIORITY = List.of(
+            ExpenseType.NFSE,
+            ExpenseType.NFCE,
+            ExpenseType.NF3E,
+            ExpenseType.NFE,
+            ExpenseType.DARF,
+            ExpenseType.GPS,
+            ExpenseType.FGTS,
+            ExpenseType.FATURA,
+            ExpenseType.BOLETO,
+            ExpenseType.CTE
+    );
 
-    private boolean containsNFETerm(String text) {
-        return containsPattern(text, "\\bNF[\\s-]?e\\b");
-    }
+    private static final KeywordAutomaton<ExpenseType> TERMS = KeywordAutomaton.of(buildTerms());
 
-    private boolean containsNFSETerm(String text) {
-        return containsPattern(text, "\\bNFS([\\s-]?e)?\\b");
-    }
-
-    private boolean containsNFCETerm(String text) {
-        return containsPattern(text, "\\bNFC([\\s-]?e)?\\b");
+    public ExpenseType identificarTipoPdf(String text) {
+        return classificar(text).type();
     }
 
-    private boolean containsNF3ETerm(String text) {
-        return containsPattern(text, "\\bNF3([\\s-]?e)?\\b")
-                || containsPattern(text, "(?i)Nota Fiscal\\s*-\\s*Conta de Energia El[eé]ctrica")
-                || containsPattern(text, "(?i)Leitura\\s+Anterior");
+    /**
+     * Identifica o tipo do documento e devolve os termos encontrados com suas posições no texto.
+     */
+    public PdfTypeClassification classificar(String text) {
+        if (text == null || text.isEmpty()) {
+            return PdfTypeClassification.unknown();
+        }
+        List<PdfTypeClassification.Evidence> evidence = new ArrayList<>();
+        Set<ExpenseType> found = EnumSet.noneOf(ExpenseType.class);
+        for (KeywordAutomaton.Match<ExpenseType> match : TERMS.findAll(text)) {
+            ExpenseType type = match.keyword().value();
+            found.add(type);
+            evidence.add(new PdfTypeClassification.Evidence(type, match.keyword().term().trim(), match.start(), match.end()));
+        }
+        ExpenseType type = PRIORITY.stream()
+                .filter(found::contains)
+                .findFirst()
+                .orElse(ExpenseType.OUTRO);
+        return new PdfTypeClassification(type, List.copyOf(evidence));
     }
 
-    private boolean containsCTETerm(String text) {
-        return containsPattern(text, "\\bCT([\\s-]?e)?\\b");
+    private List<KeywordAutomaton.Keyword<ExpenseType>> buildTerms() {
+        List<KeywordAutomaton.Keyword<ExpenseType>> terms = new ArrayList<>();
+        // NF-e, NF e, NFe
+        bounded(terms, ExpenseType.NFE, "nfe", "nf e", "nf-e");
+        // NFS, NFS-e, NFS e, NFSe (o sufixo é opcional)
+        bounded(terms, ExpenseType.NFSE, withOptionalSuffix("nfs"));
+        bounded(terms, ExpenseType.NFCE, withOptionalSuffix("nfc"));
+        bounded(terms, ExpenseType.NF3E, withOptionalSuffix("nf3"));
+        unbounded(terms, ExpenseType.NF3E,
+                "nota fiscal-conta de energia electrica",
+                "nota fiscal -conta de energia electrica",
+                "nota fiscal- conta de energia electrica",
+                "nota fiscal - conta de energia electrica",
+                "leitura anterior");
+        bounded(terms, ExpenseType.CTE, withOptionalSuffix("ct"));
+        // "boleto " exige uma palavra logo após o espaço, o que já cobre "boleto bancário" e "boleto de pagamento"
+        bounded(terms, ExpenseType.BOLETO,
+                "boleto ",
+                "boletos ",
+                "nosso numero",
+                "cobranca",
+                "cobrancas",
+                "linha digitavel");
+        // Guias federais também têm linha digitável; os termos próprios têm prioridade sobre os de boleto
+        bounded(terms, ExpenseType.DARF, "darf", "documento de arrecadacao de receitas federais");
+        bounded(terms, ExpenseType.GPS, "guia da previdencia social");
+        bounded(terms, ExpenseType.FGTS, "guia do fgts", "guia de recolhimento do fgts", "fgts digital");
+        bounded(terms, ExpenseType.FATURA, "fatura");
+        return terms;
     }
 
-    private boolean containsBoletoTerm(String text) {
-        return containsPattern(text, "\\b("
-                + "boleto(s)? (banc[aá]rio(s)?)?"
-                + "|nosso n[uú]mero"
-                + "|boleto(s)? de pagamento"
-                + "|cobran[cç]a(s)?"
-                + "|linha digit[aá]vel"
-                + "|guia do fgts"
-                + "|documento de arrecada[cç][aã]o de receitas federais"
-                + ")\\b");
+    private String[] withOptionalSuffix(String prefix) {
+        return new String[]{prefix, prefix + "e", prefix + " e", prefix + "-e"};
     }
 
-    private boolean containsFaturaTerm(String text) {
-        return containsPattern(text, "\\bfatura\\b");
+    private void bounded(List<KeywordAutomaton.Keyword<ExpenseType>> terms, ExpenseType type, String... values) {
+        for (String value : values) {
+            terms.add(new KeywordAutomaton.Keyword<>(value, type, true));
+        }
     }
 
-    private boolean containsPattern(String text, String regex) {
-        Pattern pattern = Pattern.compile(regex, Pattern.CASE_INSENSITIVE);
-        Matcher matcher = pattern.matcher(text);
-        return matcher.find();
+    private void unbounded(List<KeywordAutomaton.Keyword<ExpenseType>> terms, ExpenseType type, String... values) {
+        for (String value : values) {
+            terms.add(new KeywordAutomaton.Keyword<>(value, type, false));
+        }
     }
 }
@@ -0,0 +1,244 @@
+package br.com.groupsoftware.grouppay.extratoremail.util.document;
+
+import br.com.groupsoftware.grouppay.extratoremail.domain.enums.ExpenseType;
+import br.com.groupsoftware.grouppay.extratoremail.util.extractor.TokenIndex;
+import lombok.experimental.UtilityClass;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Redução do texto do documento enviado aos modelos de IA a um orçamento de tokens.
+ * <p>
+ * Boa parte do texto extraído é irrelevante para a extração: termos e condições, cabeçalhos repetidos em cada
+ * página e tabelas que não interessam ao tipo de documento. A compactação é feita em etapas, parando assim que
+ * o texto cabe no orçamento:
+ * <ol>
+ *     <li>linhas em branco e linhas repetidas são removidas (mantida a primeira ocorrência);</li>
+ *     <li>ficam apenas as linhas com dados ({@link TokenIndex}: datas, valores, CNPJ/CPF e sequências numéricas)
+ *     ou com termos do tipo de documento, mais {@code contextLines} linhas antes e depois de cada uma;</li>
+ *     <li>se ainda exceder o orçamento, as linhas são escolhidas por relevância (termos valem mais que dados e
+ *     as linhas de contexto vêm por último), mantendo a ordem original.</li>
+ * </ol>
+ * </p>
+ * <p>
+ * A contagem de tokens é uma estimativa de um token a cada {@value #CHARS_PER_TOKEN} caracteres, próxima da
+ * tokenização dos modelos da OpenAI para textos em português e suficiente para controlar o orçamento.
+ * </p>
+ *
+ * @author Marco Willy
+ * @version 1.0
+ * @since 2025
+ */
+@UtilityClass
+public class PromptCompactor {
+
+    /**
+     * Texto compactado e a estimativa de tokens antes e depois da compactação.
+     */
+    public record Compaction(String text, int originalTokens, int compactedTokens) {
+        public int tokensSaved() {
+            return originalTokens - compactedTokens;
+        }
+    }
+
+    private static final int CHARS_PER_TOKEN = 4;
+    private static final int KEYWORD_WEIGHT = 2;
+    private static final int TOKEN_WEIGHT = 1;
+
+    private static final Map<ExpenseType, KeywordAutomaton<ExpenseType>> KEYWORDS = buildKeywords();
+
+    /**
+     * Estimativa da quantidade de tokens do texto.
+     */
+    public int estimateTokens(CharSequence text) {
+        return text == null ? 0 : (text.length() + CHARS_PER_TOKEN - 1) / CHARS_PER_TOKEN;
+    }
+
+    /**
+     * Compacta o texto até caber em {@code tokenBudget} tokens estimados, indexando o texto se for preciso.
+     *
+     * @param contextLines linhas mantidas antes e depois de cada linha com dados ou termos do tipo de documento
+     */
+    public Compaction compact(String text, ExpenseType type, int tokenBudget, int contextLines) {
+        return compact(text, null, type, tokenBudget, contextLines);
+    }
+
+    /**
+     * Compacta o texto até caber em {@code tokenBudget} tokens estimados, reaproveitando o índice do documento.
+     *
+     * @param tokens       índice deste mesmo texto (por exemplo, {@code Document.getTokenIndex()}); nulo ou de
+     *                     outro texto, o texto é indexado de novo
+     * @param contextLines linhas mantidas antes e depois de cada linha com dados ou termos do tipo de documento
+     */
+    public Compaction compact(String text, TokenIndex tokens, ExpenseType type, int tokenBudget, int contextLines) {
+        int originalTokens = estimateTokens(text);
+        if (text == null || originalTokens <= tokenBudget) {
+            return new Compaction(text, originalTokens, originalTokens);
+        }
+        List<Line> lines = distinctLines(text);
+        String deduplicated = join(lines, null);
+        if (estimateTokens(deduplicated) <= tokenBudget) {
+            return new Compaction(deduplicated, originalTokens, estimateTokens(deduplicated));
+        }
+        score(text, tokens != null && tokens.isIndexOf(text) ? tokens : TokenIndex.of(text), type, lines);
+        boolean[] selected = selectWindows(lines, contextLines);
+        int selectedTokens = 0;
+        for (int i = 0; i < lines.size(); i++) {
+            if (selected[i]) {
+                selectedTokens += lineTokens(lines.get(i));
+            }
+        }
+        if (selectedTokens > tokenBudget) {
+            selected = selectByRelevance(lines, selected, tokenBudget);
+        }
+        String compacted = join(lines, selected);
+        return new Compaction(compacted, originalTokens, estimateTokens(compacted));
+    }
+
+    private List<Line> distinctLines(String text) {
+        List<Line> lines = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        int start = 0;
+        while (start <= text.length()) {
+            int end = text.indexOf('\n', start);
+            if (end < 0) {
+                end = text.length();
+            }
+            String content = text.substring(start, end).strip();
+            if (!content.isEmpty() && seen.add(content)) {
+                lines.add(new Line(start, end, content));
+            }
+            start = end + 1;
+        }
+        return lines;
+    }
+
+    // Pontua cada linha pelos termos do tipo de documento e pelos dados encontrados nela
+    private void score(String text, TokenIndex tokens, ExpenseType type, List<Line> lines) {
+        int[] starts = new int[lines.size()];
+        for (int i = 0; i < lines.size(); i++) {
+            starts[i] = lines.get(i).start;
+        }
+        KeywordAutomaton<ExpenseType> keywords = KEYWORDS.get(type);
+        if (keywords != null) {
+            for (KeywordAutomaton.Match<ExpenseType> match : keywords.findAll(text)) {
+                addScore(lines, starts, match.start(), KEYWORD_WEIGHT);
+            }
+        }
+        for (List<? extends TokenIndex.Token<?>> found : List.of(tokens.dates(), tokens.amounts(), tokens.cnpjs(),
+                tokens.cpfs(), tokens.numericRuns())) {
+            for (TokenIndex.Token<?> token : found) {
+                addScore(lines, starts, token.start(), TOKEN_WEIGHT);
+            }
+        }
+    }
+
+    // Ocorrências em linhas repetidas (descartadas) não pontuam; a primeira ocorrência da linha já foi pontuada
+    private void addScore(List<Line> lines, int[] starts, int position, int weight) {
+        int index = Arrays.binarySearch(starts, position);
+        if (index < 0) {
+            index = -index - 2;
+        }
+        if (index >= 0 && position < lines.get(index).end) {
+            lines.get(index).score += weight;
+        }
+    }
+
+    private boolean[] selectWindows(List<Line> lines, int contextLines) {
+        boolean[] selected = new boolean[lines.size()];
+        for (int i = 0; i < lines.size(); i++) {
+            if (lines.get(i).score > 0) {
+                int from = Math.max(0, i - contextLines);
+                int to = Math.min(lines.size() - 1, i + contextLines);
+                Arrays.fill(selected, from, to + 1, true);
+            }
+        }
+        return selected;
+    }
+
+    private boolean[] selectByRelevance(List<Line> lines, boolean[] candidates, int tokenBudget) {
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            if (candidates[i]) {
+                order.add(i);
+            }
+        }
+        order.sort(Comparator.comparingInt((Integer i) -> -lines.get(i).score).thenComparingInt(i -> i));
+        boolean[] selected = new boolean[lines.size()];
+        int remaining = tokenBudget;
+        for (int i : order) {
+            int tokens = lineTokens(lines.get(i));
+            if (tokens <= remaining) {
+                selected[i] = true;
+                remaining -= tokens;
+            }
+        }
+        return selected;
+    }
+
+    private String join(List<Line> lines, boolean[] selected) {
+        StringBuilder joined = new StringBuilder();
+        for (int i = 0; i < lines.size(); i++) {
+            if (selected == null || selected[i]) {
+                if (!joined.isEmpty()) {
+                    joined.append('\n');
+                }
+                joined.append(lines.get(i).content);
+            }
+        }
+        return joined.toString();
+    }
+
+    // Conteúdo mais a quebra de linha
+    private int lineTokens(Line line) {
+        return estimateTokens(line.content) + 1;
+    }
+
+    private Map<ExpenseType, KeywordAutomaton<ExpenseType>> buildKeywords() {
+        List<String> common = List.of("emissao", "vencimento", "valor", "total", "cnpj", "cpf", "emitente",
+                "razao social", "numero", "serie", "destinatario", "data");
+        List<String> invoice = List.of("chave de acesso", "protocolo", "natureza da operacao", "nota fiscal");
+        Map<ExpenseType, List<String>> specific = Map.of(
+                ExpenseType.NFE, invoice,
+                ExpenseType.NFCE, invoice,
+                ExpenseType.NF3E, List.of("chave de acesso", "nota fiscal", "leitura", "medidor", "consumo", "referencia"),
+                ExpenseType.CTE, List.of("chave de acesso", "remetente", "tomador", "veiculo", "motorista", "carga", "peso"),
+                ExpenseType.NFSE, List.of("prestador", "tomador", "codigo de verificacao", "iss", "servico", "discriminacao"),
+                ExpenseType.BOLETO, List.of("beneficiario", "cedente", "pagador", "sacado", "nosso numero",
+                        "linha digitavel", "codigo de barras", "documento", "juros", "multa", "desconto"),
+                ExpenseType.FATURA, List.of("fatura", "periodo", "referencia", "pagamento", "consumo")
+        );
+        Map<ExpenseType, KeywordAutomaton<ExpenseType>> keywords = new EnumMap<>(ExpenseType.class);
+        specific.forEach((type, terms) -> {
+            List<KeywordAutomaton.Keyword<ExpenseType>> typeKeywords = new ArrayList<>();
+            for (String term : common) {
+                typeKeywords.add(new KeywordAutomaton.Keyword<>(term, type, true));
+            }
+            for (String term : terms) {
+                typeKeywords.add(new KeywordAutomaton.Keyword<>(term, type, true));
+            }
+            keywords.put(type, KeywordAutomaton.of(typeKeywords));
+        });
+        return keywords;
+    }
+
+    private static final class Line {
+        private final int start;
+        private final int end;
+        private final String content;
+        private int score;
+
+        private Line(int start, int end, String content) {
+            this.start = start;
+            this.end = end;
+            this.content = content;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package br.com.groupsoftware.grouppay.extratoremail.util.document;
+
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.DecodeHintType;
+import com.google.zxing.LuminanceSource;
+import com.google.zxing.NotFoundException;
+import com.google.zxing.PlanarYUVLuminanceSource;
+import com.google.zxing.RGBLuminanceSource;
+import com.google.zxing.Result;
+import com.google.zxing.common.HybridBinarizer;
+import com.google.zxing.multi.qrcode.QRCodeMultiReader;
+import lombok.experimental.UtilityClass;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Leitor de QR Codes a partir da imagem renderizada de uma página, com o ZXing.
+ * <p>
+ * Imagens em tons de cinza são entregues ao ZXing sem cópia de conversão: o brilho de cada pixel já é a
+ * luminância esperada. Uma página pode trazer mais de um QR Code (por exemplo, o da NFC-e e o do PIX), por
+ * isso a leitura usa o leitor de múltiplos códigos.
+ * </p>
+ * <p>
+ * O conteúdo não é interpretado; cabe a quem o utiliza reconhecer a URL da NFC-e ou o payload PIX.
+ * </p>
+ *
+ * @author Marco Willy
+ * @version 1.0
+ * @since 2025
+ */
+@UtilityClass
+public class QrCodeUtil {
+
+    private static final Map<DecodeHintType, Object> HINTS = Map.of(DecodeHintType.TRY_HARDER, Boolean.TRUE);
+
+    /**
+     * Conteúdo dos QR Codes encontrados na imagem, sem repetição e na ordem de leitura.
+     */
+    public List<String> find(BufferedImage image) {
+        if (image == null) {
+            return List.of();
+        }
+        BinaryBitmap bitmap = new BinaryBitmap(new HybridBinarizer(luminance(image)));
+        try {
+            List<String> found = new ArrayList<>();
+            for (Result result : new QRCodeMultiReader().decodeMultiple(bitmap, HINTS)) {
+                if (result.getText() != null && !found.contains(result.getText())) {
+                    found.add(result.getText());
+                }
+            }
+            return found;
+        } catch (NotFoundException e) {
+            return List.of();
+        }
+    }
+
+    private LuminanceSource luminance(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        if (image.getType() == BufferedImage.TYPE_BYTE_GRAY) {
+            byte[] pixels = (byte[]) image.getRaster().getDataElements(0, 0, width, height, null);
+            return new PlanarYUVLuminanceSource(pixels, width, height, 0, 0, width, height, false);
+        }
+        return new RGBLuminanceSource(width, height, image.getRGB(0, 0, width, height, null, 0, width));
+    }
+}
@@ -0,0 +1,78 @@
+package br.com.groupsoftware.grouppay.extratoremail.util.document;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Utilitário para interpretar a saída TSV do Tesseract ({@code tesseract imagem stdout tsv}).
+ * <p>
+ * A saída TSV traz uma linha por elemento reconhecido, com as colunas
+ * {@code level page_num block_num par_num line_num word_num left top width height conf text}.
+ * Este utilitário reconstrói o texto (uma linha por linha do Tesseract) e calcula a confiança
+ * média das palavras, usada para decidir se a página precisa ser reprocessada em resolução maior.
+ * </p>
+ *
+ * @author Marco Willy
+ * @version 1.0
+ * @since 2025
+ */
+@UtilityClass
+public class TesseractTsvUtil {
+
+    private static final int WORD_LEVEL = 5;
+    private static final int COLUMNS = 12;
+
+    public record TsvResult(String text, double meanConfidence, int wordCount) {
+    }
+
+    public TsvResult parse(String tsv) {
+        if (tsv == null || tsv.isBlank()) {
+            return new TsvResult("", 0, 0);
+        }
+        StringBuilder text = new StringBuilder();
+        double confidenceSum = 0;
+        int wordCount = 0;
+        String currentLineKey = null;
+
+        for (String row : tsv.split("\\R")) {
+            String[] columns = row.split("\t", -1);
+            if (columns.length < COLUMNS || !isInteger(columns[0]) || Integer.parseInt(columns[0]) != WORD_LEVEL) {
+                continue;
+            }
+            String word = columns[11].trim();
+            double confidence = parseConfidence(columns[10]);
+            if (word.isEmpty() || confidence < 0) {
+                continue;
+            }
+
+            String lineKey = columns[1] + ":" + columns[2] + ":" + columns[3] + ":" + columns[4];
+            if (currentLineKey != null) {
+                text.append(lineKey.equals(currentLineKey) ? ' ' : '\n');
+            }
+            currentLineKey = lineKey;
+            text.append(word);
+            confidenceSum += confidence;
+            wordCount++;
+        }
+        return new TsvResult(text.toString(), wordCount == 0 ? 0 : confidenceSum / wordCount, wordCount);
+    }
+
+    private boolean isInteger(String value) {
+        if (value.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (!Character.isDigit(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private double parseConfidence(String value) {
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package br.com.groupsoftware.grouppay.extratoremail.util.document;
+
+import lombok.experimental.UtilityClass;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Utilitário para cálculo da impressão digital do texto extraído de um documento.
+ * <p>
+ * A impressão digital é o SHA-256 (hexadecimal minúsculo) dos bytes UTF-8 do texto já normalizado, o mesmo
+ * valor produzido pela função {@code SHA2(texto, 256)} do MySQL, usada no preenchimento dos registros antigos.
+ * É gravada em coluna indexada e substitui a comparação de igualdade sobre a coluna {@code TEXT_EXTRACTED}.
+ * </p>
+ *
+ * @author Marco Willy
+ * @version 1.0
+ * @since 2025
+ */
+@UtilityClass
+public class TextFingerprintUtil {
+
+    /**
+     * Retorna a impressão digital do texto, ou {@code null} quando o texto é nulo ou vazio.
+     */
+    public String fingerprint(String text) {
+        if (text == null || text.isEmpty()) {
+            return null;
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível na JVM.", e);
+        }
+    }
+}
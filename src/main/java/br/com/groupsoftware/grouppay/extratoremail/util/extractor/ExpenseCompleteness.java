@@ -0,0 +1,162 @@
+package br.com.groupsoftware.grouppay.extratoremail.util.extractor;
+
+import br.com.groupsoftware.grouppay.extratoremail.domain.enums.ExpenseType;
+import br.com.groupsoftware.grouppay.extratoremail.domain.model.Expense;
+import br.com.groupsoftware.grouppay.extratoremail.domain.model.ExpenseBoleto;
+import br.com.groupsoftware.grouppay.extratoremail.domain.model.ExpenseCT;
+import br.com.groupsoftware.grouppay.extratoremail.domain.model.ExpenseNF;
+import br.com.groupsoftware.grouppay.extratoremail.util.brazil.BoletoUtil;
+import br.com.groupsoftware.grouppay.extratoremail.util.brazil.ChaveAcessoUtil;
+import br.com.groupsoftware.grouppay.extratoremail.util.brazil.CpfCnpjUtil;
+import lombok.experimental.UtilityClass;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Avaliação dos campos obrigatórios de uma despesa extraída pelos extratores determinísticos.
+ * <p>
+ * Um campo só conta como preenchido quando o valor é confiável: CNPJ/CPF, chave de acesso e código de barras
+ * precisam ter dígitos verificadores válidos, o valor total precisa ser positivo e as datas precisam estar
+ * dentro de um intervalo plausível. Os campos faltantes são devolvidos com o nome da propriedade JSON da
+ * despesa, o mesmo usado no prompt do modelo de IA, para que apenas eles sejam pedidos ao modelo.
+ * </p>
+ *
+ * @author Marco Willy
+ * @version 1.0
+ * @since 2025
+ */
+@UtilityClass
+public class ExpenseCompleteness {
+
+    public static final String DATA_EMISSAO = "dataEmissao";
+    public static final String DATA_VENCIMENTO = "dataVencimento";
+    public static final String VALOR_TOTAL = "valorTotal";
+    public static final String EMITENTE = "emitente";
+    public static final String CNPJ_CPF_EMITENTE = "cnpjCpfEmitente";
+    public static final String CNPJ_CPF_DESTINATARIO = "cnpjCpfDestinatario";
+    public static final String NUMERO = "numero";
+    public static final String CHAVE_ACESSO = "chaveAcesso";
+    public static final String LINHA_DIGITAVEL = "linhaDigitavel";
+
+    private static final int PLAUSIBLE_YEARS = 10;
+
+    // O destinatário identifica a company do grupo no matching; os extratores de notas fiscais não o preenchem
+    private static final List<String> COMMON_FIELDS = List.of(DATA_EMISSAO, VALOR_TOTAL, EMITENTE, CNPJ_CPF_EMITENTE,
+            CNPJ_CPF_DESTINATARIO);
+    private static final List<String> INVOICE_FIELDS = List.of(NUMERO, CHAVE_ACESSO);
+
+    private static final Map<ExpenseType, List<String>> TYPE_FIELDS = Map.of(
+            ExpenseType.NFE, INVOICE_FIELDS,
+            ExpenseType.NFCE, INVOICE_FIELDS,
+            ExpenseType.NF3E, INVOICE_FIELDS,
+            ExpenseType.CTE, INVOICE_FIELDS,
+            ExpenseType.NFSE, List.of(NUMERO),
+            ExpenseType.BOLETO, List.of(DATA_VENCIMENTO, LINHA_DIGITAVEL),
+            ExpenseType.FATURA, List.of(DATA_VENCIMENTO)
+    );
+
+    /**
+     * Campos obrigatórios do tipo de documento, na ordem em que aparecem no prompt.
+     */
+    public List<String> requiredFields(ExpenseType type) {
+        List<String> typeFields = TYPE_FIELDS.getOrDefault(type, List.of());
+        List<String> fields = new ArrayList<>(COMMON_FIELDS.size() + typeFields.size());
+        fields.addAll(COMMON_FIELDS);
+        fields.addAll(typeFields);
+        return fields;
+    }
+
+    /**
+     * Campos obrigatórios ausentes ou sem valor confiável. Despesa nula tem todos os campos faltantes.
+     */
+    public Set<String> missingFields(Expense expense, ExpenseType type) {
+        return missingFields(expense, type, true);
+    }
+
+    /**
+     * Campos obrigatórios ausentes ou sem valor confiável. Sem {@code recipientRequired} o destinatário não é
+     * cobrado, como nos documentos que já chegam com a company associada.
+     */
+    public Set<String> missingFields(Expense expense, ExpenseType type, boolean recipientRequired) {
+        Set<String> missing = new LinkedHashSet<>();
+        for (String field : requiredFields(type, recipientRequired)) {
+            if (expense == null || !isFilled(expense, field)) {
+                missing.add(field);
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * Fração dos campos obrigatórios preenchidos com valor confiável, entre 0 e 1.
+     */
+    public double score(Expense expense, ExpenseType type) {
+        return score(expense, type, true);
+    }
+
+    public double score(Expense expense, ExpenseType type, boolean recipientRequired) {
+        int required = requiredFields(type, recipientRequired).size();
+        return required == 0 ? 1.0 : 1.0 - (double) missingFields(expense, type, recipientRequired).size() / required;
+    }
+
+    private List<String> requiredFields(ExpenseType type, boolean recipientRequired) {
+        List<String> fields = requiredFields(type);
+        if (!recipientRequired) {
+            fields.remove(CNPJ_CPF_DESTINATARIO);
+        }
+        return fields;
+    }
+
+    private boolean isFilled(Expense expense, String field) {
+        return switch (field) {
+            case DATA_EMISSAO -> isPlausible(expense.getDataEmissao());
+            case DATA_VENCIMENTO -> isPlausible(expense.getDataVencimento());
+            case VALOR_TOTAL -> expense.getValorTotal() != null && expense.getValorTotal().compareTo(BigDecimal.ZERO) > 0;
+            case EMITENTE -> hasText(expense.getEmitente());
+            case CNPJ_CPF_EMITENTE -> isValidCnpjCpf(expense.getCnpjCpfEmitente());
+            case CNPJ_CPF_DESTINATARIO -> isValidCnpjCpf(expense.getCnpjCpfDestinatario());
+            case NUMERO -> hasText(expense.getNumero());
+            case CHAVE_ACESSO -> isValidAccessKey(accessKeyOf(expense));
+            case LINHA_DIGITAVEL -> expense instanceof ExpenseBoleto boleto
+                    && (isValidBarcode(boleto.getLinhaDigitavel()) || isValidBarcode(boleto.getCodigoBarras()));
+            default -> false;
+        };
+    }
+
+    private String accessKeyOf(Expense expense) {
+        if (expense instanceof ExpenseNF nf) {
+            return nf.getChaveAcesso();
+        }
+        if (expense instanceof ExpenseCT ct) {
+            return ct.getChaveAcesso();
+        }
+        return null;
+    }
+
+    private boolean isValidCnpjCpf(String value) {
+        return value != null && CpfCnpjUtil.isCnpjCpfValid(CpfCnpjUtil.extractNumbers(value));
+    }
+
+    private boolean isValidAccessKey(String value) {
+        return value != null && ChaveAcessoUtil.decode(value).isPresent();
+    }
+
+    private boolean isValidBarcode(String value) {
+        return value != null && BoletoUtil.decode(value).isPresent();
+    }
+
+    private boolean isPlausible(LocalDate date) {
+        LocalDate today = LocalDate.now();
+        return date != null && date.isAfter(today.minusYears(PLAUSIBLE_YEARS)) && date.isBefore(today.plusYears(PLAUSIBLE_YEARS));
+    }
+
+    private boolean hasText(String value) {
+        return value != null && !value.isBlank() && !"null".equalsIgnoreCase(value.trim());
+    }
+}
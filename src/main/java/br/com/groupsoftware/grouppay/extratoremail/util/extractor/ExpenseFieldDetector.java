@@ -0,0 +1,218 @@
+package br.com.groupsoftware.grouppay.extratoremail.util.extractor;
+
+import br.com.groupsoftware.grouppay.extratoremail.domain.enums.ExpenseType;
+import br.com.groupsoftware.grouppay.extratoremail.util.brazil.ChaveAcessoUtil;
+import br.com.groupsoftware.grouppay.extratoremail.util.brazil.CpfCnpjUtil;
+import br.com.groupsoftware.grouppay.extratoremail.util.document.PdfTypeUtil;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Detector incremental dos campos obrigatórios de uma despesa.
+ * <p>
+ * Recebe o texto de cada página à medida que ele fica disponível (PDFBox ou OCR), identifica o
+ * {@link ExpenseType} assim que possível e informa quando todos os campos obrigatórios daquele tipo
+ * já apareceram no texto. É utilizado para encerrar o OCR das páginas restantes antecipadamente.
+ * </p>
+ * <p>
+ * A detecção é apenas indicativa (presença de padrões), não substitui a extração feita pelos extratores.
+ * O tipo é identificado só no texto da página recebida, precedido do fim da página anterior para não perder
+ * termos quebrados entre páginas, de forma que o custo de cada página não cresce com o documento.
+ * Instâncias não são thread-safe.
+ * </p>
+ *
+ * @author Marco Willy
+ * @version 1.0
+ * @since 2025
+ */
+public class ExpenseFieldDetector {
+
+    public enum Field {
+        DATA, VALOR, CNPJ_CPF, CHAVE_ACESSO
+    }
+
+    private static final Pattern DATE_PATTERN = Pattern.compile("\\b\\d{2}/\\d{2}/\\d{4}\\b");
+    private static final Pattern VALUE_PATTERN = Pattern.compile("\\b\\d{1,3}(?:\\.\\d{3})*,\\d{2}\\b");
+    private static final Pattern CNPJ_CPF_PATTERN = Pattern.compile(
+            "\\b\\d{2}\\.?\\d{3}\\.?\\d{3}/?\\d{4}-?\\d{2}\\b|\\b\\d{3}\\.\\d{3}\\.\\d{3}-\\d{2}\\b");
+    private static final Pattern ACCESS_KEY_PATTERN = Pattern.compile("\\b(?:\\d{4}\\s?){10}\\d{4}\\b");
+    private static final Pattern LABELED_ISSUER_PATTERN = Pattern.compile(
+            "(?:emitente|benefici[aá]rio|cedente|prestador)[^\\n]{0,200}?\\b(\\d{2}\\.?\\d{3}\\.?\\d{3}/?\\d{4}-?\\d{2})\\b",
+            Pattern.CASE_INSENSITIVE);
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/uuuu").withResolverStyle(ResolverStyle.STRICT);
+
+    private static final Set<Field> INVOICE_FIELDS = EnumSet.of(Field.DATA, Field.VALOR, Field.CNPJ_CPF, Field.CHAVE_ACESSO);
+    private static final Set<Field> SLIP_FIELDS = EnumSet.of(Field.DATA, Field.VALOR, Field.CNPJ_CPF);
+
+    private static final Map<ExpenseType, Set<Field>> MANDATORY_FIELDS = Map.of(
+            ExpenseType.NFE, INVOICE_FIELDS,
+            ExpenseType.NFCE, INVOICE_FIELDS,
+            ExpenseType.NF3E, INVOICE_FIELDS,
+            ExpenseType.CTE, INVOICE_FIELDS,
+            ExpenseType.NFSE, SLIP_FIELDS,
+            ExpenseType.BOLETO, SLIP_FIELDS,
+            ExpenseType.FATURA, SLIP_FIELDS,
+            ExpenseType.DARF, SLIP_FIELDS,
+            ExpenseType.FGTS, SLIP_FIELDS,
+            ExpenseType.GPS, SLIP_FIELDS
+    );
+
+    // Fim da página anterior considerado na identificação do tipo; cobre o termo mais longo com folga
+    private static final int TYPE_CONTEXT_LENGTH = 128;
+
+    /**
+     * Origem do CNPJ do emitente, da menos para a mais confiável.
+     */
+    private enum IssuerSource {
+        FIRST_CNPJ, VALID_CNPJ, LABELED, ACCESS_KEY
+    }
+
+    private final Set<Field> foundFields = EnumSet.noneOf(Field.class);
+    private String previousPageTail = "";
+    private ExpenseType expenseType = ExpenseType.OUTRO;
+    private String issuerCnpj;
+    private IssuerSource issuerSource;
+    private LocalDate nearestUpcomingDate;
+
+    /**
+     * Indica se o texto contém ao menos um dado-chave (data, valor monetário ou CNPJ/CPF).
+     */
+    public static boolean containsKeyToken(String text) {
+        return text != null && (DATE_PATTERN.matcher(text).find()
+                || VALUE_PATTERN.matcher(text).find()
+                || CNPJ_CPF_PATTERN.matcher(text).find());
+    }
+
+    /**
+     * Acrescenta o texto de uma página e atualiza os campos encontrados.
+     */
+    public void accept(String pageText) {
+        if (pageText == null || pageText.isBlank()) {
+            return;
+        }
+        if (ExpenseType.OUTRO.equals(expenseType)) {
+            expenseType = PdfTypeUtil.identificarTipoPdf(previousPageTail + pageText);
+            previousPageTail = tail(pageText);
+        }
+        detect(pageText, Field.DATA, DATE_PATTERN);
+        detect(pageText, Field.VALOR, VALUE_PATTERN);
+        detect(pageText, Field.CNPJ_CPF, CNPJ_CPF_PATTERN);
+        detect(pageText, Field.CHAVE_ACESSO, ACCESS_KEY_PATTERN);
+        if (issuerSource != IssuerSource.ACCESS_KEY) {
+            updateIssuerCnpj(pageText);
+        }
+        updateNearestUpcomingDate(pageText);
+    }
+
+    /**
+     * Indica se todos os campos obrigatórios do tipo identificado já foram encontrados.
+     * Documentos de tipo desconhecido nunca são considerados completos.
+     */
+    public boolean isComplete() {
+        Set<Field> mandatory = MANDATORY_FIELDS.get(expenseType);
+        return mandatory != null && foundFields.containsAll(mandatory);
+    }
+
+    public ExpenseType getExpenseType() {
+        return expenseType;
+    }
+
+    /**
+     * CNPJ do emitente (somente dígitos). Em ordem de preferência: o da chave de acesso válida, o primeiro CNPJ
+     * válido junto a um rótulo de emitente (Emitente, Beneficiário, Cedente, Prestador), o primeiro CNPJ com
+     * dígitos verificadores válidos e, por fim, o primeiro CNPJ do texto. Pode mudar quando uma página seguinte
+     * trouxer uma origem mais confiável.
+     */
+    public String getIssuerCnpj() {
+        return issuerCnpj;
+    }
+
+    /**
+     * Data mais próxima a partir de hoje encontrada no texto, usada como estimativa do vencimento.
+     */
+    public LocalDate getNearestUpcomingDate() {
+        return nearestUpcomingDate;
+    }
+
+    public Set<Field> getFoundFields() {
+        return EnumSet.copyOf(foundFields);
+    }
+
+    private void updateIssuerCnpj(String pageText) {
+        ChaveAcessoUtil.find(pageText)
+                .map(ChaveAcessoUtil.ChaveAcesso::cnpjCpfEmitente)
+                .filter(CpfCnpjUtil::isCnpjValid)
+                .ifPresent(cnpj -> setIssuerCnpj(cnpj, IssuerSource.ACCESS_KEY));
+        if (issuerSource == IssuerSource.ACCESS_KEY) {
+            return;
+        }
+        if (issuerSource != IssuerSource.LABELED) {
+            Matcher labeled = LABELED_ISSUER_PATTERN.matcher(pageText);
+            while (labeled.find()) {
+                if (CpfCnpjUtil.isCnpjValid(labeled.group(1))) {
+                    setIssuerCnpj(CpfCnpjUtil.extractNumbers(labeled.group(1)), IssuerSource.LABELED);
+                    return;
+                }
+            }
+        }
+        if (issuerSource == null || issuerSource == IssuerSource.FIRST_CNPJ) {
+            Matcher matcher = CNPJ_CPF_PATTERN.matcher(pageText);
+            while (matcher.find()) {
+                String digits = CpfCnpjUtil.extractNumbers(matcher.group());
+                if (digits.length() == 14 && CpfCnpjUtil.isCnpjValid(digits)) {
+                    setIssuerCnpj(digits, IssuerSource.VALID_CNPJ);
+                    return;
+                }
+                if (digits.length() == 14 && issuerSource == null) {
+                    setIssuerCnpj(digits, IssuerSource.FIRST_CNPJ);
+                }
+            }
+        }
+    }
+
+    private void setIssuerCnpj(String cnpj, IssuerSource source) {
+        issuerCnpj = cnpj;
+        issuerSource = source;
+    }
+
+    // Fim do texto a partir de um espaço, para não criar uma fronteira de palavra no meio de um termo
+    private static String tail(String pageText) {
+        if (pageText.length() <= TYPE_CONTEXT_LENGTH) {
+            return pageText + '\n';
+        }
+        int start = pageText.length() - TYPE_CONTEXT_LENGTH;
+        while (start < pageText.length() && !Character.isWhitespace(pageText.charAt(start))) {
+            start++;
+        }
+        return pageText.substring(start) + '\n';
+    }
+
+    private void updateNearestUpcomingDate(String pageText) {
+        LocalDate today = LocalDate.now();
+        Matcher matcher = DATE_PATTERN.matcher(pageText);
+        while (matcher.find()) {
+            try {
+                LocalDate date = LocalDate.parse(matcher.group(), DATE_FORMAT);
+                if (!date.isBefore(today) && (nearestUpcomingDate == null || date.isBefore(nearestUpcomingDate))) {
+                    nearestUpcomingDate = date;
+                }
+            } catch (DateTimeParseException ignored) {
+                // Sequência no formato de data, mas inválida (ex.: 31/02/2025)
+            }
+        }
+    }
+
+    private void detect(String pageText, Field field, Pattern pattern) {
+        if (!foundFields.contains(field) && pattern.matcher(pageText).find()) {
+            foundFields.add(field);
+        }
+    }
+}
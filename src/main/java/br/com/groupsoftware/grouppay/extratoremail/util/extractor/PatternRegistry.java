@@ -0,0 +1,105 @@
+package br.com.groupsoftware.grouppay.extratoremail.util.extractor;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Registro compartilhado de expressões regulares já compiladas.
+ * <p>
+ * Os extratores compilavam o mesmo {@link Pattern} a cada documento, tanto para os padrões fixos do código
+ * quanto para os padrões vindos da tabela {@code tb_regex}. Este registro guarda cada padrão compilado pela
+ * chave (texto da expressão + flags) em um cache LRU de tamanho limitado.
+ * </p>
+ * <p>
+ * {@link #invalidateAll()} é chamado quando um registro de {@code Regex} é alterado; os padrões fixos voltam a
+ * ser compilados na próxima utilização. Acertos, faltas e remoções ficam disponíveis para as métricas em
+ * {@code PatternRegistryConfig}.
+ * </p>
+ *
+ * @author Marco Willy
+ * @version 1.0
+ * @since 2025
+ */
+@UtilityClass
+public class PatternRegistry {
+
+    private static final int DEFAULT_MAX_SIZE = 512;
+
+    private record Key(String regex, int flags) {
+    }
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private volatile int maxSize = DEFAULT_MAX_SIZE;
+
+    private final Map<Key, Pattern> patterns = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Pattern> eldest) {
+            if (size() > maxSize) {
+                evictions.incrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    };
+
+    /**
+     * Devolve o padrão compilado, compilando-o apenas na primeira utilização.
+     *
+     * @throws java.util.regex.PatternSyntaxException se a expressão for inválida (o erro não é guardado)
+     */
+    public Pattern compile(String regex, int flags) {
+        Key key = new Key(regex, flags);
+        synchronized (patterns) {
+            Pattern cached = patterns.get(key);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return cached;
+            }
+        }
+        misses.incrementAndGet();
+        // Compila fora do bloqueio; duas threads podem compilar o mesmo padrão, e a última prevalece
+        Pattern compiled = Pattern.compile(regex, flags);
+        synchronized (patterns) {
+            patterns.put(key, compiled);
+        }
+        return compiled;
+    }
+
+    public Pattern compile(String regex) {
+        return compile(regex, 0);
+    }
+
+    public void invalidateAll() {
+        synchronized (patterns) {
+            patterns.clear();
+        }
+    }
+
+    public void setMaxSize(int size) {
+        maxSize = Math.max(1, size);
+    }
+
+    public int size() {
+        synchronized (patterns) {
+            return patterns.size();
+        }
+    }
+
+    public long hitCount() {
+        return hits.get();
+    }
+
+    public long missCount() {
+        return misses.get();
+    }
+
+    public long evictionCount() {
+        return evictions.get();
+    }
+}
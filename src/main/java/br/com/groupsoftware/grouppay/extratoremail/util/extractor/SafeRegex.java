@@ -0,0 +1,124 @@
+package br.com.groupsoftware.grouppay.extratoremail.util.extractor;
+
+import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.MatchResult;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Execução de expressões regulares com limite de passos e de tempo.
+ * <p>
+ * Os padrões da tabela {@code tb_regex} são editáveis por cliente e alguns padrões fixos usam {@code .*?} com
+ * {@code DOTALL} sobre textos de dezenas de milhares de caracteres; um padrão com retrocesso catastrófico
+ * prenderia a thread por minutos. Aqui a busca lê o texto por um {@link TimeBoxedCharSequence} cujo limite
+ * de passos é proporcional ao tamanho do texto ({@code stepsPerChar}, com piso {@code minSteps}), o que
+ * mantém cada busca em tempo linear; o prazo {@code timeoutMillis} cobre o caso de textos muito grandes.
+ * </p>
+ * <p>
+ * Uma busca interrompida é tratada como "não encontrado" e registrada em log. O tempo de cada busca é
+ * repassado ao {@link Recorder} configurado em {@code RegexGuardConfig}, que publica as métricas pelo nome da
+ * busca. Cada padrão fixo do código tem seu nome; os padrões da tabela {@code tb_regex} compartilham o nome
+ * {@link #REGEX_TABLE}, mantendo limitado o conjunto de nomes nas métricas.
+ * </p>
+ *
+ * @author Marco Willy
+ * @version 1.0
+ * @since 2025
+ */
+@Slf4j
+@UtilityClass
+public class SafeRegex {
+
+    /**
+     * Recebe o nome da busca, a duração e se ela foi interrompida pelo limite.
+     */
+    @FunctionalInterface
+    public interface Recorder {
+        void record(String name, Pattern pattern, long nanos, boolean exceeded);
+    }
+
+    /**
+     * Nome das buscas com padrões da tabela {@code tb_regex}.
+     */
+    public static final String REGEX_TABLE = "tb_regex";
+
+    /**
+     * Nome das buscas sem nome informado.
+     */
+    public static final String UNNAMED = "unnamed";
+
+    private volatile long stepsPerChar = 1_000;
+    private volatile long minSteps = 1_000_000;
+    private volatile long timeoutMillis = 2_000;
+    private volatile Recorder recorder = (name, pattern, nanos, exceeded) -> {
+    };
+
+    /**
+     * Primeira ocorrência do padrão no texto, ou vazio se não houver ou se a busca exceder o limite.
+     *
+     * @param name nome da busca nas métricas
+     */
+    public Optional<MatchResult> find(String name, Pattern pattern, CharSequence text) {
+        if (text == null) {
+            return Optional.empty();
+        }
+        List<MatchResult> found = search(name, pattern, text, 1);
+        return found.isEmpty() ? Optional.empty() : Optional.of(found.getFirst());
+    }
+
+    public Optional<MatchResult> find(Pattern pattern, CharSequence text) {
+        return find(UNNAMED, pattern, text);
+    }
+
+    /**
+     * Todas as ocorrências do padrão no texto. Se a busca exceder o limite, devolve as encontradas até então.
+     *
+     * @param name nome da busca nas métricas
+     */
+    public List<MatchResult> findAll(String name, Pattern pattern, CharSequence text) {
+        if (text == null) {
+            return List.of();
+        }
+        return search(name, pattern, text, Integer.MAX_VALUE);
+    }
+
+    public List<MatchResult> findAll(Pattern pattern, CharSequence text) {
+        return findAll(UNNAMED, pattern, text);
+    }
+
+    public void configure(long stepsPerChar, long minSteps, long timeoutMillis) {
+        SafeRegex.stepsPerChar = Math.max(1, stepsPerChar);
+        SafeRegex.minSteps = Math.max(1, minSteps);
+        SafeRegex.timeoutMillis = Math.max(1, timeoutMillis);
+    }
+
+    public void setRecorder(Recorder recorder) {
+        SafeRegex.recorder = recorder;
+    }
+
+    private List<MatchResult> search(String name, Pattern pattern, CharSequence text, int limit) {
+        long perChar = stepsPerChar;
+        long maxSteps = text.length() > Long.MAX_VALUE / perChar ? Long.MAX_VALUE : Math.max(minSteps, text.length() * perChar);
+        TimeBoxedCharSequence boxed = new TimeBoxedCharSequence(text, maxSteps, timeoutMillis);
+        Matcher matcher = pattern.matcher(boxed);
+        List<MatchResult> found = new ArrayList<>();
+        long startedAt = System.nanoTime();
+        boolean exceeded = false;
+        try {
+            while (found.size() < limit && matcher.find()) {
+                found.add(matcher.toMatchResult());
+            }
+        } catch (TimeBoxedCharSequence.BudgetExceededException e) {
+            exceeded = true;
+            log.warn("Busca {} da expressão '{}' interrompida em texto de {} caracteres: {}",
+                    name, pattern.pattern(), text.length(), e.getMessage());
+        }
+        recorder.record(name, pattern, System.nanoTime() - startedAt, exceeded);
+        return found;
+    }
+}
@@ -0,0 +1,79 @@
+package br.com.groupsoftware.grouppay.extratoremail.util.extractor;
+
+/**
+ * {@link CharSequence} que interrompe a leitura quando um limite de passos ou de tempo é ultrapassado.
+ * <p>
+ * O {@link java.util.regex.Matcher} lê o texto exclusivamente por {@link #charAt(int)}; cada leitura conta como
+ * um passo. Quando a quantidade de passos passa de {@code maxSteps}, ou quando o prazo termina (verificado a
+ * cada {@value #CLOCK_CHECK_INTERVAL} passos para não consultar o relógio a cada caractere), é lançada
+ * {@link BudgetExceededException}, o que encerra o retrocesso catastrófico de uma expressão mal escrita sem
+ * prender a thread.
+ * </p>
+ * <p>
+ * Cada instância controla uma única busca e não deve ser compartilhada entre threads.
+ * </p>
+ *
+ * @author Marco Willy
+ * @version 1.0
+ * @since 2025
+ */
+public final class TimeBoxedCharSequence implements CharSequence {
+
+    /**
+     * Lançada quando a busca ultrapassa o limite de passos ou de tempo.
+     */
+    public static final class BudgetExceededException extends RuntimeException {
+        private BudgetExceededException(String message) {
+            super(message, null, false, false);
+        }
+    }
+
+    private static final int CLOCK_CHECK_INTERVAL = 4096;
+
+    private final CharSequence text;
+    private final long maxSteps;
+    private final long deadline;
+    private long steps;
+
+    /**
+     * @param text          Texto original.
+     * @param maxSteps      Quantidade máxima de leituras de caracteres.
+     * @param timeoutMillis Tempo máximo da busca, em milissegundos.
+     */
+    public TimeBoxedCharSequence(CharSequence text, long maxSteps, long timeoutMillis) {
+        this.text = text;
+        this.maxSteps = maxSteps;
+        this.deadline = System.nanoTime() + timeoutMillis * 1_000_000L;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (++steps > maxSteps) {
+            throw new BudgetExceededException("Limite de " + maxSteps + " passos excedido");
+        }
+        if (steps % CLOCK_CHECK_INTERVAL == 0 && System.nanoTime() - deadline > 0) {
+            throw new BudgetExceededException("Tempo limite excedido após " + steps + " passos");
+        }
+        return text.charAt(index);
+    }
+
+    @Override
+    public int length() {
+        return text.length();
+    }
+
+    // Usado pelo Matcher apenas para montar os grupos encontrados, que não precisam de limite
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return text.subSequence(start, end);
+    }
+
+    public long steps() {
+        return steps;
+    }
+
+    @Override
+    public String toString() {
+        return text.toString();
+    }
+}
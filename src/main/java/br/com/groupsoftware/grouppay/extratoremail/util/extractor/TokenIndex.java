@@ -0,0 +1,344 @@
+package br.com.groupsoftware.grouppay.extratoremail.util.extractor;
+
+import br.com.groupsoftware.grouppay.extratoremail.util.brazil.CpfCnpjUtil;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Índice dos dados numéricos do texto de um documento, montado em uma única leitura.
+ * <p>
+ * Os extratores percorriam o texto inteiro várias vezes com expressões regulares independentes para datas,
+ * valores, CNPJ/CPF e sequências longas de dígitos (chaves de acesso e códigos de barras). O índice reconhece
+ * esses dados de uma vez, com a posição no texto e o valor já convertido, e é mantido no documento em
+ * processamento ({@code Document.getTokenIndex()}).
+ * </p>
+ * <p>
+ * Cada tipo segue exatamente a semântica da expressão regular que substitui (ocorrências da esquerda para a
+ * direita, sem sobreposição entre ocorrências do mesmo tipo):
+ * <ul>
+ *     <li>datas: {@code \d{2}/\d{2}/\d{4}}, convertidas com {@code dd/MM/yyyy}; datas inválidas são ignoradas;</li>
+ *     <li>valores: {@code [0-9]{1,3}(?:\.[0-9]{3})*,[0-9]{2}};</li>
+ *     <li>CNPJ: {@code \d{2}[.\-]?\d{3}[.\-]?\d{3}[/\-]?\d{4}[\-/]?\d{2}}, com indicação de dígitos válidos;</li>
+ *     <li>CPF: {@code \d{3}\.?\d{3}\.?\d{3}-?\d{2}}, com indicação de dígitos válidos;</li>
+ *     <li>sequências numéricas: trechos máximos de {@code [0-9\s]} com ao menos {@value #MIN_NUMERIC_RUN}
+ *     caracteres.</li>
+ * </ul>
+ * </p>
+ * <p>
+ * Instâncias são imutáveis e podem ser compartilhadas entre threads.
+ * </p>
+ *
+ * @author Marco Willy
+ * @version 1.0
+ * @since 2025
+ */
+public final class TokenIndex {
+
+    /**
+     * Ocorrência no texto; {@code start} inclusivo e {@code end} exclusivo.
+     */
+    public record Token<V>(int start, int end, V value) {
+    }
+
+    /**
+     * CNPJ ou CPF somente com dígitos e o resultado da validação dos dígitos verificadores.
+     */
+    public record DocumentNumber(String digits, boolean valid) {
+    }
+
+    public static final int MIN_NUMERIC_RUN = 44;
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final TokenIndex EMPTY = new TokenIndex("", List.of(), List.of(), List.of(), List.of(), List.of());
+
+    private final String text;
+    private final List<Token<LocalDate>> dates;
+    private final List<Token<BigDecimal>> amounts;
+    private final List<Token<DocumentNumber>> cnpjs;
+    private final List<Token<DocumentNumber>> cpfs;
+    private final List<Token<String>> numericRuns;
+
+    private TokenIndex(String text,
+                       List<Token<LocalDate>> dates,
+                       List<Token<BigDecimal>> amounts,
+                       List<Token<DocumentNumber>> cnpjs,
+                       List<Token<DocumentNumber>> cpfs,
+                       List<Token<String>> numericRuns) {
+        this.text = text;
+        this.dates = dates;
+        this.amounts = amounts;
+        this.cnpjs = cnpjs;
+        this.cpfs = cpfs;
+        this.numericRuns = numericRuns;
+    }
+
+    /**
+     * Monta o índice do texto em uma única leitura. Texto nulo resulta em índice vazio.
+     */
+    public static TokenIndex of(String text) {
+        if (text == null || text.isEmpty()) {
+            return EMPTY;
+        }
+        List<Token<LocalDate>> dates = new ArrayList<>();
+        List<Token<BigDecimal>> amounts = new ArrayList<>();
+        List<Token<DocumentNumber>> cnpjs = new ArrayList<>();
+        List<Token<DocumentNumber>> cpfs = new ArrayList<>();
+        List<Token<String>> numericRuns = new ArrayList<>();
+        int length = text.length();
+        // Próxima posição em que cada tipo pode começar, já que ocorrências do mesmo tipo não se sobrepõem
+        int nextDate = 0;
+        int nextAmount = 0;
+        int nextCnpj = 0;
+        int nextCpf = 0;
+        int runStart = -1;
+        for (int i = 0; i <= length; i++) {
+            boolean numeric = i < length && (isDigit(text.charAt(i)) || isWhitespace(text.charAt(i)));
+            if (numeric && runStart < 0) {
+                runStart = i;
+            } else if (!numeric && runStart >= 0) {
+                if (i - runStart >= MIN_NUMERIC_RUN) {
+                    numericRuns.add(new Token<>(runStart, i, text.substring(runStart, i)));
+                }
+                runStart = -1;
+            }
+            if (i == length || !isDigit(text.charAt(i))) {
+                continue;
+            }
+            if (i >= nextDate) {
+                int end = matchDate(text, i);
+                if (end > 0) {
+                    LocalDate date = parseDate(text.substring(i, end));
+                    if (date != null) {
+                        dates.add(new Token<>(i, end, date));
+                    }
+                    nextDate = end;
+                }
+            }
+            if (i >= nextAmount) {
+                int end = matchAmount(text, i);
+                if (end > 0) {
+                    amounts.add(new Token<>(i, end, parseAmount(text.substring(i, end))));
+                    nextAmount = end;
+                }
+            }
+            if (i >= nextCnpj) {
+                int end = matchCnpj(text, i);
+                if (end > 0) {
+                    String digits = digitsOf(text, i, end);
+                    cnpjs.add(new Token<>(i, end, new DocumentNumber(digits, CpfCnpjUtil.isCnpjValid(digits))));
+                    nextCnpj = end;
+                }
+            }
+            if (i >= nextCpf) {
+                int end = matchCpf(text, i);
+                if (end > 0) {
+                    String digits = digitsOf(text, i, end);
+                    cpfs.add(new Token<>(i, end, new DocumentNumber(digits, CpfCnpjUtil.isCpfValid(digits))));
+                    nextCpf = end;
+                }
+            }
+        }
+        return new TokenIndex(text, List.copyOf(dates), List.copyOf(amounts), List.copyOf(cnpjs), List.copyOf(cpfs),
+                List.copyOf(numericRuns));
+    }
+
+    /**
+     * Indica se o índice foi montado a partir desta mesma instância de texto.
+     */
+    public boolean isIndexOf(String text) {
+        return this.text == text || (text == null && this.text.isEmpty());
+    }
+
+    public List<Token<LocalDate>> dates() {
+        return dates;
+    }
+
+    public List<Token<BigDecimal>> amounts() {
+        return amounts;
+    }
+
+    public List<Token<DocumentNumber>> cnpjs() {
+        return cnpjs;
+    }
+
+    public List<Token<DocumentNumber>> cpfs() {
+        return cpfs;
+    }
+
+    public List<Token<String>> numericRuns() {
+        return numericRuns;
+    }
+
+    public Optional<LocalDate> earliestDate() {
+        return dates.stream().map(Token::value).min(Comparator.naturalOrder());
+    }
+
+    public Optional<BigDecimal> largestAmount() {
+        return amounts.stream().map(Token::value).max(Comparator.naturalOrder());
+    }
+
+    /**
+     * Primeiro CNPJ com dígitos verificadores válidos; na falta dele, o primeiro com formato de CNPJ.
+     */
+    public Optional<String> firstCnpj() {
+        return cnpjs.stream().filter(token -> token.value().valid()).findFirst()
+                .or(() -> cnpjs.stream().findFirst())
+                .map(token -> token.value().digits());
+    }
+
+    /**
+     * Primeiro CNPJ ou CPF com dígitos verificadores válidos, na ordem do texto, diferente de {@code excluded}
+     * (em geral o emitente). Números dentro de chaves de acesso e códigos de barras e CPFs contidos em um CNPJ
+     * são ignorados.
+     *
+     * @param excluded dígitos do CNPJ/CPF a desconsiderar, pode ser nulo
+     */
+    public Optional<String> firstValidCnpjCpfExcept(String excluded) {
+        return Stream.concat(cnpjs.stream(), cpfs.stream().filter(cpf -> !overlapsAny(cpf, cnpjs)))
+                .filter(token -> token.value().valid() && !token.value().digits().equals(excluded))
+                .filter(token -> !overlapsAny(token, numericRuns))
+                .min(Comparator.comparingInt(Token::start))
+                .map(token -> token.value().digits());
+    }
+
+    /**
+     * Trechos das sequências numéricas com a mesma divisão de {@code [0-9\s]{min,max}}, já sem os espaços.
+     *
+     * @param min tamanho mínimo do trecho, em caracteres (não menor que {@value #MIN_NUMERIC_RUN})
+     * @param max tamanho máximo do trecho, em caracteres
+     */
+    public List<String> numericWindows(int min, int max) {
+        if (min < MIN_NUMERIC_RUN || max < min) {
+            throw new IllegalArgumentException("Janela inválida: " + min + ", " + max);
+        }
+        List<String> windows = new ArrayList<>();
+        for (Token<String> run : numericRuns) {
+            String value = run.value();
+            int position = 0;
+            while (value.length() - position >= min) {
+                int end = Math.min(value.length(), position + max);
+                windows.add(digitsOf(value, position, end));
+                position = end;
+            }
+        }
+        return windows;
+    }
+
+    private static int matchDate(String text, int i) {
+        if (i + 10 > text.length()
+                || !digits(text, i, 2) || text.charAt(i + 2) != '/'
+                || !digits(text, i + 3, 2) || text.charAt(i + 5) != '/'
+                || !digits(text, i + 6, 4)) {
+            return -1;
+        }
+        return i + 10;
+    }
+
+    private static int matchAmount(String text, int i) {
+        int length = text.length();
+        int position = i;
+        while (position < length && position - i < 3 && isDigit(text.charAt(position))) {
+            position++;
+        }
+        while (position + 3 < length && text.charAt(position) == '.' && digits(text, position + 1, 3)) {
+            position += 4;
+        }
+        if (position + 2 < length && text.charAt(position) == ',' && digits(text, position + 1, 2)) {
+            return position + 3;
+        }
+        return -1;
+    }
+
+    private static int matchCnpj(String text, int i) {
+        int position = i;
+        int[] groups = {2, 3, 3, 4, 2};
+        String[] separators = {".-", ".-", "/-", "-/"};
+        for (int group = 0; group < groups.length; group++) {
+            if (!digits(text, position, groups[group])) {
+                return -1;
+            }
+            position += groups[group];
+            if (group < separators.length && position < text.length()
+                    && separators[group].indexOf(text.charAt(position)) >= 0) {
+                position++;
+            }
+        }
+        return position;
+    }
+
+    private static int matchCpf(String text, int i) {
+        int position = i;
+        int[] groups = {3, 3, 3, 2};
+        char[] separators = {'.', '.', '-'};
+        for (int group = 0; group < groups.length; group++) {
+            if (!digits(text, position, groups[group])) {
+                return -1;
+            }
+            position += groups[group];
+            if (group < separators.length && position < text.length() && text.charAt(position) == separators[group]) {
+                position++;
+            }
+        }
+        return position;
+    }
+
+    private static LocalDate parseDate(String value) {
+        try {
+            return LocalDate.parse(value, DATE_FORMAT);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static BigDecimal parseAmount(String value) {
+        return new BigDecimal(value.replace(".", "").replace(",", "."));
+    }
+
+    private static boolean digits(String text, int start, int count) {
+        if (start + count > text.length()) {
+            return false;
+        }
+        for (int i = start; i < start + count; i++) {
+            if (!isDigit(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String digitsOf(String text, int start, int end) {
+        StringBuilder digits = new StringBuilder(end - start);
+        for (int i = start; i < end; i++) {
+            if (isDigit(text.charAt(i))) {
+                digits.append(text.charAt(i));
+            }
+        }
+        return digits.toString();
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    // Mesmo conjunto do \s das expressões regulares Java
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    private static boolean overlapsAny(Token<?> token, List<? extends Token<?>> others) {
+        for (Token<?> other : others) {
+            if (token.start() < other.end() && other.start() < token.end()) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
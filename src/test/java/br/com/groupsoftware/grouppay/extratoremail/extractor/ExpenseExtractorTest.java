@@ -0,0 +1,92 @@
+package br.com.groupsoftware.grouppay.extratoremail.extractor;
+
+import br.com.groupsoftware.grouppay.extratoremail.domain.model.ExpenseNF;
+import br.com.groupsoftware.grouppay.extratoremail.util.brazil.ChaveAcessoUtil.ChaveAcesso;
+import br.com.groupsoftware.grouppay.extratoremail.util.extractor.TokenIndex;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para ExpenseExtractor
+ *
+ * Testa o preenchimento da despesa a partir da chave de acesso encontrada no texto:
+ * - Emitente, número e série decodificados da chave
+ * - Data de emissão ausente preenchida pela data do texto no mês da chave (AAMM)
+ * - Data de emissão fora do mês da chave substituída e data no mês mantida
+ * - Data extraída mantida, mesmo nula, quando o texto não tem data no mês da chave
+ */
+@DisplayName("ExpenseExtractor - Testes Unitários")
+class ExpenseExtractorTest {
+
+    // Chave de NF-e emitida em 01/2025 pelo CNPJ 11.222.333/0001-81, série 1, número 12345
+    private static final String CHAVE = "3525 0111 2223 3300 0181 5500 1000 0123 4511 2345 6783";
+    private static final String TEXT = "DANFE\nEmissão: 15/01/2025\nSaída: 16/01/2025\nVencimento: 10/12/2024\nCHAVE DE ACESSO\n" + CHAVE;
+
+    private final ExpenseExtractor extractor = document -> null;
+
+    @Test
+    @DisplayName("Deve preencher emitente, número, série e data de emissão ausente pela chave de acesso")
+    void devePreencherDadosDaChave() {
+        ExpenseNF expense = new ExpenseNF();
+
+        assertTrue(apply(expense, TEXT).isPresent());
+
+        assertEquals("11222333000181", expense.getCnpjCpfEmitente());
+        assertEquals("12345", expense.getNumero());
+        assertEquals("1", expense.getSerie());
+        assertEquals(LocalDate.of(2025, 1, 15), expense.getDataEmissao());
+    }
+
+    @Test
+    @DisplayName("Deve substituir a data de emissão fora do mês da chave e manter a data no mês")
+    void deveConferirDataComMesDaChave() {
+        ExpenseNF outOfMonth = new ExpenseNF();
+        outOfMonth.setDataEmissao(LocalDate.of(2024, 12, 10));
+        ExpenseNF inMonth = new ExpenseNF();
+        inMonth.setDataEmissao(LocalDate.of(2025, 1, 16));
+
+        apply(outOfMonth, TEXT);
+        apply(inMonth, TEXT);
+
+        assertEquals(LocalDate.of(2025, 1, 15), outOfMonth.getDataEmissao());
+        assertEquals(LocalDate.of(2025, 1, 16), inMonth.getDataEmissao());
+    }
+
+    @Test
+    @DisplayName("Deve manter a data extraída, mesmo nula, quando o texto não tiver data no mês da chave")
+    void deveManterDataSemDataNoMes() {
+        String text = "DANFE\nVencimento: 10/12/2024\nCHAVE DE ACESSO\n" + CHAVE;
+        ExpenseNF missing = new ExpenseNF();
+        ExpenseNF outOfMonth = new ExpenseNF();
+        outOfMonth.setDataEmissao(LocalDate.of(2024, 12, 10));
+
+        apply(missing, text);
+        apply(outOfMonth, text);
+
+        // Nenhuma data é inventada a partir do AAMM da chave
+        assertNull(missing.getDataEmissao());
+        assertEquals(LocalDate.of(2024, 12, 10), outOfMonth.getDataEmissao());
+        assertEquals("12345", missing.getNumero());
+    }
+
+    @Test
+    @DisplayName("Não deve alterar a despesa quando o texto não tiver chave de acesso válida")
+    void naoDeveAlterarSemChave() {
+        ExpenseNF expense = new ExpenseNF();
+        expense.setDataEmissao(LocalDate.of(2024, 12, 10));
+
+        assertTrue(apply(expense, "DANFE\nEmissão: 15/01/2025").isEmpty());
+
+        assertEquals(LocalDate.of(2024, 12, 10), expense.getDataEmissao());
+        assertNull(expense.getNumero());
+    }
+
+    private Optional<ChaveAcesso> apply(ExpenseNF expense, String text) {
+        return extractor.applyChaveAcesso(expense, text, TokenIndex.of(text));
+    }
+}
@@ -0,0 +1,57 @@
+package br.com.groupsoftware.grouppay.extratoremail.extractor.core;
+
+import br.com.groupsoftware.grouppay.extratoremail.util.brazil.BoletoUtil.Boleto;
+import br.com.groupsoftware.grouppay.extratoremail.util.brazil.BoletoUtil.Tipo;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para DecodedSymbols
+ *
+ * Testa quando os códigos lidos determinam a despesa e dispensam o OCR das páginas digitalizadas:
+ * - Boleto único com valor presente no texto das páginas lidas
+ * - Valor divergente, texto ausente e mais de um código
+ */
+@DisplayName("DecodedSymbols - Testes Unitários")
+class DecodedSymbolsTest {
+
+    private static final String TEXT_LAYER = "Condomínio Edifício Central\nCNPJ 11.222.333/0001-81\nValor do Documento 1.250,40";
+
+    @Test
+    @DisplayName("Deve determinar a despesa com boleto único cujo valor confere com o texto")
+    void deveDeterminarDespesaComValorConferido() {
+        assertTrue(symbols(boleto("1250.40")).determinesExpense(TEXT_LAYER));
+    }
+
+    @Test
+    @DisplayName("Não deve determinar a despesa com valor divergente ou sem texto")
+    void naoDeveDeterminarDespesaSemConfirmacao() {
+        assertFalse(symbols(boleto("980.15")).determinesExpense(TEXT_LAYER));
+        assertFalse(symbols(boleto(null)).determinesExpense(TEXT_LAYER));
+        assertFalse(symbols(boleto("1250.40")).determinesExpense(""));
+        assertFalse(symbols(boleto("1250.40")).determinesExpense(null));
+    }
+
+    @Test
+    @DisplayName("Não deve determinar a despesa com mais de um código ou nenhum")
+    void naoDeveDeterminarDespesaComCodigosAmbiguos() {
+        assertFalse(new DecodedSymbols(List.of(boleto("1250.40"), boleto("1250.40")), List.of(), List.of())
+                .determinesExpense(TEXT_LAYER));
+        assertFalse(DecodedSymbols.empty().determinesExpense(TEXT_LAYER));
+    }
+
+    private DecodedSymbols symbols(Boleto boleto) {
+        return new DecodedSymbols(List.of(boleto), List.of(), List.of());
+    }
+
+    private Boleto boleto(String valor) {
+        return new Boleto(Tipo.BANCARIO, "0".repeat(44), "0".repeat(47), "001", null, null,
+                LocalDate.now().plusDays(10), valor == null ? null : new BigDecimal(valor));
+    }
+}
@@ -0,0 +1,134 @@
+package br.com.groupsoftware.grouppay.extratoremail.extractor.core.impl;
+
+import br.com.groupsoftware.grouppay.extratoremail.config.ExtractionCacheConfig;
+import br.com.groupsoftware.grouppay.extratoremail.domain.enums.DocumentExtractorType;
+import br.com.groupsoftware.grouppay.extratoremail.extractor.core.ExtractionCache.CachedExtraction;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para ExtractionCacheImpl
+ *
+ * Testa o cache de extração em disco local (sem S3), incluindo:
+ * - Hash igual para conteúdos iguais e distinto para conteúdos diferentes
+ * - Ausência no cache para outro conteúdo e para nova versão do extrator
+ * - Remoção da entrada menos usada quando o tamanho máximo é ultrapassado
+ * - Recarga do índice a partir dos arquivos já gravados
+ */
+@DisplayName("ExtractionCacheImpl - Testes Unitários")
+class ExtractionCacheImplTest {
+
+    // Pouco menos de meio MB por entrada: a terceira ultrapassa o limite de 1 MB
+    private static final int LARGE_TEXT_LENGTH = 450_000;
+
+    @TempDir
+    Path tempDir;
+
+    private ExtractionCacheConfig config;
+    private ExtractionCacheImpl cache;
+
+    @BeforeEach
+    void setUp() {
+        config = new ExtractionCacheConfig();
+        config.setDir(tempDir.resolve("cache").toString());
+        config.setMaxSizeMb(1);
+        cache = newCache();
+    }
+
+    @Test
+    @DisplayName("Deve gerar o mesmo hash para conteúdos iguais e hashes distintos para conteúdos diferentes")
+    void deveGerarHashPorConteudo() throws IOException {
+        String hash = cache.contentHash(file("a.pdf", "%PDF-1.4 conteudo A"));
+
+        assertEquals(hash, cache.contentHash(file("copia.pdf", "%PDF-1.4 conteudo A")));
+        assertNotEquals(hash, cache.contentHash(file("b.pdf", "%PDF-1.4 conteudo B")));
+        assertEquals(64, hash.length());
+    }
+
+    @Test
+    @DisplayName("Deve recuperar a extração gravada pelo hash e pela versão do extrator")
+    void deveRecuperarExtracao() {
+        CachedExtraction extraction = extraction("texto extraído");
+        cache.put("hash-a", "v1", extraction);
+
+        Optional<CachedExtraction> cached = cache.get("hash-a", "v1");
+
+        assertTrue(cached.isPresent());
+        assertEquals(extraction.text(), cached.get().text());
+        assertEquals(extraction.extractorTypes(), cached.get().extractorTypes());
+    }
+
+    @Test
+    @DisplayName("Não deve encontrar extração de outro conteúdo nem de versão anterior do extrator")
+    void naoDeveEncontrarOutraChave() {
+        cache.put("hash-a", "v1", extraction("texto extraído"));
+
+        assertTrue(cache.get("hash-b", "v1").isEmpty());
+        // Nova versão do extrator invalida as entradas gravadas pela anterior
+        assertTrue(cache.get("hash-a", "v2").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve remover a entrada menos usada ao ultrapassar o tamanho máximo")
+    void deveRemoverEntradaMenosUsada() {
+        cache.put("hash-a", "v1", extraction("a".repeat(LARGE_TEXT_LENGTH)));
+        cache.put("hash-b", "v1", extraction("b".repeat(LARGE_TEXT_LENGTH)));
+        // O acesso torna hash-a a entrada mais recente
+        assertTrue(cache.get("hash-a", "v1").isPresent());
+
+        cache.put("hash-c", "v1", extraction("c".repeat(LARGE_TEXT_LENGTH)));
+
+        assertTrue(cache.get("hash-b", "v1").isEmpty());
+        assertFalse(Files.exists(Path.of(config.getDir(), "hash-b-v1.json")));
+        assertTrue(cache.get("hash-a", "v1").isPresent());
+        assertTrue(cache.get("hash-c", "v1").isPresent());
+    }
+
+    @Test
+    @DisplayName("Deve recarregar o índice a partir das entradas gravadas em disco")
+    void deveRecarregarIndice() {
+        cache.put("hash-a", "v1", extraction("texto extraído"));
+
+        ExtractionCacheImpl reloaded = newCache();
+
+        assertEquals("texto extraído", reloaded.get("hash-a", "v1").map(CachedExtraction::text).orElse(null));
+    }
+
+    @Test
+    @DisplayName("Não deve gravar nem consultar com o cache desabilitado")
+    void naoDeveUsarCacheDesabilitado() {
+        config.setEnabled(false);
+        ExtractionCacheImpl disabled = newCache();
+
+        disabled.put("hash-a", "v1", extraction("texto extraído"));
+
+        assertTrue(disabled.get("hash-a", "v1").isEmpty());
+        assertFalse(Files.exists(Path.of(config.getDir(), "hash-a-v1.json")));
+    }
+
+    private ExtractionCacheImpl newCache() {
+        ExtractionCacheImpl created = new ExtractionCacheImpl(config, new ObjectMapper(), "bucket", "key", "secret", "sa-east-1");
+        created.loadIndex();
+        return created;
+    }
+
+    private CachedExtraction extraction(String text) {
+        return new CachedExtraction(text, List.of(DocumentExtractorType.PDFBOX));
+    }
+
+    private File file(String name, String content) throws IOException {
+        return Files.writeString(tempDir.resolve(name), content).toFile();
+    }
+}
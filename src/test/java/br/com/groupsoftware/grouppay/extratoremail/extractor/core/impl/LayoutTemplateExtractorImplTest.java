@@ -0,0 +1,232 @@
+package br.com.groupsoftware.grouppay.extratoremail.extractor.core.impl;
+
+import br.com.groupsoftware.grouppay.extratoremail.config.LayoutTemplateConfig;
+import br.com.groupsoftware.grouppay.extratoremail.domain.entity.Company;
+import br.com.groupsoftware.grouppay.extratoremail.domain.entity.Document;
+import br.com.groupsoftware.grouppay.extratoremail.domain.entity.IssuerLayoutTemplate;
+import br.com.groupsoftware.grouppay.extratoremail.domain.enums.DocumentExtractorType;
+import br.com.groupsoftware.grouppay.extratoremail.domain.enums.ExpenseType;
+import br.com.groupsoftware.grouppay.extratoremail.domain.model.Expense;
+import br.com.groupsoftware.grouppay.extratoremail.domain.model.ExpenseNFS;
+import br.com.groupsoftware.grouppay.extratoremail.extractor.core.LayoutTemplateExtractor;
+import br.com.groupsoftware.grouppay.extratoremail.repository.IssuerLayoutTemplateRepository;
+import br.com.groupsoftware.grouppay.extratoremail.repository.RepositoryFacade;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes unitários para LayoutTemplateExtractorImpl
+ *
+ * Testa o aprendizado e a extração por template de layout com PDFs gerados pelo PDFBox, incluindo:
+ * - Aprendizado das regiões dos campos pelo CNPJ do emitente, mesmo com o CNPJ do tomador antes dele
+ * - Extração de um novo documento do mesmo emitente e layout
+ * - Rejeição de CNPJ com dígitos verificadores inválidos e de campo obrigatório ausente
+ * - Aprendizado sem leitura das posições do PDF quando os valores da despesa não estão no texto
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LayoutTemplateExtractorImpl - Testes Unitários")
+class LayoutTemplateExtractorImplTest {
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final String CNPJ_EMITENTE = "11222333000181";
+    private static final String CNPJ_TOMADOR = "98.765.432/0001-98";
+
+    @TempDir
+    Path readerDir;
+
+    @Mock
+    private RepositoryFacade repository;
+
+    @Mock
+    private IssuerLayoutTemplateRepository templateRepository;
+
+    private LayoutTemplateExtractorImpl extractor;
+    private Company company;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        ReflectionTestUtils.setField(repository, "issuerLayoutTemplate", templateRepository);
+        extractor = new LayoutTemplateExtractorImpl(repository, new LayoutTemplateConfig(), new ObjectMapper());
+        ReflectionTestUtils.setField(extractor, "readerDir", readerDir.toString());
+        Files.createDirectories(readerDir.resolve("temp"));
+        company = Company.builder().id(1L).uuid("uuid-company").build();
+    }
+
+    @Test
+    @DisplayName("Deve aprender as regiões dos campos pelo CNPJ do emitente")
+    void deveAprenderRegioesPeloEmitente() throws IOException {
+        LocalDate emissao = LocalDate.now().minusDays(5);
+        Document document = document("nfse-1.pdf", "11.222.333/0001-81", "000123", emissao, "1.250,40");
+
+        IssuerLayoutTemplate template = learn(document, expense("000123", emissao, "1250.40"));
+
+        assertEquals(CNPJ_EMITENTE, template.getIssuerCnpj());
+        assertEquals(ExpenseType.NFSE, template.getExpenseType());
+        assertEquals(1, template.getConfirmations());
+        for (String field : List.of("cnpjCpfEmitente", "dataEmissao", "emitente", "numero", "valorTotal")) {
+            assertTrue(template.getFieldRegions().contains("\"" + field + "\""), field);
+        }
+    }
+
+    @Test
+    @DisplayName("Deve extrair novo documento do mesmo emitente e layout pelo template confirmado")
+    void deveExtrairPeloTemplateConfirmado() throws IOException {
+        LocalDate emissao = LocalDate.now().minusDays(5);
+        IssuerLayoutTemplate template = learn(document("nfse-1.pdf", "11.222.333/0001-81", "000123", emissao, "1.250,40"),
+                expense("000123", emissao, "1250.40"));
+        template.setConfirmations(2);
+        when(templateRepository.findByIssuerCnpjInAndExpenseType(any(), eq(ExpenseType.NFSE))).thenReturn(List.of(template));
+
+        LocalDate novaEmissao = LocalDate.now().minusDays(1);
+        Optional<Expense> expense;
+        try (LayoutTemplateExtractor.Session session = extractor.open(
+                document("nfse-2.pdf", "11.222.333/0001-81", "000124", novaEmissao, "980,15"), ExpenseType.NFSE)) {
+            expense = session.extract();
+        }
+
+        assertTrue(expense.isPresent());
+        assertEquals("000124", expense.get().getNumero());
+        assertEquals(novaEmissao, expense.get().getDataEmissao());
+        assertEquals(0, new BigDecimal("980.15").compareTo(expense.get().getValorTotal()));
+        assertEquals(CNPJ_EMITENTE, expense.get().getCnpjCpfEmitente());
+        assertEquals("ACME SERVICOS LTDA", expense.get().getEmitente());
+        assertEquals(1, template.getHits());
+    }
+
+    @Test
+    @DisplayName("Não deve aceitar CNPJ com dígitos verificadores inválidos na região do template")
+    void naoDeveAceitarCnpjInvalido() throws IOException {
+        LocalDate emissao = LocalDate.now().minusDays(5);
+        IssuerLayoutTemplate template = learn(document("nfse-1.pdf", "11.222.333/0001-81", "000123", emissao, "1.250,40"),
+                expense("000123", emissao, "1250.40"));
+        template.setConfirmations(2);
+        when(templateRepository.findByIssuerCnpjInAndExpenseType(any(), eq(ExpenseType.NFSE))).thenReturn(List.of(template));
+
+        try (LayoutTemplateExtractor.Session session = extractor.open(
+                document("nfse-3.pdf", "11.222.333/0001-82", "000125", emissao, "980,15"), ExpenseType.NFSE)) {
+            assertTrue(session.extract().isEmpty());
+        }
+        assertEquals(0, template.getHits());
+    }
+
+    @Test
+    @DisplayName("Não deve aceitar despesa sem campo obrigatório e deve seguir pelo fluxo normal")
+    void naoDeveAceitarDespesaIncompleta() throws IOException {
+        LocalDate emissao = LocalDate.now().minusDays(5);
+        IssuerLayoutTemplate template = learn(document("nfse-1.pdf", "11.222.333/0001-81", "000123", emissao, "1.250,40"),
+                expense("000123", emissao, "1250.40"));
+        // Template aprendido sem a região do número da nota, obrigatório para NFS-e
+        template.setFieldRegions(template.getFieldRegions().replaceAll("\\{[^{}]*\"field\":\"numero\"[^{}]*},?", "")
+                .replace(",]", "]"));
+        template.setConfirmations(2);
+        when(templateRepository.findByIssuerCnpjInAndExpenseType(any(), eq(ExpenseType.NFSE))).thenReturn(List.of(template));
+
+        try (LayoutTemplateExtractor.Session session = extractor.open(
+                document("nfse-4.pdf", "11.222.333/0001-81", "000126", emissao, "980,15"), ExpenseType.NFSE)) {
+            assertTrue(session.extract().isEmpty());
+        }
+    }
+
+    @Test
+    @DisplayName("Não deve ler as posições do PDF quando poucos valores da despesa estiverem no texto")
+    void naoDeveLerPosicoesSemValoresNoTexto() throws IOException {
+        LocalDate emissao = LocalDate.now().minusDays(5);
+        Document document = document("nfse-5.pdf", "11.222.333/0001-81", "000123", emissao, "1.250,40");
+        // Apenas o CNPJ do emitente está no texto
+        ExpenseNFS expense = expense("987654", emissao.minusDays(30), "777.77");
+        expense.setEmitente("OUTRA EMPRESA LTDA");
+
+        try (LayoutTemplateExtractor.Session session = extractor.open(document, ExpenseType.NFSE)) {
+            session.learn(expense);
+            assertNull(ReflectionTestUtils.getField(session, "locator"));
+            assertNull(ReflectionTestUtils.getField(session, "pdf"));
+        }
+        verify(templateRepository, never()).save(any());
+    }
+
+    private IssuerLayoutTemplate learn(Document document, Expense expense) {
+        try (LayoutTemplateExtractor.Session session = extractor.open(document, ExpenseType.NFSE)) {
+            session.learn(expense);
+        }
+        ArgumentCaptor<IssuerLayoutTemplate> saved = ArgumentCaptor.forClass(IssuerLayoutTemplate.class);
+        verify(templateRepository).save(saved.capture());
+        clearInvocations(templateRepository);
+        return saved.getValue();
+    }
+
+    private ExpenseNFS expense(String numero, LocalDate emissao, String valor) {
+        ExpenseNFS expense = new ExpenseNFS();
+        expense.setEmitente("ACME SERVICOS LTDA");
+        expense.setCnpjCpfEmitente(CNPJ_EMITENTE);
+        expense.setNumero(numero);
+        expense.setDataEmissao(emissao);
+        expense.setValorTotal(new BigDecimal(valor));
+        return expense;
+    }
+
+    private Document document(String fileName, String cnpj, String numero, LocalDate emissao, String valor) throws IOException {
+        // O primeiro CNPJ do documento é o do tomador, não o do emitente
+        List<String> lines = List.of(
+                "Tomador: " + CNPJ_TOMADOR,
+                "Prestador: ACME SERVICOS LTDA",
+                "CNPJ: " + cnpj,
+                "Numero da nota: " + numero,
+                "Emissao: " + emissao.format(DATE_FORMAT),
+                "Valor total: R$ " + valor);
+        writePdf(readerDir.resolve("temp").resolve(fileName).toFile(), lines);
+        return Document.builder()
+                .id(1L)
+                .fileName(fileName)
+                .company(company)
+                .textExtracted(String.join("\n", lines))
+                .documentExtractorTypes(List.of(DocumentExtractorType.PDFBOX))
+                .build();
+    }
+
+    private void writePdf(File file, List<String> lines) throws IOException {
+        try (PDDocument pdf = new PDDocument()) {
+            PDPage page = new PDPage(PDRectangle.A4);
+            pdf.addPage(page);
+            try (PDPageContentStream content = new PDPageContentStream(pdf, page)) {
+                float y = 780;
+                for (String line : lines) {
+                    content.beginText();
+                    content.setFont(PDType1Font.HELVETICA, 10);
+                    content.newLineAtOffset(50, y);
+                    content.showText(line);
+                    content.endText();
+                    y -= 40;
+                }
+            }
+            pdf.save(file);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package br.com.groupsoftware.grouppay.extratoremail.extractor.core.impl;
+
+import br.com.groupsoftware.grouppay.extratoremail.config.LlmResponseCacheConfig;
+import br.com.groupsoftware.grouppay.extratoremail.domain.entity.LlmResponseCacheEntry;
+import br.com.groupsoftware.grouppay.extratoremail.domain.enums.ExpenseType;
+import br.com.groupsoftware.grouppay.extratoremail.repository.LlmResponseCacheRepository;
+import br.com.groupsoftware.grouppay.extratoremail.repository.RepositoryFacade;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes unitários para LlmResponseCacheImpl
+ *
+ * Testa o cache de respostas dos modelos de IA, incluindo:
+ * - Mesma chave para textos que diferem só em espaços e chaves distintas por tipo, prompt e modelo
+ * - Ausência no cache para chave desconhecida, entrada vencida e nova versão do prompt
+ * - Reutilização da resposta com contagem de acertos e tokens economizados
+ * - Remoção das entradas menos usadas acima do limite
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LlmResponseCacheImpl - Testes Unitários")
+class LlmResponseCacheImplTest {
+
+    private static final String TEXT = "NOTA FISCAL DE SERVIÇO\nPrestador: ACME SERVICOS LTDA\nValor total: R$ 1.250,40";
+    private static final String MODEL = "gpt-4o-mini";
+    private static final String RESPONSE = "{\"choices\":[]}";
+
+    @Mock
+    private RepositoryFacade repository;
+
+    @Mock
+    private LlmResponseCacheRepository cacheRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private LlmResponseCacheConfig config;
+    private LlmResponseCacheImpl cache;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(repository, "llmResponseCache", cacheRepository);
+        config = new LlmResponseCacheConfig();
+        cache = new LlmResponseCacheImpl(config, repository, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Deve gerar a mesma chave para textos que diferem apenas em espaços")
+    void deveGerarMesmaChaveParaTextoNormalizado() {
+        String key = cache.key(TEXT, ExpenseType.NFSE, "v1", MODEL);
+
+        assertEquals(key, cache.key("  NOTA FISCAL   DE SERVIÇO\r\n\nPrestador: ACME SERVICOS LTDA\tValor total: R$ 1.250,40 ",
+                ExpenseType.NFSE, "v1", MODEL));
+        assertEquals(64, key.length());
+    }
+
+    @Test
+    @DisplayName("Deve gerar chaves distintas por texto, tipo de despesa, versão do prompt e modelo")
+    void deveGerarChavesDistintas() {
+        String key = cache.key(TEXT, ExpenseType.NFSE, "v1", MODEL);
+
+        assertNotEquals(key, cache.key(TEXT.replace("1.250,40", "1.250,41"), ExpenseType.NFSE, "v1", MODEL));
+        assertNotEquals(key, cache.key(TEXT, ExpenseType.NFE, "v1", MODEL));
+        assertNotEquals(key, cache.key(TEXT, ExpenseType.NFSE, "v2", MODEL));
+        assertNotEquals(key, cache.key(TEXT, ExpenseType.NFSE, "v1", "gpt-4o"));
+    }
+
+    @Test
+    @DisplayName("Deve reutilizar a resposta gravada e contabilizar o acerto")
+    void deveReutilizarResposta() {
+        String key = cache.key(TEXT, ExpenseType.NFSE, "v1", MODEL);
+        LlmResponseCacheEntry entry = entry(key, LocalDateTime.now().plusDays(1));
+        when(cacheRepository.findByCacheKey(key)).thenReturn(Optional.of(entry));
+
+        Optional<String> cached = cache.get(key);
+
+        assertEquals(Optional.of(RESPONSE), cached);
+        assertEquals(1, entry.getHits());
+        assertNotNull(entry.getLastHitAt());
+        verify(cacheRepository).save(entry);
+        assertEquals(1.0, meterRegistry.get("llm.cache.requests").tag("result", "hit").counter().count());
+        assertEquals(1200.0, meterRegistry.get("llm.cache.tokens.saved").counter().count());
+    }
+
+    @Test
+    @DisplayName("Não deve encontrar resposta de outra versão do prompt, chave desconhecida ou entrada vencida")
+    void naoDeveEncontrarRespostaInvalida() {
+        String keyV1 = cache.key(TEXT, ExpenseType.NFSE, "v1", MODEL);
+        String expiredKey = cache.key(TEXT, ExpenseType.NFE, "v1", MODEL);
+        lenient().when(cacheRepository.findByCacheKey(keyV1)).thenReturn(Optional.of(entry(keyV1, LocalDateTime.now().plusDays(1))));
+        lenient().when(cacheRepository.findByCacheKey(expiredKey)).thenReturn(Optional.of(entry(expiredKey, LocalDateTime.now().minusMinutes(1))));
+
+        // A nova versão do prompt gera outra chave; a resposta da versão anterior não é reutilizada
+        assertTrue(cache.get(cache.key(TEXT, ExpenseType.NFSE, "v2", MODEL)).isEmpty());
+        assertTrue(cache.get(cache.key("outro texto", ExpenseType.NFSE, "v1", MODEL)).isEmpty());
+        assertTrue(cache.get(expiredKey).isEmpty());
+
+        assertEquals(3.0, meterRegistry.get("llm.cache.requests").tag("result", "miss").counter().count());
+        verify(cacheRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Deve gravar nova entrada com o último uso preenchido para a ordem de remoção")
+    void deveGravarNovaEntrada() {
+        String key = cache.key(TEXT, ExpenseType.NFSE, "v1", MODEL);
+        when(cacheRepository.findByCacheKey(key)).thenReturn(Optional.empty());
+
+        cache.put(key, ExpenseType.NFSE, "v1", MODEL, RESPONSE, 1200);
+
+        ArgumentCaptor<LlmResponseCacheEntry> saved = ArgumentCaptor.forClass(LlmResponseCacheEntry.class);
+        verify(cacheRepository).save(saved.capture());
+        assertEquals(key, saved.getValue().getCacheKey());
+        assertEquals(RESPONSE, saved.getValue().getResponseBody());
+        assertNotNull(saved.getValue().getLastHitAt());
+        assertTrue(saved.getValue().getExpiresAt().isAfter(LocalDateTime.now().plusDays(config.getTtlDays() - 1)));
+    }
+
+    @Test
+    @DisplayName("Deve remover as entradas vencidas e as menos usadas acima do limite")
+    void deveRemoverEntradasExcedentes() {
+        config.setMaxEntries(10);
+        when(cacheRepository.deleteExpired(any())).thenReturn(2);
+        when(cacheRepository.count()).thenReturn(13L);
+        when(cacheRepository.findLeastRecentlyUsedIds(PageRequest.of(0, 3))).thenReturn(List.of(4L, 7L, 9L));
+
+        cache.evict();
+
+        verify(cacheRepository).deleteAllByIdInBatch(List.of(4L, 7L, 9L));
+    }
+
+    @Test
+    @DisplayName("Não deve remover entradas válidas abaixo do limite nem consultar o cache desabilitado")
+    void naoDeveRemoverAbaixoDoLimite() {
+        when(cacheRepository.count()).thenReturn(5L);
+
+        cache.evict();
+
+        verify(cacheRepository, never()).findLeastRecentlyUsedIds(any());
+        verify(cacheRepository, never()).deleteAllByIdInBatch(any());
+
+        config.setEnabled(false);
+        assertTrue(cache.get(cache.key(TEXT, ExpenseType.NFSE, "v1", MODEL)).isEmpty());
+        verify(cacheRepository, never()).findByCacheKey(anyString());
+    }
+
+    private LlmResponseCacheEntry entry(String key, LocalDateTime expiresAt) {
+        return LlmResponseCacheEntry.builder()
+                .id(1L)
+                .cacheKey(key)
+                .expenseType(ExpenseType.NFSE)
+                .modelName(MODEL)
+                .promptVersion("v1")
+                .responseBody(RESPONSE)
+                .totalTokens(1200)
+                .createdAt(LocalDateTime.now().minusDays(1))
+                .expiresAt(expiresAt)
+                .build();
+    }
+}
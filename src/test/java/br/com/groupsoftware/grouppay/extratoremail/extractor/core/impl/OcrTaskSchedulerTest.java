@@ -0,0 +1,165 @@
+package br.com.groupsoftware.grouppay.extratoremail.extractor.core.impl;
+
+import br.com.groupsoftware.grouppay.extratoremail.config.OcrConfig;
+import br.com.groupsoftware.grouppay.extratoremail.extractor.core.OcrTaskPriority;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para OcrTaskScheduler
+ *
+ * Testa o escalonamento das tarefas de OCR com um único worker, iniciado depois de enfileiradas, incluindo:
+ * - Execução por ordem de prioridade
+ * - Rodízio entre clientes com a mesma prioridade
+ * - Rejeição com a fila cheia
+ * - Envelhecimento da prioridade das tarefas que aguardam
+ * - Retirada da fila da tarefa cancelada
+ * - Encerramento do processo externo da tarefa cancelada em execução
+ */
+@DisplayName("OcrTaskScheduler - Testes Unitários")
+class OcrTaskSchedulerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<String> executed = Collections.synchronizedList(new ArrayList<>());
+    private final List<Future<String>> submitted = new ArrayList<>();
+    private OcrConfig config;
+    private OcrTaskScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        config = new OcrConfig();
+        config.setWorkers(1);
+        config.setQueueCapacity(10);
+        config.setSubmitTimeoutSeconds(0);
+        // Envelhecimento lento, para que a ordem dos testes não dependa do tempo de execução
+        config.setAgingStepMillis(60_000);
+        scheduler = new OcrTaskScheduler(config, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    @DisplayName("Deve executar primeiro as tarefas de maior prioridade")
+    void deveExecutarPorPrioridade() throws Exception {
+        submit("baixa", new OcrTaskPriority("cliente-a", 100));
+        submit("alta", new OcrTaskPriority("cliente-a", 300));
+        submit("media", new OcrTaskPriority("cliente-a", 200));
+
+        scheduler.start();
+        awaitAll();
+
+        assertEquals(List.of("alta", "media", "baixa"), executed);
+    }
+
+    @Test
+    @DisplayName("Deve alternar entre clientes com a mesma prioridade")
+    void deveAlternarEntreClientes() throws Exception {
+        submit("a1", new OcrTaskPriority("cliente-a", 100));
+        submit("a2", new OcrTaskPriority("cliente-a", 100));
+        submit("a3", new OcrTaskPriority("cliente-a", 100));
+        submit("b1", new OcrTaskPriority("cliente-b", 100));
+
+        scheduler.start();
+        awaitAll();
+
+        // O cliente B não espera todas as tarefas do cliente A, que enfileirou antes
+        assertEquals(List.of("a1", "b1", "a2", "a3"), executed);
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar a tarefa quando a fila estiver cheia")
+    void deveRejeitarComFilaCheia() {
+        config.setQueueCapacity(2);
+        submit("a1", OcrTaskPriority.DEFAULT);
+        submit("a2", OcrTaskPriority.DEFAULT);
+
+        assertThrows(RejectedExecutionException.class, () -> submit("a3", OcrTaskPriority.DEFAULT));
+        assertEquals(1.0, meterRegistry.get("ocr.task.rejected").counter().count());
+        assertEquals(2.0, meterRegistry.get("ocr.queue.size").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Deve retirar da fila a tarefa cancelada e liberar espaço")
+    void deveRetirarTarefaCancelada() throws Exception {
+        config.setQueueCapacity(2);
+        Future<String> cancelled = submit("cancelada", new OcrTaskPriority("cliente-a", 300));
+        submit("a1", new OcrTaskPriority("cliente-a", 100));
+
+        assertTrue(cancelled.cancel(true));
+        assertEquals(1.0, meterRegistry.get("ocr.queue.size").gauge().value());
+        submit("b1", new OcrTaskPriority("cliente-b", 100));
+
+        scheduler.start();
+        awaitAll();
+
+        assertEquals(List.of("a1", "b1"), executed);
+        assertTrue(cancelled.isCancelled());
+    }
+
+    @Test
+    @DisplayName("Deve executar antes a tarefa de menor prioridade que aguarda há mais tempo")
+    void deveEnvelhecerPrioridade() throws Exception {
+        config.setAgingStepMillis(10);
+        submit("antiga", new OcrTaskPriority("cliente-a", 100));
+        Thread.sleep(200);
+        submit("nova", new OcrTaskPriority("cliente-b", 110));
+
+        scheduler.start();
+        awaitAll();
+
+        // Cerca de 20 pontos de espera superam os 10 pontos de diferença do plano
+        assertEquals(List.of("antiga", "nova"), executed);
+    }
+
+    @Test
+    @DisplayName("Deve encerrar o processo externo ao cancelar a tarefa em execução")
+    void deveEncerrarProcessoAoCancelar() throws Exception {
+        CountDownLatch attached = new CountDownLatch(1);
+        CountDownLatch terminated = new CountDownLatch(1);
+        Future<String> future = scheduler.submit(() -> {
+            scheduler.attachProcess(terminated::countDown);
+            attached.countDown();
+            terminated.await(5, TimeUnit.SECONDS);
+            return "processo";
+        }, OcrTaskPriority.DEFAULT);
+
+        scheduler.start();
+        assertTrue(attached.await(5, TimeUnit.SECONDS));
+        assertTrue(future.cancel(true));
+
+        assertTrue(terminated.await(5, TimeUnit.SECONDS));
+    }
+
+    private Future<String> submit(String name, OcrTaskPriority priority) {
+        Future<String> future = scheduler.submit(() -> {
+            executed.add(name);
+            return name;
+        }, priority);
+        submitted.add(future);
+        return future;
+    }
+
+    private void awaitAll() throws Exception {
+        for (Future<String> future : submitted) {
+            if (!future.isCancelled()) {
+                future.get(5, TimeUnit.SECONDS);
+            }
+        }
+    }
+}
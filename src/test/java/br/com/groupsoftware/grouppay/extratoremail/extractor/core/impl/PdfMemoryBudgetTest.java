@@ -0,0 +1,73 @@
+package br.com.groupsoftware.grouppay.extratoremail.extractor.core.impl;
+
+import br.com.groupsoftware.grouppay.extratoremail.config.PdfExtractionConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para PdfMemoryBudget
+ *
+ * Testa o orçamento de memória dos PDFs abertos, contado em KB, incluindo:
+ * - Reserva mínima de 1 KB para arquivos pequenos
+ * - Arquivo maior que o orçamento limitado ao total, sem bloqueio permanente
+ * - Bloqueio até que outro documento devolva o orçamento
+ */
+@DisplayName("PdfMemoryBudget - Testes Unitários")
+class PdfMemoryBudgetTest {
+
+    private static final int TOTAL_KB = 1024;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private PdfMemoryBudget budget;
+
+    @BeforeEach
+    void setUp() {
+        PdfExtractionConfig config = new PdfExtractionConfig();
+        config.setInFlightBudgetMb(1);
+        budget = new PdfMemoryBudget(config);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Deve reservar ao menos 1 KB e o tamanho do arquivo em KB")
+    void deveReservarTamanhoDoArquivo() throws InterruptedException {
+        assertEquals(1, budget.acquire(100));
+        assertEquals(300, budget.acquire(300 * 1024L));
+    }
+
+    @Test
+    @DisplayName("Deve limitar ao orçamento total a reserva de arquivo maior que ele")
+    void deveLimitarArquivoGrande() throws InterruptedException {
+        int reserved = budget.acquire(10L * 1024 * 1024);
+
+        assertEquals(TOTAL_KB, reserved);
+        budget.release(reserved);
+        assertEquals(TOTAL_KB, budget.acquire(TOTAL_KB * 1024L));
+    }
+
+    @Test
+    @DisplayName("Deve bloquear até que o orçamento seja devolvido")
+    void deveBloquearAteDevolucao() throws Exception {
+        int first = budget.acquire(768 * 1024L);
+
+        Future<Integer> second = executor.submit(() -> budget.acquire(512 * 1024L));
+
+        assertThrows(TimeoutException.class, () -> second.get(200, TimeUnit.MILLISECONDS));
+        budget.release(first);
+        assertEquals(512, second.get(5, TimeUnit.SECONDS));
+    }
+}
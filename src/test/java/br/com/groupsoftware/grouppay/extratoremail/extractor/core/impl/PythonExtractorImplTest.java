@@ -0,0 +1,100 @@
+package br.com.groupsoftware.grouppay.extratoremail.extractor.core.impl;
+
+import br.com.groupsoftware.grouppay.extratoremail.exception.MailReaderException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes unitários para PythonExtractorImpl
+ *
+ * Testa a escolha entre o pool de workers e o script avulso, incluindo:
+ * - Extração pelo worker com o pool habilitado
+ * - Script avulso, com aviso contado, quando o pool falha
+ * - Erro do documento no worker repassado sem executar o script
+ *
+ * O script avulso é simulado por um script de shell que ecoa o caminho recebido.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PythonExtractorImpl - Testes Unitários")
+class PythonExtractorImplTest {
+
+    @Mock
+    private PythonWorkerPool workerPool;
+
+    @TempDir
+    Path tempDir;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PythonExtractorImpl extractor;
+    private File pdfFile;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Path script = Files.writeString(tempDir.resolve("extract_text.sh"), "echo \"texto do script $1\"\n");
+        pdfFile = Files.createFile(tempDir.resolve("documento.pdf")).toFile();
+        extractor = new PythonExtractorImpl(workerPool, meterRegistry);
+        ReflectionTestUtils.setField(extractor, "pythonPath", "sh");
+        ReflectionTestUtils.setField(extractor, "scriptPath", script.toString());
+    }
+
+    private double fallbacks() {
+        return meterRegistry.get("python.worker.fallback").counter().count();
+    }
+
+    @Test
+    @DisplayName("Deve extrair pelo worker com o pool habilitado")
+    void deveExtrairPeloWorker() throws MailReaderException {
+        when(workerPool.isEnabled()).thenReturn(true);
+        when(workerPool.extract(pdfFile)).thenReturn("texto do worker");
+
+        assertEquals("texto do worker", extractor.extractText(pdfFile));
+        assertEquals(0.0, fallbacks());
+    }
+
+    @Test
+    @DisplayName("Deve usar o script avulso quando o pool falhar")
+    void deveUsarScriptQuandoPoolFalhar() throws MailReaderException {
+        when(workerPool.isEnabled()).thenReturn(true);
+        when(workerPool.extract(pdfFile)).thenThrow(new PythonWorkerPool.WorkerUnavailableException("Nenhum worker Python ativo."));
+
+        assertEquals("texto do script " + pdfFile.getAbsolutePath(), extractor.extractText(pdfFile));
+        assertEquals(1.0, fallbacks());
+    }
+
+    @Test
+    @DisplayName("Deve repassar o erro do documento sem usar o script avulso")
+    void deveRepassarErroDoDocumento() throws MailReaderException {
+        when(workerPool.isEnabled()).thenReturn(true);
+        when(workerPool.extract(pdfFile)).thenThrow(new MailReaderException("Erro ao executar extração no worker Python: PDF corrompido"));
+
+        MailReaderException exception = assertThrows(MailReaderException.class, () -> extractor.extractText(pdfFile));
+
+        assertTrue(exception.getMessage().contains("PDF corrompido"));
+        assertEquals(0.0, fallbacks());
+    }
+
+    @Test
+    @DisplayName("Deve usar o script avulso com o pool desabilitado")
+    void deveUsarScriptComPoolDesabilitado() throws MailReaderException {
+        when(workerPool.isEnabled()).thenReturn(false);
+
+        assertEquals("texto do script " + pdfFile.getAbsolutePath(), extractor.extractText(pdfFile));
+        verify(workerPool, never()).extract(any());
+        assertEquals(0.0, fallbacks());
+    }
+}
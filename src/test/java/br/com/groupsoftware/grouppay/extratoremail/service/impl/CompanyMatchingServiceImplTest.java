@@ -0,0 +1,143 @@
+package br.com.groupsoftware.grouppay.extratoremail.service.impl;
+
+import br.com.groupsoftware.grouppay.extratoremail.config.JacksonConfig;
+import br.com.groupsoftware.grouppay.extratoremail.domain.entity.ClientGroup;
+import br.com.groupsoftware.grouppay.extratoremail.domain.entity.Company;
+import br.com.groupsoftware.grouppay.extratoremail.domain.entity.Document;
+import br.com.groupsoftware.grouppay.extratoremail.domain.enums.DocumentStage;
+import br.com.groupsoftware.grouppay.extratoremail.domain.enums.ExpenseType;
+import br.com.groupsoftware.grouppay.extratoremail.domain.model.Expense;
+import br.com.groupsoftware.grouppay.extratoremail.domain.model.ExpenseDARF;
+import br.com.groupsoftware.grouppay.extratoremail.domain.model.ExpenseFGTS;
+import br.com.groupsoftware.grouppay.extratoremail.domain.model.ExpenseGPS;
+import br.com.groupsoftware.grouppay.extratoremail.repository.CompanyRepository;
+import br.com.groupsoftware.grouppay.extratoremail.repository.RepositoryFacade;
+import br.com.groupsoftware.grouppay.extratoremail.service.DocumentService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes unitários para CompanyMatchingServiceImpl com o ExpenseMapperServiceImpl real
+ *
+ * Testa o caminho das guias federais do mapeamento do JSON até o matching, incluindo:
+ * - Mapeamento de DARF, GPS e FGTS para as classes de despesa específicas
+ * - Matching pelo CNPJ do contribuinte da guia
+ * - Substituição do UUID do grupo pelo UUID da company no JSON
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CompanyMatchingServiceImpl - Testes Unitários")
+class CompanyMatchingServiceImplTest {
+
+    @Mock
+    private RepositoryFacade repository;
+
+    @Mock
+    private CompanyRepository companyRepository;
+
+    @Mock
+    private DocumentService documentService;
+
+    private final ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+
+    private ExpenseMapperServiceImpl expenseMapperService;
+    private CompanyMatchingServiceImpl companyMatchingService;
+    private ClientGroup clientGroup;
+    private Company condominio;
+    private Company outroCondominio;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(repository, "company", companyRepository);
+        expenseMapperService = new ExpenseMapperServiceImpl(objectMapper);
+        companyMatchingService = new CompanyMatchingServiceImpl(repository, expenseMapperService, documentService);
+
+        clientGroup = ClientGroup.builder()
+                .id(1L)
+                .uuid("uuid-client-group")
+                .build();
+        outroCondominio = Company.builder()
+                .id(1L)
+                .uuid("uuid-outro-condominio")
+                .cnpj("99.888.777/0001-66")
+                .clientGroup(clientGroup)
+                .build();
+        condominio = Company.builder()
+                .id(2L)
+                .uuid("uuid-condominio")
+                .cnpj("11.222.333/0001-81")
+                .clientGroup(clientGroup)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Deve mapear as guias federais para as classes de despesa específicas")
+    void deveMapearGuiasFederais() throws Exception {
+        assertInstanceOf(ExpenseDARF.class, expenseMapperService.getExpense(document(ExpenseType.DARF, new ExpenseDARF())));
+        assertInstanceOf(ExpenseGPS.class, expenseMapperService.getExpense(document(ExpenseType.GPS, new ExpenseGPS())));
+        assertInstanceOf(ExpenseFGTS.class, expenseMapperService.getExpense(document(ExpenseType.FGTS, new ExpenseFGTS())));
+    }
+
+    @Test
+    @DisplayName("Deve associar o DARF à company pelo CNPJ do contribuinte")
+    void deveAssociarDarfPeloCnpjDoContribuinte() throws Exception {
+        ExpenseDARF darf = new ExpenseDARF();
+        darf.setEmitente("Receita Federal do Brasil");
+        darf.setCnpjCpfEmitente("11222333000181");
+        darf.setDataVencimento(LocalDate.of(2025, 11, 20));
+        darf.setValorTotal(new BigDecimal("1250.40"));
+        darf.setPeriodoApuracao("10/2025");
+        darf.setExpenseType(ExpenseType.DARF);
+        darf.setCompanyUUID(clientGroup.getUuid());
+        Document document = document(ExpenseType.DARF, darf);
+        when(companyRepository.findByClientGroup(clientGroup)).thenReturn(List.of(outroCondominio, condominio));
+
+        companyMatchingService.matchDocumentToCompany(document);
+
+        assertEquals(condominio, document.getCompany());
+        assertTrue(document.getExpenseJson().contains(condominio.getUuid()));
+        assertFalse(document.getExpenseJson().contains(clientGroup.getUuid()));
+        verify(documentService).changeStage(document, DocumentStage.COMPANY_MATCHED);
+
+        Expense expense = expenseMapperService.getExpense(document);
+        assertInstanceOf(ExpenseDARF.class, expense);
+        assertEquals("10/2025", ((ExpenseDARF) expense).getPeriodoApuracao());
+    }
+
+    @Test
+    @DisplayName("Deve marcar a guia sem contribuinte conhecido como company não encontrada")
+    void deveMarcarGuiaSemContribuinteConhecido() throws Exception {
+        ExpenseGPS gps = new ExpenseGPS();
+        gps.setCnpjCpfEmitente("44555666000199");
+        gps.setCompanyUUID(clientGroup.getUuid());
+        Document document = document(ExpenseType.GPS, gps);
+        when(companyRepository.findByClientGroup(clientGroup)).thenReturn(List.of(outroCondominio, condominio));
+
+        companyMatchingService.matchDocumentToCompany(document);
+
+        assertNull(document.getCompany());
+        verify(documentService).changeStage(document, DocumentStage.COMPANY_NOT_FOUND);
+    }
+
+    private Document document(ExpenseType type, Expense expense) throws Exception {
+        return Document.builder()
+                .id(1L)
+                .fileName("guia.pdf")
+                .clientGroup(clientGroup)
+                .expenseType(type)
+                .expenseJson(objectMapper.writeValueAsString(expense))
+                .build();
+    }
+}
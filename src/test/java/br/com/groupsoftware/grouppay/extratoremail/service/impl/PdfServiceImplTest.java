@@ -0,0 +1,179 @@
+package br.com.groupsoftware.grouppay.extratoremail.service.impl;
+
+import br.com.groupsoftware.grouppay.extratoremail.config.HybridExtractionConfig;
+import br.com.groupsoftware.grouppay.extratoremail.domain.entity.ClientGroup;
+import br.com.groupsoftware.grouppay.extratoremail.domain.entity.Company;
+import br.com.groupsoftware.grouppay.extratoremail.domain.entity.Document;
+import br.com.groupsoftware.grouppay.extratoremail.domain.enums.DocumentExtractorType;
+import br.com.groupsoftware.grouppay.extratoremail.domain.enums.ExpenseType;
+import br.com.groupsoftware.grouppay.extratoremail.domain.model.Expense;
+import br.com.groupsoftware.grouppay.extratoremail.domain.model.ExpenseBoleto;
+import br.com.groupsoftware.grouppay.extratoremail.domain.model.ExpenseNF;
+import br.com.groupsoftware.grouppay.extratoremail.exception.MailReaderException;
+import br.com.groupsoftware.grouppay.extratoremail.extractor.core.ExtractorFacade;
+import br.com.groupsoftware.grouppay.extratoremail.extractor.core.LayoutTemplateExtractor;
+import br.com.groupsoftware.grouppay.extratoremail.extractor.core.OpenAiExtractor;
+import br.com.groupsoftware.grouppay.extratoremail.extractor.invoice.InvoiceFacade;
+import br.com.groupsoftware.grouppay.extratoremail.extractor.invoice.NfExtractor;
+import br.com.groupsoftware.grouppay.extratoremail.extractor.slip.BankSlipExtractor;
+import br.com.groupsoftware.grouppay.extratoremail.extractor.slip.SlipFacade;
+import br.com.groupsoftware.grouppay.extratoremail.repository.DocumentRepository;
+import br.com.groupsoftware.grouppay.extratoremail.repository.RepositoryFacade;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes unitários para PdfServiceImpl
+ *
+ * Testa a extração híbrida, em que a IA só é consultada para os campos obrigatórios faltantes:
+ * - NF-e e boleto completos pelos extratores determinísticos dispensam a IA
+ * - Destinatário lido do texto como o primeiro CNPJ/CPF válido diferente do emitente
+ * - Destinatário dispensado quando o documento já tem company associada
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PdfServiceImpl - Testes Unitários")
+class PdfServiceImplTest {
+
+    private static final String CNPJ_EMITENTE = "11222333000181";
+    private static final String CHAVE = "3525 0111 2223 3300 0181 5500 1000 0123 4511 2345 6783";
+    private static final String LINHA = "34191.09123 34567.812341 56789.012301 9 10160000123456";
+
+    @Mock
+    private ExtractorFacade extractor;
+    @Mock
+    private InvoiceFacade invoice;
+    @Mock
+    private SlipFacade slip;
+    @Mock
+    private NfExtractor nf;
+    @Mock
+    private BankSlipExtractor bank;
+    @Mock
+    private OpenAiExtractor openAi;
+    @Mock
+    private LayoutTemplateExtractor layout;
+    @Mock
+    private LayoutTemplateExtractor.Session session;
+    @Mock
+    private RepositoryFacade repository;
+    @Mock
+    private DocumentRepository documentRepository;
+
+    private PdfServiceImpl pdfService;
+    private ClientGroup clientGroup;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(extractor, "invoice", invoice);
+        ReflectionTestUtils.setField(extractor, "slip", slip);
+        ReflectionTestUtils.setField(extractor, "openAi", openAi);
+        ReflectionTestUtils.setField(extractor, "layout", layout);
+        ReflectionTestUtils.setField(invoice, "nf", nf);
+        ReflectionTestUtils.setField(slip, "bank", bank);
+        ReflectionTestUtils.setField(repository, "document", documentRepository);
+        when(layout.open(any(), any())).thenReturn(session);
+        when(session.extract()).thenReturn(Optional.empty());
+        pdfService = new PdfServiceImpl(extractor, repository, new HybridExtractionConfig());
+        clientGroup = ClientGroup.builder().id(1L).uuid("uuid-client-group").aiUser(true).build();
+    }
+
+    @Test
+    @DisplayName("Deve dispensar a IA para NF-e completa com o destinatário lido do texto")
+    void deveDispensarIaParaNotaFiscal() throws MailReaderException {
+        Document document = document(null, String.join("\n",
+                "DANFE - NF-e",
+                "Emitente: ACME COMERCIO LTDA CNPJ 11.222.333/0001-81",
+                "Destinatário: CONDOMINIO EDIFICIO CENTRAL CNPJ 98.765.432/0001-98",
+                "Data de emissão: 15/01/2025",
+                "Valor total da nota: 1.250,40",
+                "Chave de acesso: " + CHAVE));
+        ExpenseNF expense = new ExpenseNF();
+        expense.setCnpjCpfEmitente(CNPJ_EMITENTE);
+        expense.setEmitente("ACME COMERCIO LTDA");
+        expense.setDataEmissao(LocalDate.now().minusDays(3));
+        expense.setValorTotal(new BigDecimal("1250.40"));
+        expense.setNumero("12345");
+        expense.setChaveAcesso(CHAVE.replace(" ", ""));
+        when(nf.getExpense(document)).thenReturn(expense);
+
+        Expense result = pdfService.getExpenseFromDocument(document);
+
+        assertEquals(ExpenseType.NFE, document.getExpenseType());
+        assertEquals("98765432000198", result.getCnpjCpfDestinatario());
+        verifyNoInteractions(openAi);
+        verify(session).learn(result);
+    }
+
+    @Test
+    @DisplayName("Deve dispensar a IA para boleto com o pagador lido do texto")
+    void deveDispensarIaParaBoleto() throws MailReaderException {
+        Document document = document(null, String.join("\n",
+                "Boleto de pagamento",
+                "Beneficiário: ACME COMERCIO LTDA CNPJ 11.222.333/0001-81",
+                "Pagador: JOAO DA SILVA CPF 529.982.247-25",
+                "Vencimento: 10/03/2025 Valor do documento: 1.234,56",
+                "Linha digitável: " + LINHA));
+        when(bank.getExpense(document)).thenReturn(boleto());
+
+        Expense result = pdfService.getExpenseFromDocument(document);
+
+        assertEquals(ExpenseType.BOLETO, document.getExpenseType());
+        assertEquals("52998224725", result.getCnpjCpfDestinatario());
+        verifyNoInteractions(openAi);
+    }
+
+    @Test
+    @DisplayName("Deve dispensar a IA sem destinatário no texto quando o documento já tiver company")
+    void deveDispensarDestinatarioComCompany() throws MailReaderException {
+        Company company = Company.builder().id(1L).uuid("uuid-company").cnpj("98.765.432/0001-98")
+                .clientGroup(clientGroup).build();
+        Document document = document(company, String.join("\n",
+                "Boleto de pagamento",
+                "Beneficiário: ACME COMERCIO LTDA CNPJ 11.222.333/0001-81",
+                "Vencimento: 10/03/2025 Valor do documento: 1.234,56",
+                "Linha digitável: " + LINHA));
+        when(bank.getExpense(document)).thenReturn(boleto());
+
+        Expense result = pdfService.getExpenseFromDocument(document);
+
+        assertNull(result.getCnpjCpfDestinatario());
+        verifyNoInteractions(openAi);
+    }
+
+    private ExpenseBoleto boleto() {
+        ExpenseBoleto expense = new ExpenseBoleto();
+        expense.setCnpjCpfEmitente(CNPJ_EMITENTE);
+        expense.setEmitente("ACME COMERCIO LTDA");
+        expense.setDataEmissao(LocalDate.now().minusDays(3));
+        expense.setDataVencimento(LocalDate.now().plusDays(7));
+        expense.setValorTotal(new BigDecimal("1234.56"));
+        expense.setLinhaDigitavel(LINHA);
+        return expense;
+    }
+
+    private Document document(Company company, String text) {
+        return Document.builder()
+                .id(1L)
+                .fileName("documento.pdf")
+                .company(company)
+                .clientGroup(clientGroup)
+                .textExtracted(text)
+                .documentExtractorTypes(new ArrayList<>(List.of(DocumentExtractorType.PDFBOX)))
+                .build();
+    }
+}
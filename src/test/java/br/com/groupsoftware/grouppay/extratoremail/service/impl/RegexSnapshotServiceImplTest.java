@@ -0,0 +1,141 @@
+package br.com.groupsoftware.grouppay.extratoremail.service.impl;
+
+import br.com.groupsoftware.grouppay.extratoremail.domain.entity.Regex;
+import br.com.groupsoftware.grouppay.extratoremail.domain.enums.ExpenseType;
+import br.com.groupsoftware.grouppay.extratoremail.domain.model.CompiledRegex;
+import br.com.groupsoftware.grouppay.extratoremail.domain.model.dto.RegexSnapshotDTO;
+import br.com.groupsoftware.grouppay.extratoremail.repository.RegexRepository;
+import br.com.groupsoftware.grouppay.extratoremail.repository.RepositoryFacade;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes unitários para RegexSnapshotServiceImpl
+ *
+ * Testa o snapshot em memória da tabela de regex, incluindo:
+ * - Regex regional com fallback para o DEFAULT do tipo
+ * - Expressões compiladas na carga e independentes da entidade
+ * - Expressão inválida ignorada sem impedir a carga
+ * - Versão pelo conteúdo: alteração de expressão e exclusão seguida de inclusão
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RegexSnapshotServiceImpl - Testes Unitários")
+class RegexSnapshotServiceImplTest {
+
+    @Mock
+    private RepositoryFacade repository;
+
+    @Mock
+    private RegexRepository regexRepository;
+
+    private RegexSnapshotServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(repository, "regex", regexRepository);
+        service = new RegexSnapshotServiceImpl(repository);
+    }
+
+    private static Regex regex(long id, String ibgeCode, String totalValue) {
+        return Regex.builder()
+                .id(id)
+                .expenseType(ExpenseType.NFSE)
+                .ibgeCode(ibgeCode)
+                .issuerCNPJ("CNPJ:\\s*([\\d./-]+)")
+                .totalValue(totalValue)
+                .dueDate("Vencimento\\s*(\\d{2}/\\d{2}/\\d{4})")
+                .issueDate("Emiss[ãa]o\\s*(\\d{2}/\\d{2}/\\d{4})")
+                .build();
+    }
+
+    @Test
+    @DisplayName("Deve usar o regex regional e o DEFAULT quando não houver regional")
+    void deveUsarRegionalEDefault() {
+        when(regexRepository.findAll()).thenReturn(List.of(
+                regex(1L, "DEFAULT", "Total\\s*([\\d.,]+)"),
+                regex(2L, "3106200", "Valor do servi[çc]o\\s*([\\d.,]+)")));
+
+        assertEquals(2L, service.find(ExpenseType.NFSE, "3106200").orElseThrow().id());
+        assertEquals(1L, service.find(ExpenseType.NFSE, "3550308").orElseThrow().id());
+        assertEquals(1L, service.find(ExpenseType.NFSE, null).orElseThrow().id());
+        assertTrue(service.find(ExpenseType.BOLETO, "3106200").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve compilar as expressões na carga, sem depender da entidade")
+    void deveCompilarNaCarga() {
+        Regex entity = regex(1L, "DEFAULT", "Total\\s*([\\d.,]+)");
+        when(regexRepository.findAll()).thenReturn(List.of(entity));
+
+        CompiledRegex compiled = service.find(ExpenseType.NFSE, null).orElseThrow();
+        entity.setTotalValue("outro");
+
+        assertEquals("Total\\s*([\\d.,]+)", compiled.totalValue().pattern());
+        assertTrue(compiled.totalValue().matcher("TOTAL 1.234,56").find());
+        assertNull(compiled.number());
+    }
+
+    @Test
+    @DisplayName("Deve ignorar expressão inválida e carregar os demais campos")
+    void deveIgnorarExpressaoInvalida() {
+        when(regexRepository.findAll()).thenReturn(List.of(regex(1L, "DEFAULT", "Total\\s*([\\d.,]+")));
+
+        CompiledRegex compiled = service.find(ExpenseType.NFSE, null).orElseThrow();
+
+        assertNull(compiled.totalValue());
+        assertNotNull(compiled.issuerCNPJ());
+    }
+
+    @Test
+    @DisplayName("Deve mudar a versão quando uma expressão mudar, mesmo sem mudar a quantidade")
+    void deveMudarVersaoComAlteracao() {
+        when(regexRepository.findAll())
+                .thenReturn(List.of(regex(1L, "DEFAULT", "Total\\s*([\\d.,]+)")))
+                .thenReturn(List.of(regex(1L, "DEFAULT", "Valor total\\s*([\\d.,]+)")));
+
+        String version = service.reload().getVersion();
+        service.refreshIfChanged();
+
+        assertNotEquals(version, service.current().getVersion());
+        assertEquals("Valor total\\s*([\\d.,]+)", service.find(ExpenseType.NFSE, null).orElseThrow().totalValue().pattern());
+    }
+
+    @Test
+    @DisplayName("Deve mudar a versão com exclusão seguida de inclusão")
+    void deveMudarVersaoComExclusaoEInclusao() {
+        when(regexRepository.findAll())
+                .thenReturn(List.of(regex(1L, "DEFAULT", "Total\\s*([\\d.,]+)"), regex(2L, "3106200", "A\\s*([\\d.,]+)")))
+                .thenReturn(List.of(regex(1L, "DEFAULT", "Total\\s*([\\d.,]+)"), regex(3L, "3550308", "A\\s*([\\d.,]+)")));
+
+        String version = service.reload().getVersion();
+        service.refreshIfChanged();
+
+        assertNotEquals(version, service.current().getVersion());
+        assertEquals(3L, service.find(ExpenseType.NFSE, "3550308").orElseThrow().id());
+        assertEquals(1L, service.find(ExpenseType.NFSE, "3106200").orElseThrow().id());
+    }
+
+    @Test
+    @DisplayName("Deve manter a versão quando o conteúdo não mudar")
+    void deveManterVersaoSemAlteracao() {
+        when(regexRepository.findAll())
+                .thenReturn(List.of(regex(1L, "DEFAULT", "Total\\s*([\\d.,]+)")))
+                .thenReturn(List.of(regex(1L, "DEFAULT", "Total\\s*([\\d.,]+)")));
+
+        RegexSnapshotDTO loaded = service.reload();
+        service.refreshIfChanged();
+
+        assertEquals(loaded.getVersion(), service.current().getVersion());
+        assertSame(loaded.getLoadedAt(), service.current().getLoadedAt());
+    }
+}
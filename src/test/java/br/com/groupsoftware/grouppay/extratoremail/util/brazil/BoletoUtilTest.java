@@ -0,0 +1,74 @@
+package br.com.groupsoftware.grouppay.extratoremail.util.brazil;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para BoletoUtil
+ *
+ * Testa a decodificação da linha digitável e do código de barras:
+ * - Boleto bancário com fator de vencimento após a reinicialização de 22/02/2025
+ * - Boleto de arrecadação em módulo 10 e módulo 11
+ * - Rejeição de dígitos verificadores inválidos
+ */
+@DisplayName("BoletoUtil - Testes Unitários")
+class BoletoUtilTest {
+
+    private static final LocalDate REFERENCE = LocalDate.of(2025, 3, 1);
+    private static final String BANK_LINE = "34191.09123 34567.812341 56789.012301 9 10160000123456";
+    private static final String BANK_BARCODE = "34199101600001234561091234567812345678901230";
+
+    @Test
+    @DisplayName("Deve decodificar a linha digitável de boleto bancário")
+    void shouldDecodeBankLine() {
+        BoletoUtil.Boleto boleto = BoletoUtil.decode(BANK_LINE, REFERENCE).orElseThrow();
+
+        assertEquals(BoletoUtil.Tipo.BANCARIO, boleto.tipo());
+        assertEquals("341", boleto.banco());
+        assertEquals(BANK_BARCODE, boleto.codigoBarras());
+        assertEquals(BANK_LINE, boleto.linhaDigitavel());
+        assertEquals(LocalDate.of(2025, 3, 10), boleto.vencimento());
+        assertEquals(new BigDecimal("1234.56"), boleto.valor());
+        assertEquals(boleto, BoletoUtil.decode(BANK_BARCODE, REFERENCE).orElseThrow());
+    }
+
+    @Test
+    @DisplayName("Deve resolver o fator de vencimento pelo ciclo mais próximo da referência")
+    void shouldResolveDueDateFactorCycle() {
+        assertEquals(LocalDate.of(2000, 7, 3), BoletoUtil.dueDateFromFactor(1000, LocalDate.of(2001, 1, 1)));
+        assertEquals(LocalDate.of(2025, 2, 21), BoletoUtil.dueDateFromFactor(9999, LocalDate.of(2025, 2, 1)));
+        assertEquals(LocalDate.of(2025, 2, 22), BoletoUtil.dueDateFromFactor(1000, LocalDate.of(2025, 2, 1)));
+        assertNull(BoletoUtil.dueDateFromFactor(0, REFERENCE));
+    }
+
+    @Test
+    @DisplayName("Deve decodificar boletos de arrecadação em módulo 10 e 11")
+    void shouldDecodeCollectionLines() {
+        BoletoUtil.Boleto mod10 = BoletoUtil.decode("83620000001-3 50750048202-5 50310123456-8 78901234567-2", REFERENCE).orElseThrow();
+        BoletoUtil.Boleto mod11 = BoletoUtil.decode("85800000001-1 50750048202-0 50310123456-9 78901234567-5", REFERENCE).orElseThrow();
+
+        assertEquals(BoletoUtil.Tipo.ARRECADACAO, mod10.tipo());
+        assertEquals(3, mod10.segmento());
+        assertEquals("0048", mod10.identificacaoEmpresa());
+        assertEquals(new BigDecimal("150.75"), mod10.valor());
+        assertEquals("83620000001507500482025031012345678901234567", mod10.codigoBarras());
+        assertEquals(5, mod11.segmento());
+        assertEquals(new BigDecimal("150.75"), mod11.valor());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar dígitos verificadores inválidos e localizar o boleto no texto")
+    void shouldRejectInvalidCheckDigitsAndFindInText() {
+        assertTrue(BoletoUtil.decode("34191.09123 34567.812341 56789.012301 8 10160000123456", REFERENCE).isEmpty());
+        assertTrue(BoletoUtil.decode("34191.09124 34567.812341 56789.012301 9 10160000123456", REFERENCE).isEmpty());
+        assertTrue(BoletoUtil.decode("83620000001-4 50750048202-5 50310123456-8 78901234567-2", REFERENCE).isEmpty());
+
+        String text = "Beneficiário: Empresa X\nNosso Número 123\n" + BANK_LINE + "\nPagador: Fulano";
+        assertEquals(BANK_BARCODE, BoletoUtil.find(text, REFERENCE).orElseThrow().codigoBarras());
+    }
+}
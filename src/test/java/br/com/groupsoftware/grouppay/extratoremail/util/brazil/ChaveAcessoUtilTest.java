@@ -0,0 +1,85 @@
+package br.com.groupsoftware.grouppay.extratoremail.util.brazil;
+
+import br.com.groupsoftware.grouppay.extratoremail.domain.enums.ExpenseType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para ChaveAcessoUtil
+ *
+ * Testa a decodificação da chave de acesso:
+ * - Campos de NF-e com emitente CNPJ
+ * - Emitente CPF e CNPJ alfanumérico
+ * - Rejeição de dígito verificador, UF e mês inválidos
+ * - URL do QR Code da NFC-e
+ */
+@DisplayName("ChaveAcessoUtil - Testes Unitários")
+class ChaveAcessoUtilTest {
+
+    private static final String NFE_KEY = "35250111222333000181550010000123451123456783";
+
+    @Test
+    @DisplayName("Deve decodificar os campos da chave de NF-e")
+    void shouldDecodeNfeKey() {
+        ChaveAcessoUtil.ChaveAcesso chave = ChaveAcessoUtil.decode(NFE_KEY).orElseThrow();
+
+        assertEquals(35, chave.codigoUf());
+        assertEquals("SP", chave.uf());
+        assertEquals(YearMonth.of(2025, 1), chave.emissao());
+        assertEquals("11222333000181", chave.cnpjCpfEmitente());
+        assertEquals("55", chave.modelo());
+        assertEquals(ExpenseType.NFE, chave.expenseType());
+        assertEquals("1", chave.serie());
+        assertEquals("12345", chave.numero());
+        assertEquals(1, chave.tipoEmissao());
+        assertEquals("12345678", chave.codigoNumerico());
+    }
+
+    @Test
+    @DisplayName("Deve reconhecer emitente CPF e CNPJ alfanumérico")
+    void shouldDecodeCpfAndAlphanumericIssuers() {
+        ChaveAcessoUtil.ChaveAcesso nfce = ChaveAcessoUtil.decode("31251000012345678909650010000000421123456789").orElseThrow();
+        ChaveAcessoUtil.ChaveAcesso cte = ChaveAcessoUtil.decode("43261012ABC34501DE35570010000078911123456783").orElseThrow();
+
+        assertEquals("12345678909", nfce.cnpjCpfEmitente());
+        assertEquals(ExpenseType.NFCE, nfce.expenseType());
+        assertEquals("42", nfce.numero());
+        assertEquals("12ABC34501DE35", cte.cnpjCpfEmitente());
+        assertEquals(ExpenseType.CTE, cte.expenseType());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar chaves inválidas e localizar a chave no texto")
+    void shouldRejectInvalidKeysAndFindInText() {
+        assertTrue(ChaveAcessoUtil.decode("35250111222333000181550010000123451123456784").isEmpty());
+        assertTrue(ChaveAcessoUtil.decode("99250111222333000181550010000123451123456783").isEmpty());
+        assertTrue(ChaveAcessoUtil.decode("35251311222333000181550010000123451123456783").isEmpty());
+        assertTrue(ChaveAcessoUtil.decode("3525011122233300018155001000012345112345678").isEmpty());
+
+        String text = "DANFE\nNº 000.012.345 Série 001\nCHAVE DE ACESSO\n3525 0111 2223 3300 0181 5500 1000 0123 4511 2345 6783\nProtocolo";
+        assertEquals(NFE_KEY, ChaveAcessoUtil.find(text).orElseThrow().chave());
+        assertTrue(ChaveAcessoUtil.find("Pedido 12345678901234567890123456789012345678901234").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve interpretar a URL do QR Code da NFC-e online e offline")
+    void shouldDecodeNfceQrCode() {
+        ChaveAcessoUtil.QrCodeNfce online = ChaveAcessoUtil.fromQrCode(
+                "https://www.nfce.fazenda.sp.gov.br/qrcode?p=" + NFE_KEY + "%7C2%7C1%7C1%7CABCDEF0123").orElseThrow();
+        ChaveAcessoUtil.QrCodeNfce offline = ChaveAcessoUtil.fromQrCode(
+                "https://www.nfce.fazenda.sp.gov.br/qrcode?p=" + NFE_KEY + "|2|1|15|150.75|6d6f636b|1|ABCDEF0123").orElseThrow();
+
+        assertEquals(NFE_KEY, online.chave().chave());
+        assertNull(online.dataEmissao());
+        assertNull(online.valor());
+        assertEquals(LocalDate.of(2025, 1, 15), offline.dataEmissao());
+        assertEquals(new BigDecimal("150.75"), offline.valor());
+        assertTrue(ChaveAcessoUtil.fromQrCode("https://www.nfce.fazenda.sp.gov.br/qrcode?p=123|2|1").isEmpty());
+    }
+}
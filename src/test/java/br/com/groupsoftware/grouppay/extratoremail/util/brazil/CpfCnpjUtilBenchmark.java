@@ -0,0 +1,97 @@
+package br.com.groupsoftware.grouppay.extratoremail.util.brazil;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark JMH de CpfCnpjUtil contra a implementação anterior, baseada em listas e expressões regulares.
+ * <p>
+ * Usa as mesmas entradas aleatórias de semente fixa da comparação em {@link CpfCnpjUtilTest}: documentos
+ * válidos e inválidos, formatados ou não, e um texto com vários números.
+ * </p>
+ * <p>
+ * Execução: {@code mvn test-compile} e {@code main} desta classe com o classpath de teste.
+ * </p>
+ *
+ * @author Marco Willy
+ * @version 1.0
+ * @since 2025
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CpfCnpjUtilBenchmark {
+
+    private static final int DOCUMENTS = 1000;
+    private static final int TEXT_DOCUMENTS = 200;
+
+    private String[] documents;
+    private String text;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        documents = new String[DOCUMENTS];
+        for (int i = 0; i < DOCUMENTS; i++) {
+            documents[i] = CpfCnpjUtilTest.randomDocument(random);
+        }
+        text = CpfCnpjUtilTest.randomText(random, TEXT_DOCUMENTS);
+    }
+
+    @Benchmark
+    public void isCnpjCpfValid(Blackhole blackhole) {
+        for (String document : documents) {
+            blackhole.consume(CpfCnpjUtil.isCnpjCpfValid(document));
+        }
+    }
+
+    @Benchmark
+    public void legacyIsCnpjCpfValid(Blackhole blackhole) {
+        for (String document : documents) {
+            blackhole.consume(CpfCnpjUtilTest.legacyIsCnpjCpfValid(document));
+        }
+    }
+
+    @Benchmark
+    public long[] findAll() {
+        return CpfCnpjUtil.findAll(text);
+    }
+
+    @Benchmark
+    public List<String> legacyFindAll() {
+        return CpfCnpjUtilTest.legacyFindAll(text);
+    }
+
+    @Benchmark
+    public String extractNumbers() {
+        return CpfCnpjUtil.extractNumbers(text);
+    }
+
+    @Benchmark
+    public String legacyExtractNumbers() {
+        return CpfCnpjUtilTest.legacyExtractNumbers(text);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(CpfCnpjUtilBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,202 @@
+package br.com.groupsoftware.grouppay.extratoremail.util.brazil;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para CpfCnpjUtil
+ *
+ * Testa a validação e a representação compactada:
+ * - CPF e CNPJ com e sem formatação
+ * - Rejeição de dígitos verificadores errados e de dígitos repetidos
+ * - Conversão para long e de volta, preservando zeros à esquerda
+ * - Localização de todos os documentos válidos no texto
+ * - Equivalência com a implementação anterior, baseada em listas e expressões regulares, em entradas
+ *   aleatórias de semente fixa
+ */
+@DisplayName("CpfCnpjUtil - Testes Unitários")
+class CpfCnpjUtilTest {
+
+    private static final long SEED = 20250101L;
+    private static final int RANDOM_CASES = 5000;
+    // Número com separadores entre os dígitos, como percorrido por findAll
+    private static final Pattern LEGACY_NUMBER = Pattern.compile("\\d+(?:[./-]\\d+)*");
+    private static final String[] FILLERS = {" ", "; ", "\n", "CPF ", "CNPJ: ", "x", ".", "-", "/", "..", "٣", "R$ "};
+
+    // Pesos do segundo dígito verificador; os do primeiro são os mesmos sem o primeiro peso
+    private static final int[] CPF_WEIGHTS = {0, 1, 2, 3, 4, 5, 6, 7, 8, 9};
+    private static final int[] CNPJ_WEIGHTS = {5, 6, 7, 8, 9, 2, 3, 4, 5, 6, 7, 8, 9};
+
+    // Validação anterior de CpfCnpjUtil, com List<Integer>, AtomicInteger e replaceAll
+    static boolean legacyIsCnpjCpfValid(String cnpjCpf) {
+        return legacyIsValid(cnpjCpf, CPF_WEIGHTS) || legacyIsValid(cnpjCpf, CNPJ_WEIGHTS);
+    }
+
+    private static boolean legacyIsValid(String value, int[] weights) {
+        List<Integer> digits = new ArrayList<>();
+        for (char item : legacyExtractNumbers(value).toCharArray()) {
+            digits.add(Integer.parseInt(String.valueOf(item)));
+        }
+        if (digits.size() == weights.length + 1 && digits.stream().distinct().count() > 1) {
+            return legacyWithCheckDigits(digits.subList(0, weights.length - 1), weights).equals(legacyExtractNumbers(value));
+        }
+        return false;
+    }
+
+    private static String legacyWithCheckDigits(List<Integer> base, int[] weights) {
+        List<Integer> digits = new ArrayList<>(base);
+        digits.add(legacyMod11(digits, Arrays.copyOfRange(weights, 1, weights.length)));
+        digits.add(legacyMod11(digits, weights));
+        return digits.stream().map(Object::toString).reduce("", String::concat);
+    }
+
+    private static int legacyMod11(List<Integer> digits, int... multipliers) {
+        AtomicInteger i = new AtomicInteger(0);
+        int rest = digits.stream().reduce(0, (p, e) -> p + e * multipliers[i.getAndIncrement()]) % 11;
+        return rest > 9 ? 0 : rest;
+    }
+
+    static String legacyExtractNumbers(String s) {
+        return Objects.nonNull(s) ? s.replaceAll("\\D+", "") : "";
+    }
+
+    // Busca equivalente por expressão regular: cada número do texto é validado pelos dígitos extraídos
+    static List<String> legacyFindAll(String text) {
+        List<String> found = new ArrayList<>();
+        Matcher matcher = LEGACY_NUMBER.matcher(text);
+        while (matcher.find()) {
+            String digits = legacyExtractNumbers(matcher.group());
+            if (legacyIsCnpjCpfValid(digits)) {
+                found.add(digits);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Gera um CPF ou CNPJ aleatório: válido, com um dígito verificador trocado, com dígitos repetidos ou com
+     * quantidade de dígitos próxima, formatado ou não.
+     */
+    static String randomDocument(Random random) {
+        int length = random.nextBoolean() ? 11 : 14;
+        StringBuilder digits = new StringBuilder();
+        switch (random.nextInt(4)) {
+            case 0 -> digits.append(String.valueOf(random.nextInt(10)).repeat(length));
+            case 1 -> {
+                int size = length + random.nextInt(5) - 2;
+                for (int i = 0; i < size; i++) {
+                    digits.append(random.nextInt(10));
+                }
+            }
+            default -> {
+                List<Integer> base = new ArrayList<>();
+                for (int i = 0; i < length - 2; i++) {
+                    base.add(random.nextInt(10));
+                }
+                digits.append(legacyWithCheckDigits(base, length == 11 ? CPF_WEIGHTS : CNPJ_WEIGHTS));
+                if (random.nextInt(3) == 0) {
+                    int position = length - 1 - random.nextInt(2);
+                    digits.setCharAt(position, (char) ('0' + (digits.charAt(position) - '0' + 1 + random.nextInt(9)) % 10));
+                }
+            }
+        }
+        return random.nextBoolean() ? CpfCnpjUtil.format(digits.toString()) : digits.toString();
+    }
+
+    static String randomText(Random random, int documents) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < documents; i++) {
+            text.append(FILLERS[random.nextInt(FILLERS.length)]);
+            text.append(random.nextInt(4) == 0 ? String.valueOf(random.nextInt(100_000)) : randomDocument(random));
+        }
+        return text.toString();
+    }
+
+    @Test
+    @DisplayName("Deve validar CPF e CNPJ com e sem formatação")
+    void shouldValidateCpfAndCnpj() {
+        assertTrue(CpfCnpjUtil.isCnpjValid("11.222.333/0001-81"));
+        assertTrue(CpfCnpjUtil.isCnpjValid("11222333000181"));
+        assertTrue(CpfCnpjUtil.isCpfValid("123.456.789-09"));
+        assertTrue(CpfCnpjUtil.isCnpjCpfValid("12345678909"));
+
+        assertFalse(CpfCnpjUtil.isCnpjValid("11.222.333/0001-82"));
+        assertFalse(CpfCnpjUtil.isCpfValid("11222333000181"));
+        assertFalse(CpfCnpjUtil.isCpfValid("111.111.111-11"));
+        assertFalse(CpfCnpjUtil.isCnpjValid("00000000000000"));
+        assertFalse(CpfCnpjUtil.isCnpjCpfValid(null));
+        assertEquals("11.222.333/0001-81", CpfCnpjUtil.format("11222333000181"));
+        assertEquals("123.456.789-09", CpfCnpjUtil.format("12345678909"));
+    }
+
+    @Test
+    @DisplayName("Deve compactar CPF e CNPJ em long preservando os zeros à esquerda")
+    void shouldPackAndUnpack() {
+        long cnpj = CpfCnpjUtil.pack("11.222.333/0001-81");
+        long cpfAsCnpj = CpfCnpjUtil.pack("00012345678909");
+        long cpf = CpfCnpjUtil.pack("123.456.789-09");
+
+        assertEquals(CpfCnpjUtil.pack("11222333000181"), cnpj);
+        assertNotEquals(cpf, cpfAsCnpj);
+        assertEquals("00012345678909", CpfCnpjUtil.unpack(cpfAsCnpj));
+        assertEquals("12345678909", CpfCnpjUtil.unpack(cpf));
+        assertTrue(CpfCnpjUtil.isValid(cnpj));
+        assertEquals(CpfCnpjUtil.NOT_PACKED, CpfCnpjUtil.pack("1234567890"));
+        assertEquals(CpfCnpjUtil.NOT_PACKED, CpfCnpjUtil.pack("112223330001811"));
+        assertNull(CpfCnpjUtil.unpack(CpfCnpjUtil.NOT_PACKED));
+    }
+
+    @Test
+    @DisplayName("Deve localizar todos os CPFs e CNPJs válidos no texto")
+    void shouldFindAllValidDocuments() {
+        String text = "Emitente 11.222.333/0001-81, tomador CPF 123.456.789-09; inválido 11.222.333/0001-82;\n"
+                + "emissão 05/01/2025; código 112223330001811; conta 12345678909-1";
+
+        long[] found = CpfCnpjUtil.findAll(text);
+
+        assertEquals(Arrays.asList("11222333000181", "12345678909"),
+                Arrays.stream(found).mapToObj(CpfCnpjUtil::unpack).toList());
+        assertEquals(0, CpfCnpjUtil.findAll(null).length);
+    }
+
+    @Test
+    @DisplayName("Deve validar como a implementação anterior em documentos aleatórios")
+    void shouldMatchLegacyValidationOnRandomInput() {
+        Random random = new Random(SEED);
+        int valid = 0;
+        for (int i = 0; i < RANDOM_CASES; i++) {
+            String value = randomDocument(random);
+            boolean expected = legacyIsCnpjCpfValid(value);
+            valid += expected ? 1 : 0;
+
+            assertEquals(expected, CpfCnpjUtil.isCnpjCpfValid(value), "caso " + i + ": " + value);
+            assertEquals(legacyExtractNumbers(value), CpfCnpjUtil.extractNumbers(value), "caso " + i + ": " + value);
+        }
+        // A geração cobre tanto documentos válidos quanto inválidos
+        assertTrue(valid > RANDOM_CASES / 10 && valid < RANDOM_CASES / 2, "válidos: " + valid);
+    }
+
+    @Test
+    @DisplayName("Deve localizar e extrair dígitos como a implementação anterior em textos aleatórios")
+    void shouldMatchLegacyFindAllOnRandomText() {
+        Random random = new Random(SEED);
+        for (int i = 0; i < RANDOM_CASES / 10; i++) {
+            String text = randomText(random, 1 + random.nextInt(20));
+
+            assertEquals(legacyFindAll(text), Arrays.stream(CpfCnpjUtil.findAll(text)).mapToObj(CpfCnpjUtil::unpack).toList(),
+                    "caso " + i + ": " + text);
+            assertEquals(legacyExtractNumbers(text), CpfCnpjUtil.extractNumbers(text), "caso " + i + ": " + text);
+        }
+    }
+}
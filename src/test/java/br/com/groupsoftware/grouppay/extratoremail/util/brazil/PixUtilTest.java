@@ -0,0 +1,47 @@
+package br.com.groupsoftware.grouppay.extratoremail.util.brazil;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para PixUtil
+ *
+ * Testa a interpretação do BR Code:
+ * - Campos do PIX estático
+ * - Rejeição de CRC divergente
+ * - Localização do payload quebrado em linhas no texto
+ */
+@DisplayName("PixUtil - Testes Unitários")
+class PixUtilTest {
+
+    private static final String PAYLOAD = "00020126330014br.gov.bcb.pix0111123456789095204000053039865406150.755802BR"
+            + "5914EMPRESA X LTDA6009SAO PAULO62130509BOLETO12363047733";
+
+    @Test
+    @DisplayName("Deve interpretar os campos do PIX estático")
+    void shouldDecodeStaticPix() {
+        PixUtil.Pix pix = PixUtil.decode(PAYLOAD).orElseThrow();
+
+        assertEquals("12345678909", pix.chave());
+        assertNull(pix.url());
+        assertEquals(new BigDecimal("150.75"), pix.valor());
+        assertEquals("EMPRESA X LTDA", pix.nomeRecebedor());
+        assertEquals("SAO PAULO", pix.cidade());
+        assertEquals("BOLETO123", pix.txid());
+        assertEquals("29B1", PixUtil.crc16("123456789"));
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar CRC divergente e localizar o payload no texto")
+    void shouldRejectInvalidCrcAndFindInText() {
+        assertTrue(PixUtil.decode(PAYLOAD.replace("150.75", "150.76")).isEmpty());
+        assertTrue(PixUtil.decode(PAYLOAD.substring(0, PAYLOAD.length() - 1) + "4").isEmpty());
+
+        String text = "Pague com PIX copia e cola:\n" + PAYLOAD.substring(0, 60) + "\n" + PAYLOAD.substring(60) + "\nObrigado";
+        assertEquals(PAYLOAD, PixUtil.find(text).orElseThrow().payload());
+    }
+}
@@ -0,0 +1,81 @@
+package br.com.groupsoftware.grouppay.extratoremail.util.document;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark JMH de ExtractedTextUtil contra a normalização e a validação anteriores, baseadas em expressões
+ * regulares, sobre textos aleatórios de semente fixa do tamanho de uma página e de um documento inteiro.
+ * <p>
+ * Execução: {@code mvn test-compile} e {@code main} desta classe com o classpath de teste.
+ * </p>
+ *
+ * @author Marco Willy
+ * @version 1.0
+ * @since 2025
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExtractedTextUtilBenchmark {
+
+    private static final int MAX_TEXT_LENGTH = 65500;
+
+    @Param({"2000", "60000"})
+    private int length;
+
+    private String content;
+    // Uma linha só e sem indicadores: as duas validações percorrem o texto inteiro
+    private String contentWithoutIndicators;
+
+    @Setup
+    public void setUp() {
+        content = ExtractedTextUtilTest.randomText(new Random(42), length);
+        contentWithoutIndicators = content
+                .replaceAll("(?i)cnpj|cpf", "nota")
+                .replace('.', ',')
+                .replaceAll("[\\n\\r\\u0085\\u2028\\u2029]", " ");
+    }
+
+    @Benchmark
+    public String normalize() {
+        return ExtractedTextUtil.normalize(content, MAX_TEXT_LENGTH);
+    }
+
+    @Benchmark
+    public String legacyNormalize() {
+        return ExtractedTextUtilTest.legacyNormalize(content, MAX_TEXT_LENGTH);
+    }
+
+    @Benchmark
+    public boolean hasDocumentIndicators() {
+        return ExtractedTextUtil.hasDocumentIndicators(contentWithoutIndicators);
+    }
+
+    @Benchmark
+    public boolean legacyHasDocumentIndicators() {
+        return ExtractedTextUtilTest.legacyHasDocumentIndicators(contentWithoutIndicators);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ExtractedTextUtilBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,113 @@
+package br.com.groupsoftware.grouppay.extratoremail.util.document;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para ExtractedTextUtil
+ *
+ * Testa a normalização e a validação do texto extraído:
+ * - Equivalência com a normalização anterior baseada em replaceAll
+ * - Equivalência com as implementações anteriores em textos aleatórios de semente fixa
+ * - Detecção de CNPJ/CPF em textos com várias linhas
+ */
+@DisplayName("ExtractedTextUtil - Testes Unitários")
+class ExtractedTextUtilTest {
+
+    private static final long SEED = 20250101L;
+    private static final int RANDOM_CASES = 2000;
+    // Trechos que exercitam máscaras completas e incompletas, palavras-chave, espaços e caracteres fora do BMP
+    private static final String[] FRAGMENTS = {
+            "12.345.678/0001-90", "123.456.789-09", "12.345.678/0001-9", "123.456.789 09", "12.345.678/000190",
+            "cnpj", "CPF", "Cnp", "cpF:", "CNPJ/CPF", "NOTA FISCAL", "R$ 1.234,56", "Nº", "½", "—", "•", "_",
+            "\u00a0", "\t", "\u000B", "\f", "  ", "\u2003", "e\u0301", "\uD835\uDC00", "\uD83D\uDE00", "\uD800"
+    };
+
+    // Normalização anterior de PdfExtractorImpl.updateDocumentWithContent
+    static String legacyNormalize(String content, int maxLength) {
+        String normalized = content
+                .replaceAll("[^\\p{L}\\p{N}\\s:/.\\-,;()\\[\\]{}|#*+=<>\"'`~^&!?\\\\@$%R]", " ")
+                .replaceAll("\\s+", " ")
+                .trim();
+        return normalized.substring(0, Math.min(maxLength, normalized.length()));
+    }
+
+    // Validação anterior de PdfExtractorImpl, sem a checagem de tamanho mínimo
+    static boolean legacyHasDocumentIndicators(String content) {
+        String upperContent = content.toUpperCase();
+        return upperContent.contains("CNPJ") ||
+                upperContent.contains("CPF") ||
+                upperContent.contains("CNPJ/CPF") ||
+                upperContent.matches(".*\\d{2}\\.\\d{3}\\.\\d{3}/\\d{4}-\\d{2}.*") ||
+                upperContent.matches(".*\\d{3}\\.\\d{3}\\.\\d{3}-\\d{2}.*");
+    }
+
+    static String randomText(Random random, int length) {
+        StringBuilder text = new StringBuilder(length + 32);
+        while (text.length() < length) {
+            int kind = random.nextInt(3);
+            if (kind == 0) {
+                text.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+            } else if (kind == 1) {
+                text.append((char) (' ' + random.nextInt(95)));
+            } else {
+                text.append((char) random.nextInt(0x3000));
+            }
+        }
+        return text.toString();
+    }
+
+    @Test
+    @DisplayName("Deve produzir o mesmo resultado da normalização com replaceAll")
+    void shouldMatchLegacyNormalization() {
+        String content = "  NOTA FISCAL\u00a0ELETRÔNICA \u2022 Nº 123\n\tValor: R$ 1.234,56 ½ — CNPJ: 12.345.678/0001-90 _fim_  ";
+
+        assertEquals(legacyNormalize(content, 65500), ExtractedTextUtil.normalize(content, 65500));
+    }
+
+    @Test
+    @DisplayName("Deve normalizar textos aleatórios como a implementação anterior")
+    void shouldMatchLegacyNormalizationOnRandomText() {
+        Random random = new Random(SEED);
+        for (int i = 0; i < RANDOM_CASES; i++) {
+            String content = randomText(random, random.nextInt(300));
+            int maxLength = random.nextBoolean() ? 65500 : random.nextInt(200);
+
+            assertEquals(legacyNormalize(content, maxLength), ExtractedTextUtil.normalize(content, maxLength),
+                    "caso " + i + ": " + content);
+        }
+    }
+
+    @Test
+    @DisplayName("Deve detectar indicadores em textos aleatórios de uma linha como a implementação anterior")
+    void shouldMatchLegacyIndicatorsOnRandomText() {
+        Random random = new Random(SEED);
+        for (int i = 0; i < RANDOM_CASES; i++) {
+            // A versão anterior não reconhecia máscaras fora da primeira linha, então a comparação usa uma linha só
+            String content = randomText(random, random.nextInt(300)).replaceAll("[\\n\\r\\u0085\\u2028\\u2029]", " ");
+
+            assertEquals(legacyHasDocumentIndicators(content), ExtractedTextUtil.hasDocumentIndicators(content),
+                    "caso " + i + ": " + content);
+        }
+    }
+
+    @Test
+    @DisplayName("Deve limitar o texto normalizado ao tamanho máximo")
+    void shouldLimitNormalizedLength() {
+        assertEquals("abc de", ExtractedTextUtil.normalize("abc   def", 6));
+        assertEquals("", ExtractedTextUtil.normalize(null, 10));
+    }
+
+    @Test
+    @DisplayName("Deve detectar indicadores de CNPJ/CPF em qualquer linha do texto")
+    void shouldDetectDocumentIndicators() {
+        assertTrue(ExtractedTextUtil.hasDocumentIndicators("Emitente\nInscrição: 12.345.678/0001-90\nTotal"));
+        assertTrue(ExtractedTextUtil.hasDocumentIndicators("Pagador\n123.456.789-09"));
+        assertTrue(ExtractedTextUtil.hasDocumentIndicators("cnpj do tomador"));
+        assertFalse(ExtractedTextUtil.hasDocumentIndicators("Vencimento 10/10/2025\nValor 1.234,56"));
+    }
+}
@@ -0,0 +1,75 @@
+package br.com.groupsoftware.grouppay.extratoremail.util.document;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.WritableRaster;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para ItfBarcodeUtil
+ *
+ * Testa a leitura do código Intercalado 2 de 5 em imagens geradas:
+ * - Código de barras de boleto na horizontal e invertido
+ * - Imagem sem código de barras
+ */
+@DisplayName("ItfBarcodeUtil - Testes Unitários")
+class ItfBarcodeUtilTest {
+
+    private static final String BARCODE = "34199101600001234561091234567812345678901230";
+    private static final String[] PATTERNS = {"NNWWN", "WNNNW", "NWNNW", "WWNNN", "NNWNW", "WNWNN", "NWWNN", "NNNWW", "WNNWN", "NWNWN"};
+    private static final int NARROW = 2;
+    private static final int WIDE = 5;
+    private static final int QUIET_ZONE = 30;
+
+    private static BufferedImage render(String digits, boolean reversed) {
+        StringBuilder elements = new StringBuilder("NNNN");
+        for (int i = 0; i < digits.length(); i += 2) {
+            String bars = PATTERNS[digits.charAt(i) - '0'];
+            String spaces = PATTERNS[digits.charAt(i + 1) - '0'];
+            for (int k = 0; k < 5; k++) {
+                elements.append(bars.charAt(k)).append(spaces.charAt(k));
+            }
+        }
+        elements.append("WNN");
+        String sequence = reversed ? elements.reverse().toString() : elements.toString();
+
+        int width = QUIET_ZONE * 2 + sequence.chars().map(c -> c == 'W' ? WIDE : NARROW).sum();
+        BufferedImage image = new BufferedImage(width, 60, BufferedImage.TYPE_BYTE_GRAY);
+        WritableRaster raster = image.getRaster();
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < 60; y++) {
+                raster.setSample(x, y, 0, 255);
+            }
+        }
+        int x = QUIET_ZONE;
+        boolean dark = true;
+        for (char element : sequence.toCharArray()) {
+            int size = element == 'W' ? WIDE : NARROW;
+            for (int i = 0; i < size; i++, x++) {
+                for (int y = 10; y < 50 && dark; y++) {
+                    raster.setSample(x, y, 0, 0);
+                }
+            }
+            dark = !dark;
+        }
+        return image;
+    }
+
+    @Test
+    @DisplayName("Deve ler o código de barras do boleto nos dois sentidos")
+    void shouldReadBarcodeInBothDirections() {
+        assertEquals(List.of(BARCODE), ItfBarcodeUtil.find(render(BARCODE, false), 44));
+        assertEquals(List.of(BARCODE), ItfBarcodeUtil.find(render(BARCODE, true), 44));
+    }
+
+    @Test
+    @DisplayName("Não deve encontrar código em imagem sem barras ou com tamanho diferente")
+    void shouldReturnEmptyWithoutBarcode() {
+        assertTrue(ItfBarcodeUtil.find(new BufferedImage(200, 100, BufferedImage.TYPE_BYTE_GRAY), 44).isEmpty());
+        assertTrue(ItfBarcodeUtil.find(render(BARCODE, false), 48).isEmpty());
+    }
+}
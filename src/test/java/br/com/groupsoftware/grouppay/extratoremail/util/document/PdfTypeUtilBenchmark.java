@@ -0,0 +1,81 @@
+package br.com.groupsoftware.grouppay.extratoremail.util.document;
+
+import br.com.groupsoftware.grouppay.extratoremail.domain.enums.ExpenseType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark JMH da classificação de PdfTypeUtil pelo autômato contra a cadeia de expressões regulares anterior.
+ * <p>
+ * Os textos são sorteados de palavras comuns em comprovantes. No caso {@code boleto}, os termos de boleto
+ * aparecem uma vez no meio do texto e a cadeia anterior percorre o texto inteiro para cada tipo de maior
+ * prioridade antes de encontrá-los; no caso {@code outro}, nenhum termo aparece, o pior caso da cadeia anterior.
+ * </p>
+ * <p>
+ * Execução: {@code mvn test-compile} e {@code main} desta classe com o classpath de teste.
+ * </p>
+ *
+ * @author Marco Willy
+ * @version 1.0
+ * @since 2025
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PdfTypeUtilBenchmark {
+
+    // Cerca de 20 KB de texto, o tamanho de um documento de poucas páginas
+    private static final int WORDS = 3000;
+    private static final String[] UNTYPED_WORDS = {"Comprovante", "de", "transferência", "Total", "R$", "1.234,56",
+            "12/10/2025", "Recibo", "Favorecido", "Agência", "Conta", "Valor", "Pago", "em", "(", ")", ":"};
+
+    @Param({"boleto", "outro"})
+    private String kind;
+
+    private String text;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        StringBuilder builder = new StringBuilder();
+        for (int w = 0; w < WORDS; w++) {
+            if ("boleto".equals(kind) && w == WORDS / 2) {
+                builder.append("Boleto Bancário\nLinha Digitável ");
+            }
+            builder.append(UNTYPED_WORDS[random.nextInt(UNTYPED_WORDS.length)]).append(random.nextInt(8) == 0 ? '\n' : ' ');
+        }
+        text = builder.toString();
+    }
+
+    @Benchmark
+    public ExpenseType automaton() {
+        return PdfTypeUtil.identificarTipoPdf(text);
+    }
+
+    @Benchmark
+    public ExpenseType legacyRegexChain() {
+        return PdfTypeUtilTest.legacyType(text);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(PdfTypeUtilBenchmark.class.getSimpleName()).build()).run();
+    }
+}
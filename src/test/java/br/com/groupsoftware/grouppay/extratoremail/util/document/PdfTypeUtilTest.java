@@ -0,0 +1,109 @@
+package br.com.groupsoftware.grouppay.extratoremail.util.document;
+
+import br.com.groupsoftware.grouppay.extratoremail.domain.enums.ExpenseType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para PdfTypeUtil
+ *
+ * Testa a classificação feita em uma única leitura do texto:
+ * - Equivalência com a classificação por expressões regulares, uma por tipo
+ * - Posição dos termos que definiram o tipo
+ */
+@DisplayName("PdfTypeUtil - Testes Unitários")
+class PdfTypeUtilTest {
+
+    private static final List<String> TOKENS = List.of(
+            "NF-e", "NFe", "NF", "e", "NFS", "NFS-e", "NFC", "NFCe", "NF3", "NF3-e", "CT", "CT-e", "CTe",
+            "Fatura", "FATURA", "faturamento", "Boleto", "boletos", "bancário", "de", "pagamento", "Nosso", "Número",
+            "numero", "Cobrança", "cobranças", "Linha", "Digitável", "Guia", "do", "FGTS", "Leitura", "Anterior",
+            "Nota", "Fiscal", "-", "Conta", "Energia", "Eléctrica", "Documento", "Arrecadação", "Receitas",
+            "Federais", "DARF", "Previdência", "Social", "da", "Recolhimento", "Digital", "Total", "R$", "1.234,56",
+            "12/10/2025", "_x", "x_", "(", ")", ":");
+
+    // Classificação anterior, com uma expressão regular compilada a cada verificação
+    static ExpenseType legacyType(String text) {
+        if (legacyFind(text, "\\bNFS([\\s-]?e)?\\b")) {
+            return ExpenseType.NFSE;
+        } else if (legacyFind(text, "\\bNFC([\\s-]?e)?\\b")) {
+            return ExpenseType.NFCE;
+        } else if (legacyFind(text, "\\bNF3([\\s-]?e)?\\b")
+                || legacyFind(text, "(?i)Nota Fiscal\\s*-\\s*Conta de Energia El[eé]ctrica")
+                || legacyFind(text, "(?i)Leitura\\s+Anterior")) {
+            return ExpenseType.NF3E;
+        } else if (legacyFind(text, "\\bNF[\\s-]?e\\b")) {
+            return ExpenseType.NFE;
+        } else if (legacyFind(text, "\\b(darf|documento de arrecada[cç][aã]o de receitas federais)\\b")) {
+            return ExpenseType.DARF;
+        } else if (legacyFind(text, "\\bguia da previd[eê]ncia social\\b")) {
+            return ExpenseType.GPS;
+        } else if (legacyFind(text, "\\b(guia do fgts|guia de recolhimento do fgts|fgts digital)\\b")) {
+            return ExpenseType.FGTS;
+        } else if (legacyFind(text, "\\bfatura\\b")) {
+            return ExpenseType.FATURA;
+        } else if (legacyFind(text, "\\b(boleto(s)? (banc[aá]rio(s)?)?|nosso n[uú]mero|boleto(s)? de pagamento"
+                + "|cobran[cç]a(s)?|linha digit[aá]vel)\\b")) {
+            return ExpenseType.BOLETO;
+        } else if (legacyFind(text, "\\bCT([\\s-]?e)?\\b")) {
+            return ExpenseType.CTE;
+        }
+        return ExpenseType.OUTRO;
+    }
+
+    private static boolean legacyFind(String text, String regex) {
+        return Pattern.compile(regex, Pattern.CASE_INSENSITIVE).matcher(text).find();
+    }
+
+    @Test
+    @DisplayName("Deve classificar igual às expressões regulares anteriores")
+    void shouldMatchLegacyClassification() {
+        Random random = new Random(42);
+        for (int i = 0; i < 5000; i++) {
+            StringBuilder text = new StringBuilder();
+            int words = 1 + random.nextInt(8);
+            for (int w = 0; w < words; w++) {
+                if (w > 0) {
+                    text.append(random.nextInt(4) == 0 ? "" : " ");
+                }
+                text.append(TOKENS.get(random.nextInt(TOKENS.size())));
+            }
+            String sample = text.toString();
+            assertEquals(legacyType(sample), PdfTypeUtil.identificarTipoPdf(sample), sample);
+        }
+    }
+
+    @Test
+    @DisplayName("Deve respeitar a prioridade entre os tipos")
+    void shouldRespectPriority() {
+        assertEquals(ExpenseType.NFSE, PdfTypeUtil.identificarTipoPdf("Fatura referente à NFS-e 123"));
+        assertEquals(ExpenseType.NFE, PdfTypeUtil.identificarTipoPdf("DANFE\nNF-e nº 1\nCT-e vinculado"));
+        assertEquals(ExpenseType.BOLETO, PdfTypeUtil.identificarTipoPdf("Linha\tDigitável 23790.50400"));
+        assertEquals(ExpenseType.DARF, PdfTypeUtil.identificarTipoPdf("Documento de Arrecadação de Receitas Federais\nLinha Digitável"));
+        assertEquals(ExpenseType.GPS, PdfTypeUtil.identificarTipoPdf("GUIA DA PREVIDÊNCIA SOCIAL - GPS"));
+        assertEquals(ExpenseType.FGTS, PdfTypeUtil.identificarTipoPdf("Guia do FGTS Digital - GFD\nCobrança"));
+        assertEquals(ExpenseType.OUTRO, PdfTypeUtil.identificarTipoPdf("Comprovante de transferência"));
+        assertEquals(ExpenseType.OUTRO, PdfTypeUtil.identificarTipoPdf(null));
+    }
+
+    @Test
+    @DisplayName("Deve informar a posição do termo que definiu o tipo")
+    void shouldReturnEvidenceOffsets() {
+        String text = "Recibo\nBoleto Bancário\nNosso Número 123";
+
+        PdfTypeClassification classification = PdfTypeUtil.classificar(text);
+
+        assertEquals(ExpenseType.BOLETO, classification.type());
+        PdfTypeClassification.Evidence first = classification.firstEvidence().orElseThrow();
+        assertEquals("boleto", first.term());
+        assertEquals(text.indexOf("Boleto"), first.start());
+        assertTrue(classification.evidence().stream()
+                .anyMatch(found -> "Nosso Número".equals(text.substring(found.start(), found.end()))));
+    }
+}
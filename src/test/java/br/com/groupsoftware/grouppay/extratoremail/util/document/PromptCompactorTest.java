@@ -0,0 +1,89 @@
+package br.com.groupsoftware.grouppay.extratoremail.util.document;
+
+import br.com.groupsoftware.grouppay.extratoremail.domain.enums.ExpenseType;
+import br.com.groupsoftware.grouppay.extratoremail.util.extractor.TokenIndex;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para PromptCompactor
+ *
+ * Testa a compactação do texto enviado aos modelos de IA:
+ * - Texto dentro do orçamento mantido sem alterações
+ * - Remoção de linhas repetidas e de trechos sem dados
+ * - Respeito ao orçamento de tokens, priorizando as linhas com termos do documento
+ * - Mesmo resultado com o índice do documento ou com o índice de outro texto (ignorado)
+ */
+@DisplayName("PromptCompactor - Testes Unitários")
+class PromptCompactorTest {
+
+    private static final String BOILERPLATE = "Este documento deve ser guardado pelo prazo legal e não substitui outros comprovantes exigidos";
+
+    @Test
+    @DisplayName("Deve manter o texto que já cabe no orçamento")
+    void shouldKeepTextWithinBudget() {
+        String text = "Vencimento 10/11/2026\nValor do documento 1.234,56";
+
+        PromptCompactor.Compaction compaction = PromptCompactor.compact(text, ExpenseType.BOLETO, 1_000, 2);
+
+        assertEquals(text, compaction.text());
+        assertEquals(0, compaction.tokensSaved());
+    }
+
+    @Test
+    @DisplayName("Deve remover linhas repetidas e trechos sem dados")
+    void shouldDropRepeatedLinesAndBoilerplate() {
+        StringBuilder text = new StringBuilder();
+        for (int page = 1; page <= 3; page++) {
+            text.append("Banco Exemplo S.A.\n");
+        }
+        text.append("Beneficiário: Empresa Exemplo Ltda\n");
+        text.append("CNPJ 11.222.333/0001-81\n");
+        text.append("Vencimento 10/11/2026\n");
+        text.append("Valor do documento 1.234,56\n");
+        for (int i = 0; i < 40; i++) {
+            text.append(BOILERPLATE).append(' ').append((char) ('a' + i % 26)).append(i).append('\n');
+        }
+
+        PromptCompactor.Compaction compaction = PromptCompactor.compact(text.toString(), ExpenseType.BOLETO, 200, 1);
+
+        assertEquals(1, compaction.text().split("Banco Exemplo S.A.", -1).length - 1);
+        assertTrue(compaction.text().contains("Beneficiário: Empresa Exemplo Ltda"));
+        assertTrue(compaction.text().contains("Vencimento 10/11/2026"));
+        assertTrue(compaction.text().contains("Valor do documento 1.234,56"));
+        assertFalse(compaction.text().contains(BOILERPLATE + " z25"));
+        assertTrue(compaction.compactedTokens() <= 200);
+        assertTrue(compaction.tokensSaved() > 0);
+    }
+
+    @Test
+    @DisplayName("Deve respeitar o orçamento priorizando as linhas com termos do documento")
+    void shouldEnforceBudget() {
+        StringBuilder text = new StringBuilder("Linha digitável 23790.12345 60000.000003 00000.000000 1 99990000012345\n");
+        for (int i = 0; i < 500; i++) {
+            text.append("Item ").append(i).append(" quantidade 1 preço ").append(i).append(",00\n");
+        }
+
+        PromptCompactor.Compaction compaction = PromptCompactor.compact(text.toString(), ExpenseType.BOLETO, 100, 2);
+
+        assertTrue(compaction.compactedTokens() <= 100);
+        assertTrue(compaction.text().startsWith("Linha digitável"));
+        assertEquals(PromptCompactor.estimateTokens(text), compaction.originalTokens());
+    }
+
+    @Test
+    @DisplayName("Deve reaproveitar o índice do texto e ignorar o índice de outro texto")
+    void shouldReuseTokenIndexOfSameText() {
+        StringBuilder builder = new StringBuilder("Linha digitável 23790.12345 60000.000003 00000.000000 1 99990000012345\n");
+        for (int i = 0; i < 500; i++) {
+            builder.append("Item ").append(i).append(" quantidade 1 preço ").append(i).append(",00\n");
+        }
+        String text = builder.toString();
+        String expected = PromptCompactor.compact(text, ExpenseType.BOLETO, 100, 2).text();
+
+        assertEquals(expected, PromptCompactor.compact(text, TokenIndex.of(text), ExpenseType.BOLETO, 100, 2).text());
+        assertEquals(expected, PromptCompactor.compact(text, TokenIndex.of("Vencimento 10/11/2026"), ExpenseType.BOLETO, 100, 2).text());
+    }
+}
@@ -0,0 +1,79 @@
+package br.com.groupsoftware.grouppay.extratoremail.util.document;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeWriter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para QrCodeUtil
+ *
+ * Testa a leitura de QR Codes em imagens geradas:
+ * - QR Code em imagem em tons de cinza e colorida
+ * - Dois QR Codes na mesma página
+ * - Imagem sem QR Code
+ */
+@DisplayName("QrCodeUtil - Testes Unitários")
+class QrCodeUtilTest {
+
+    private static final String NFCE = "https://www.fazenda.sp.gov.br/nfce/qrcode?p=35250111222333000181650010000123451123456780|2|1|1|ABCDEF";
+    private static final String PIX = "00020126360014BR.GOV.BCB.PIX0114112223330001815204000053039865406123.455802BR5904ACME6009SAO PAULO62070503***6304ABCD";
+    private static final int SIZE = 200;
+    private static final int MARGIN = 40;
+
+    private static BufferedImage page(int imageType, String... contents) throws WriterException {
+        BufferedImage image = new BufferedImage(MARGIN + contents.length * (SIZE + MARGIN), SIZE + 2 * MARGIN, imageType);
+        for (int x = 0; x < image.getWidth(); x++) {
+            for (int y = 0; y < image.getHeight(); y++) {
+                image.setRGB(x, y, 0xFFFFFF);
+            }
+        }
+        for (int i = 0; i < contents.length; i++) {
+            BitMatrix matrix = new QRCodeWriter().encode(contents[i], BarcodeFormat.QR_CODE, SIZE, SIZE);
+            int left = MARGIN + i * (SIZE + MARGIN);
+            for (int x = 0; x < SIZE; x++) {
+                for (int y = 0; y < SIZE; y++) {
+                    if (matrix.get(x, y)) {
+                        image.setRGB(left + x, MARGIN + y, 0);
+                    }
+                }
+            }
+        }
+        return image;
+    }
+
+    @Test
+    @DisplayName("Deve ler o QR Code de imagem em tons de cinza")
+    void deveLerQrCodeEmTonsDeCinza() throws WriterException {
+        assertEquals(List.of(NFCE), QrCodeUtil.find(page(BufferedImage.TYPE_BYTE_GRAY, NFCE)));
+    }
+
+    @Test
+    @DisplayName("Deve ler o QR Code de imagem colorida")
+    void deveLerQrCodeColorido() throws WriterException {
+        assertEquals(List.of(PIX), QrCodeUtil.find(page(BufferedImage.TYPE_INT_RGB, PIX)));
+    }
+
+    @Test
+    @DisplayName("Deve ler os dois QR Codes da mesma página")
+    void deveLerDoisQrCodes() throws WriterException {
+        List<String> found = QrCodeUtil.find(page(BufferedImage.TYPE_BYTE_GRAY, NFCE, PIX));
+
+        assertEquals(2, found.size());
+        assertTrue(found.containsAll(List.of(NFCE, PIX)));
+    }
+
+    @Test
+    @DisplayName("Deve retornar vazio para imagem sem QR Code")
+    void deveRetornarVazioSemQrCode() throws WriterException {
+        assertTrue(QrCodeUtil.find(page(BufferedImage.TYPE_BYTE_GRAY)).isEmpty());
+        assertTrue(QrCodeUtil.find(null).isEmpty());
+    }
+}
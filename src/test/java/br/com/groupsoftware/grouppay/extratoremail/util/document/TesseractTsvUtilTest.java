@@ -0,0 +1,48 @@
+package br.com.groupsoftware.grouppay.extratoremail.util.document;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para TesseractTsvUtil
+ *
+ * Testa a interpretação da saída TSV do Tesseract:
+ * - Reconstrução do texto por linha
+ * - Cálculo da confiança média ignorando elementos sem texto
+ */
+@DisplayName("TesseractTsvUtil - Testes Unitários")
+class TesseractTsvUtilTest {
+
+    private static final String HEADER = "level\tpage_num\tblock_num\tpar_num\tline_num\tword_num\tleft\ttop\twidth\theight\tconf\ttext";
+
+    @Test
+    @DisplayName("Deve reconstruir as linhas e calcular a confiança média das palavras")
+    void shouldRebuildLinesAndMeanConfidence() {
+        String tsv = String.join("\n",
+                HEADER,
+                "1\t1\t0\t0\t0\t0\t0\t0\t2480\t3508\t-1\t",
+                "4\t1\t1\t1\t1\t0\t100\t100\t500\t40\t-1\t",
+                "5\t1\t1\t1\t1\t1\t100\t100\t100\t40\t90.5\tVencimento",
+                "5\t1\t1\t1\t1\t2\t210\t100\t100\t40\t80.5\t10/10/2025",
+                "5\t1\t1\t1\t2\t1\t100\t150\t100\t40\t70\tCNPJ",
+                "5\t1\t1\t1\t2\t2\t210\t150\t100\t40\t-1\t ");
+
+        TesseractTsvUtil.TsvResult result = TesseractTsvUtil.parse(tsv);
+
+        assertEquals("Vencimento 10/10/2025\nCNPJ", result.text());
+        assertEquals(3, result.wordCount());
+        assertEquals(80.333, result.meanConfidence(), 0.01);
+    }
+
+    @Test
+    @DisplayName("Deve retornar resultado vazio para saída vazia")
+    void shouldReturnEmptyResultForBlankOutput() {
+        TesseractTsvUtil.TsvResult result = TesseractTsvUtil.parse("");
+
+        assertEquals("", result.text());
+        assertEquals(0, result.wordCount());
+        assertEquals(0, result.meanConfidence());
+    }
+}
@@ -0,0 +1,81 @@
+package br.com.groupsoftware.grouppay.extratoremail.util.extractor;
+
+import br.com.groupsoftware.grouppay.extratoremail.domain.enums.ExpenseType;
+import br.com.groupsoftware.grouppay.extratoremail.domain.model.ExpenseNF;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para ExpenseCompleteness
+ *
+ * Testa a avaliação dos campos obrigatórios:
+ * - Despesa completa, sem campos faltantes
+ * - Campos com dígitos verificadores inválidos contam como faltantes
+ * - Destinatário dispensado quando não exigido
+ * - Despesa nula com todos os campos faltantes
+ */
+@DisplayName("ExpenseCompleteness - Testes Unitários")
+class ExpenseCompletenessTest {
+
+    @Test
+    @DisplayName("Deve considerar completa a nota com todos os campos confiáveis")
+    void shouldAcceptCompleteInvoice() {
+        ExpenseNF nf = completeInvoice();
+
+        assertTrue(ExpenseCompleteness.missingFields(nf, ExpenseType.NFE).isEmpty());
+        assertEquals(1.0, ExpenseCompleteness.score(nf, ExpenseType.NFE));
+    }
+
+    @Test
+    @DisplayName("Deve apontar campos ausentes ou com dígitos verificadores inválidos")
+    void shouldReportUnreliableFields() {
+        ExpenseNF nf = completeInvoice();
+        nf.setCnpjCpfEmitente("11.222.333/0001-82");
+        nf.setChaveAcesso("35250111222333000181550010000123451123456784");
+        nf.setEmitente("null");
+
+        nf.setCnpjCpfDestinatario("98.765.432/0001-99");
+
+        assertEquals(Set.of("emitente", "cnpjCpfEmitente", "cnpjCpfDestinatario", "chaveAcesso"),
+                ExpenseCompleteness.missingFields(nf, ExpenseType.NFE));
+        assertEquals(3.0 / 7, ExpenseCompleteness.score(nf, ExpenseType.NFE), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Não deve cobrar o destinatário quando ele não for exigido")
+    void shouldSkipRecipientWhenNotRequired() {
+        ExpenseNF nf = completeInvoice();
+        nf.setCnpjCpfDestinatario(null);
+
+        assertEquals(Set.of("cnpjCpfDestinatario"), ExpenseCompleteness.missingFields(nf, ExpenseType.NFE));
+        assertTrue(ExpenseCompleteness.missingFields(nf, ExpenseType.NFE, false).isEmpty());
+        assertEquals(1.0, ExpenseCompleteness.score(nf, ExpenseType.NFE, false));
+    }
+
+    @Test
+    @DisplayName("Deve considerar todos os campos faltantes em despesa nula")
+    void shouldReportAllFieldsForNullExpense() {
+        assertEquals(List.copyOf(ExpenseCompleteness.missingFields(null, ExpenseType.BOLETO)),
+                ExpenseCompleteness.requiredFields(ExpenseType.BOLETO));
+        assertEquals(0.0, ExpenseCompleteness.score(null, ExpenseType.BOLETO));
+    }
+
+    private ExpenseNF completeInvoice() {
+        ExpenseNF nf = new ExpenseNF();
+        nf.setDataEmissao(LocalDate.now().minusDays(3));
+        nf.setValorTotal(new BigDecimal("1250.40"));
+        nf.setEmitente("Empresa Exemplo Ltda");
+        nf.setCnpjCpfEmitente("11222333000181");
+        nf.setCnpjCpfDestinatario("98.765.432/0001-98");
+        nf.setNumero("12345");
+        nf.setChaveAcesso("3525 0111 2223 3300 0181 5500 1000 0123 4511 2345 6783");
+        return nf;
+    }
+}
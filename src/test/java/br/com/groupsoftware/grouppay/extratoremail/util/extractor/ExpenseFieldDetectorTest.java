@@ -0,0 +1,91 @@
+package br.com.groupsoftware.grouppay.extratoremail.util.extractor;
+
+import br.com.groupsoftware.grouppay.extratoremail.domain.enums.ExpenseType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para ExpenseFieldDetector
+ *
+ * Testa a detecção incremental por página, incluindo:
+ * - Emitente pela chave de acesso, pelo rótulo e pelo primeiro CNPJ válido
+ * - Troca do emitente quando uma página seguinte traz uma origem mais confiável
+ * - Identificação do tipo com termo quebrado entre páginas
+ * - Tipo mantido depois de identificado
+ */
+@DisplayName("ExpenseFieldDetector - Testes Unitários")
+class ExpenseFieldDetectorTest {
+
+    private static final String CHAVE = "3525 0111 2223 3300 0181 5500 1000 0123 4511 2345 6783";
+    private static final String CNPJ_EMITENTE = "11222333000181";
+
+    @Test
+    @DisplayName("Deve preferir o emitente da chave de acesso ao primeiro CNPJ do texto")
+    void devePreferirEmitenteDaChave() {
+        ExpenseFieldDetector detector = new ExpenseFieldDetector();
+
+        detector.accept("DANFE\nDestinatário CONDOMINIO 98.765.432/0001-98\nChave de acesso " + CHAVE);
+
+        assertEquals(CNPJ_EMITENTE, detector.getIssuerCnpj());
+    }
+
+    @Test
+    @DisplayName("Deve preferir o CNPJ junto ao rótulo de emitente")
+    void devePreferirCnpjRotulado() {
+        ExpenseFieldDetector detector = new ExpenseFieldDetector();
+
+        detector.accept("Tomador: CONDOMINIO CNPJ 98.765.432/0001-98\nPrestador de serviços: ACME CNPJ 11.222.333/0001-81");
+
+        assertEquals(CNPJ_EMITENTE, detector.getIssuerCnpj());
+    }
+
+    @Test
+    @DisplayName("Deve preferir o primeiro CNPJ com dígitos verificadores válidos")
+    void devePreferirCnpjValido() {
+        ExpenseFieldDetector detector = new ExpenseFieldDetector();
+
+        detector.accept("Inscrição 11.111.111/1111-11\nACME 11.222.333/0001-81");
+
+        assertEquals(CNPJ_EMITENTE, detector.getIssuerCnpj());
+    }
+
+    @Test
+    @DisplayName("Deve trocar o emitente quando a chave de acesso aparecer em página seguinte")
+    void deveTrocarEmitentePelaChaveEmPaginaSeguinte() {
+        ExpenseFieldDetector detector = new ExpenseFieldDetector();
+
+        detector.accept("DANFE\nDestinatário CONDOMINIO 98.765.432/0001-98");
+        assertEquals("98765432000198", detector.getIssuerCnpj());
+
+        detector.accept("Chave de acesso " + CHAVE);
+        assertEquals(CNPJ_EMITENTE, detector.getIssuerCnpj());
+
+        detector.accept("Emitente OUTRA EMPRESA 98.765.432/0001-98");
+        assertEquals(CNPJ_EMITENTE, detector.getIssuerCnpj());
+    }
+
+    @Test
+    @DisplayName("Deve identificar o tipo com o termo quebrado entre páginas")
+    void deveIdentificarTipoEntrePaginas() {
+        ExpenseFieldDetector detector = new ExpenseFieldDetector();
+
+        detector.accept("Recibo do pagador ".repeat(20) + "Linha");
+        assertEquals(ExpenseType.OUTRO, detector.getExpenseType());
+
+        detector.accept("Digitável 34191.09123 34567.812341 56789.012301 9 10160000123456");
+        assertEquals(ExpenseType.BOLETO, detector.getExpenseType());
+    }
+
+    @Test
+    @DisplayName("Deve manter o tipo identificado nas páginas seguintes")
+    void deveManterTipoIdentificado() {
+        ExpenseFieldDetector detector = new ExpenseFieldDetector();
+
+        detector.accept("Boleto de pagamento\nVencimento 10/03/2025 Valor 1.234,56");
+        detector.accept("NFS-e 123 referente ao serviço");
+
+        assertEquals(ExpenseType.BOLETO, detector.getExpenseType());
+    }
+}
@@ -0,0 +1,84 @@
+package br.com.groupsoftware.grouppay.extratoremail.util.extractor;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para PatternRegistry
+ *
+ * Testa o registro compartilhado de padrões compilados, incluindo:
+ * - Reutilização do padrão pela chave expressão + flags
+ * - Remoção do padrão menos usado acima do tamanho máximo
+ * - Invalidação de todos os padrões após alteração na tabela tb_regex
+ */
+@DisplayName("PatternRegistry - Testes Unitários")
+class PatternRegistryTest {
+
+    private static final int DEFAULT_MAX_SIZE = 512;
+
+    @BeforeEach
+    void setUp() {
+        PatternRegistry.invalidateAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        // O registro é estático: restaura o tamanho padrão para os demais testes
+        PatternRegistry.setMaxSize(DEFAULT_MAX_SIZE);
+        PatternRegistry.invalidateAll();
+    }
+
+    @Test
+    @DisplayName("Deve reutilizar o padrão compilado pela expressão e pelas flags")
+    void deveReutilizarPadrao() {
+        long hits = PatternRegistry.hitCount();
+        long misses = PatternRegistry.missCount();
+
+        Pattern pattern = PatternRegistry.compile("CNPJ[:\\s]*([0-9./-]+)");
+
+        assertSame(pattern, PatternRegistry.compile("CNPJ[:\\s]*([0-9./-]+)"));
+        // Mesma expressão com outras flags é outro padrão
+        Pattern insensitive = PatternRegistry.compile("CNPJ[:\\s]*([0-9./-]+)", Pattern.CASE_INSENSITIVE);
+        assertNotSame(pattern, insensitive);
+        assertEquals(Pattern.CASE_INSENSITIVE, insensitive.flags());
+
+        assertEquals(1, PatternRegistry.hitCount() - hits);
+        assertEquals(2, PatternRegistry.missCount() - misses);
+        assertEquals(2, PatternRegistry.size());
+    }
+
+    @Test
+    @DisplayName("Deve remover o padrão menos usado acima do tamanho máximo")
+    void deveRemoverPadraoMenosUsado() {
+        PatternRegistry.setMaxSize(2);
+        long evictions = PatternRegistry.evictionCount();
+        Pattern first = PatternRegistry.compile("a+");
+        Pattern second = PatternRegistry.compile("b+");
+        // O acesso torna "a+" o padrão mais recente
+        PatternRegistry.compile("a+");
+
+        PatternRegistry.compile("c+");
+
+        assertEquals(2, PatternRegistry.size());
+        assertEquals(1, PatternRegistry.evictionCount() - evictions);
+        assertSame(first, PatternRegistry.compile("a+"));
+        assertNotSame(second, PatternRegistry.compile("b+"));
+    }
+
+    @Test
+    @DisplayName("Deve compilar novamente após invalidar todos os padrões")
+    void deveCompilarAposInvalidar() {
+        Pattern pattern = PatternRegistry.compile("Vencimento[:\\s]*(\\d{2}/\\d{2}/\\d{4})");
+
+        PatternRegistry.invalidateAll();
+
+        assertEquals(0, PatternRegistry.size());
+        assertNotSame(pattern, PatternRegistry.compile("Vencimento[:\\s]*(\\d{2}/\\d{2}/\\d{4})"));
+    }
+}
@@ -0,0 +1,77 @@
+package br.com.groupsoftware.grouppay.extratoremail.util.extractor;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.MatchResult;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para SafeRegex
+ *
+ * Testa a execução limitada de expressões regulares:
+ * - Resultados iguais aos do Matcher em buscas comuns
+ * - Interrupção de padrões com retrocesso catastrófico
+ * - Nome da busca repassado às métricas no lugar do texto da expressão
+ */
+@DisplayName("SafeRegex - Testes Unitários")
+class SafeRegexTest {
+
+    @Test
+    @DisplayName("Deve encontrar as ocorrências como o Matcher")
+    void shouldFindLikeMatcher() {
+        Pattern pattern = Pattern.compile("Cedente[:\\s]*.*?([0-9./-]{11,20})", Pattern.DOTALL);
+        String text = "Cedente:\nEmpresa Exemplo\n11.222.333/0001-81\nCedente: 123.456.789-09";
+
+        List<MatchResult> found = SafeRegex.findAll(pattern, text);
+
+        assertEquals(2, found.size());
+        assertEquals("11.222.333/0001-81", found.get(0).group(1));
+        assertEquals("123.456.789-09", SafeRegex.findAll(pattern, text).get(1).group(1));
+        assertEquals("11.222.333/0001-81", SafeRegex.find(pattern, text).orElseThrow().group(1));
+        assertTrue(SafeRegex.find(pattern, null).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve registrar buscas sem nome como unnamed")
+    void shouldRecordUnnamedSearches() {
+        AtomicReference<String> name = new AtomicReference<>();
+        SafeRegex.setRecorder((searchName, pattern, nanos, aborted) -> name.set(searchName));
+        try {
+            SafeRegex.find(Pattern.compile("\\d+"), "Valor 10");
+
+            assertEquals(SafeRegex.UNNAMED, name.get());
+        } finally {
+            SafeRegex.setRecorder((searchName, pattern, nanos, aborted) -> {
+            });
+        }
+    }
+
+    @Test
+    @DisplayName("Deve interromper padrões com retrocesso catastrófico")
+    void shouldAbortCatastrophicBacktracking() {
+        AtomicBoolean exceeded = new AtomicBoolean();
+        AtomicReference<String> name = new AtomicReference<>();
+        SafeRegex.setRecorder((searchName, pattern, nanos, aborted) -> {
+            name.set(searchName);
+            exceeded.set(aborted);
+        });
+        try {
+            long startedAt = System.nanoTime();
+
+            assertTrue(SafeRegex.find("teste.retrocesso", Pattern.compile(".*.*x", Pattern.DOTALL), "a".repeat(4_000)).isEmpty());
+
+            assertTrue(exceeded.get());
+            assertEquals("teste.retrocesso", name.get());
+            assertTrue(System.nanoTime() - startedAt < 5_000_000_000L);
+        } finally {
+            SafeRegex.setRecorder((searchName, pattern, nanos, aborted) -> {
+            });
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package br.com.groupsoftware.grouppay.extratoremail.util.extractor;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Benchmark JMH do TokenIndex contra as varreduras por expressão regular que ele substituiu nos extratores.
+ * <p>
+ * Cada extrator consultava menor data, maior valor, primeiro CNPJ e código de barras varrendo o texto uma vez
+ * por consulta. {@code extractors} simula quantos extratores consultam o mesmo documento: as varreduras se
+ * repetem a cada um, enquanto o índice é montado uma vez e apenas consultado.
+ * </p>
+ * <p>
+ * Execução: {@code mvn test-compile} e {@code main} desta classe com o classpath de teste.
+ * </p>
+ *
+ * @author Marco Willy
+ * @version 1.0
+ * @since 2025
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenIndexBenchmark {
+
+    private static final Pattern DATE = Pattern.compile("(\\d{2}/\\d{2}/\\d{4})");
+    private static final Pattern AMOUNT = Pattern.compile("([0-9]{1,3}(?:\\.[0-9]{3})*,[0-9]{2})");
+    private static final Pattern CNPJ = Pattern.compile("(\\d{2}[.\\-]?\\d{3}[.\\-]?\\d{3}[/\\-]?\\d{4}[\\-/]?\\d{2})");
+    private static final Pattern BARCODE = Pattern.compile("([0-9\\s]{44,50})");
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    // Cerca de 20 KB de texto
+    private static final int PAGES = 40;
+    private static final String PAGE = String.join("\n",
+            "Beneficiário: ACME COMERCIO LTDA CNPJ 11.222.333/0001-81",
+            "Pagador: CONDOMINIO EDIFICIO CENTRAL CNPJ 98.765.432/0001-98",
+            "Data do documento 05/01/2025 Vencimento 20/01/2025 Processamento 06/01/2025",
+            "Valor do documento 1.234,56 Desconto 10,00 Juros 0,00 Valor cobrado 1.224,56",
+            "Nosso número 109/00012345-6 Agência/Código 1234/56789-0 Carteira 109",
+            "Linha digitável 34191.09123 34567.812341 56789.012301 9 10160000123456",
+            "34191 09123 34567 81234 15678 90123 01910 16000 0123456",
+            "Autenticação mecânica - Ficha de compensação");
+
+    @Param({"1", "3"})
+    private int extractors;
+
+    private String text;
+
+    @Setup
+    public void setUp() {
+        text = (PAGE + "\n").repeat(PAGES);
+    }
+
+    @Benchmark
+    public void tokenIndex(Blackhole blackhole) {
+        TokenIndex tokens = TokenIndex.of(text);
+        for (int i = 0; i < extractors; i++) {
+            blackhole.consume(tokens.earliestDate().orElse(null));
+            blackhole.consume(tokens.largestAmount().orElse(null));
+            blackhole.consume(tokens.firstCnpj().orElse(null));
+            blackhole.consume(tokens.numericWindows(44, 50));
+        }
+    }
+
+    @Benchmark
+    public void regexScans(Blackhole blackhole) {
+        for (int i = 0; i < extractors; i++) {
+            blackhole.consume(earliestDate(text));
+            blackhole.consume(largestAmount(text));
+            blackhole.consume(firstCnpj(text));
+            blackhole.consume(barcodes(text));
+        }
+    }
+
+    // Varreduras anteriores de ExpenseExtractor e dos extratores de guias e boletos
+
+    private static LocalDate earliestDate(String text) {
+        List<LocalDate> dates = new ArrayList<>();
+        Matcher matcher = DATE.matcher(text);
+        while (matcher.find()) {
+            try {
+                dates.add(LocalDate.parse(matcher.group(1), DATE_FORMAT));
+            } catch (Exception ignored) {
+            }
+        }
+        if (dates.isEmpty()) {
+            return null;
+        }
+        Collections.sort(dates);
+        return dates.get(0);
+    }
+
+    private static BigDecimal largestAmount(String text) {
+        List<BigDecimal> amounts = new ArrayList<>();
+        Matcher matcher = AMOUNT.matcher(text);
+        while (matcher.find()) {
+            try {
+                amounts.add(new BigDecimal(matcher.group(1).replaceAll("\\.", "").replace(",", ".")));
+            } catch (NumberFormatException ignored) {
+            }
+        }
+        return amounts.stream().max(BigDecimal::compareTo).orElse(null);
+    }
+
+    private static String firstCnpj(String text) {
+        Matcher matcher = CNPJ.matcher(text);
+        return matcher.find() ? matcher.group(1).replaceAll("\\D", "") : null;
+    }
+
+    private static List<String> barcodes(String text) {
+        List<String> barcodes = new ArrayList<>();
+        Matcher matcher = BARCODE.matcher(text);
+        while (matcher.find()) {
+            barcodes.add(matcher.group(1).replaceAll("\\s", ""));
+        }
+        return barcodes;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(TokenIndexBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,128 @@
+package br.com.groupsoftware.grouppay.extratoremail.util.extractor;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para TokenIndex
+ *
+ * Testa o índice de dados numéricos do texto:
+ * - Datas, valores e CNPJs com posição e valor convertido
+ * - Primeiro CNPJ/CPF válido diferente do emitente
+ * - Divisão das sequências numéricas igual à das expressões regulares
+ * - Equivalência com as expressões regulares substituídas em textos aleatórios
+ */
+@DisplayName("TokenIndex - Testes Unitários")
+class TokenIndexTest {
+
+    private static final Pattern DATE = Pattern.compile("\\d{2}/\\d{2}/\\d{4}");
+    private static final Pattern AMOUNT = Pattern.compile("[0-9]{1,3}(?:\\.[0-9]{3})*,[0-9]{2}");
+    private static final Pattern CNPJ = Pattern.compile("\\d{2}[.\\-]?\\d{3}[.\\-]?\\d{3}[/\\-]?\\d{4}[\\-/]?\\d{2}");
+
+    @Test
+    @DisplayName("Deve indexar datas, valores e CNPJs do texto")
+    void shouldIndexTokens() {
+        String text = "Emitente 11.222.333/0001-81 Emissão 05/01/2025 Vencimento 32/01/2025 20/01/2025\n"
+                + "Valor 1.234,56 Desconto 10,00 Tomador 11.111.111/1111-11";
+        TokenIndex index = TokenIndex.of(text);
+
+        assertEquals(List.of(LocalDate.of(2025, 1, 5), LocalDate.of(2025, 1, 20)),
+                index.dates().stream().map(TokenIndex.Token::value).toList());
+        assertEquals(LocalDate.of(2025, 1, 5), index.earliestDate().orElseThrow());
+        assertEquals(new BigDecimal("1234.56"), index.largestAmount().orElseThrow());
+        assertEquals(2, index.cnpjs().size());
+        assertTrue(index.cnpjs().get(0).value().valid());
+        assertFalse(index.cnpjs().get(1).value().valid());
+        assertEquals("11222333000181", index.firstCnpj().orElseThrow());
+        assertEquals(text.indexOf("05/01"), index.dates().get(0).start());
+        assertTrue(index.isIndexOf(text));
+        assertFalse(index.isIndexOf(new String(text)));
+    }
+
+    @Test
+    @DisplayName("Deve encontrar o primeiro CNPJ/CPF válido diferente do emitente fora de chaves e códigos")
+    void shouldFindFirstValidCnpjCpfExceptIssuer() {
+        String text = "Chave 3525 0111 2223 3300 0181 5500 1000 0123 4511 2345 6783\n"
+                + "Emitente 11.222.333/0001-81 Tomador 11.111.111/1111-11\n"
+                + "Pagador 529.982.247-25 Destinatário 98.765.432/0001-98";
+        TokenIndex index = TokenIndex.of(text);
+
+        assertEquals("52998224725", index.firstValidCnpjCpfExcept("11222333000181").orElseThrow());
+        assertEquals("11222333000181", index.firstValidCnpjCpfExcept(null).orElseThrow());
+        assertTrue(TokenIndex.of("Emitente 11.222.333/0001-81").firstValidCnpjCpfExcept("11222333000181").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve dividir as sequências numéricas como [0-9\\s]{min,max}")
+    void shouldSplitNumericRuns() {
+        String line = "3419179001 0104351004 7910201500 08112340000012345";
+        TokenIndex index = TokenIndex.of("Linha digitável:" + line + "|Pagador");
+
+        assertEquals(List.of("34191790010104351004791020150008112340000012345"), index.numericWindows(44, 50));
+        assertEquals(windows(Pattern.compile("[0-9\\s]{48,60}"), line), index.numericWindows(48, 60));
+        assertTrue(TokenIndex.of(null).numericWindows(44, 50).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve reproduzir as expressões regulares em textos aleatórios")
+    void shouldMatchRegexSemantics() {
+        Random random = new Random(42);
+        String alphabet = "0123456789012345678901012/0123456789./-, \nRa";
+        for (int round = 0; round < 2000; round++) {
+            StringBuilder text = new StringBuilder();
+            int length = random.nextInt(200);
+            for (int i = 0; i < length; i++) {
+                text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            String value = text.toString();
+            TokenIndex index = TokenIndex.of(value);
+
+            assertEquals(dates(value), index.dates().stream().map(TokenIndex.Token::value).toList(), value);
+            assertEquals(starts(AMOUNT, value), index.amounts().stream().map(TokenIndex.Token::start).toList(), value);
+            assertEquals(starts(CNPJ, value), index.cnpjs().stream().map(TokenIndex.Token::start).toList(), value);
+            assertEquals(windows(Pattern.compile("[0-9\\s]{44,50}"), value), index.numericWindows(44, 50), value);
+        }
+    }
+
+    private static List<Integer> starts(Pattern pattern, String text) {
+        List<Integer> starts = new ArrayList<>();
+        Matcher matcher = pattern.matcher(text);
+        while (matcher.find()) {
+            starts.add(matcher.start());
+        }
+        return starts;
+    }
+
+    private static List<LocalDate> dates(String text) {
+        List<LocalDate> dates = new ArrayList<>();
+        Matcher matcher = DATE.matcher(text);
+        while (matcher.find()) {
+            try {
+                dates.add(LocalDate.parse(matcher.group(), DateTimeFormatter.ofPattern("dd/MM/yyyy")));
+            } catch (DateTimeParseException ignored) {
+            }
+        }
+        return dates;
+    }
+
+    private static List<String> windows(Pattern pattern, String text) {
+        List<String> windows = new ArrayList<>();
+        Matcher matcher = pattern.matcher(text);
+        while (matcher.find()) {
+            windows.add(matcher.group().replaceAll("\\s", ""));
+        }
+        return windows;
+    }
+}